@@ -0,0 +1,42 @@
+package com.edgedb.benchmarks;
+
+import com.edgedb.driver.binary.builders.CodecBuilder;
+import com.edgedb.driver.binary.codecs.Codec;
+import com.edgedb.driver.clients.EdgeDBBinaryClient;
+import com.edgedb.driver.exceptions.EdgeDBException;
+import io.netty.buffer.ByteBuf;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@linkplain CodecBuilder#buildCodec(EdgeDBBinaryClient, UUID, ByteBuf)}, the descriptor parsing and codec
+ * lookup done for every query whose codecs aren't in the query codec cache. Codec parts are cached after the first
+ * build, so this reflects the steady state of a client seeing new queries over a known schema.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CodecBuilderBenchmark {
+    @Param({"flat_object.hex", "nested_object.hex"})
+    public String fixture;
+
+    private EdgeDBBinaryClient client;
+    private UUID id;
+    private ByteBuf descriptor;
+
+    @Setup
+    public void setup() {
+        client = Fixtures.createOfflineClient();
+
+        var fixtures = Fixtures.load(fixture);
+        id = fixtures.uuid("output-id");
+        descriptor = fixtures.buffer("output-descriptor");
+    }
+
+    @Benchmark
+    public Codec<?> buildCodec() throws EdgeDBException {
+        return CodecBuilder.buildCodec(client, id, descriptor.duplicate());
+    }
+}
@@ -0,0 +1,118 @@
+package com.edgedb.benchmarks;
+
+import com.edgedb.driver.EdgeDBClientConfig;
+import com.edgedb.driver.EdgeDBConnection;
+import com.edgedb.driver.clients.EdgeDBBinaryClient;
+import com.edgedb.driver.clients.EdgeDBTCPClient;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Loads the protocol fixtures found in {@code src/jmh/resources/fixtures}. A fixture file is hex text where {@code #}
+ * starts a comment and {@code @name} starts a named section; whitespace between bytes is ignored.
+ */
+public final class Fixtures {
+    private final @NotNull Map<String, byte[]> sections;
+
+    private Fixtures(@NotNull Map<String, byte[]> sections) {
+        this.sections = sections;
+    }
+
+    public static @NotNull Fixtures load(@NotNull String name) {
+        var stream = Fixtures.class.getResourceAsStream("/fixtures/" + name);
+
+        if(stream == null) {
+            throw new IllegalArgumentException("No fixture named " + name);
+        }
+
+        var sections = new HashMap<String, byte[]>();
+
+        try(var reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            String section = null;
+            var hex = new StringBuilder();
+            String line;
+
+            while((line = reader.readLine()) != null) {
+                line = line.trim();
+
+                if(line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                if(line.startsWith("@")) {
+                    if(section != null) {
+                        sections.put(section, decode(hex));
+                    }
+
+                    section = line.substring(1).trim();
+                    hex.setLength(0);
+                    continue;
+                }
+
+                hex.append(line.replaceAll("\\s+", ""));
+            }
+
+            if(section != null) {
+                sections.put(section, decode(hex));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return new Fixtures(sections);
+    }
+
+    public byte @NotNull [] get(@NotNull String section) {
+        var bytes = sections.get(section);
+
+        if(bytes == null) {
+            throw new IllegalArgumentException("No fixture section named " + section);
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Gets a section as a read-only buffer; callers {@linkplain ByteBuf#duplicate() duplicate} it per invocation.
+     */
+    public @NotNull ByteBuf buffer(@NotNull String section) {
+        return Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(get(section)).asReadOnly());
+    }
+
+    public @NotNull UUID uuid(@NotNull String section) {
+        var buffer = buffer(section);
+        return new UUID(buffer.readLong(), buffer.readLong());
+    }
+
+    /**
+     * Creates a client that's never connected, it provides the protocol provider, codec caches and config used by
+     * the codecs.
+     */
+    public static @NotNull EdgeDBBinaryClient createOfflineClient() {
+        return new EdgeDBTCPClient(new EdgeDBConnection(), EdgeDBClientConfig.DEFAULT, null);
+    }
+
+    private static byte @NotNull [] decode(@NotNull CharSequence hex) {
+        if(hex.length() % 2 != 0) {
+            throw new IllegalArgumentException("Fixture section has an odd number of hex digits");
+        }
+
+        var bytes = new byte[hex.length() / 2];
+
+        for(int i = 0; i != bytes.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(hex.subSequence(i * 2, i * 2 + 2).toString(), 16);
+        }
+
+        return bytes;
+    }
+}
@@ -0,0 +1,77 @@
+package com.edgedb.benchmarks;
+
+import com.edgedb.driver.binary.builders.CodecBuilder;
+import com.edgedb.driver.binary.builders.ObjectBuilder;
+import com.edgedb.driver.binary.codecs.Codec;
+import com.edgedb.driver.clients.EdgeDBBinaryClient;
+import com.edgedb.driver.exceptions.EdgeDBException;
+import io.netty.buffer.ByteBuf;
+import org.openjdk.jmh.annotations.*;
+
+import javax.naming.OperationNotSupportedException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures materializing a Data element into result objects through {@linkplain ObjectBuilder}, covering the object
+ * codec, type visitor and {@linkplain com.edgedb.driver.binary.builders.types.TypeDeserializerInfo} paths. The codecs
+ * are built from the output descriptors in {@code fixtures/flat_object.hex} and {@code fixtures/nested_object.hex}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ObjectMaterializationBenchmark {
+    private EdgeDBBinaryClient client;
+
+    private Codec<?> flatCodec;
+    private ByteBuf flatData;
+
+    private Codec<?> nestedCodec;
+    private ByteBuf nestedData;
+
+    @Setup
+    public void setup() throws EdgeDBException {
+        client = Fixtures.createOfflineClient();
+
+        var flat = Fixtures.load("flat_object.hex");
+        flatCodec = CodecBuilder.buildCodec(client, flat.uuid("output-id"), flat.buffer("output-descriptor"));
+        flatData = flat.buffer("data");
+
+        var nested = Fixtures.load("nested_object.hex");
+        nestedCodec = CodecBuilder.buildCodec(client, nested.uuid("output-id"), nested.buffer("output-descriptor"));
+        nestedData = nested.buffer("data");
+    }
+
+    private <T> T build(Codec<?> codec, ByteBuf data, Class<T> cls) throws EdgeDBException, OperationNotSupportedException {
+        return ObjectBuilder.buildResult(client, codec, data.duplicate(), cls);
+    }
+
+    @Benchmark
+    public Object flatDynamic() throws EdgeDBException, OperationNotSupportedException {
+        return build(flatCodec, flatData, Object.class);
+    }
+
+    @Benchmark
+    public Shapes.FlatPerson flatFields() throws EdgeDBException, OperationNotSupportedException {
+        return build(flatCodec, flatData, Shapes.FlatPerson.class);
+    }
+
+    @Benchmark
+    public Shapes.ImmutableFlatPerson flatConstructor() throws EdgeDBException, OperationNotSupportedException {
+        return build(flatCodec, flatData, Shapes.ImmutableFlatPerson.class);
+    }
+
+    @Benchmark
+    public Object nestedDynamic() throws EdgeDBException, OperationNotSupportedException {
+        return build(nestedCodec, nestedData, Object.class);
+    }
+
+    @Benchmark
+    public Shapes.Person nestedFields() throws EdgeDBException, OperationNotSupportedException {
+        return build(nestedCodec, nestedData, Shapes.Person.class);
+    }
+
+    @Benchmark
+    public Shapes.ImmutablePerson nestedConstructor() throws EdgeDBException, OperationNotSupportedException {
+        return build(nestedCodec, nestedData, Shapes.ImmutablePerson.class);
+    }
+}
@@ -0,0 +1,171 @@
+package com.edgedb.benchmarks;
+
+import com.edgedb.driver.binary.PacketReader;
+import com.edgedb.driver.binary.protocol.common.Cardinality;
+import com.edgedb.driver.binary.protocol.common.descriptors.ShapeElementFlags;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.joou.UInteger;
+import org.joou.UShort;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@linkplain PacketReader} primitives by reading {@link #COUNT} values per operation out of a
+ * pre-filled buffer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(PacketReaderBenchmark.COUNT)
+public class PacketReaderBenchmark {
+    public static final int COUNT = 1024;
+
+    private ByteBuf int16s;
+    private ByteBuf int32s;
+    private ByteBuf int64s;
+    private ByteBuf doubles;
+    private ByteBuf uuids;
+    private ByteBuf strings;
+    private ByteBuf cardinalities;
+    private ByteBuf flags;
+
+    @Setup
+    public void setup() {
+        var name = "default::Person".getBytes(StandardCharsets.UTF_8);
+        var cardinality = Cardinality.values();
+
+        int16s = Unpooled.directBuffer(COUNT * 2);
+        int32s = Unpooled.directBuffer(COUNT * 4);
+        int64s = Unpooled.directBuffer(COUNT * 8);
+        doubles = Unpooled.directBuffer(COUNT * 8);
+        uuids = Unpooled.directBuffer(COUNT * 16);
+        strings = Unpooled.directBuffer(COUNT * (4 + name.length));
+        cardinalities = Unpooled.directBuffer(COUNT);
+        flags = Unpooled.directBuffer(COUNT * 4);
+
+        for(int i = 0; i != COUNT; i++) {
+            int16s.writeShort(i);
+            int32s.writeInt(i * 31);
+            int64s.writeLong(i * 0x9E3779B97F4A7C15L);
+            doubles.writeDouble(i * 0.5d);
+            uuids.writeLong(i).writeLong(~i);
+            strings.writeInt(name.length).writeBytes(name);
+            cardinalities.writeByte(cardinality[i % cardinality.length].getValue());
+            flags.writeInt(i % 8);
+        }
+    }
+
+    @TearDown
+    public void teardown() {
+        int16s.release();
+        int32s.release();
+        int64s.release();
+        doubles.release();
+        uuids.release();
+        strings.release();
+        cardinalities.release();
+        flags.release();
+    }
+
+    private static PacketReader reader(ByteBuf buffer) {
+        return new PacketReader(buffer.readerIndex(0));
+    }
+
+    @Benchmark
+    public void readInt16(Blackhole blackhole) {
+        var reader = reader(int16s);
+
+        for(int i = 0; i != COUNT; i++) {
+            blackhole.consume(reader.readInt16());
+        }
+    }
+
+    @Benchmark
+    public void readUInt16(Blackhole blackhole) {
+        var reader = reader(int16s);
+
+        for(int i = 0; i != COUNT; i++) {
+            UShort value = reader.readUInt16();
+            blackhole.consume(value);
+        }
+    }
+
+    @Benchmark
+    public void readInt32(Blackhole blackhole) {
+        var reader = reader(int32s);
+
+        for(int i = 0; i != COUNT; i++) {
+            blackhole.consume(reader.readInt32());
+        }
+    }
+
+    @Benchmark
+    public void readUInt32(Blackhole blackhole) {
+        var reader = reader(int32s);
+
+        for(int i = 0; i != COUNT; i++) {
+            UInteger value = reader.readUInt32();
+            blackhole.consume(value);
+        }
+    }
+
+    @Benchmark
+    public void readInt64(Blackhole blackhole) {
+        var reader = reader(int64s);
+
+        for(int i = 0; i != COUNT; i++) {
+            blackhole.consume(reader.readInt64());
+        }
+    }
+
+    @Benchmark
+    public void readDouble(Blackhole blackhole) {
+        var reader = reader(doubles);
+
+        for(int i = 0; i != COUNT; i++) {
+            blackhole.consume(reader.readDouble());
+        }
+    }
+
+    @Benchmark
+    public void readUUID(Blackhole blackhole) {
+        var reader = reader(uuids);
+
+        for(int i = 0; i != COUNT; i++) {
+            UUID value = reader.readUUID();
+            blackhole.consume(value);
+        }
+    }
+
+    @Benchmark
+    public void readString(Blackhole blackhole) {
+        var reader = reader(strings);
+
+        for(int i = 0; i != COUNT; i++) {
+            blackhole.consume(reader.readString());
+        }
+    }
+
+    @Benchmark
+    public void readEnum(Blackhole blackhole) {
+        var reader = reader(cardinalities);
+
+        for(int i = 0; i != COUNT; i++) {
+            blackhole.consume(reader.readEnum(Cardinality.class, Byte.TYPE));
+        }
+    }
+
+    @Benchmark
+    public void readEnumSet(Blackhole blackhole) {
+        var reader = reader(flags);
+
+        for(int i = 0; i != COUNT; i++) {
+            blackhole.consume(reader.readEnumSet(ShapeElementFlags.class, UInteger.class));
+        }
+    }
+}
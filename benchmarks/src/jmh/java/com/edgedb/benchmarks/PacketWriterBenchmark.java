@@ -0,0 +1,135 @@
+package com.edgedb.benchmarks;
+
+import com.edgedb.driver.binary.PacketWriter;
+import io.netty.buffer.ByteBuf;
+import org.joou.UInteger;
+import org.joou.UShort;
+import org.openjdk.jmh.annotations.*;
+
+import javax.naming.OperationNotSupportedException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the {@linkplain PacketWriter} primitives by writing {@link #COUNT} values per operation into a packet
+ * writer that's rewound between operations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(PacketWriterBenchmark.COUNT)
+public class PacketWriterBenchmark {
+    public static final int COUNT = 1024;
+
+    private static final String STRING = "default::Person";
+    private static final UUID ID = UUID.fromString("4a9c1f62-3c3f-11ee-9b8e-2bc3b4b1c1a0");
+    private static final UShort USHORT = UShort.valueOf(1234);
+    private static final UInteger UINT = UInteger.valueOf(123456);
+
+    private PacketWriter writer;
+
+    @Setup
+    public void setup() {
+        // large enough for COUNT of the widest value, a non-dynamic writer never resizes.
+        writer = new PacketWriter(COUNT * (4 + STRING.length()), false);
+    }
+
+    @TearDown
+    public void teardown() {
+        ByteBuf buffer = writer.getBuffer();
+        buffer.release();
+    }
+
+    private PacketWriter rewind() {
+        writer.seek(0);
+        return writer;
+    }
+
+    @Benchmark
+    public PacketWriter writeInt16() throws OperationNotSupportedException {
+        var writer = rewind();
+
+        for(int i = 0; i != COUNT; i++) {
+            writer.write((short) i);
+        }
+
+        return writer;
+    }
+
+    @Benchmark
+    public PacketWriter writeUInt16() throws OperationNotSupportedException {
+        var writer = rewind();
+
+        for(int i = 0; i != COUNT; i++) {
+            writer.write(USHORT);
+        }
+
+        return writer;
+    }
+
+    @Benchmark
+    public PacketWriter writeInt32() throws OperationNotSupportedException {
+        var writer = rewind();
+
+        for(int i = 0; i != COUNT; i++) {
+            writer.write(i);
+        }
+
+        return writer;
+    }
+
+    @Benchmark
+    public PacketWriter writeUInt32() throws OperationNotSupportedException {
+        var writer = rewind();
+
+        for(int i = 0; i != COUNT; i++) {
+            writer.write(UINT);
+        }
+
+        return writer;
+    }
+
+    @Benchmark
+    public PacketWriter writeInt64() throws OperationNotSupportedException {
+        var writer = rewind();
+
+        for(long i = 0; i != COUNT; i++) {
+            writer.write(i);
+        }
+
+        return writer;
+    }
+
+    @Benchmark
+    public PacketWriter writeDouble() throws OperationNotSupportedException {
+        var writer = rewind();
+
+        for(int i = 0; i != COUNT; i++) {
+            writer.write(i * 0.5d);
+        }
+
+        return writer;
+    }
+
+    @Benchmark
+    public PacketWriter writeUUID() throws OperationNotSupportedException {
+        var writer = rewind();
+
+        for(int i = 0; i != COUNT; i++) {
+            writer.write(ID);
+        }
+
+        return writer;
+    }
+
+    @Benchmark
+    public PacketWriter writeString() throws OperationNotSupportedException {
+        var writer = rewind();
+
+        for(int i = 0; i != COUNT; i++) {
+            writer.write(STRING);
+        }
+
+        return writer;
+    }
+}
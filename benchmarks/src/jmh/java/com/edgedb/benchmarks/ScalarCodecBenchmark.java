@@ -0,0 +1,100 @@
+package com.edgedb.benchmarks;
+
+import com.edgedb.driver.binary.PacketReader;
+import com.edgedb.driver.binary.PacketWriter;
+import com.edgedb.driver.binary.builders.CodecBuilder;
+import com.edgedb.driver.binary.codecs.Codec;
+import com.edgedb.driver.binary.codecs.CodecContext;
+import com.edgedb.driver.exceptions.EdgeDBException;
+import io.netty.buffer.ByteBuf;
+import org.openjdk.jmh.annotations.*;
+
+import javax.naming.OperationNotSupportedException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Map.entry;
+
+/**
+ * Measures deserializing and serializing each scalar codec, using the payloads in {@code fixtures/scalars.hex}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ScalarCodecBenchmark {
+    private static final Map<String, UUID> SCALAR_TYPES = Map.ofEntries(
+            entry("std::uuid", scalarId("100")),
+            entry("std::str", scalarId("101")),
+            entry("std::bytes", scalarId("102")),
+            entry("std::int16", scalarId("103")),
+            entry("std::int32", scalarId("104")),
+            entry("std::int64", scalarId("105")),
+            entry("std::float32", scalarId("106")),
+            entry("std::float64", scalarId("107")),
+            entry("std::decimal", scalarId("108")),
+            entry("std::bool", scalarId("109")),
+            entry("std::datetime", scalarId("10A")),
+            entry("cal::local_datetime", scalarId("10B")),
+            entry("cal::local_date", scalarId("10C")),
+            entry("cal::local_time", scalarId("10D")),
+            entry("std::duration", scalarId("10E")),
+            entry("std::json", scalarId("10F")),
+            entry("std::bigint", scalarId("110")),
+            entry("cal::relative_duration", scalarId("111")),
+            entry("cal::date_duration", scalarId("112")),
+            entry("cfg::memory", scalarId("130"))
+    );
+
+    @Param({
+            "std::uuid", "std::str", "std::bytes", "std::int16", "std::int32", "std::int64", "std::float32",
+            "std::float64", "std::decimal", "std::bool", "std::datetime", "cal::local_datetime", "cal::local_date",
+            "cal::local_time", "std::duration", "std::json", "std::bigint", "cal::relative_duration",
+            "cal::date_duration", "cfg::memory"
+    })
+    public String type;
+
+    private Codec<Object> codec;
+    private CodecContext context;
+    private ByteBuf payload;
+    private Object value;
+    private PacketWriter writer;
+
+    @SuppressWarnings("unchecked")
+    @Setup
+    public void setup() throws EdgeDBException, OperationNotSupportedException {
+        var client = Fixtures.createOfflineClient();
+
+        codec = (Codec<Object>) CodecBuilder.getCodec(client.getProtocolProvider(), SCALAR_TYPES.get(type));
+
+        if(codec == null) {
+            throw new IllegalStateException("No scalar codec for " + type);
+        }
+
+        context = new CodecContext(client);
+        payload = Fixtures.load("scalars.hex").buffer(type);
+        value = codec.deserialize(new PacketReader(payload.duplicate()), context);
+        writer = new PacketWriter(payload.readableBytes() * 2, false);
+    }
+
+    @TearDown
+    public void teardown() {
+        writer.getBuffer().release();
+    }
+
+    @Benchmark
+    public Object deserialize() throws EdgeDBException, OperationNotSupportedException {
+        return codec.deserialize(new PacketReader(payload.duplicate()), context);
+    }
+
+    @Benchmark
+    public PacketWriter serialize() throws EdgeDBException, OperationNotSupportedException {
+        writer.seek(0);
+        codec.serialize(writer, value, context);
+        return writer;
+    }
+
+    private static UUID scalarId(String suffix) {
+        return UUID.fromString("00000000-0000-0000-0000-000000000" + suffix);
+    }
+}
@@ -0,0 +1,120 @@
+package com.edgedb.benchmarks;
+
+import com.edgedb.driver.annotations.EdgeDBName;
+import com.edgedb.driver.annotations.EdgeDBType;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The result types the object fixtures are materialized into; each shape has a mutable variant populated through
+ * its fields and an immutable one built through its constructor.
+ */
+public final class Shapes {
+    private Shapes() {}
+
+    @EdgeDBType
+    public static final class FlatPerson {
+        public UUID id;
+        public String name;
+        public Integer age;
+        public String email;
+        public Double score;
+        @EdgeDBName("is_active")
+        public boolean isActive;
+        @EdgeDBName("created_at")
+        public OffsetDateTime createdAt;
+    }
+
+    @EdgeDBType
+    public static final class ImmutableFlatPerson {
+        private final UUID id;
+        private final String name;
+        private final Integer age;
+        private final String email;
+        private final Double score;
+        @EdgeDBName("is_active")
+        private final boolean isActive;
+        @EdgeDBName("created_at")
+        private final OffsetDateTime createdAt;
+
+        public ImmutableFlatPerson(
+                UUID id, String name, Integer age, String email, Double score, boolean isActive, OffsetDateTime createdAt
+        ) {
+            this.id = id;
+            this.name = name;
+            this.age = age;
+            this.email = email;
+            this.score = score;
+            this.isActive = isActive;
+            this.createdAt = createdAt;
+        }
+    }
+
+    @EdgeDBType
+    public static final class Person {
+        public UUID id;
+        public String name;
+        public Integer age;
+        public Address address;
+        public List<Friend> friends;
+    }
+
+    @EdgeDBType
+    public static final class Address {
+        public UUID id;
+        public String street;
+        public String city;
+    }
+
+    @EdgeDBType
+    public static final class Friend {
+        public UUID id;
+        public String name;
+        public Integer age;
+    }
+
+    @EdgeDBType
+    public static final class ImmutablePerson {
+        private final UUID id;
+        private final String name;
+        private final Integer age;
+        private final ImmutableAddress address;
+        private final List<ImmutableFriend> friends;
+
+        public ImmutablePerson(UUID id, String name, Integer age, ImmutableAddress address, List<ImmutableFriend> friends) {
+            this.id = id;
+            this.name = name;
+            this.age = age;
+            this.address = address;
+            this.friends = friends;
+        }
+    }
+
+    @EdgeDBType
+    public static final class ImmutableAddress {
+        private final UUID id;
+        private final String street;
+        private final String city;
+
+        public ImmutableAddress(UUID id, String street, String city) {
+            this.id = id;
+            this.street = street;
+            this.city = city;
+        }
+    }
+
+    @EdgeDBType
+    public static final class ImmutableFriend {
+        private final UUID id;
+        private final String name;
+        private final Integer age;
+
+        public ImmutableFriend(UUID id, String name, Integer age) {
+            this.id = id;
+            this.name = name;
+            this.age = age;
+        }
+    }
+}
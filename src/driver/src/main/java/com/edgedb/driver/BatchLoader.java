@@ -0,0 +1,43 @@
+package com.edgedb.driver;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Represents a loader of objects by key which collects the keys loaded within a short delay and looks them all up
+ * with a single query, instead of running a query for each.
+ * <br/><br/>
+ * The query of a loader takes the keys of a batch as an array argument, for instance
+ * {@code select User { name } filter .id in array_unpack(<array<uuid>>$ids)}, and returns the rows found. Each row is
+ * given back to the loads of its key; a key without a row loads {@code null}, and if the query fails every load of
+ * the batch fails with it. A key loaded several times within a batch is looked up once and its loads share the row.
+ * @param <K> The type of the keys.
+ * @param <V> The type of the loaded objects.
+ * @see EdgeDBClient#batchLoader(Class, Class, String, String, java.util.function.Function, BatchLoaderSettings)
+ */
+public interface BatchLoader<K, V> {
+    /**
+     * Loads the object with the specified key, as part of the next batch.
+     * @param key The key of the object.
+     * @return A {@linkplain CompletionStage} that represents the asynchronous lookup of the key. The result of the
+     * {@linkplain CompletionStage} is the object, or {@code null} if the query returned no row for the key.
+     */
+    CompletionStage<V> load(@NotNull K key);
+
+    /**
+     * Loads the objects with the specified keys, as part of the next batches.
+     * @param keys The keys of the objects.
+     * @return A {@linkplain CompletionStage} that represents the asynchronous lookup of the keys. The result of the
+     * {@linkplain CompletionStage} is the objects, in the order of their keys, with {@code null} for the keys the
+     * query returned no row for.
+     */
+    CompletionStage<List<V>> loadMany(@NotNull Collection<? extends K> keys);
+
+    /**
+     * Runs the batch collecting keys now, without waiting for its delay.
+     */
+    void dispatch();
+}
@@ -0,0 +1,101 @@
+package com.edgedb.driver;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+
+/**
+ * Represents the settings of a {@linkplain BatchLoader}.
+ * <br/><br/>
+ * A batch starts with the first key loaded after the previous batch ran, and runs once it waited for the batch delay
+ * or once it holds the maximum number of keys, whichever comes first.
+ * @see EdgeDBClient#batchLoader(Class, Class, String, String, java.util.function.Function, BatchLoaderSettings)
+ */
+public final class BatchLoaderSettings {
+    /**
+     * Gets a builder used to construct a {@linkplain BatchLoaderSettings}
+     * @return A new builder instance.
+     */
+    public static @NotNull Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets the default batch loader settings.
+     */
+    public static final @NotNull BatchLoaderSettings DEFAULT = new BatchLoaderSettings();
+
+    BatchLoaderSettings() { }
+
+    private Duration delay = Duration.ofMillis(2);
+    private int maxBatchSize = 100;
+
+    /**
+     * Gets how long a batch collects keys before its query runs. The default is 2ms.
+     * @return The batch delay.
+     */
+    public Duration getDelay() {
+        return delay;
+    }
+
+    /**
+     * Gets the most distinct keys a batch holds, a batch reaching it runs without waiting for the delay. The default
+     * is {@code 100}.
+     * @return The maximum batch size.
+     */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Represents a builder used to construct {@linkplain BatchLoaderSettings}.
+     * @see BatchLoaderSettings
+     */
+    public static final class Builder {
+        private Duration delay = DEFAULT.delay;
+        private int maxBatchSize = DEFAULT.maxBatchSize;
+
+        private Builder() {}
+
+        /**
+         * Sets how long a batch collects keys before its query runs.
+         * @param delay The value to set.
+         * @return The current builder.
+         * @exception IllegalArgumentException The delay is negative.
+         */
+        public @NotNull Builder withDelay(@NotNull Duration delay) {
+            if(delay.isNegative()) {
+                throw new IllegalArgumentException("Delay must not be negative");
+            }
+
+            this.delay = delay;
+            return this;
+        }
+
+        /**
+         * Sets the most distinct keys a batch holds.
+         * @param maxBatchSize The value to set.
+         * @return The current builder.
+         * @exception IllegalArgumentException The size is less than 1.
+         */
+        public @NotNull Builder withMaxBatchSize(int maxBatchSize) {
+            if(maxBatchSize <= 0) {
+                throw new IllegalArgumentException("Max batch size must be at least 1");
+            }
+
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * Constructs a new {@linkplain BatchLoaderSettings} from this builder.
+         * @return A {@linkplain BatchLoaderSettings} with the values specified in this builder.
+         */
+        public @NotNull BatchLoaderSettings build() {
+            BatchLoaderSettings settings = new BatchLoaderSettings();
+            settings.delay = this.delay;
+            settings.maxBatchSize = this.maxBatchSize;
+            return settings;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.edgedb.driver;
+
+import com.edgedb.driver.binary.builders.ObjectBuilder;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a factory that creates a collection type from the decoded elements of a set, array or multi-link. The
+ * driver uses the factory registered for the declared type of a field when deserializing into it.
+ * @param <T> The collection type this factory creates.
+ */
+@FunctionalInterface
+public interface CollectionFactory<T> {
+    /**
+     * Creates the collection from the decoded elements.
+     * @param elements The decoded elements, the array is not reused by the driver.
+     * @return A collection containing the elements.
+     */
+    T create(Object @NotNull [] elements);
+
+    /**
+     * Registers a factory for a collection type, replacing any existing factory for that type.
+     * @param cls The collection type the factory creates.
+     * @param factory The factory to use when deserializing into {@code cls}.
+     * @param <T> The collection type.
+     */
+    static <T> void register(@NotNull Class<T> cls, @NotNull CollectionFactory<T> factory) {
+        ObjectBuilder.registerCollectionFactory(cls, factory);
+    }
+}
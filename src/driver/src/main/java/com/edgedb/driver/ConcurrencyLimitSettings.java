@@ -0,0 +1,158 @@
+package com.edgedb.driver;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents the settings of the adaptive concurrency limit of a client pool.
+ * <br/><br/>
+ * The limit caps the number of queries in flight through the pool. It follows the latency of the queries: it grows
+ * while the latency stays close to its long term average, and shrinks, down to below the size of the pool, when the
+ * latency rises. Queries over the limit fail right away with a
+ * {@linkplain com.edgedb.driver.exceptions.ConcurrencyLimitExceededException} instead of waiting for a client.
+ * @see EdgeDBClientConfig.Builder#withConcurrencyLimit(ConcurrencyLimitSettings)
+ */
+public final class ConcurrencyLimitSettings {
+    /**
+     * Gets a builder used to construct a {@linkplain ConcurrencyLimitSettings}
+     * @return A new builder instance.
+     */
+    public static @NotNull Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets the default concurrency limit settings.
+     */
+    public static final @NotNull ConcurrencyLimitSettings DEFAULT = new ConcurrencyLimitSettings();
+
+    ConcurrencyLimitSettings() { }
+
+    private int initialLimit = 20;
+    private int minLimit = 1;
+    private int maxLimit;
+    private double tolerance = 2;
+
+    /**
+     * Gets the limit before any latency was observed. The default is {@code 20}.
+     * @return The initial limit.
+     */
+    public int getInitialLimit() {
+        return initialLimit;
+    }
+
+    /**
+     * Gets the lowest the limit can go. The default is {@code 1}.
+     * @return The minimum limit.
+     */
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    /**
+     * Gets the highest the limit can go, or {@code 0} for the size of the pool, which is the default.
+     * @return The maximum limit.
+     */
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    /**
+     * Gets how many times its long term average the latency can grow to before the limit shrinks. The default is
+     * {@code 2}.
+     * @return The latency tolerance.
+     */
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    /**
+     * Represents a builder used to construct {@linkplain ConcurrencyLimitSettings}.
+     * @see ConcurrencyLimitSettings
+     */
+    public static final class Builder {
+        private int initialLimit = DEFAULT.initialLimit;
+        private int minLimit = DEFAULT.minLimit;
+        private int maxLimit = DEFAULT.maxLimit;
+        private double tolerance = DEFAULT.tolerance;
+
+        private Builder() {}
+
+        /**
+         * Sets the limit before any latency was observed.
+         * @param initialLimit The value to set.
+         * @return The current builder.
+         * @exception IllegalArgumentException The value is less than 1.
+         */
+        public @NotNull Builder withInitialLimit(int initialLimit) {
+            if(initialLimit < 1) {
+                throw new IllegalArgumentException("Initial limit must be at least 1");
+            }
+
+            this.initialLimit = initialLimit;
+            return this;
+        }
+
+        /**
+         * Sets the lowest the limit can go.
+         * @param minLimit The value to set.
+         * @return The current builder.
+         * @exception IllegalArgumentException The value is less than 1.
+         */
+        public @NotNull Builder withMinLimit(int minLimit) {
+            if(minLimit < 1) {
+                throw new IllegalArgumentException("Minimum limit must be at least 1");
+            }
+
+            this.minLimit = minLimit;
+            return this;
+        }
+
+        /**
+         * Sets the highest the limit can go, or {@code 0} for the size of the pool.
+         * @param maxLimit The value to set.
+         * @return The current builder.
+         * @exception IllegalArgumentException The value is negative.
+         */
+        public @NotNull Builder withMaxLimit(int maxLimit) {
+            if(maxLimit < 0) {
+                throw new IllegalArgumentException("Maximum limit must not be negative");
+            }
+
+            this.maxLimit = maxLimit;
+            return this;
+        }
+
+        /**
+         * Sets how many times its long term average the latency can grow to before the limit shrinks.
+         * @param tolerance The value to set.
+         * @return The current builder.
+         * @exception IllegalArgumentException The value is less than 1.
+         */
+        public @NotNull Builder withTolerance(double tolerance) {
+            if(!(tolerance >= 1)) {
+                throw new IllegalArgumentException("Tolerance must be at least 1");
+            }
+
+            this.tolerance = tolerance;
+            return this;
+        }
+
+        /**
+         * Constructs a new {@linkplain ConcurrencyLimitSettings} from this builder.
+         * @return A {@linkplain ConcurrencyLimitSettings} with the values specified in this builder.
+         * @exception IllegalArgumentException The minimum limit is greater than the maximum one.
+         */
+        public @NotNull ConcurrencyLimitSettings build() {
+            if(maxLimit != 0 && minLimit > maxLimit) {
+                throw new IllegalArgumentException("Minimum limit must not be greater than the maximum limit");
+            }
+
+            ConcurrencyLimitSettings settings = new ConcurrencyLimitSettings();
+            settings.initialLimit = this.initialLimit;
+            settings.minLimit = this.minLimit;
+            settings.maxLimit = this.maxLimit;
+            settings.tolerance = this.tolerance;
+            return settings;
+        }
+    }
+}
@@ -1,10 +1,27 @@
 package com.edgedb.driver;
 
 import com.edgedb.driver.abstractions.ClientQueryDelegate;
+import com.edgedb.driver.binary.BufferTracker;
+import com.edgedb.driver.binary.builders.types.TypeBuilder;
 import com.edgedb.driver.clients.*;
 import com.edgedb.driver.datatypes.Json;
+import com.edgedb.driver.exceptions.ConcurrencyLimitExceededException;
 import com.edgedb.driver.exceptions.ConfigurationException;
+import com.edgedb.driver.exceptions.ConnectionFailedException;
+import com.edgedb.driver.exceptions.ConnectionFailedTemporarilyException;
 import com.edgedb.driver.exceptions.EdgeDBException;
+import com.edgedb.driver.exceptions.QueryTimeoutException;
+import com.edgedb.driver.exceptions.UnexpectedDisconnectException;
+import com.edgedb.driver.internal.ConcurrencyLimiter;
+import com.edgedb.driver.internal.QueryBatcher;
+import com.edgedb.driver.internal.QueryCoalescer;
+import com.edgedb.driver.internal.Deadline;
+import com.edgedb.driver.internal.QueryHedger;
+import com.edgedb.driver.internal.QueryTracer;
+import com.edgedb.driver.internal.ReplicaRouter;
+import com.edgedb.driver.jfr.PoolAcquireEvent;
+import com.edgedb.driver.metrics.DriverMetrics;
+import com.edgedb.driver.metrics.PoolStatistics;
 import com.edgedb.driver.state.Config;
 import com.edgedb.driver.state.Session;
 import com.edgedb.driver.util.ClientPoolHolder;
@@ -13,22 +30,32 @@ import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.naming.OperationNotSupportedException;
 import java.io.IOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.stream.Collector;
 
 import static com.edgedb.driver.util.ComposableUtil.composeWith;
+import static com.edgedb.driver.util.ComposableUtil.exceptionallyCompose;
 
 /**
  * Represents a client pool used to interact with EdgeDB.
@@ -54,14 +81,97 @@ public final class EdgeDBClient implements StatefulClient, EdgeDBQueryable, Auto
         }
     }
 
-    private final AtomicInteger clientCount = new AtomicInteger();
+    private static final class PoolCounters implements PoolStatistics {
+        private final AtomicInteger inUse = new AtomicInteger();
+        private final AtomicInteger idle = new AtomicInteger();
+        private final ClientPoolHolder poolHolder;
+
+        public PoolCounters(ClientPoolHolder poolHolder) {
+            this.poolHolder = poolHolder;
+        }
+
+        @Override
+        public int getInUseClients() {
+            return inUse.get();
+        }
+
+        @Override
+        public int getIdleClients() {
+            return idle.get();
+        }
+
+        @Override
+        public int getPendingAcquires() {
+            return poolHolder.pending();
+        }
+    }
+
+    /**
+     * The settings of the pool which can be changed at runtime, shared by the copies of a client.
+     */
+    private static final class PoolSettings {
+        volatile int clientAvailability;
+        volatile @NotNull Duration clientMaxAge;
+        volatile boolean sizeOverridden;
+
+        PoolSettings(@NotNull EdgeDBClientConfig config) {
+            this.clientAvailability = config.getClientAvailability();
+            this.clientMaxAge = config.getClientMaxAge();
+        }
+    }
+
+    /**
+     * The result cache of the pool, shared by the copies of a client.
+     */
+    private static final class CacheState {
+        final @NotNull ResultCache cache;
+        // any client of the pool can encode the arguments of the queries it parsed
+        volatile @Nullable EdgeDBBinaryClient codecSource;
+        // counts the invalidations, a result fetched across one isn't cached
+        final AtomicLong invalidations = new AtomicLong();
+
+        CacheState(@NotNull ResultCache cache) {
+            this.cache = cache;
+        }
+    }
+
+    /**
+     * How the queries of a client view are cached.
+     */
+    private static final class CachePolicy {
+        final @NotNull Duration ttl;
+        final @NotNull Set<String> tags;
+
+        CachePolicy(@NotNull Duration ttl, @NotNull Set<String> tags) {
+            this.ttl = ttl;
+            this.tags = tags;
+        }
+    }
+
+    private static final byte[] NO_ARGUMENTS = new byte[0];
+    private static final String HEALTH_CHECK_QUERY = "select 1";
+
+    private final AtomicInteger clientCount;
+    // shared by the copies of a client, it's also the lock of the pool's bookkeeping.
     private final @NotNull ConcurrentLinkedQueue<PooledClient> clients;
     private final EdgeDBConnection connection;
     private final EdgeDBClientConfig config;
     private final ClientPoolHolder poolHolder;
+    private final PoolCounters poolCounters;
+    private final @Nullable BufferTracker bufferTracker;
     private final ClientFactory clientFactory;
     private final Session session;
-    private final int clientAvailability;
+    private final PoolSettings poolSettings;
+    private final @Nullable Duration timeout;
+    private final @Nullable ConcurrencyLimiter concurrencyLimiter;
+    private final @Nullable QueryHedger hedger;
+    private final @Nullable QueryCoalescer coalescer;
+    private final @Nullable CacheState cacheState;
+    private final @Nullable CachePolicy cachePolicy;
+    // the pools of the read replicas, each pool being a client without replicas of its own
+    private final @Nullable ReplicaRouter<EdgeDBClient> router;
+    // whether this client created its pool, rather than being a view of the pool of another client
+    private final boolean ownsPool;
 
     /**
      * Constructs a new {@linkplain EdgeDBClient}.
@@ -70,13 +180,69 @@ public final class EdgeDBClient implements StatefulClient, EdgeDBQueryable, Auto
      * @throws ConfigurationException A configuration parameter is invalid.
      */
     public EdgeDBClient(EdgeDBConnection connection, @NotNull EdgeDBClientConfig config) throws ConfigurationException {
+        this(connection, config, null, false);
+    }
+
+    /**
+     * Constructs a new {@linkplain EdgeDBClient} spreading its read-only queries across read replicas. Each replica
+     * has a pool of its own, sized like the pool of the primary.
+     * <br/><br/>
+     * Queries run with only the {@linkplain Capabilities#READ_ONLY} capability go to the replica with the fewest
+     * queries in flight weighted by its latency; other queries, transactions, dumps and restores run on the primary.
+     * A replica may lag behind the primary, a read which has to see a preceding write should run with another
+     * capability or in a transaction.
+     * @param primary The connection parameters of the primary.
+     * @param replicas The connection parameters of the read replicas.
+     * @param config The configuration for this client, including how the replicas are checked.
+     * @throws ConfigurationException A configuration parameter is invalid.
+     * @see EdgeDBClientConfig.Builder#withReplicaRouting(ReplicaSettings)
+     */
+    public EdgeDBClient(
+            EdgeDBConnection primary, @NotNull List<EdgeDBConnection> replicas, @NotNull EdgeDBClientConfig config
+    ) throws ConfigurationException {
+        this(primary, config, replicas.isEmpty() ? null : createRouter(replicas, config), false);
+    }
+
+    private EdgeDBClient(
+            EdgeDBConnection connection, @NotNull EdgeDBClientConfig config,
+            @Nullable ReplicaRouter<EdgeDBClient> router, boolean isReplica
+    ) throws ConfigurationException {
+        this.clientCount = new AtomicInteger();
         this.clients = new ConcurrentLinkedQueue<>();
         this.config = config;
         this.connection = connection;
         this.poolHolder = new ClientPoolHolder(config.getPoolSize());
+        this.poolCounters = new PoolCounters(this.poolHolder);
+        this.bufferTracker = config.useBufferAccounting() ? new BufferTracker() : null;
         this.clientFactory = createClientFactory();
         this.session = Session.DEFAULT;
-        this.clientAvailability = config.getClientAvailability();
+        this.poolSettings = new PoolSettings(config);
+        this.timeout = null;
+        this.cachePolicy = null;
+        this.router = router;
+        this.ownsPool = true;
+
+        if(isReplica) {
+            // the primary limits, hedges, coalesces and caches the queries before they're routed to a replica
+            this.concurrencyLimiter = null;
+            this.hedger = null;
+            this.coalescer = null;
+            this.cacheState = null;
+            return;
+        }
+
+        this.concurrencyLimiter = config.getConcurrencyLimit() == null
+                ? null
+                : new ConcurrencyLimiter(config.getConcurrencyLimit(), this.poolHolder::size);
+        this.hedger = config.getHedging() == null ? null : new QueryHedger(config.getHedging());
+        this.coalescer = config.useQueryCoalescing() ? new QueryCoalescer() : null;
+        this.cacheState = config.getResultCache() == null ? null : new CacheState(config.getResultCache());
+
+        config.getMetrics().bindPool(this.poolCounters);
+
+        if(this.bufferTracker != null) {
+            config.getMetrics().bindBuffers(this.bufferTracker);
+        }
     }
 
     /**
@@ -107,20 +273,144 @@ public final class EdgeDBClient implements StatefulClient, EdgeDBQueryable, Auto
         this(EdgeDBConnection.resolveEdgeDBTOML(), EdgeDBClientConfig.DEFAULT);
     }
 
-    private EdgeDBClient(@NotNull EdgeDBClient other, Session session) {
-        this.clients = new ConcurrentLinkedQueue<>();
+    private EdgeDBClient(
+            @NotNull EdgeDBClient other, Session session, @Nullable Duration timeout, @Nullable CachePolicy cachePolicy
+    ) {
+        // copies are views of the same pool, they share its idle clients
+        this.clientCount = other.clientCount;
+        this.clients = other.clients;
         this.config = other.config;
         this.connection = other.connection;
         this.poolHolder = other.poolHolder;
+        this.poolCounters = other.poolCounters;
+        this.bufferTracker = other.bufferTracker;
         this.clientFactory = other.clientFactory;
         this.session = session;
-        this.clientAvailability = other.clientAvailability;
+        this.poolSettings = other.poolSettings;
+        this.timeout = timeout;
+        this.concurrencyLimiter = other.concurrencyLimiter;
+        this.hedger = other.hedger;
+        this.coalescer = other.coalescer;
+        this.cacheState = other.cacheState;
+        this.cachePolicy = cachePolicy;
+        this.router = other.router;
+        this.ownsPool = false;
+    }
+
+    private static @NotNull ReplicaRouter<EdgeDBClient> createRouter(
+            @NotNull List<EdgeDBConnection> replicas, @NotNull EdgeDBClientConfig config
+    ) throws ConfigurationException {
+        var pools = new ArrayList<EdgeDBClient>(replicas.size());
+
+        for (var replica : replicas) {
+            pools.add(new EdgeDBClient(replica, config, null, true));
+        }
+
+        var settings = config.getReplicaRouting();
+
+        return new ReplicaRouter<>(
+                pools,
+                settings,
+                pool -> pool.checkHealth(Deadline.after(settings.getHealthCheckTimeout())),
+                config.getMetrics()::replicaEjected
+        );
+    }
+
+    private EdgeDBClient(@NotNull EdgeDBClient other, Session session) {
+        this(other, session, other.timeout, other.cachePolicy);
     }
 
     public int getClientCount() {
         return this.clientCount.get();
     }
 
+    /**
+     * Gets the maximum number of clients of this pool in use at once.
+     * @return The current size of the pool.
+     */
+    public long getPoolSize() {
+        return this.poolHolder.size();
+    }
+
+    /**
+     * Gets the number of queries this pool currently lets in flight: its adaptive concurrency limit if it has one,
+     * otherwise its size.
+     * @return The current concurrency limit of the pool.
+     * @see EdgeDBClientConfig#getConcurrencyLimit()
+     */
+    public long getConcurrencyLimit() {
+        return this.concurrencyLimiter == null ? this.poolHolder.size() : this.concurrencyLimiter.getLimit();
+    }
+
+    /**
+     * Sets the maximum number of clients of this pool in use at once. The size takes effect right away: queries
+     * waiting for a client go ahead when it grows, and clients beyond it are disconnected as they're returned to the
+     * pool when it shrinks. Once set, the size no longer follows the pool concurrency suggested by EdgeDB.
+     * <br/><br/>
+     * The size is shared by all the clients sharing the same underlying client pool.
+     * @param size The new size of the pool.
+     * @exception IllegalArgumentException The size is less than 1.
+     */
+    public void setPoolSize(int size) {
+        if(size <= 0) {
+            throw new IllegalArgumentException("Pool size must be at least 1");
+        }
+
+        this.poolSettings.sizeOverridden = true;
+        resizePool(size);
+    }
+
+    /**
+     * Gets the number of idle clients kept in this pool, regardless of their connection state.
+     * @return The current client availability of the pool.
+     * @see EdgeDBClientConfig#getClientAvailability()
+     */
+    public int getClientAvailability() {
+        return this.poolSettings.clientAvailability;
+    }
+
+    /**
+     * Sets the number of idle clients kept in this pool, regardless of their connection state. Idle clients beyond
+     * it which are disconnected or older than the client max age are removed right away.
+     * <br/><br/>
+     * The value is shared by all the clients sharing the same underlying client pool.
+     * @param clientAvailability The new client availability.
+     * @exception IllegalArgumentException The value is negative.
+     */
+    public void setClientAvailability(int clientAvailability) {
+        if(clientAvailability < 0) {
+            throw new IllegalArgumentException("Client availability must be greater than 0");
+        }
+
+        this.poolSettings.clientAvailability = clientAvailability;
+        cleanupPool();
+    }
+
+    /**
+     * Gets how long an idle client may stay in this pool.
+     * @return The current client max age of the pool.
+     * @see EdgeDBClientConfig#getClientMaxAge()
+     */
+    public @NotNull Duration getClientMaxAge() {
+        return this.poolSettings.clientMaxAge;
+    }
+
+    /**
+     * Sets how long an idle client may stay in this pool. Idle clients older than it are disconnected right away.
+     * <br/><br/>
+     * The value is shared by all the clients sharing the same underlying client pool.
+     * @param clientMaxAge The new client max age.
+     * @exception IllegalArgumentException The age is negative.
+     */
+    public void setClientMaxAge(@NotNull Duration clientMaxAge) {
+        if(clientMaxAge.isNegative()) {
+            throw new IllegalArgumentException("Client max age must not be negative");
+        }
+
+        this.poolSettings.clientMaxAge = clientMaxAge;
+        cleanupPool();
+    }
+
     private @NotNull ClientFactory createClientFactory() throws ConfigurationException {
         if(config.getClientType() == ClientType.TCP) {
             return EdgeDBTCPClient::new;
@@ -163,6 +453,66 @@ public final class EdgeDBClient implements StatefulClient, EdgeDBQueryable, Auto
         return composeWith(getTransactableClient(), client -> client.transaction(settings, func));
     }
 
+    /**
+     * Runs a script as a transaction, sending its start, statements and commit in a single round trip. If a statement
+     * fails, the following ones are skipped and the transaction is rolled back; the whole script is retried after a
+     * transaction conflict, up to {@linkplain TransactionSettings#getRetryAttempts()} times.
+     * @param settings The transaction settings to use.
+     * @param script The statements to run.
+     * @return A {@linkplain CompletionStage} that represents the asynchronous operation of running the transaction.
+     */
+    public CompletionStage<Void> transaction(TransactionSettings settings, @NotNull TransactionScript script) {
+        return composeWith(getTransactableClient(), client -> client.transaction(settings, script));
+    }
+
+    /**
+     * Runs a script as a transaction with the default settings, sending its start, statements and commit in a single
+     * round trip.
+     * @param script The statements to run.
+     * @return A {@linkplain CompletionStage} that represents the asynchronous operation of running the transaction.
+     * @see #transaction(TransactionSettings, TransactionScript)
+     */
+    public CompletionStage<Void> transaction(@NotNull TransactionScript script) {
+        return transaction(TransactionSettings.DEFAULT, script);
+    }
+
+    /**
+     * Dumps the database into a channel, in the dump file format of the EdgeDB CLI. The dump is streamed: blocks are
+     * written to the channel as the server sends them.
+     * @param channel The channel to write the dump to.
+     * @return A {@linkplain CompletionStage} that represents the asynchronous operation of the dump. The result of the
+     * {@linkplain CompletionStage} is the number of bytes written to the channel.
+     */
+    public CompletionStage<Long> dump(@NotNull WritableByteChannel channel) {
+        return composeWith(getTCPClient(), client -> client.dump(channel));
+    }
+
+    /**
+     * Restores a dump made by {@linkplain #dump(WritableByteChannel)} or the EdgeDB CLI into the database, which must
+     * be empty.
+     * @param channel The channel to read the dump from.
+     * @return A {@linkplain CompletionStage} that represents the asynchronous operation of the restore.
+     */
+    public CompletionStage<Void> restore(@NotNull ReadableByteChannel channel) {
+        return restore(channel, 1);
+    }
+
+    /**
+     * Restores a dump made by {@linkplain #dump(WritableByteChannel)} or the EdgeDB CLI into the database, which must
+     * be empty.
+     * @param channel The channel to read the dump from.
+     * @param jobs The number of blocks of the dump the server may restore in parallel. Up to this many blocks are
+     *             sent ahead of the server.
+     * @return A {@linkplain CompletionStage} that represents the asynchronous operation of the restore.
+     */
+    public CompletionStage<Void> restore(@NotNull ReadableByteChannel channel, int jobs) {
+        if(jobs < 1) {
+            throw new IllegalArgumentException("jobs must be at least 1");
+        }
+
+        return composeWith(getTCPClient(), client -> client.restore(channel, jobs));
+    }
+
     /**
      * Initializes a transaction and executes the callback with the transaction object.
      * @param func The callback to execute with the transaction.
@@ -186,6 +536,123 @@ public final class EdgeDBClient implements StatefulClient, EdgeDBQueryable, Auto
         return new EdgeDBClient(this, session);
     }
 
+    /**
+     * Creates a new client instance whose queries each have to complete within the specified timeout, counted from
+     * the call of the query method. The timeout covers waiting for a client from the pool, parsing and executing the
+     * query; a query whose timeout passes before it's sent to EdgeDB is dropped without being sent.
+     * <br/><br/>
+     * Queries that time out fail with a {@linkplain QueryTimeoutException}. A query that times out while EdgeDB runs
+     * it isn't cancelled on the server, its connection catches up with the server before running the next query.
+     * Transactions, dumps and restores aren't bound by the timeout.
+     * <br/><br/>
+     * The returned client shares the same underlying client pool as this client.
+     * @param timeout The timeout of each query.
+     * @return A new client instance with the applied timeout, sharing the same underlying client pool.
+     */
+    public @NotNull EdgeDBClient withTimeout(@NotNull Duration timeout) {
+        if(timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("timeout must be positive");
+        }
+
+        return new EdgeDBClient(this, this.session, timeout, this.cachePolicy);
+    }
+
+    /**
+     * Creates a new client instance whose queries returning objects or scalars are answered from the result cache of
+     * the pool, when they're run with only the {@linkplain Capabilities#READ_ONLY} capability. A query that isn't in
+     * the cache is run and its result is cached for the specified time to live.
+     * <br/><br/>
+     * Results are cached before decoding, each query gets its own copy of the result. The entries can be removed
+     * before they expire by their tags, with {@linkplain #invalidateCache(String...)}, for instance after writing
+     * the data they were read from. JSON queries and queries with a collector aren't cached.
+     * <br/><br/>
+     * The returned client shares the same underlying client pool as this client.
+     * @param ttl How long the results of the queries are cached.
+     * @param tags The tags of the cached results.
+     * @return A new client instance caching the results of its read-only queries, sharing the same underlying client
+     * pool.
+     * @exception IllegalStateException The pool has no result cache.
+     * @see EdgeDBClientConfig.Builder#withResultCache(ResultCache)
+     */
+    public @NotNull EdgeDBClient withCaching(@NotNull Duration ttl, String @NotNull ... tags) {
+        if(this.cacheState == null) {
+            throw new IllegalStateException("The client pool has no result cache, see EdgeDBClientConfig#withResultCache");
+        }
+
+        if(ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("ttl must be positive");
+        }
+
+        return new EdgeDBClient(this, this.session, this.timeout, new CachePolicy(ttl, Set.copyOf(Arrays.asList(tags))));
+    }
+
+    /**
+     * Removes the cached results with any of the specified tags from the result cache of the pool. Results of queries
+     * running while they're invalidated aren't cached.
+     * @param tags The tags of the results to remove.
+     */
+    public void invalidateCache(String @NotNull ... tags) {
+        if(this.cacheState == null) {
+            return;
+        }
+
+        this.cacheState.invalidations.incrementAndGet();
+        this.cacheState.cache.invalidate(Arrays.asList(tags));
+    }
+
+    /**
+     * Creates a loader of objects by key with the default {@linkplain BatchLoaderSettings}.
+     * @param keyType The type of the keys.
+     * @param cls The type of the loaded objects.
+     * @param query The query looking up a batch of keys.
+     * @param argument The name of the array argument of the query receiving the keys.
+     * @param keyOf Gets the key of an object returned by the query.
+     * @return A new batch loader running its queries on this client.
+     * @param <K> The type of the keys.
+     * @param <V> The type of the loaded objects.
+     * @see #batchLoader(Class, Class, String, String, Function, BatchLoaderSettings)
+     */
+    public <K, V> @NotNull BatchLoader<K, V> batchLoader(
+            @NotNull Class<K> keyType, @NotNull Class<V> cls, @NotNull String query, @NotNull String argument,
+            @NotNull Function<? super V, ? extends K> keyOf
+    ) {
+        return batchLoader(keyType, cls, query, argument, keyOf, BatchLoaderSettings.DEFAULT);
+    }
+
+    /**
+     * Creates a loader of objects by key, which looks up the keys loaded within a short delay with a single query
+     * rather than a query for each key. For instance, a loader of users by id would run:
+     * <pre>{@code
+     * select User { id, name } filter .id in array_unpack(<array<uuid>>$ids)
+     * }</pre>
+     * with the keys of each batch passed as the {@code ids} argument. The query has to return the key of each row, so
+     * the rows can be given back to the loads of their keys.
+     * <br/><br/>
+     * The queries run with the {@linkplain Capabilities#READ_ONLY} capability, on this client: a loader of a client
+     * with a session, a timeout or caching runs its queries with them.
+     * @param keyType The type of the keys.
+     * @param cls The type of the loaded objects.
+     * @param query The query looking up a batch of keys.
+     * @param argument The name of the array argument of the query receiving the keys.
+     * @param keyOf Gets the key of an object returned by the query.
+     * @param settings The settings of the loader.
+     * @return A new batch loader running its queries on this client.
+     * @param <K> The type of the keys.
+     * @param <V> The type of the loaded objects.
+     */
+    public <K, V> @NotNull BatchLoader<K, V> batchLoader(
+            @NotNull Class<K> keyType, @NotNull Class<V> cls, @NotNull String query, @NotNull String argument,
+            @NotNull Function<? super V, ? extends K> keyOf, @NotNull BatchLoaderSettings settings
+    ) {
+        var metrics = config.getMetrics();
+
+        return new QueryBatcher<K, V>(
+                keyType, keyOf,
+                keys -> query(cls, query, Map.of(argument, keys), EnumSet.of(Capabilities.READ_ONLY)),
+                settings, metrics::lookupsBatched
+        );
+    }
+
     /**
      * Creates a new client instance with the specified module aliases.
      * <br/><br/>
@@ -246,49 +713,379 @@ public final class EdgeDBClient implements StatefulClient, EdgeDBQueryable, Auto
         return new EdgeDBClient(this, this.session.withModule(module));
     }
 
-    // added because Map.entry cannot contain nulls
-    private static final class ExecutePair<U> {
-        private final BaseEdgeDBClient client;
-        private final @Nullable U result;
+    private <T, U> CompletionStage<U> executePooledQuery(
+            Class<T> cls, String query, Map<String, Object> args,
+            EnumSet<Capabilities> capabilities, @NotNull ClientQueryDelegate<T, U> delegate
+    ) {
+        return executePooledQuery(cls, query, args, capabilities, delegate, true);
+    }
 
-        private ExecutePair(BaseEdgeDBClient client, @Nullable U result) {
-            this.client = client;
-            this.result = result;
+    private <T, U> CompletionStage<U> executePooledQuery(
+            Class<T> cls, String query, Map<String, Object> args,
+            EnumSet<Capabilities> capabilities, @NotNull ClientQueryDelegate<T, U> delegate, boolean hedgeable
+    ) {
+        var metrics = config.getMetrics();
+        ConcurrencyLimiter.Permit permit = null;
+
+        if(this.concurrencyLimiter != null) {
+            permit = this.concurrencyLimiter.tryAcquire();
+
+            if(permit == null) {
+                metrics.queryRejected();
+                return CompletableFuture.failedFuture(
+                        new ConcurrencyLimitExceededException(this.concurrencyLimiter.getLimit())
+                );
+            }
+        }
+
+        var tracer = QueryTracer.start(config, query, capabilities);
+        var deadline = this.timeout == null ? null : Deadline.after(this.timeout);
+
+        if(metrics == DriverMetrics.NOOP && tracer == null && permit == null) {
+            return executeAttempts(cls, query, args, capabilities, delegate, null, deadline, hedgeable);
+        }
+
+        var start = System.nanoTime();
+        var limiterPermit = permit;
+
+        return executeAttempts(cls, query, args, capabilities, delegate, tracer, deadline, hedgeable)
+                .whenComplete((r, e) -> {
+                    var duration = System.nanoTime() - start;
+                    metrics.queryCompleted(duration, e == null);
+
+                    var cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+
+                    if(cause instanceof QueryTimeoutException && !((QueryTimeoutException) cause).wasExecuted()) {
+                        metrics.queryShed();
+                    }
+
+                    if(limiterPermit != null) {
+                        release(limiterPermit, cause, duration);
+                    }
+
+                    if(tracer != null) {
+                        tracer.completed(e);
+                    }
+                });
+    }
+
+    /**
+     * Runs a query once, or twice if it's hedged.
+     */
+    private <T, U> CompletionStage<U> executeAttempts(
+            Class<T> cls, String query, Map<String, Object> args,
+            EnumSet<Capabilities> capabilities, @NotNull ClientQueryDelegate<T, U> delegate,
+            @Nullable QueryTracer tracer, @Nullable Deadline deadline, boolean hedgeable
+    ) {
+        if(this.hedger == null || !hedgeable || !isReadOnly(capabilities)) {
+            return executePooledQuery0(cls, query, args, capabilities, delegate, tracer, deadline);
+        }
+
+        // the tracer follows the first attempt, the hedge isn't traced.
+        return this.hedger.execute(
+                deadline,
+                (attemptDeadline, hedge) -> hedge
+                        ? executeHedge(cls, query, args, capabilities, delegate, attemptDeadline)
+                        : executePooledQuery0(cls, query, args, capabilities, delegate, tracer, attemptDeadline),
+                config.getMetrics()::queryHedged
+        );
+    }
+
+    /**
+     * Runs the hedge of a query, which takes a place of the concurrency limit of its own.
+     * @return The result of the hedge, or {@code null} if the concurrency limit is reached.
+     */
+    private <T, U> @Nullable CompletionStage<U> executeHedge(
+            Class<T> cls, String query, Map<String, Object> args,
+            EnumSet<Capabilities> capabilities, @NotNull ClientQueryDelegate<T, U> delegate,
+            @NotNull Deadline deadline
+    ) {
+        if(this.concurrencyLimiter == null) {
+            return executePooledQuery0(cls, query, args, capabilities, delegate, null, deadline);
+        }
+
+        var permit = this.concurrencyLimiter.tryAcquire();
+
+        if(permit == null) {
+            return null;
+        }
+
+        var start = System.nanoTime();
+
+        return executePooledQuery0(cls, query, args, capabilities, delegate, null, deadline)
+                .whenComplete((r, e) -> release(
+                        permit,
+                        e instanceof CompletionException && e.getCause() != null ? e.getCause() : e,
+                        System.nanoTime() - start
+                ));
+    }
+
+    private static void release(ConcurrencyLimiter.@NotNull Permit permit, @Nullable Throwable cause, long duration) {
+        if(cause == null) {
+            permit.completed(duration);
+        } else if(isOverloaded(cause)) {
+            permit.dropped();
+        } else {
+            permit.ignored();
+        }
+    }
+
+    /**
+     * Runs a query returning rows, from the result cache if this client caches its queries, or joining the identical
+     * read-only query in flight if queries are coalesced.
+     * @param decoder Decodes a copy of the result for each caller if its type is mutable, or {@code null} if the
+     *                result is always immutable.
+     */
+    private <T, U> CompletionStage<U> executeReadQuery(
+            @NotNull String shape, Class<T> cls, String query, Map<String, Object> args,
+            EnumSet<Capabilities> capabilities, @NotNull ClientQueryDelegate<T, U> delegate,
+            @Nullable RawResultDecoder<T, U> decoder
+    ) {
+        if(this.cachePolicy != null && decoder != null && isReadOnly(capabilities)) {
+            return executeCached(cls, query, args, capabilities, decoder);
+        }
+
+        if(this.coalescer == null || !isReadOnly(capabilities)) {
+            return executePooledQuery(cls, query, args, capabilities, delegate);
+        }
+
+        var key = new QueryCoalescer.Key(shape, cls, query, args, this.session, capabilities);
+        var onJoined = (Runnable)config.getMetrics()::queryCoalesced;
+
+        if(decoder == null || QueryCoalescer.isImmutable(cls)) {
+            return withJoinTimeout(this.coalescer.execute(
+                    key, () -> executePooledQuery(cls, query, args, capabilities, delegate), onJoined
+            ));
         }
 
-        public @Nullable U getResult() {
+        return decode(executeRaw(cls, query, args, capabilities), cls, decoder);
+    }
+
+    /**
+     * Runs a query without decoding its result, joining the identical query in flight if queries are coalesced.
+     */
+    private <T> CompletionStage<RawQueryResult> executeRaw(
+            Class<T> cls, String query, Map<String, Object> args, EnumSet<Capabilities> capabilities
+    ) {
+        // the clients of the pool are all binary clients, run through their scoped views
+        ClientQueryDelegate<T, RawQueryResult> delegate =
+                (c, t, q, a, ca) -> ((EdgeDBBinaryClient.Scoped)c).queryRaw(t, q, a, ca);
+
+        if(this.coalescer == null) {
+            return executePooledQuery(cls, query, args, capabilities, delegate);
+        }
+
+        return withJoinTimeout(this.coalescer.execute(
+                new QueryCoalescer.Key("raw", cls, query, args, this.session, capabilities),
+                () -> executePooledQuery(cls, query, args, capabilities, delegate),
+                config.getMetrics()::queryCoalesced
+        ));
+    }
+
+    private <T, U> CompletionStage<U> executeCached(
+            Class<T> cls, String query, Map<String, Object> args,
+            EnumSet<Capabilities> capabilities, @NotNull RawResultDecoder<T, U> decoder
+    ) {
+        assert this.cacheState != null && this.cachePolicy != null;
+
+        var state = this.cacheState;
+        var policy = this.cachePolicy;
+        var metrics = config.getMetrics();
+        var implicitTypeNames = TypeBuilder.requiredImplicitTypeNames(cls);
+        var key = cacheKey(query, args, implicitTypeNames);
+
+        if(key != null) {
+            var entry = state.cache.get(key);
+
+            if(entry != null) {
+                metrics.resultCacheHit();
+                return decode(CompletableFuture.completedFuture(entry.getResult()), cls, decoder);
+            }
+        }
+
+        metrics.resultCacheMiss();
+
+        var invalidations = state.invalidations.get();
+
+        return decode(executeRaw(cls, query, args, capabilities).thenApply(result -> {
+            // the arguments can be encoded once the query was parsed
+            var storeKey = key != null ? key : cacheKey(query, args, implicitTypeNames);
+
+            if(storeKey != null && state.invalidations.get() == invalidations) {
+                state.cache.put(storeKey, new ResultCache.Entry(result, policy.tags, policy.ttl));
+            }
+
             return result;
+        }), cls, decoder);
+    }
+
+    /**
+     * Gets the key of a query in the result cache.
+     * @return The key, or {@code null} if the arguments can't be encoded yet.
+     */
+    private @Nullable ResultCache.Key cacheKey(
+            @NotNull String query, @Nullable Map<String, Object> args, boolean implicitTypeNames
+    ) {
+        assert this.cacheState != null;
+
+        var arguments = NO_ARGUMENTS;
+
+        if(args != null && !args.isEmpty()) {
+            var source = this.cacheState.codecSource;
+
+            try {
+                arguments = source == null ? null : source.encodeArguments(query, args);
+            } catch (EdgeDBException | OperationNotSupportedException e) {
+                // the query reports the invalid arguments when it runs
+                logger.debug("Failed to encode the arguments of a cached query", e);
+                arguments = null;
+            }
+
+            if(arguments == null) {
+                return null;
+            }
         }
 
-        public BaseEdgeDBClient getClient() {
-            return client;
+        return new ResultCache.Key(query, arguments, this.session, implicitTypeNames);
+    }
+
+    private static <T, U> CompletionStage<U> decode(
+            @NotNull CompletionStage<RawQueryResult> raw, Class<T> cls, @NotNull RawResultDecoder<T, U> decoder
+    ) {
+        return raw.thenApply(result -> {
+            try {
+                return decoder.decode(result, cls);
+            } catch (EdgeDBException | OperationNotSupportedException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    /**
+     * Bounds a query sharing the execution of another one by the timeout of this client, the query it joined may
+     * have a longer one.
+     */
+    private <U> CompletionStage<U> withJoinTimeout(@NotNull CompletionStage<U> stage) {
+        if(this.timeout == null) {
+            return stage;
         }
+
+        return Deadline.after(this.timeout).bound(stage.toCompletableFuture(), "waiting for an identical query", true);
     }
 
-    private <T, U> CompletionStage<U> executePooledQuery(
+    private static boolean isReadOnly(@NotNull EnumSet<Capabilities> capabilities) {
+        return capabilities.isEmpty() || capabilities.equals(EnumSet.of(Capabilities.READ_ONLY));
+    }
+
+    /**
+     * Gets whether a query failed because of the load on the pool or the server, rather than because of the query.
+     */
+    private static boolean isOverloaded(@NotNull Throwable cause) {
+        return cause instanceof QueryTimeoutException
+                || cause instanceof TimeoutException
+                || (cause instanceof EdgeDBException && ((EdgeDBException) cause).shouldReconnect);
+    }
+
+    private <T, U> CompletionStage<U> executePooledQuery0(
             Class<T> cls, String query, Map<String, Object> args,
-            EnumSet<Capabilities> capabilities, @NotNull ClientQueryDelegate<T, U> delegate
+            EnumSet<Capabilities> capabilities, @NotNull ClientQueryDelegate<T, U> delegate,
+            @Nullable QueryTracer tracer, @Nullable Deadline deadline
     ) {
-        return getClient()
-                .thenCompose(client ->
-                        delegate.run(
-                                client,
-                                cls,
-                                query,
-                                args,
-                                capabilities
-                        ).thenApply(r -> new ExecutePair<>(client, r))
-                )
-                .whenComplete((entry, exc) -> {
-                    if(entry != null) {
+        var host = this.router != null && isReadOnly(capabilities) ? this.router.route() : null;
+
+        if(host == null) {
+            return executeOn(this, cls, query, args, capabilities, delegate, tracer, deadline);
+        }
+
+        config.getMetrics().queryRoutedToReplica();
+
+        var start = System.nanoTime();
+
+        var result = executeOn(host.getTarget(), cls, query, args, capabilities, delegate, tracer, deadline)
+                .whenComplete((r, e) -> {
+                    var cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+
+                    if(cause == null) {
+                        host.completed(System.nanoTime() - start);
+                    } else if(isUnavailable(cause)) {
+                        host.failed();
+                    } else {
+                        host.released();
+                    }
+                });
+
+        // a read-only query can run again, on the primary, if its replica couldn't be reached
+        return exceptionallyCompose(result, e -> {
+            var cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+
+            if(!isUnavailable(cause) || (deadline != null && deadline.isExpired())) {
+                return CompletableFuture.<U>failedFuture(cause);
+            }
+
+            logger.debug(
+                    "Read replica {} unavailable, running the query on the primary", host.getTarget().connection, cause
+            );
+
+            return executeOn(this, cls, query, args, capabilities, delegate, tracer, deadline);
+        });
+    }
+
+    /**
+     * Checks the health of the pool of a read replica, by running a trivial query on one of its clients.
+     */
+    private @NotNull CompletionStage<Void> checkHealth(@NotNull Deadline deadline) {
+        return executeOn(
+                this, Void.class, HEALTH_CHECK_QUERY, null, EnumSet.of(Capabilities.READ_ONLY),
+                (c, cls, q, a, ca) -> c.execute(q, a, ca), null, deadline
+        );
+    }
+
+    /**
+     * Gets whether a query failed because its server couldn't be reached, rather than because of the query.
+     */
+    private static boolean isUnavailable(@NotNull Throwable cause) {
+        return cause instanceof ConnectionFailedException
+                || cause instanceof ConnectionFailedTemporarilyException
+                || cause instanceof UnexpectedDisconnectException
+                || cause instanceof IOException;
+    }
+
+    /**
+     * Runs a query on a client of a pool, the pool of this client or of one of its read replicas.
+     */
+    private <T, U> CompletionStage<U> executeOn(
+            @NotNull EdgeDBClient pool, Class<T> cls, String query, Map<String, Object> args,
+            EnumSet<Capabilities> capabilities, @NotNull ClientQueryDelegate<T, U> delegate,
+            @Nullable QueryTracer tracer, @Nullable Deadline deadline
+    ) {
+        return pool.getClient(deadline)
+                .thenCompose(client -> {
+                    if(pool != this) {
+                        // the clients of a replica's pool run the queries of every view of this client
+                        client.withSession(this.session);
+                    }
+
+                    if(tracer != null) {
+                        tracer.poolAcquired();
+                    }
+
+                    // the clients of the pool are all binary clients
+                    return delegate.run(
+                            ((EdgeDBBinaryClient)client).scoped(tracer, deadline),
+                            cls,
+                            query,
+                            args,
+                            capabilities
+                    ).whenComplete((r, exc) -> {
+                        // the client goes back to the pool even if the query failed, a query that timed out leaves
+                        // its connection to be resynchronized by the next one.
                         try {
-                            entry.getClient().close();
+                            client.close();
                         } catch (Exception e) {
                             throw new CompletionException(e);
                         }
-                    }
-                })
-                .thenApply(ExecutePair::getResult);
+                    });
+                });
     }
 
     @Override
@@ -300,35 +1097,73 @@ public final class EdgeDBClient implements StatefulClient, EdgeDBQueryable, Auto
 
     @Override
     public <T> CompletionStage<List<T>> query(@NotNull Class<T> cls, @NotNull String query, @Nullable Map<String, Object> args, @NotNull EnumSet<Capabilities> capabilities) {
-        return executePooledQuery(cls, query, args, capabilities, EdgeDBQueryable::query);
+        return executeReadQuery("list", cls, query, args, capabilities, EdgeDBQueryable::query, RawQueryResult::decodeList);
+    }
+
+    @Override
+    public <T, A, R> CompletionStage<R> query(@NotNull Class<T> cls, @NotNull String query, @Nullable Map<String, Object> args, @NotNull EnumSet<Capabilities> capabilities, @NotNull Collector<? super T, A, R> collector) {
+        return executePooledQuery(cls, query, args, capabilities,
+                (c, t, q, a, ca) -> c.query(t, q, a, ca, collector)
+        );
     }
 
     @Override
     public <T> CompletionStage<T> querySingle(@NotNull Class<T> cls, @NotNull String query, @Nullable Map<String, Object> args, @NotNull EnumSet<Capabilities> capabilities) {
-        return executePooledQuery(cls, query, args, capabilities, EdgeDBQueryable::querySingle);
+        return executeReadQuery(
+                "single", cls, query, args, capabilities, EdgeDBQueryable::querySingle, RawQueryResult::decodeSingle
+        );
     }
 
     @Override
     public <T> CompletionStage<T> queryRequiredSingle(@NotNull Class<T> cls, @NotNull String query, @Nullable Map<String, Object> args, @NotNull EnumSet<Capabilities> capabilities) {
-        return executePooledQuery(cls, query, args, capabilities, EdgeDBQueryable::queryRequiredSingle);
+        return executeReadQuery(
+                "required single", cls, query, args, capabilities,
+                EdgeDBQueryable::queryRequiredSingle, RawQueryResult::decodeRequiredSingle
+        );
     }
 
     @Override
     public CompletionStage<Json> queryJson(@NotNull String query, @Nullable Map<String, Object> args, @NotNull EnumSet<Capabilities> capabilities) {
-        return executePooledQuery(Json.class, query, args, capabilities,
-                (c, cls, q, a, ca) -> c.queryJson(q, a, ca)
+        return executeReadQuery("json", Json.class, query, args, capabilities,
+                (c, cls, q, a, ca) -> c.queryJson(q, a, ca), null
         );
     }
 
     @Override
     public CompletionStage<List<Json>> queryJsonElements(@NotNull String query, @Nullable Map<String, Object> args, @NotNull EnumSet<Capabilities> capabilities) {
-        return executePooledQuery(Json.class, query, args, capabilities,
-                (c, cls, q, a, ca) -> c.queryJsonElements(q, a, ca)
+        return executeReadQuery("json elements", Json.class, query, args, capabilities,
+                (c, cls, q, a, ca) -> c.queryJsonElements(q, a, ca), null
+        );
+    }
+
+    @Override
+    public CompletionStage<Long> queryJsonTo(@NotNull WritableByteChannel channel, @NotNull JsonStreamMode mode, @NotNull String query, @Nullable Map<String, Object> args, @NotNull EnumSet<Capabilities> capabilities) {
+        // the result is written to the channel as it arrives, two attempts would write it twice.
+        return executePooledQuery(Long.class, query, args, capabilities,
+                (c, cls, q, a, ca) -> c.queryJsonTo(channel, mode, q, a, ca), false
         );
     }
 
+    /**
+     * Closes the idle clients of the pool and its read replicas. Views of the pool, like the clients returned by
+     * {@linkplain #withSession(Session)} or {@linkplain #withTimeout(Duration)}, share it with the client they were
+     * created from: closing a view leaves the pool open, it's closed by the client that created it.
+     * @throws Exception A client of the pool failed to disconnect.
+     */
     @Override
     public void close() throws Exception {
+        if(!this.ownsPool) {
+            return;
+        }
+
+        if(this.router != null) {
+            this.router.close();
+
+            for (var host : this.router.getHosts()) {
+                host.getTarget().close();
+            }
+        }
+
         int count = clientCount.get();
         while(!clients.isEmpty() && count > 0) {
             clients.poll().client.disconnect().toCompletableFuture().get();
@@ -336,11 +1171,59 @@ public final class EdgeDBClient implements StatefulClient, EdgeDBQueryable, Auto
         }
     }
 
-    private synchronized CompletionStage<BaseEdgeDBClient> getClient() {
-        logger.trace("polling cached clients...");
-        var cachedClient = clients.poll();
+    private CompletionStage<BaseEdgeDBClient> getClient() {
+        return getClient(null);
+    }
+
+    private CompletionStage<BaseEdgeDBClient> getClient(@Nullable Deadline deadline) {
+        var metrics = config.getMetrics();
+        var event = PoolAcquireEvent.start();
+
+        if(metrics == DriverMetrics.NOOP && event == null) {
+            return acquireClient(deadline);
+        }
+
+        var start = System.nanoTime();
+
+        return acquireClient(deadline).thenApply(client -> {
+            metrics.poolAcquired(System.nanoTime() - start);
+
+            if(event != null) {
+                event.finish(this.poolCounters);
+            }
+
+            return client;
+        });
+    }
+
+    private CompletionStage<BaseEdgeDBClient> acquireClient(@Nullable Deadline deadline) {
+        // the place in the pool is taken first, a client returned while waiting for it is then reused.
+        return this.poolHolder.acquire(deadline)
+                .thenApply(v -> {
+                    logger.trace("Place in the pool acquired, remaining: {}", this.poolHolder.remaining());
+
+                    try {
+                        var client = pollCachedClient();
+                        return client != null ? client : createClient();
+                    } catch (Throwable x) {
+                        this.poolHolder.release();
+                        throw x;
+                    }
+                });
+    }
+
+    private @Nullable BaseEdgeDBClient pollCachedClient() {
+        synchronized (this.clients) {
+            logger.trace("polling cached clients...");
+            var cachedClient = clients.poll();
+
+            if(cachedClient == null) {
+                return null;
+            }
+
+            this.poolCounters.idle.decrementAndGet();
+            this.poolCounters.inUse.incrementAndGet();
 
-        if(cachedClient != null) {
             logger.debug(
                     "returning cached client, cached client count: {}; age {}",
                     this.clientCount.decrementAndGet(),
@@ -348,10 +1231,10 @@ public final class EdgeDBClient implements StatefulClient, EdgeDBQueryable, Auto
             );
 
             cachedClient.touch();
-            return CompletableFuture.completedFuture(cachedClient.client);
-        }
 
-        return createClient();
+            // idle clients are shared by the copies of this client, each with its own session
+            return cachedClient.client.withSession(this.session);
+        }
     }
 
     private synchronized CompletionStage<TransactableClient> getTransactableClient() {
@@ -372,49 +1255,141 @@ public final class EdgeDBClient implements StatefulClient, EdgeDBQueryable, Auto
                 });
     }
 
+    private CompletionStage<EdgeDBTCPClient> getTCPClient() {
+        return getClient()
+                .thenApply(client -> {
+                    if(!(client instanceof EdgeDBTCPClient)) {
+                        try {
+                            client.close();
+                        } catch (Exception e) {
+                            logger.debug("Failed to return client to the pool", e);
+                        }
+
+                        throw new CompletionException(
+                                new EdgeDBException("Cannot dump or restore a database with " + client + " type")
+                        );
+                    }
+
+                    return (EdgeDBTCPClient) client;
+                });
+    }
+
     private void cleanupPool() {
-        clients.removeIf(c ->
-                c.age().compareTo(this.config.getClientMaxAge()) > 0
-                        || (!c.client.isConnected() && this.clientCount.decrementAndGet() >= this.clientAvailability)
-        );
+        synchronized (this.clients) {
+            var maxAge = this.poolSettings.clientMaxAge;
+            var availability = this.poolSettings.clientAvailability;
+
+            clients.removeIf(c -> {
+                var remove = c.age().compareTo(maxAge) > 0
+                        || (!c.client.isConnected() && this.clientCount.get() > availability);
+
+                if(remove) {
+                    this.clientCount.decrementAndGet();
+                    this.poolCounters.idle.decrementAndGet();
+                    retireClient(c.client);
+                }
+
+                return remove;
+            });
+        }
     }
 
-    private synchronized void acceptClient(BaseEdgeDBClient client) {
-        this.clients.add(new PooledClient(client));
-        var count = this.clientCount.incrementAndGet();
+    /**
+     * Disconnects the idle clients which don't fit in the pool along with the clients in use, oldest first.
+     */
+    private void trimPool() {
+        synchronized (this.clients) {
+            var size = this.poolHolder.size();
+
+            while(this.clientCount.get() > 0 && this.clientCount.get() + this.poolCounters.inUse.get() > size) {
+                var pooled = clients.poll();
 
-        logger.debug("client {} returned to pool, client count: {}", client, count);
+                if(pooled == null) {
+                    return;
+                }
 
-        if(count > this.clientAvailability) {
-            logger.debug("Cleaning up pool... {}/{} availability reached", count, this.clientAvailability);
-            cleanupPool();
+                this.clientCount.decrementAndGet();
+                this.poolCounters.idle.decrementAndGet();
+                retireClient(pooled.client);
+            }
         }
     }
 
-    private synchronized @NotNull CompletionStage<Void> onClientReady(@NotNull BaseEdgeDBClient client) {
+    private void retireClient(@NotNull BaseEdgeDBClient client) {
+        logger.debug("Retiring client {}", client);
+
+        client.disconnect().whenComplete((v, e) -> {
+            if(e != null) {
+                logger.debug("Failed to disconnect retired client {}", client, e);
+            }
+        });
+    }
+
+    private void resizePool(long size) {
+        this.poolHolder.resize(size);
+        trimPool();
+    }
+
+    private void acceptClient(BaseEdgeDBClient client) {
+        synchronized (this.clients) {
+            this.clients.add(new PooledClient(client));
+            this.poolCounters.inUse.decrementAndGet();
+            this.poolCounters.idle.incrementAndGet();
+            var count = this.clientCount.incrementAndGet();
+
+            logger.debug("client {} returned to pool, client count: {}", client, count);
+
+            trimPool();
+
+            if(this.clientCount.get() > this.poolSettings.clientAvailability) {
+                logger.debug(
+                        "Cleaning up pool... {}/{} availability reached",
+                        this.clientCount.get(), this.poolSettings.clientAvailability
+                );
+                cleanupPool();
+            }
+        }
+    }
+
+    private @NotNull CompletionStage<Void> onClientReady(@NotNull BaseEdgeDBClient client) {
+        if(this.cacheState != null && client instanceof EdgeDBBinaryClient) {
+            this.cacheState.codecSource = (EdgeDBBinaryClient) client;
+        }
+
         var suggestedConcurrency = client.getSuggestedPoolConcurrency();
 
-        suggestedConcurrency.ifPresent(this.poolHolder::resize);
+        if(suggestedConcurrency.isPresent() && suggestedConcurrency.get() > 0 && !this.poolSettings.sizeOverridden) {
+            resizePool(suggestedConcurrency.get());
+        }
 
         return CompletableFuture.completedFuture(null);
     }
 
-    private CompletionStage<BaseEdgeDBClient> createClient() {
-        return this.poolHolder.acquireContract()
-                .thenApply(contract -> {
-                    logger.trace("Contract acquired, remaining handles: {}", this.poolHolder.remaining());
-                    BaseEdgeDBClient client;
-                    try {
-                        client = clientFactory.create(this.connection, this.config, contract);
-                    } catch (EdgeDBException e) {
-                        throw new CompletionException(e);
-                    }
-                    contract.register(client, this::acceptClient);
-                    client.onReady(this::onClientReady);
-                    logger.debug("client instance created: {}", client);
-                    return client;
-                })
-                .thenApply(client -> client.withSession(this.session));
+    private @NotNull BaseEdgeDBClient createClient() {
+        var contract = this.poolHolder.newContract();
+        BaseEdgeDBClient client;
+
+        try {
+            client = clientFactory.create(this.connection, this.config, contract);
+        } catch (EdgeDBException e) {
+            throw new CompletionException(e);
+        }
+
+        contract.register(client, this::acceptClient);
+
+        if(client instanceof EdgeDBBinaryClient) {
+            ((EdgeDBBinaryClient)client).setBufferTracker(this.bufferTracker);
+        }
+
+        client.onReady(this::onClientReady);
+        this.poolCounters.inUse.incrementAndGet();
+        logger.debug("client instance created: {}", client);
+        return client.withSession(this.session);
+    }
+
+    @FunctionalInterface
+    private interface RawResultDecoder<T, U> {
+        U decode(RawQueryResult result, Class<T> cls) throws EdgeDBException, OperationNotSupportedException;
     }
 
     @FunctionalInterface
@@ -1,10 +1,15 @@
 package com.edgedb.driver;
 
+import com.edgedb.driver.internal.StreamExecutor;
+import com.edgedb.driver.metrics.DriverMetrics;
+import com.edgedb.driver.metrics.QueryListener;
 import com.edgedb.driver.namingstrategies.NamingStrategy;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 public class EdgeDBClientConfig {
@@ -28,6 +33,16 @@ public class EdgeDBClientConfig {
     private ClientType clientType = ClientType.TCP;
     private int clientAvailability = 10;
     private Duration clientMaxAge = Duration.of(10, ChronoUnit.MINUTES);
+    private boolean useIdentityMap = false;
+    private boolean useBufferAccounting = false;
+    private DriverMetrics metrics = DriverMetrics.NOOP;
+    private QueryListener queryListener = QueryListener.NOOP;
+    private @Nullable ConcurrencyLimitSettings concurrencyLimit;
+    private @Nullable HedgeSettings hedging;
+    private boolean useQueryCoalescing = false;
+    private @Nullable ResultCache resultCache;
+    private @NotNull ReplicaSettings replicaRouting = ReplicaSettings.DEFAULT;
+    private @Nullable Executor streamExecutor;
 
     /**
      * Gets the number of attempts to try to connect.
@@ -171,6 +186,91 @@ public class EdgeDBClientConfig {
         return implicitTypeIds;
     }
 
+    /**
+     * Gets whether objects with the same {@code id} within a single query result are deserialized to the same
+     * instance, and whether UUIDs within the result are interned.
+     * @return {@code true} if an identity map is used per query execution.
+     */
+    public boolean useIdentityMap() {
+        return useIdentityMap;
+    }
+
+    /**
+     * Gets whether the buffers retained for query results are accounted for and checked for leaks.
+     * @return {@code true} if buffer accounting is enabled.
+     */
+    public boolean useBufferAccounting() {
+        return useBufferAccounting;
+    }
+
+    /**
+     * Gets the metrics the client pool reports its instrumentation to.
+     * @return The configured metrics, {@linkplain DriverMetrics#NOOP} by default.
+     */
+    public DriverMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Gets the listener notified of the phases of each query.
+     * @return The configured query listener, {@linkplain QueryListener#NOOP} by default.
+     */
+    public QueryListener getQueryListener() {
+        return queryListener;
+    }
+
+    /**
+     * Gets the settings of the adaptive concurrency limit of the client pool.
+     * @return The configured concurrency limit settings, or {@code null} if the pool has no concurrency limit, which
+     * is the default.
+     */
+    public @Nullable ConcurrencyLimitSettings getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    /**
+     * Gets the settings of the hedged read-only queries of the client pool.
+     * @return The configured hedge settings, or {@code null} if queries aren't hedged, which is the default.
+     */
+    public @Nullable HedgeSettings getHedging() {
+        return hedging;
+    }
+
+    /**
+     * Gets whether identical read-only queries in flight at the same time are run once, their callers sharing the
+     * result.
+     * @return {@code true} if query coalescing is enabled.
+     */
+    public boolean useQueryCoalescing() {
+        return useQueryCoalescing;
+    }
+
+    /**
+     * Gets the cache of the query results of the client views returned by
+     * {@linkplain EdgeDBClient#withCaching(Duration, String...)}.
+     * @return The configured result cache, or {@code null} if results aren't cached, which is the default.
+     */
+    public @Nullable ResultCache getResultCache() {
+        return resultCache;
+    }
+
+    /**
+     * Gets the settings of the read replicas of the client pool, used when the pool is created with replicas.
+     * @return The configured replica settings.
+     */
+    public @NotNull ReplicaSettings getReplicaRouting() {
+        return replicaRouting;
+    }
+
+    /**
+     * Gets the executor running the blocking writes and reads of the channels given to the client, like the channel
+     * of {@linkplain EdgeDBQueryable#queryJsonTo} or of a dump.
+     * @return The configured executor, or a cached thread pool shared by the driver if none was set.
+     */
+    public @NotNull Executor getStreamExecutor() {
+        return streamExecutor != null ? streamExecutor : StreamExecutor.get();
+    }
+
     /**
      * A builder class used to construct {@linkplain EdgeDBClientConfig}s.
      */
@@ -190,6 +290,16 @@ public class EdgeDBClientConfig {
         private ClientType clientType = DEFAULT.clientType;
         private int clientAvailability = DEFAULT.clientAvailability;
         private Duration clientMaxAge = DEFAULT.clientMaxAge;
+        private boolean useIdentityMap = DEFAULT.useIdentityMap;
+        private boolean useBufferAccounting = DEFAULT.useBufferAccounting;
+        private DriverMetrics metrics = DEFAULT.metrics;
+        private QueryListener queryListener = DEFAULT.queryListener;
+        private @Nullable ConcurrencyLimitSettings concurrencyLimit = DEFAULT.concurrencyLimit;
+        private @Nullable HedgeSettings hedging = DEFAULT.hedging;
+        private boolean useQueryCoalescing = DEFAULT.useQueryCoalescing;
+        private @Nullable ResultCache resultCache = DEFAULT.resultCache;
+        private @NotNull ReplicaSettings replicaRouting = DEFAULT.replicaRouting;
+        private @Nullable Executor streamExecutor = DEFAULT.streamExecutor;
 
         /**
          * Sets the pool size of the current builder.
@@ -344,6 +454,139 @@ public class EdgeDBClientConfig {
             return this;
         }
 
+        /**
+         * Sets whether objects with the same {@code id} within a single query result are deserialized to the same
+         * instance, and whether UUIDs within the result are interned. The {@code id} property must be part of the
+         * shape, which is the case when explicit object ids are enabled. Shared instances are shared across the
+         * whole result, so they shouldn't be mutated per row.
+         * @param useIdentityMap The value to set.
+         * @return The current builder.
+         */
+        public @NotNull Builder withIdentityMap(boolean useIdentityMap) {
+            this.useIdentityMap = useIdentityMap;
+            return this;
+        }
+
+        /**
+         * Sets whether the buffers retained for query results are accounted for and checked for leaks. Retained
+         * buffers are tagged with their query and message for Netty's leak detector, their count and size are
+         * reported through {@linkplain DriverMetrics#bindBuffers}, and results that are garbage
+         * collected without being released are logged with their query. This costs an allocation per query result,
+         * it's meant for diagnosing memory growth.
+         * @param useBufferAccounting The value to set.
+         * @return The current builder.
+         */
+        public @NotNull Builder withBufferAccounting(boolean useBufferAccounting) {
+            this.useBufferAccounting = useBufferAccounting;
+            return this;
+        }
+
+        /**
+         * Sets the metrics the client pool reports pool acquires, connections, parses, bytes and rows to.
+         * @param metrics The value to set.
+         * @return The current builder.
+         * @see DriverMetrics
+         * @see com.edgedb.driver.metrics.SimpleDriverMetrics
+         */
+        public @NotNull Builder withMetrics(@NotNull DriverMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Sets the listener notified at each phase of a query: pool acquire, parse, execute, first row, completion of
+         * the execution and decoding.
+         * @param queryListener The value to set.
+         * @return The current builder.
+         * @see QueryListener
+         * @see com.edgedb.driver.metrics.SlowQueryLogger
+         */
+        public @NotNull Builder withQueryListener(@NotNull QueryListener queryListener) {
+            this.queryListener = queryListener;
+            return this;
+        }
+
+        /**
+         * Sets the adaptive concurrency limit of the client pool, which caps the queries in flight according to their
+         * latency and rejects the queries over it with a
+         * {@linkplain com.edgedb.driver.exceptions.ConcurrencyLimitExceededException}. Transactions, dumps and
+         * restores aren't limited.
+         * @param concurrencyLimit The value to set, or {@code null} to disable the limit.
+         * @return The current builder.
+         * @see ConcurrencyLimitSettings
+         */
+        public @NotNull Builder withConcurrencyLimit(@Nullable ConcurrencyLimitSettings concurrencyLimit) {
+            this.concurrencyLimit = concurrencyLimit;
+            return this;
+        }
+
+        /**
+         * Sets the hedging of read-only queries: a query run with only the {@linkplain Capabilities#READ_ONLY}
+         * capability which is slower than most is sent again on another client, and the first result wins. Queries
+         * streamed to a channel and transactions aren't hedged.
+         * @param hedging The value to set, or {@code null} to disable hedging.
+         * @return The current builder.
+         * @see HedgeSettings
+         */
+        public @NotNull Builder withHedging(@Nullable HedgeSettings hedging) {
+            this.hedging = hedging;
+            return this;
+        }
+
+        /**
+         * Sets whether identical read-only queries in flight at the same time are run once. A query run with only the
+         * {@linkplain Capabilities#READ_ONLY} capability, called while a query with the same text, arguments, session
+         * and result type is running, waits for that query and shares its outcome, errors included. Immutable
+         * results, like strings, numbers and JSON, are shared as is; other results are decoded again for each caller,
+         * so callers can't see each other's changes. Queries with a collector, queries streamed to a channel and
+         * transactions aren't coalesced.
+         * @param useQueryCoalescing The value to set.
+         * @return The current builder.
+         */
+        public @NotNull Builder withQueryCoalescing(boolean useQueryCoalescing) {
+            this.useQueryCoalescing = useQueryCoalescing;
+            return this;
+        }
+
+        /**
+         * Sets the cache of query results. Only the queries of the client views returned by
+         * {@linkplain EdgeDBClient#withCaching(Duration, String...)} are cached, when they're run with only the
+         * {@linkplain Capabilities#READ_ONLY} capability. The cache is shared by all the clients of the pool.
+         * @param resultCache The value to set, or {@code null} to disable caching.
+         * @return The current builder.
+         * @see SimpleResultCache
+         */
+        public @NotNull Builder withResultCache(@Nullable ResultCache resultCache) {
+            this.resultCache = resultCache;
+            return this;
+        }
+
+        /**
+         * Sets how the queries of a client pool created with read replicas are spread across them, and how the
+         * replicas are checked. Only read-only queries, run with only the {@linkplain Capabilities#READ_ONLY}
+         * capability, are sent to the replicas.
+         * @param replicaRouting The value to set.
+         * @return The current builder.
+         * @see EdgeDBClient#EdgeDBClient(EdgeDBConnection, java.util.List, EdgeDBClientConfig)
+         */
+        public @NotNull Builder withReplicaRouting(@NotNull ReplicaSettings replicaRouting) {
+            this.replicaRouting = replicaRouting;
+            return this;
+        }
+
+        /**
+         * Sets the executor running the blocking writes and reads of the channels given to the client, like the
+         * channel of {@linkplain EdgeDBQueryable#queryJsonTo} or of a dump. They never run on the threads reading the
+         * connections, and the connection isn't read further while a write is pending, so a slow channel holds back
+         * the server rather than buffering the result.
+         * @param streamExecutor The value to set, or {@code null} to use a cached thread pool shared by the driver.
+         * @return The current builder.
+         */
+        public @NotNull Builder withStreamExecutor(@Nullable Executor streamExecutor) {
+            this.streamExecutor = streamExecutor;
+            return this;
+        }
+
         /**
          * Constructs a {@linkplain EdgeDBClientConfig} from the current builder.
          * @return A {@linkplain EdgeDBClientConfig} that represents the current builder.
@@ -365,6 +608,16 @@ public class EdgeDBClientConfig {
             edgeDBClientConfig.implicitTypeIds = this.implicitTypeIds;
             edgeDBClientConfig.retryMode = this.retryMode;
             edgeDBClientConfig.messageTimeout = this.messageTimeout;
+            edgeDBClientConfig.useIdentityMap = this.useIdentityMap;
+            edgeDBClientConfig.useBufferAccounting = this.useBufferAccounting;
+            edgeDBClientConfig.metrics = this.metrics;
+            edgeDBClientConfig.queryListener = this.queryListener;
+            edgeDBClientConfig.concurrencyLimit = this.concurrencyLimit;
+            edgeDBClientConfig.hedging = this.hedging;
+            edgeDBClientConfig.useQueryCoalescing = this.useQueryCoalescing;
+            edgeDBClientConfig.resultCache = this.resultCache;
+            edgeDBClientConfig.replicaRouting = this.replicaRouting;
+            edgeDBClientConfig.streamExecutor = this.streamExecutor;
             return edgeDBClientConfig;
         }
     }
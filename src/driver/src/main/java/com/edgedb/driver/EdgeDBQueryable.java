@@ -1,14 +1,20 @@
 package com.edgedb.driver;
 
+import com.edgedb.driver.binary.builders.ObjectArguments;
 import com.edgedb.driver.datatypes.Json;
 import com.edgedb.driver.exceptions.ResultCardinalityMismatchException;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
+import java.util.stream.Collector;
 
 /**
  * Represents a generic EdgeDB queryable interface, providing methods to execute queries with cardinality control.
@@ -60,6 +66,39 @@ public interface EdgeDBQueryable {
         return execute(query, args, EnumSet.of(Capabilities.MODIFICATIONS));
     }
 
+    /**
+     * Executes a query, ignoring the result.
+     * @param query The query to execute
+     * @param args An object whose properties are used as the arguments of the query, ex: a POJO, record or
+     * {@linkplain com.edgedb.driver.annotations.EdgeDBType} class. Property names are converted with the configured
+     * {@linkplain com.edgedb.driver.namingstrategies.NamingStrategy}.
+     * @param capabilities An enum set with the allowed capabilities of the query.
+     * @return A {@linkplain CompletionStage} representing the asynchronous operation of executing the query.
+     * @see Capabilities
+     */
+    default CompletionStage<Void> execute(
+            @NotNull String query,
+            @NotNull Object args,
+            @NotNull EnumSet<Capabilities> capabilities
+    ) {
+        return execute(query, ObjectArguments.of(args), capabilities);
+    }
+
+    /**
+     * Executes a query, ignoring the result.
+     * @param query The query to execute
+     * @param args An object whose properties are used as the arguments of the query, ex: a POJO, record or
+     * {@linkplain com.edgedb.driver.annotations.EdgeDBType} class. Property names are converted with the configured
+     * {@linkplain com.edgedb.driver.namingstrategies.NamingStrategy}.
+     * @return A {@linkplain CompletionStage} representing the asynchronous operation of executing the query.
+     */
+    default CompletionStage<Void> execute(
+            @NotNull String query,
+            @NotNull Object args
+    ) {
+        return execute(query, ObjectArguments.of(args), EnumSet.of(Capabilities.MODIFICATIONS));
+    }
+
     /**
      * Executes a query with the cardinality {@code MANY}.
      * @param cls The result type of the query.
@@ -125,6 +164,139 @@ public interface EdgeDBQueryable {
         return query(cls, query, args, EnumSet.of(Capabilities.MODIFICATIONS));
     }
 
+    /**
+     * Executes a query with the cardinality {@code MANY}.
+     * @param cls The result type of the query.
+     * @param query The query to execute.
+     * @param args An object whose properties are used as the arguments of the query, ex: a POJO, record or
+     * {@linkplain com.edgedb.driver.annotations.EdgeDBType} class. Property names are converted with the configured
+     * {@linkplain com.edgedb.driver.namingstrategies.NamingStrategy}.
+     * @param capabilities An enum set with the allowed capabilities of the query.
+     * @return A {@linkplain CompletionStage} representing the asynchronous operation of executing the query. The result
+     * of the {@linkplain CompletionStage} is an immutable collection of {@linkplain T}.
+     * @param <T> The result type of the query.
+     * @see Capabilities
+     */
+    default <T> CompletionStage<List<@Nullable T>> query(
+            @NotNull Class<T> cls,
+            @NotNull String query,
+            @NotNull Object args,
+            @NotNull EnumSet<Capabilities> capabilities
+    ) {
+        return query(cls, query, ObjectArguments.of(args), capabilities);
+    }
+
+    /**
+     * Executes a query with the cardinality {@code MANY}.
+     * @param cls The result type of the query.
+     * @param query The query to execute.
+     * @param args An object whose properties are used as the arguments of the query, ex: a POJO, record or
+     * {@linkplain com.edgedb.driver.annotations.EdgeDBType} class. Property names are converted with the configured
+     * {@linkplain com.edgedb.driver.namingstrategies.NamingStrategy}.
+     * @return A {@linkplain CompletionStage} representing the asynchronous operation of executing the query. The result
+     * of the {@linkplain CompletionStage} is an immutable collection of {@linkplain T}.
+     * @param <T> The result type of the query.
+     */
+    default <T> CompletionStage<List<@Nullable T>> query(
+            @NotNull Class<T> cls,
+            @NotNull String query,
+            @NotNull Object args
+    ) {
+        return query(cls, query, ObjectArguments.of(args), EnumSet.of(Capabilities.MODIFICATIONS));
+    }
+
+    /**
+     * Executes a query with the cardinality {@code MANY}, feeding each decoded row into the given collector as it's
+     * received instead of building an intermediate list.
+     * @param cls The result type of the query.
+     * @param query The query to execute.
+     * @param args The optional map of arguments used within the query.
+     * @param capabilities An enum set with the allowed capabilities of the query.
+     * @param collector The collector to accumulate the rows with.
+     * @return A {@linkplain CompletionStage} representing the asynchronous operation of executing the query. The result
+     * of the {@linkplain CompletionStage} is the result of the collector.
+     * @param <T> The result type of the query.
+     * @param <A> The mutable accumulation type of the collector.
+     * @param <R> The result type of the collector.
+     * @apiNote Rows are accumulated on the thread reading from the connection, the collector doesn't need to be
+     * thread-safe but shouldn't block.
+     * @see Capabilities
+     */
+    <T, A, R> CompletionStage<R> query(
+            @NotNull Class<T> cls,
+            @NotNull String query,
+            @Nullable Map<String, Object> args,
+            @NotNull EnumSet<Capabilities> capabilities,
+            @NotNull Collector<? super T, A, R> collector
+    );
+
+    /**
+     * Executes a query with the cardinality {@code MANY}, feeding each decoded row into the given collector as it's
+     * received instead of building an intermediate list.
+     * @param cls The result type of the query.
+     * @param query The query to execute.
+     * @param args The optional map of arguments used within the query.
+     * @param collector The collector to accumulate the rows with.
+     * @return A {@linkplain CompletionStage} representing the asynchronous operation of executing the query. The result
+     * of the {@linkplain CompletionStage} is the result of the collector.
+     * @param <T> The result type of the query.
+     * @param <A> The mutable accumulation type of the collector.
+     * @param <R> The result type of the collector.
+     */
+    default <T, A, R> CompletionStage<R> query(
+            @NotNull Class<T> cls,
+            @NotNull String query,
+            @Nullable Map<String, Object> args,
+            @NotNull Collector<? super T, A, R> collector
+    ) {
+        return query(cls, query, args, EnumSet.of(Capabilities.MODIFICATIONS), collector);
+    }
+
+    /**
+     * Executes a query with the cardinality {@code MANY}, invoking the callback for each decoded row as it's received.
+     * @param cls The result type of the query.
+     * @param query The query to execute.
+     * @param args The optional map of arguments used within the query.
+     * @param capabilities An enum set with the allowed capabilities of the query.
+     * @param callback The callback to invoke for each row.
+     * @return A {@linkplain CompletionStage} representing the asynchronous operation of executing the query.
+     * @param <T> The result type of the query.
+     * @apiNote The callback is invoked on the thread reading from the connection and shouldn't block.
+     * @see Capabilities
+     */
+    default <T> CompletionStage<Void> forEach(
+            @NotNull Class<T> cls,
+            @NotNull String query,
+            @Nullable Map<String, Object> args,
+            @NotNull EnumSet<Capabilities> capabilities,
+            @NotNull Consumer<? super T> callback
+    ) {
+        return query(cls, query, args, capabilities, Collector.<T, Consumer<? super T>, Void>of(
+                () -> callback,
+                Consumer::accept,
+                (a, b) -> a,
+                a -> null
+        ));
+    }
+
+    /**
+     * Executes a query with the cardinality {@code MANY}, invoking the callback for each decoded row as it's received.
+     * @param cls The result type of the query.
+     * @param query The query to execute.
+     * @param args The optional map of arguments used within the query.
+     * @param callback The callback to invoke for each row.
+     * @return A {@linkplain CompletionStage} representing the asynchronous operation of executing the query.
+     * @param <T> The result type of the query.
+     */
+    default <T> CompletionStage<Void> forEach(
+            @NotNull Class<T> cls,
+            @NotNull String query,
+            @Nullable Map<String, Object> args,
+            @NotNull Consumer<? super T> callback
+    ) {
+        return forEach(cls, query, args, EnumSet.of(Capabilities.MODIFICATIONS), callback);
+    }
+
     /**
      * Executes a query with the cardinality {@code AT_MOST_ONE}.
      * @param cls The result type of the query.
@@ -194,6 +366,49 @@ public interface EdgeDBQueryable {
         return querySingle(cls, query, args, EnumSet.of(Capabilities.MODIFICATIONS));
     }
 
+    /**
+     * Executes a query with the cardinality {@code AT_MOST_ONE}.
+     * @param cls The result type of the query.
+     * @param query The query to execute.
+     * @param args An object whose properties are used as the arguments of the query, ex: a POJO, record or
+     * {@linkplain com.edgedb.driver.annotations.EdgeDBType} class. Property names are converted with the configured
+     * {@linkplain com.edgedb.driver.namingstrategies.NamingStrategy}.
+     * @param capabilities An enum set with the allowed capabilities of the query.
+     * @return A {@linkplain CompletionStage} representing the asynchronous operation of executing the query. The result
+     * of the {@linkplain CompletionStage} is an instance of {@linkplain T} if the query has a result; otherwise
+     * {@code null}.
+     * @param <T> The result type of the query.
+     * @see Capabilities
+     */
+    default <T> CompletionStage<@Nullable T> querySingle(
+            @NotNull Class<T> cls,
+            @NotNull String query,
+            @NotNull Object args,
+            @NotNull EnumSet<Capabilities> capabilities
+    ) {
+        return querySingle(cls, query, ObjectArguments.of(args), capabilities);
+    }
+
+    /**
+     * Executes a query with the cardinality {@code AT_MOST_ONE}.
+     * @param cls The result type of the query.
+     * @param query The query to execute.
+     * @param args An object whose properties are used as the arguments of the query, ex: a POJO, record or
+     * {@linkplain com.edgedb.driver.annotations.EdgeDBType} class. Property names are converted with the configured
+     * {@linkplain com.edgedb.driver.namingstrategies.NamingStrategy}.
+     * @return A {@linkplain CompletionStage} representing the asynchronous operation of executing the query. The result
+     * of the {@linkplain CompletionStage} is an instance of {@linkplain T} if the query has a result; otherwise
+     * {@code null}.
+     * @param <T> The result type of the query.
+     */
+    default <T> CompletionStage<@Nullable T> querySingle(
+            @NotNull Class<T> cls,
+            @NotNull String query,
+            @NotNull Object args
+    ) {
+        return querySingle(cls, query, ObjectArguments.of(args), EnumSet.of(Capabilities.MODIFICATIONS));
+    }
+
     /**
      * Executes a query with the cardinality {@code ONE}
      * @param cls The result type of the query.
@@ -263,6 +478,49 @@ public interface EdgeDBQueryable {
         return queryRequiredSingle(cls, query, args, EnumSet.of(Capabilities.MODIFICATIONS));
     }
 
+    /**
+     * Executes a query with the cardinality {@code ONE}
+     * @param cls The result type of the query.
+     * @param query The query to execute.
+     * @param args An object whose properties are used as the arguments of the query, ex: a POJO, record or
+     * {@linkplain com.edgedb.driver.annotations.EdgeDBType} class. Property names are converted with the configured
+     * {@linkplain com.edgedb.driver.namingstrategies.NamingStrategy}.
+     * @param capabilities An enum set with the allowed capabilities of the query.
+     * @return A {@linkplain CompletionStage} representing the asynchronous operation of executing the query. The result
+     * of the {@linkplain CompletionStage} is an instance of {@linkplain T} if the query has a result; otherwise
+     * a {@linkplain ResultCardinalityMismatchException} is raised.
+     * @param <T> The result type of the query.
+     * @see Capabilities
+     */
+    default <T> CompletionStage<@NotNull T> queryRequiredSingle(
+            @NotNull Class<T> cls,
+            @NotNull String query,
+            @NotNull Object args,
+            @NotNull EnumSet<Capabilities> capabilities
+    ) {
+        return queryRequiredSingle(cls, query, ObjectArguments.of(args), capabilities);
+    }
+
+    /**
+     * Executes a query with the cardinality {@code ONE}
+     * @param cls The result type of the query.
+     * @param query The query to execute.
+     * @param args An object whose properties are used as the arguments of the query, ex: a POJO, record or
+     * {@linkplain com.edgedb.driver.annotations.EdgeDBType} class. Property names are converted with the configured
+     * {@linkplain com.edgedb.driver.namingstrategies.NamingStrategy}.
+     * @return A {@linkplain CompletionStage} representing the asynchronous operation of executing the query. The result
+     * of the {@linkplain CompletionStage} is an instance of {@linkplain T} if the query has a result; otherwise
+     * a {@linkplain ResultCardinalityMismatchException} is raised.
+     * @param <T> The result type of the query.
+     */
+    default <T> CompletionStage<@NotNull T> queryRequiredSingle(
+            @NotNull Class<T> cls,
+            @NotNull String query,
+            @NotNull Object args
+    ) {
+        return queryRequiredSingle(cls, query, ObjectArguments.of(args), EnumSet.of(Capabilities.MODIFICATIONS));
+    }
+
     /**
      * Executes a query, specifying the result to be a single JSON array.
      * @param query The query to execute.
@@ -293,6 +551,45 @@ public interface EdgeDBQueryable {
         return queryJson(query, args, EnumSet.of(Capabilities.MODIFICATIONS));
     }
 
+    /**
+     * Executes a query, specifying the result to be a single JSON array.
+     * @param query The query to execute.
+     * @param args An object whose properties are used as the arguments of the query, ex: a POJO, record or
+     * {@linkplain com.edgedb.driver.annotations.EdgeDBType} class. Property names are converted with the configured
+     * {@linkplain com.edgedb.driver.namingstrategies.NamingStrategy}.
+     * @param capabilities An enum set with the allowed capabilities of the query.
+     * @return A {@linkplain CompletionStage} representing the asynchronous operation of executing the query. The result
+     * of the {@linkplain CompletionStage} is a single {@linkplain Json} dataclass, with the
+     * {@linkplain Json#getValue()} being a JSON array.
+     * @see Json
+     * @see Capabilities
+     */
+    default CompletionStage<@NotNull Json> queryJson(
+            @NotNull String query,
+            @NotNull Object args,
+            @NotNull EnumSet<Capabilities> capabilities
+    ) {
+        return queryJson(query, ObjectArguments.of(args), capabilities);
+    }
+
+    /**
+     * Executes a query, specifying the result to be a single JSON array.
+     * @param query The query to execute.
+     * @param args An object whose properties are used as the arguments of the query, ex: a POJO, record or
+     * {@linkplain com.edgedb.driver.annotations.EdgeDBType} class. Property names are converted with the configured
+     * {@linkplain com.edgedb.driver.namingstrategies.NamingStrategy}.
+     * @return A {@linkplain CompletionStage} representing the asynchronous operation of executing the query. The result
+     * of the {@linkplain CompletionStage} is a single {@linkplain Json} dataclass, with the
+     * {@linkplain Json#getValue()} being a JSON array.
+     * @see Json
+     */
+    default CompletionStage<@NotNull Json> queryJson(
+            @NotNull String query,
+            @NotNull Object args
+    ) {
+        return queryJson(query, ObjectArguments.of(args), EnumSet.of(Capabilities.MODIFICATIONS));
+    }
+
     /**
      * Executes a query, specifying the result to be a single JSON array.
      * @param query The query to execute.
@@ -353,6 +650,43 @@ public interface EdgeDBQueryable {
         return queryJsonElements(query, args, EnumSet.of(Capabilities.MODIFICATIONS));
     }
 
+    /**
+     * Executes a query, specifying the result to be a collection of JSON objects.
+     * @param query The query to execute.
+     * @param args An object whose properties are used as the arguments of the query, ex: a POJO, record or
+     * {@linkplain com.edgedb.driver.annotations.EdgeDBType} class. Property names are converted with the configured
+     * {@linkplain com.edgedb.driver.namingstrategies.NamingStrategy}.
+     * @param capabilities An enum set with the allowed capabilities of the query.
+     * @return A {@linkplain CompletionStage} representing the asynchronous operation of executing the query. The result
+     * of the {@linkplain CompletionStage} is an immutable collection of {@linkplain Json} dataclasses.
+     * @see Json
+     * @see Capabilities
+     */
+    default CompletionStage<List<@NotNull Json>> queryJsonElements(
+            @NotNull String query,
+            @NotNull Object args,
+            @NotNull EnumSet<Capabilities> capabilities
+    ) {
+        return queryJsonElements(query, ObjectArguments.of(args), capabilities);
+    }
+
+    /**
+     * Executes a query, specifying the result to be a collection of JSON objects.
+     * @param query The query to execute.
+     * @param args An object whose properties are used as the arguments of the query, ex: a POJO, record or
+     * {@linkplain com.edgedb.driver.annotations.EdgeDBType} class. Property names are converted with the configured
+     * {@linkplain com.edgedb.driver.namingstrategies.NamingStrategy}.
+     * @return A {@linkplain CompletionStage} representing the asynchronous operation of executing the query. The result
+     * of the {@linkplain CompletionStage} is an immutable collection of {@linkplain Json} dataclasses.
+     * @see Json
+     */
+    default CompletionStage<List<@NotNull Json>> queryJsonElements(
+            @NotNull String query,
+            @NotNull Object args
+    ) {
+        return queryJsonElements(query, ObjectArguments.of(args), EnumSet.of(Capabilities.MODIFICATIONS));
+    }
+
     /**
      * Executes a query, specifying the result to be a collection of JSON objects.
      * @param query The query to execute.
@@ -379,4 +713,124 @@ public interface EdgeDBQueryable {
     ) {
         return queryJsonElements(query, null, capabilities);
     }
+
+    /**
+     * Executes a query, writing each JSON result element to the provided channel as it's received, without
+     * materializing the result set.
+     * @param channel The channel to write the JSON to.
+     * @param mode The framing of the written elements.
+     * @param query The query to execute.
+     * @param args The optional map of arguments used within the query.
+     * @param capabilities An enum set with the allowed capabilities of the query.
+     * @return A {@linkplain CompletionStage} representing the asynchronous operation of executing the query. The result
+     * of the {@linkplain CompletionStage} is the number of elements written to the channel.
+     * @apiNote Writes happen on the stream executor of the client's config, one element at a time, the connection
+     * isn't read further while an element is being written. The channel must be in blocking mode. If the query fails
+     * after elements were written, the channel will contain a partial result.
+     * @see com.edgedb.driver.EdgeDBClientConfig#getStreamExecutor()
+     * @see JsonStreamMode
+     * @see Capabilities
+     */
+    CompletionStage<Long> queryJsonTo(
+            @NotNull WritableByteChannel channel,
+            @NotNull JsonStreamMode mode,
+            @NotNull String query,
+            @Nullable Map<String, Object> args,
+            @NotNull EnumSet<Capabilities> capabilities
+    );
+
+    /**
+     * Executes a query, writing each JSON result element to the provided channel as it's received, without
+     * materializing the result set.
+     * @param channel The channel to write the JSON to.
+     * @param mode The framing of the written elements.
+     * @param query The query to execute.
+     * @param args The optional map of arguments used within the query.
+     * @return A {@linkplain CompletionStage} representing the asynchronous operation of executing the query. The result
+     * of the {@linkplain CompletionStage} is the number of elements written to the channel.
+     * @see JsonStreamMode
+     */
+    default CompletionStage<Long> queryJsonTo(
+            @NotNull WritableByteChannel channel,
+            @NotNull JsonStreamMode mode,
+            @NotNull String query,
+            @Nullable Map<String, Object> args
+    ) {
+        return queryJsonTo(channel, mode, query, args, EnumSet.of(Capabilities.MODIFICATIONS));
+    }
+
+    /**
+     * Executes a query, writing the result to the provided channel as a JSON array.
+     * @param channel The channel to write the JSON to.
+     * @param query The query to execute.
+     * @param args The optional map of arguments used within the query.
+     * @return A {@linkplain CompletionStage} representing the asynchronous operation of executing the query. The result
+     * of the {@linkplain CompletionStage} is the number of elements written to the channel.
+     */
+    default CompletionStage<Long> queryJsonTo(
+            @NotNull WritableByteChannel channel,
+            @NotNull String query,
+            @Nullable Map<String, Object> args
+    ) {
+        return queryJsonTo(channel, JsonStreamMode.ARRAY, query, args, EnumSet.of(Capabilities.MODIFICATIONS));
+    }
+
+    /**
+     * Executes a query, writing each JSON result element to the provided stream as it's received, without
+     * materializing the result set. The stream is not closed.
+     * @param stream The stream to write the JSON to.
+     * @param mode The framing of the written elements.
+     * @param query The query to execute.
+     * @param args The optional map of arguments used within the query.
+     * @param capabilities An enum set with the allowed capabilities of the query.
+     * @return A {@linkplain CompletionStage} representing the asynchronous operation of executing the query. The result
+     * of the {@linkplain CompletionStage} is the number of elements written to the stream.
+     * @see JsonStreamMode
+     * @see Capabilities
+     */
+    default CompletionStage<Long> queryJsonTo(
+            @NotNull OutputStream stream,
+            @NotNull JsonStreamMode mode,
+            @NotNull String query,
+            @Nullable Map<String, Object> args,
+            @NotNull EnumSet<Capabilities> capabilities
+    ) {
+        return queryJsonTo(Channels.newChannel(stream), mode, query, args, capabilities);
+    }
+
+    /**
+     * Executes a query, writing each JSON result element to the provided stream as it's received, without
+     * materializing the result set. The stream is not closed.
+     * @param stream The stream to write the JSON to.
+     * @param mode The framing of the written elements.
+     * @param query The query to execute.
+     * @param args The optional map of arguments used within the query.
+     * @return A {@linkplain CompletionStage} representing the asynchronous operation of executing the query. The result
+     * of the {@linkplain CompletionStage} is the number of elements written to the stream.
+     * @see JsonStreamMode
+     */
+    default CompletionStage<Long> queryJsonTo(
+            @NotNull OutputStream stream,
+            @NotNull JsonStreamMode mode,
+            @NotNull String query,
+            @Nullable Map<String, Object> args
+    ) {
+        return queryJsonTo(Channels.newChannel(stream), mode, query, args, EnumSet.of(Capabilities.MODIFICATIONS));
+    }
+
+    /**
+     * Executes a query, writing the result to the provided stream as a JSON array. The stream is not closed.
+     * @param stream The stream to write the JSON to.
+     * @param query The query to execute.
+     * @param args The optional map of arguments used within the query.
+     * @return A {@linkplain CompletionStage} representing the asynchronous operation of executing the query. The result
+     * of the {@linkplain CompletionStage} is the number of elements written to the stream.
+     */
+    default CompletionStage<Long> queryJsonTo(
+            @NotNull OutputStream stream,
+            @NotNull String query,
+            @Nullable Map<String, Object> args
+    ) {
+        return queryJsonTo(Channels.newChannel(stream), JsonStreamMode.ARRAY, query, args, EnumSet.of(Capabilities.MODIFICATIONS));
+    }
 }
@@ -0,0 +1,130 @@
+package com.edgedb.driver;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+
+/**
+ * Represents the settings of hedged queries in a client pool.
+ * <br/><br/>
+ * A read-only query, one run with only the {@linkplain Capabilities#READ_ONLY} capability, which didn't complete
+ * within a percentile of the latency of the recent read-only queries is sent again on another client of the pool.
+ * The first of the two to complete wins, the other one is abandoned. The hedges are paid for by a budget, a share of
+ * the read-only queries, so hedging can't multiply the load on a struggling server.
+ * @see EdgeDBClientConfig.Builder#withHedging(HedgeSettings)
+ */
+public final class HedgeSettings {
+    /**
+     * Gets a builder used to construct a {@linkplain HedgeSettings}
+     * @return A new builder instance.
+     */
+    public static @NotNull Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets the default hedge settings.
+     */
+    public static final @NotNull HedgeSettings DEFAULT = new HedgeSettings();
+
+    HedgeSettings() { }
+
+    private double percentile = 0.95;
+    private Duration minDelay = Duration.ofMillis(5);
+    private double budget = 0.1;
+
+    /**
+     * Gets the percentile of the latency of the recent read-only queries after which a query is hedged. The default
+     * is {@code 0.95}.
+     * @return The percentile, between 0 and 1.
+     */
+    public double getPercentile() {
+        return percentile;
+    }
+
+    /**
+     * Gets the shortest time a query runs before it's hedged, whatever the percentile. The default is 5ms.
+     * @return The minimum hedge delay.
+     */
+    public Duration getMinDelay() {
+        return minDelay;
+    }
+
+    /**
+     * Gets the number of hedges allowed per read-only query, averaged over time. The default is {@code 0.1}, one
+     * hedge for every ten queries.
+     * @return The hedge budget.
+     */
+    public double getBudget() {
+        return budget;
+    }
+
+    /**
+     * Represents a builder used to construct {@linkplain HedgeSettings}.
+     * @see HedgeSettings
+     */
+    public static final class Builder {
+        private double percentile = DEFAULT.percentile;
+        private Duration minDelay = DEFAULT.minDelay;
+        private double budget = DEFAULT.budget;
+
+        private Builder() {}
+
+        /**
+         * Sets the percentile of the latency of the recent read-only queries after which a query is hedged.
+         * @param percentile The value to set.
+         * @return The current builder.
+         * @exception IllegalArgumentException The value isn't between 0 and 1, exclusive.
+         */
+        public @NotNull Builder withPercentile(double percentile) {
+            if(!(percentile > 0 && percentile < 1)) {
+                throw new IllegalArgumentException("Percentile must be between 0 and 1");
+            }
+
+            this.percentile = percentile;
+            return this;
+        }
+
+        /**
+         * Sets the shortest time a query runs before it's hedged, whatever the percentile.
+         * @param minDelay The value to set.
+         * @return The current builder.
+         * @exception IllegalArgumentException The delay is negative.
+         */
+        public @NotNull Builder withMinDelay(@NotNull Duration minDelay) {
+            if(minDelay.isNegative()) {
+                throw new IllegalArgumentException("Minimum delay must not be negative");
+            }
+
+            this.minDelay = minDelay;
+            return this;
+        }
+
+        /**
+         * Sets the number of hedges allowed per read-only query, averaged over time.
+         * @param budget The value to set.
+         * @return The current builder.
+         * @exception IllegalArgumentException The value isn't between 0 and 1.
+         */
+        public @NotNull Builder withBudget(double budget) {
+            if(!(budget >= 0 && budget <= 1)) {
+                throw new IllegalArgumentException("Budget must be between 0 and 1");
+            }
+
+            this.budget = budget;
+            return this;
+        }
+
+        /**
+         * Constructs a new {@linkplain HedgeSettings} from this builder.
+         * @return A {@linkplain HedgeSettings} with the values specified in this builder.
+         */
+        public @NotNull HedgeSettings build() {
+            HedgeSettings settings = new HedgeSettings();
+            settings.percentile = this.percentile;
+            settings.minDelay = this.minDelay;
+            settings.budget = this.budget;
+            return settings;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.edgedb.driver;
+
+/**
+ * An enum that specifies how JSON results are framed when streamed to a sink.
+ * @see EdgeDBQueryable#queryJsonTo(java.nio.channels.WritableByteChannel, JsonStreamMode, String, java.util.Map, java.util.EnumSet)
+ */
+public enum JsonStreamMode {
+    /**
+     * The results are written as a single JSON array, ex: {@code [{...},{...}]}.
+     */
+    ARRAY,
+
+    /**
+     * The results are written as newline-delimited JSON, one element per line.
+     */
+    NDJSON
+}
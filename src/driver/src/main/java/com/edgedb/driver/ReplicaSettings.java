@@ -0,0 +1,132 @@
+package com.edgedb.driver;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+
+/**
+ * Represents the settings of the read replicas of a client pool.
+ * <br/><br/>
+ * A query run with only the {@linkplain Capabilities#READ_ONLY} capability is sent to one of the replicas, the one
+ * with the fewest queries in flight weighted by its recent latency. Other queries, transactions, dumps and restores
+ * run on the primary. Each replica is checked in the background; one failing its checks, or failing to connect when
+ * running a query, is taken out of rotation until a check passes again, and its queries run on the primary meanwhile.
+ * @see EdgeDBClient#EdgeDBClient(EdgeDBConnection, java.util.List, EdgeDBClientConfig)
+ * @see EdgeDBClientConfig.Builder#withReplicaRouting(ReplicaSettings)
+ */
+public final class ReplicaSettings {
+    /**
+     * Gets a builder used to construct a {@linkplain ReplicaSettings}
+     * @return A new builder instance.
+     */
+    public static @NotNull Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets the default replica settings.
+     */
+    public static final @NotNull ReplicaSettings DEFAULT = new ReplicaSettings();
+
+    ReplicaSettings() { }
+
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+    private Duration healthCheckTimeout = Duration.ofSeconds(2);
+    private int failureThreshold = 2;
+
+    /**
+     * Gets the time between two health checks of a replica. The default is 5 seconds.
+     * @return The health check interval.
+     */
+    public Duration getHealthCheckInterval() {
+        return healthCheckInterval;
+    }
+
+    /**
+     * Gets the time a health check has to complete within, including connecting to the replica. The default is 2
+     * seconds.
+     * @return The health check timeout.
+     */
+    public Duration getHealthCheckTimeout() {
+        return healthCheckTimeout;
+    }
+
+    /**
+     * Gets the number of consecutive failed health checks or connections after which a replica is taken out of
+     * rotation. The default is {@code 2}.
+     * @return The failure threshold.
+     */
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    /**
+     * Represents a builder used to construct {@linkplain ReplicaSettings}.
+     * @see ReplicaSettings
+     */
+    public static final class Builder {
+        private Duration healthCheckInterval = DEFAULT.healthCheckInterval;
+        private Duration healthCheckTimeout = DEFAULT.healthCheckTimeout;
+        private int failureThreshold = DEFAULT.failureThreshold;
+
+        private Builder() {}
+
+        /**
+         * Sets the time between two health checks of a replica.
+         * @param healthCheckInterval The value to set.
+         * @return The current builder.
+         * @exception IllegalArgumentException The interval isn't positive.
+         */
+        public @NotNull Builder withHealthCheckInterval(@NotNull Duration healthCheckInterval) {
+            if(healthCheckInterval.isNegative() || healthCheckInterval.isZero()) {
+                throw new IllegalArgumentException("Health check interval must be positive");
+            }
+
+            this.healthCheckInterval = healthCheckInterval;
+            return this;
+        }
+
+        /**
+         * Sets the time a health check has to complete within, including connecting to the replica.
+         * @param healthCheckTimeout The value to set.
+         * @return The current builder.
+         * @exception IllegalArgumentException The timeout isn't positive.
+         */
+        public @NotNull Builder withHealthCheckTimeout(@NotNull Duration healthCheckTimeout) {
+            if(healthCheckTimeout.isNegative() || healthCheckTimeout.isZero()) {
+                throw new IllegalArgumentException("Health check timeout must be positive");
+            }
+
+            this.healthCheckTimeout = healthCheckTimeout;
+            return this;
+        }
+
+        /**
+         * Sets the number of consecutive failed health checks or connections after which a replica is taken out of
+         * rotation.
+         * @param failureThreshold The value to set.
+         * @return The current builder.
+         * @exception IllegalArgumentException The value is less than 1.
+         */
+        public @NotNull Builder withFailureThreshold(int failureThreshold) {
+            if(failureThreshold < 1) {
+                throw new IllegalArgumentException("Failure threshold must be at least 1");
+            }
+
+            this.failureThreshold = failureThreshold;
+            return this;
+        }
+
+        /**
+         * Constructs a new {@linkplain ReplicaSettings} from this builder.
+         * @return A {@linkplain ReplicaSettings} with the values specified in this builder.
+         */
+        public @NotNull ReplicaSettings build() {
+            ReplicaSettings settings = new ReplicaSettings();
+            settings.healthCheckInterval = this.healthCheckInterval;
+            settings.healthCheckTimeout = this.healthCheckTimeout;
+            settings.failureThreshold = this.failureThreshold;
+            return settings;
+        }
+    }
+}
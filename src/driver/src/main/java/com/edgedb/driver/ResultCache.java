@@ -0,0 +1,152 @@
+package com.edgedb.driver;
+
+import com.edgedb.driver.clients.RawQueryResult;
+import com.edgedb.driver.state.Session;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Represents a cache of query results, used by the client views returned by
+ * {@linkplain EdgeDBClient#withCaching(Duration, String...)}.
+ * <br/><br/>
+ * Entries hold the results as received from EdgeDB, before decoding, so a single entry is decoded to whatever type
+ * the query asks for and each hit gets its own copy of the result. Implementations have to be thread-safe, and should
+ * bound the size of the cache.
+ * @see SimpleResultCache
+ * @see EdgeDBClientConfig.Builder#withResultCache(ResultCache)
+ */
+public interface ResultCache {
+    /**
+     * Gets the entry of a query.
+     * @param key The key of the query.
+     * @return The entry, or {@code null} if the query isn't cached or its entry expired.
+     */
+    @Nullable Entry get(@NotNull Key key);
+
+    /**
+     * Adds or replaces the entry of a query.
+     * @param key The key of the query.
+     * @param entry The entry to cache.
+     */
+    void put(@NotNull Key key, @NotNull Entry entry);
+
+    /**
+     * Removes the entries with any of the specified tags.
+     * @param tags The tags of the entries to remove.
+     */
+    void invalidate(@NotNull Collection<String> tags);
+
+    /**
+     * Removes every entry.
+     */
+    void clear();
+
+    /**
+     * Represents the key of a cached query: its text, its encoded arguments and the session it ran with. The type the
+     * result is decoded to only matters to the key if it asks for the type names of the objects of the result.
+     */
+    final class Key {
+        private final @NotNull String query;
+        private final byte @NotNull [] arguments;
+        private final @NotNull Session session;
+        private final boolean implicitTypeNames;
+        private final int hash;
+
+        Key(@NotNull String query, byte @NotNull [] arguments, @NotNull Session session, boolean implicitTypeNames) {
+            this.query = query;
+            this.arguments = arguments;
+            this.session = session;
+            this.implicitTypeNames = implicitTypeNames;
+            this.hash = Objects.hash(query, Arrays.hashCode(arguments), session, implicitTypeNames);
+        }
+
+        /**
+         * Gets the text of the query.
+         * @return The query.
+         */
+        public @NotNull String getQuery() {
+            return query;
+        }
+
+        /**
+         * Gets the size of the key, counted towards the size of its entry.
+         * @return The approximate size, in bytes.
+         */
+        public long getSize() {
+            return query.length() * 2L + arguments.length;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(this == o) {
+                return true;
+            }
+
+            if(!(o instanceof Key)) {
+                return false;
+            }
+
+            var other = (Key) o;
+
+            return hash == other.hash
+                    && implicitTypeNames == other.implicitTypeNames
+                    && query.equals(other.query)
+                    && Arrays.equals(arguments, other.arguments)
+                    && session.equals(other.session);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Represents a cached query result.
+     */
+    final class Entry {
+        private final @NotNull RawQueryResult result;
+        private final @NotNull Set<String> tags;
+        private final long expiresAtNanos;
+
+        Entry(@NotNull RawQueryResult result, @NotNull Set<String> tags, @NotNull Duration ttl) {
+            this.result = result;
+            this.tags = tags;
+            this.expiresAtNanos = System.nanoTime() + ttl.toNanos();
+        }
+
+        @NotNull RawQueryResult getResult() {
+            return result;
+        }
+
+        /**
+         * Gets the tags of the entry, used to invalidate it.
+         * @return An immutable set of tags.
+         */
+        public @NotNull Set<String> getTags() {
+            return tags;
+        }
+
+        /**
+         * Gets the size of the result, before decoding.
+         * @return The size, in bytes.
+         */
+        public long getSize() {
+            return result.getSize();
+        }
+
+        /**
+         * Gets whether the time to live of the entry passed.
+         * @return {@code true} if the entry expired.
+         */
+        public boolean isExpired() {
+            return System.nanoTime() - expiresAtNanos >= 0;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.edgedb.driver;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * An in-memory {@linkplain ResultCache} bounded by the size of its entries, evicting the least recently used ones
+ * first.
+ * <br/><br/>
+ * Expired entries are removed when they're looked up or evicted.
+ */
+public final class SimpleResultCache implements ResultCache {
+    private final long maxSize;
+    private final @NotNull LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final @NotNull Map<String, Set<Key>> tagged = new HashMap<>();
+    private long size;
+
+    /**
+     * Constructs a new {@linkplain SimpleResultCache}.
+     * @param maxSize The most bytes of results and keys the cache holds.
+     * @exception IllegalArgumentException The size is less than 1.
+     */
+    public SimpleResultCache(long maxSize) {
+        if(maxSize <= 0) {
+            throw new IllegalArgumentException("Max size must be at least 1");
+        }
+
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Gets the size of the entries in the cache.
+     * @return The size of the results and keys, in bytes.
+     */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * Gets the number of entries in the cache, including the expired ones not removed yet.
+     * @return The entry count.
+     */
+    public synchronized int getCount() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized @Nullable Entry get(@NotNull Key key) {
+        var entry = entries.get(key);
+
+        if(entry != null && entry.isExpired()) {
+            remove(key);
+            return null;
+        }
+
+        return entry;
+    }
+
+    @Override
+    public synchronized void put(@NotNull Key key, @NotNull Entry entry) {
+        remove(key);
+
+        var entrySize = sizeOf(key, entry);
+
+        if(entrySize > maxSize) {
+            return;
+        }
+
+        entries.put(key, entry);
+        size += entrySize;
+
+        for (var tag : entry.getTags()) {
+            tagged.computeIfAbsent(tag, t -> new HashSet<>()).add(key);
+        }
+
+        var eldest = entries.entrySet().iterator();
+
+        while(size > maxSize) {
+            var evicted = eldest.next();
+            eldest.remove();
+            removed(evicted.getKey(), evicted.getValue());
+        }
+    }
+
+    @Override
+    public synchronized void invalidate(@NotNull Collection<String> tags) {
+        for (var tag : tags) {
+            var keys = tagged.remove(tag);
+
+            if(keys != null) {
+                for (var key : keys) {
+                    remove(key);
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        entries.clear();
+        tagged.clear();
+        size = 0;
+    }
+
+    private void remove(@NotNull Key key) {
+        var entry = entries.remove(key);
+
+        if(entry != null) {
+            removed(key, entry);
+        }
+    }
+
+    private void removed(@NotNull Key key, @NotNull Entry entry) {
+        size -= sizeOf(key, entry);
+
+        for (var tag : entry.getTags()) {
+            var keys = tagged.get(tag);
+
+            if(keys != null && keys.remove(key) && keys.isEmpty()) {
+                tagged.remove(tag);
+            }
+        }
+    }
+
+    private static long sizeOf(@NotNull Key key, @NotNull Entry entry) {
+        return key.getSize() + entry.getSize();
+    }
+}
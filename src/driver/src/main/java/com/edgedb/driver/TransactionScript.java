@@ -0,0 +1,137 @@
+package com.edgedb.driver;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents a fixed list of statements run as a transaction, with
+ * {@linkplain EdgeDBClient#transaction(TransactionSettings, TransactionScript)}.
+ * <br/><br/>
+ * Unlike a transaction callback, a script is known in full before it runs: the start of the transaction, the
+ * statements and the commit are sent together and take a single round trip, once the statements with arguments were
+ * parsed by the client pool. The statements don't return results.
+ */
+public final class TransactionScript {
+    /**
+     * Gets a builder used to construct a {@linkplain TransactionScript}
+     * @return A new builder instance.
+     */
+    public static @NotNull Builder builder() {
+        return new Builder();
+    }
+
+    private final @NotNull List<Statement> statements;
+
+    private TransactionScript(@NotNull List<Statement> statements) {
+        this.statements = statements;
+    }
+
+    /**
+     * Gets the statements of the script.
+     * @return An immutable list of statements, in the order they run.
+     */
+    public @NotNull List<Statement> getStatements() {
+        return statements;
+    }
+
+    /**
+     * Represents a statement of a {@linkplain TransactionScript}.
+     */
+    public static final class Statement {
+        private final @NotNull String query;
+        private final @Nullable Map<String, Object> arguments;
+        private final @NotNull EnumSet<Capabilities> capabilities;
+
+        Statement(@NotNull String query, @Nullable Map<String, Object> arguments, @NotNull EnumSet<Capabilities> capabilities) {
+            this.query = query;
+            this.arguments = arguments;
+            this.capabilities = capabilities;
+        }
+
+        /**
+         * Gets the text of the statement.
+         * @return The query.
+         */
+        public @NotNull String getQuery() {
+            return query;
+        }
+
+        /**
+         * Gets the arguments of the statement.
+         * @return The arguments, or {@code null} if it has none.
+         */
+        public @Nullable Map<String, Object> getArguments() {
+            return arguments;
+        }
+
+        /**
+         * Gets the capabilities of the statement.
+         * @return The capabilities.
+         */
+        public @NotNull EnumSet<Capabilities> getCapabilities() {
+            return capabilities;
+        }
+    }
+
+    /**
+     * Represents a builder used to construct {@linkplain TransactionScript}s.
+     * @see TransactionScript
+     */
+    public static final class Builder {
+        private final @NotNull List<Statement> statements = new ArrayList<>();
+
+        private Builder() {}
+
+        /**
+         * Adds a statement without arguments to the script.
+         * @param query The statement.
+         * @return The current builder.
+         */
+        public @NotNull Builder execute(@NotNull String query) {
+            return execute(query, null);
+        }
+
+        /**
+         * Adds a statement to the script.
+         * @param query The statement.
+         * @param args The arguments of the statement.
+         * @return The current builder.
+         */
+        public @NotNull Builder execute(@NotNull String query, @Nullable Map<String, Object> args) {
+            return execute(query, args, EnumSet.of(Capabilities.MODIFICATIONS));
+        }
+
+        /**
+         * Adds a statement to the script.
+         * @param query The statement.
+         * @param args The arguments of the statement.
+         * @param capabilities The capabilities of the statement.
+         * @return The current builder.
+         */
+        public @NotNull Builder execute(
+                @NotNull String query, @Nullable Map<String, Object> args, @NotNull EnumSet<Capabilities> capabilities
+        ) {
+            this.statements.add(new Statement(query, args, capabilities));
+            return this;
+        }
+
+        /**
+         * Constructs a new {@linkplain TransactionScript} from this builder.
+         * @return A {@linkplain TransactionScript} with the statements added to this builder.
+         * @exception IllegalStateException No statement was added.
+         */
+        public @NotNull TransactionScript build() {
+            if(statements.isEmpty()) {
+                throw new IllegalStateException("A transaction script needs at least one statement");
+            }
+
+            return new TransactionScript(Collections.unmodifiableList(new ArrayList<>(statements)));
+        }
+    }
+}
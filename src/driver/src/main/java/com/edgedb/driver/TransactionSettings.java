@@ -2,6 +2,8 @@ package com.edgedb.driver;
 
 import org.jetbrains.annotations.NotNull;
 
+import java.time.Duration;
+
 /**
  * Represents a collection of settings used when creating a transaction.
  */
@@ -25,6 +27,7 @@ public final class TransactionSettings {
     private boolean isReadOnly;
     private boolean isDeferrable;
     private int retryAttempts = 3;
+    private Duration retryDelay = Duration.ofMillis(100);
 
     /**
      * Gets the current isolation within the transaction.
@@ -67,6 +70,16 @@ public final class TransactionSettings {
         return retryAttempts;
     }
 
+    /**
+     * Gets the base delay before a {@linkplain TransactionScript} is retried after a transaction conflict, such as a
+     * serialization failure. The delay doubles with each attempt and a random share of it is waited, so conflicting
+     * transactions don't retry in lockstep. The default is 100ms.
+     * @return The base retry delay.
+     */
+    public Duration getRetryDelay() {
+        return retryDelay;
+    }
+
     /**
      * Represents a builder used to construct {@linkplain TransactionSettings}.
      * @see TransactionSettings
@@ -76,6 +89,7 @@ public final class TransactionSettings {
         private boolean isReadOnly = DEFAULT.isReadOnly;
         private boolean isDeferrable = DEFAULT.isDeferrable;
         private int retryAttempts = DEFAULT.retryAttempts;
+        private Duration retryDelay = DEFAULT.retryDelay;
 
         /**
          * Sets the current builders isolation settings.
@@ -128,6 +142,22 @@ public final class TransactionSettings {
             return this;
         }
 
+        /**
+         * Sets the base delay before a {@linkplain TransactionScript} is retried after a transaction conflict. The
+         * default is 100ms.
+         * @param retryDelay The value to set.
+         * @return The current builder.
+         * @exception IllegalArgumentException The delay is negative.
+         */
+        public @NotNull Builder withRetryDelay(@NotNull Duration retryDelay) {
+            if(retryDelay.isNegative()) {
+                throw new IllegalArgumentException("Retry delay must not be negative");
+            }
+
+            this.retryDelay = retryDelay;
+            return this;
+        }
+
         /**
          * Constructs a new {@linkplain TransactionSettings} from this builder.
          * @return A {@linkplain TransactionSettings} with the values specified in this builder.
@@ -135,6 +165,7 @@ public final class TransactionSettings {
         public @NotNull TransactionSettings build() {
             TransactionSettings transactionSettings = new TransactionSettings();
             transactionSettings.retryAttempts = this.retryAttempts;
+            transactionSettings.retryDelay = this.retryDelay;
             transactionSettings.isolation = this.isolation;
             transactionSettings.isReadOnly = this.isReadOnly;
             transactionSettings.isDeferrable = this.isDeferrable;
@@ -0,0 +1,107 @@
+package com.edgedb.driver.binary;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumSet;
+
+/**
+ * A lookup table from the raw values of a {@linkplain BinaryEnum} to its constants, built once per enum class.
+ * <br/><br/>
+ * Values within a small range, like the byte sized enums of the protocol, are looked up by index; sparse ones, like
+ * error codes, by a binary search over the sorted values. Flags enums also keep the mask of each constant, so a set
+ * is built without going through the boxed values.
+ * @param <T> The type of the enum.
+ */
+final class BinaryEnumTable<T extends Enum<T> & BinaryEnum<?>> {
+    private static final int MAX_DENSE_RANGE = 256;
+
+    private static final ClassValue<BinaryEnumTable<?>> tables = new ClassValue<>() {
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        protected BinaryEnumTable<?> computeValue(@NotNull Class<?> type) {
+            return new BinaryEnumTable(type);
+        }
+    };
+
+    private final @NotNull Class<T> cls;
+    private final long min;
+    private final T @Nullable [] dense;
+    private final long @NotNull [] values;
+    private final T @NotNull [] constants;
+
+    private BinaryEnumTable(@NotNull Class<T> cls) {
+        this.cls = cls;
+
+        var constants = cls.getEnumConstants().clone();
+        Arrays.sort(constants, Comparator.comparingLong(BinaryEnumTable::rawValue));
+
+        this.constants = constants;
+        this.values = new long[constants.length];
+
+        for(int i = 0; i != constants.length; i++) {
+            values[i] = rawValue(constants[i]);
+        }
+
+        this.min = values.length == 0 ? 0 : values[0];
+
+        if(values.length != 0 && values[values.length - 1] - min < MAX_DENSE_RANGE) {
+            // a copy keeps the component type of the constants, the copied elements are cleared right away
+            this.dense = Arrays.copyOf(constants, (int)(values[values.length - 1] - min) + 1);
+            Arrays.fill(dense, null);
+
+            for(int i = 0; i != constants.length; i++) {
+                dense[(int)(values[i] - min)] = constants[i];
+            }
+        } else {
+            this.dense = null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T extends Enum<T> & BinaryEnum<?>> @NotNull BinaryEnumTable<T> of(@NotNull Class<T> cls) {
+        return (BinaryEnumTable<T>) tables.get(cls);
+    }
+
+    private static long rawValue(@NotNull BinaryEnum<?> value) {
+        return value.getValue().longValue();
+    }
+
+    /**
+     * Gets the constant with the given raw value.
+     * @param raw The raw value, sign extended from its wire size like {@linkplain Number#longValue()}.
+     * @return The constant, or {@code null} if the enum doesn't define the value.
+     */
+    @Nullable T get(long raw) {
+        if(dense != null) {
+            var index = raw - min;
+            return index >= 0 && index < dense.length ? dense[(int)index] : null;
+        }
+
+        var index = Arrays.binarySearch(values, raw);
+        return index < 0 ? null : constants[index];
+    }
+
+    /**
+     * Gets the constants whose bits are set in the given flags.
+     * @param flags The raw flags.
+     * @return A new set of the constants.
+     */
+    @NotNull EnumSet<T> setOf(long flags) {
+        var set = EnumSet.noneOf(cls);
+
+        if(flags == 0) {
+            return set;
+        }
+
+        for(int i = 0; i != constants.length; i++) {
+            if((flags & values[i]) != 0) {
+                set.add(constants[i]);
+            }
+        }
+
+        return set;
+    }
+}
@@ -0,0 +1,139 @@
+package com.edgedb.driver.binary;
+
+import com.edgedb.driver.binary.protocol.ServerMessageType;
+import com.edgedb.driver.metrics.BufferStatistics;
+import io.netty.buffer.ByteBuf;
+import io.netty.util.ResourceLeakHint;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.Cleaner;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Accounts for the buffers a client pool retains beyond the decoding of a message, like the rows of a query result
+ * waiting to be decoded. Results that are garbage collected without being released are logged with their query, and
+ * their buffers are released. Only created when buffer accounting is enabled.
+ * @see com.edgedb.driver.EdgeDBClientConfig.Builder#withBufferAccounting(boolean)
+ */
+public final class BufferTracker implements BufferStatistics {
+    private static final Logger logger = LoggerFactory.getLogger(BufferTracker.class);
+    private static final Cleaner cleaner = Cleaner.create();
+    private static final int MAX_QUERY_LENGTH = 200;
+
+    private final AtomicLong outstandingBuffers = new AtomicLong();
+    private final AtomicLong outstandingBytes = new AtomicLong();
+    private final AtomicLong leakedBuffers = new AtomicLong();
+
+    /**
+     * Creates a hint naming the query and message a buffer was retained for, recorded by Netty's leak detector when a
+     * buffer is {@linkplain ByteBuf#touch(Object) touched} with it.
+     * @param query The query the buffer belongs to, or {@code null} if it doesn't belong to a query.
+     * @param type The type of the message the buffer was read from.
+     * @return A hint for {@linkplain ByteBuf#touch(Object)}.
+     */
+    public static @NotNull ResourceLeakHint hint(@Nullable String query, @NotNull ServerMessageType type) {
+        return () -> query == null
+                ? String.format("%s message", type)
+                : String.format("%s message of query '%s'", type, truncate(query));
+    }
+
+    /**
+     * Starts accounting for the buffers of a query result.
+     * @param owner The object holding the buffers, once it's unreachable the buffers are considered leaked.
+     * @param buffers The retained buffers.
+     * @param query The query the buffers belong to.
+     * @return A lease that releases the buffers.
+     */
+    public @NotNull Lease track(@NotNull Object owner, @NotNull List<ByteBuf> buffers, @NotNull String query) {
+        long bytes = 0;
+
+        for (var buffer : buffers) {
+            bytes += buffer.readableBytes();
+        }
+
+        outstandingBuffers.addAndGet(buffers.size());
+        outstandingBytes.addAndGet(bytes);
+
+        var state = new LeaseState(this, buffers, bytes, query);
+        return new Lease(state, cleaner.register(owner, state));
+    }
+
+    @Override
+    public long getOutstandingBuffers() {
+        return outstandingBuffers.get();
+    }
+
+    @Override
+    public long getOutstandingBytes() {
+        return outstandingBytes.get();
+    }
+
+    @Override
+    public long getLeakedBuffers() {
+        return leakedBuffers.get();
+    }
+
+    private static @NotNull String truncate(@NotNull String query) {
+        return query.length() > MAX_QUERY_LENGTH ? query.substring(0, MAX_QUERY_LENGTH) + "..." : query;
+    }
+
+    /**
+     * Represents the accounting of a set of retained buffers; releasing it releases the buffers.
+     */
+    public static final class Lease {
+        private final LeaseState state;
+        private final Cleaner.Cleanable cleanable;
+
+        private Lease(LeaseState state, Cleaner.Cleanable cleanable) {
+            this.state = state;
+            this.cleanable = cleanable;
+        }
+
+        /**
+         * Releases the buffers, only the first call has an effect.
+         */
+        public void release() {
+            state.released = true;
+            cleanable.clean();
+        }
+    }
+
+    // must not reference the owner, otherwise it never becomes unreachable.
+    private static final class LeaseState implements Runnable {
+        private final BufferTracker tracker;
+        private final List<ByteBuf> buffers;
+        private final long bytes;
+        private final String query;
+        private volatile boolean released;
+
+        private LeaseState(BufferTracker tracker, List<ByteBuf> buffers, long bytes, String query) {
+            this.tracker = tracker;
+            this.buffers = buffers;
+            this.bytes = bytes;
+            this.query = query;
+        }
+
+        @Override
+        public void run() {
+            if(!released) {
+                tracker.leakedBuffers.addAndGet(buffers.size());
+
+                logger.error(
+                        "LEAK: {} buffers ({} bytes) of query '{}' were garbage collected without being released",
+                        buffers.size(), bytes, truncate(query)
+                );
+            }
+
+            for (var buffer : buffers) {
+                buffer.release();
+            }
+
+            tracker.outstandingBuffers.addAndGet(-buffers.size());
+            tracker.outstandingBytes.addAndGet(-bytes);
+        }
+    }
+}
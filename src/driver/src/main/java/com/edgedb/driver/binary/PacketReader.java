@@ -14,8 +14,6 @@ import org.joou.UShort;
 import java.lang.reflect.Array;
 import java.nio.charset.StandardCharsets;
 import java.util.EnumSet;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.UUID;
 import java.util.function.Function;
 
@@ -36,8 +34,10 @@ public class PacketReader {
         }
     }
 
+    private static final Annotation[] NO_ANNOTATIONS = new Annotation[0];
+    private static final KeyValue[] NO_ATTRIBUTES = new KeyValue[0];
+
     protected final @NotNull ByteBuf buffer;
-    private static final @NotNull Map<Class<?>, Function<PacketReader, ? extends Number>> numberReaderMap;
 
     private final int initPos;
 
@@ -46,20 +46,6 @@ public class PacketReader {
         this.initPos = buffer.readerIndex();
     }
 
-    static {
-        numberReaderMap = new HashMap<>();
-        numberReaderMap.put(Byte.TYPE, PacketReader::readByte);
-        numberReaderMap.put(Short.TYPE, PacketReader::readInt16);
-        numberReaderMap.put(Integer.TYPE, PacketReader::readInt32);
-        numberReaderMap.put(Long.TYPE, PacketReader::readInt64);
-        numberReaderMap.put(UByte.class, PacketReader::readUByte);
-        numberReaderMap.put(UShort.class, PacketReader::readUInt16);
-        numberReaderMap.put(UInteger.class, PacketReader::readUInt32);
-        numberReaderMap.put(ULong.class, PacketReader::readUInt64);
-        numberReaderMap.put(Float.TYPE, PacketReader::readFloat);
-        numberReaderMap.put(Double.TYPE, PacketReader::readDouble);
-    }
-
     public int position() {
         return buffer.readerIndex() - this.initPos;
     }
@@ -101,6 +87,25 @@ public class PacketReader {
         return new UUID(buffer.readLong(), buffer.readLong());
     }
 
+    /**
+     * Reads an int32 at the given offset from the current position, without advancing the reader.
+     * @param offset The offset from the current position.
+     * @return The int32 at the offset.
+     */
+    public int peekInt32(int offset) {
+        return buffer.getInt(buffer.readerIndex() + offset);
+    }
+
+    /**
+     * Reads a UUID at the given offset from the current position, without advancing the reader.
+     * @param offset The offset from the current position.
+     * @return The UUID at the offset.
+     */
+    public @NotNull UUID peekUUID(int offset) {
+        var index = buffer.readerIndex() + offset;
+        return new UUID(buffer.getLong(index), buffer.getLong(index + 8));
+    }
+
     public @NotNull String readString() {
         var len = readInt32();
         var buffer = new byte[len];
@@ -156,6 +161,22 @@ public class PacketReader {
         return ushort(buffer.readUnsignedShort());
     }
 
+    /**
+     * Reads a uint16 without boxing it.
+     * @return The value, widened to an int.
+     */
+    public int readUnsignedInt16() {
+        return buffer.readUnsignedShort();
+    }
+
+    /**
+     * Reads a uint32 without boxing it.
+     * @return The value, widened to a long.
+     */
+    public long readUnsignedInt32() {
+        return buffer.readUnsignedInt();
+    }
+
     public String @NotNull [] readStringArray() {
         var count = readInt32();
 
@@ -199,19 +220,38 @@ public class PacketReader {
         return this.buffer.readRetainedSlice(length);
     }
 
+    /**
+     * Reads the rest of the buffer, which for a message reader is the rest of the message.
+     * @return A retained slice of the remaining bytes, the caller must release it.
+     */
+    public ByteBuf readRemaining() {
+        return readBytes(this.buffer.readableBytes());
+    }
+
     public Annotation @NotNull [] readAnnotations() {
+        // almost every message carries no annotations
+        if(buffer.getUnsignedShort(buffer.readerIndex()) == 0) {
+            buffer.skipBytes(2);
+            return NO_ANNOTATIONS;
+        }
+
         return readArrayOf(Annotation.class, Annotation::new, UShort.class);
     }
 
     public KeyValue @NotNull [] readAttributes() {
+        if(buffer.getUnsignedShort(buffer.readerIndex()) == 0) {
+            buffer.skipBytes(2);
+            return NO_ATTRIBUTES;
+        }
+
         return readArrayOf(KeyValue.class, KeyValue::new, UShort.class);
     }
 
     @SuppressWarnings("unchecked")
     public <U extends Number, T> T @NotNull [] readArrayOf(Class<T> cls, @NotNull Function<PacketReader, T> mapper, Class<U> lengthPrimitive) {
-        var len = numberReaderMap.get(lengthPrimitive).apply(this).intValue();
-
         // can only use 32 bit, so cast to that
+        var len = (int)readIntegral(lengthPrimitive);
+
         var arr = (T[]) Array.newInstance(cls, len);
 
         for(int i = 0; i < len; i++) {
@@ -221,22 +261,37 @@ public class PacketReader {
         return arr;
     }
 
-    @SuppressWarnings("unchecked")
     public <U extends Number, T extends Enum<T> & BinaryEnum<U>> T readEnum(@NotNull Class<T> cls, Class<U> primitive) {
-        return PacketSerializer.getEnumValue(cls, (U)numberReaderMap.get(primitive).apply(this));
+        return BinaryEnumTable.of(cls).get(readIntegral(primitive));
     }
 
     public <U extends Number, T extends Enum<T> & BinaryEnum<U>> @NotNull EnumSet<T> readEnumSet(@NotNull Class<T> cls, Class<U> primitive) {
-        var value = numberReaderMap.get(primitive).apply(this).longValue();
-
-        var set = EnumSet.noneOf(cls);
+        return BinaryEnumTable.of(cls).setOf(readIntegral(primitive));
+    }
 
-        for (var enumConstant : cls.getEnumConstants()) {
-            if((value & enumConstant.getValue().longValue()) > 0) {
-                set.add(enumConstant);
-            }
+    /**
+     * Reads an integral value of the given wire type without boxing it. Signed types are sign extended and unsigned
+     * ones zero extended, matching {@linkplain Number#longValue()} of the type.
+     * @param type The primitive or unsigned type of the value.
+     * @return The value, widened to a long.
+     */
+    private long readIntegral(@NotNull Class<?> type) {
+        if(type == Byte.TYPE || type == Byte.class) {
+            return buffer.readByte();
+        } else if(type == Short.TYPE || type == Short.class) {
+            return buffer.readShort();
+        } else if(type == Integer.TYPE || type == Integer.class) {
+            return buffer.readInt();
+        } else if(type == Long.TYPE || type == Long.class || type == ULong.class) {
+            return buffer.readLong();
+        } else if(type == UByte.class) {
+            return buffer.readUnsignedByte();
+        } else if(type == UShort.class) {
+            return buffer.readUnsignedShort();
+        } else if(type == UInteger.class) {
+            return buffer.readUnsignedInt();
         }
 
-        return set;
+        throw new IllegalArgumentException("Cannot read a length or enum value of type " + type.getName());
     }
 }
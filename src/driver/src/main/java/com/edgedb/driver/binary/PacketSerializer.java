@@ -9,9 +9,8 @@ import com.edgedb.driver.exceptions.EdgeDBException;
 import com.edgedb.driver.util.HexUtils;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
-import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.MessageToMessageDecoder;
+import io.netty.handler.codec.ByteToMessageDecoder;
 import io.netty.handler.codec.MessageToMessageEncoder;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -25,156 +24,69 @@ import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Flow;
-import java.util.stream.Collectors;
 
 public class PacketSerializer {
     private static final Logger logger = LoggerFactory.getLogger(PacketSerializer.class);
-    private static final Map<Class<?>, Map<Number, Enum<?>>> binaryEnumMap = new HashMap<>();
-
-    public static <T extends Enum<?> & BinaryEnum<U>, U extends Number> void registerBinaryEnum(Class<T> cls, T @NotNull [] values) {
-        binaryEnumMap.put(cls, Arrays.stream(values).collect(Collectors.toMap(BinaryEnum::getValue, v -> v)));
-    }
-
     public static <T extends Enum<T> & BinaryEnum<U>, U extends Number> T getEnumValue(@NotNull Class<T> enumCls, U raw) {
-        if(!binaryEnumMap.containsKey(enumCls)) {
-            registerBinaryEnum(enumCls, enumCls.getEnumConstants());
-        }
-
-        //noinspection unchecked
-        return (T)binaryEnumMap.get(enumCls).get(raw);
+        return BinaryEnumTable.of(enumCls).get(raw.longValue());
     }
 
-    public static @NotNull MessageToMessageDecoder<ByteBuf> createDecoder(EdgeDBBinaryClient client) {
-        return new MessageToMessageDecoder<>() {
-            private final Map<Channel, PacketContract> contracts = new HashMap<>();
-
-            @Override
-            protected void decode(@NotNull ChannelHandlerContext ctx, @NotNull ByteBuf msg, @NotNull List<Object> out) throws Exception {
-                var fromContract = false;
-
-                if(contracts.containsKey(ctx.channel())){
-                    var contract = contracts.get(ctx.channel());
-
-                    logger.debug("Attempting to complete contract {}", contract);
-
-                    if (contract.tryComplete(msg)) {
-                        logger.debug("Contract completed of type {} with size {}", contract.messageType, contract.length);
-
-                        out.add(contract.getPacket());
-                        contracts.remove(ctx.channel());
-                        fromContract = true;
-                        msg = contract.data;
-                    } else {
-                        logger.debug("Contract pending [{}]: {}/{}", contract.messageType, contract.getSize(), contract.length);
-                        return;
-                    }
-                }
-
-                while (msg.readableBytes() > 5) {
-                    var type = getEnumValue(ServerMessageType.class, msg.readByte());
-                    var length = msg.readUnsignedInt() - 4; // remove length of self.
-
-                    // can we read this packet?
-                    if (msg.readableBytes() >= length) {
-                        var packet = PacketSerializer.deserialize(client, type, length, msg.readSlice((int) length));
-
-                        if(packet == null) {
-                            logger.error("Got null result for packet type {}", type);
-                            throw new EdgeDBException("Failed to read message type: malformed data");
-                        }
+    public static @NotNull ByteToMessageDecoder createDecoder(EdgeDBBinaryClient client) {
+        return new PacketDecoder(client);
+    }
 
-                        logger.debug("S->C: T:{}", type);
-                        out.add(packet);
-                        continue;
-                    }
+    /**
+     * Splits the inbound stream into messages on their 5-byte header: a type byte followed by the length of the
+     * message, the length included. Partial messages stay in the cumulation buffer until the rest arrives, and
+     * messages are read from slices of it, so the payloads they keep, like the rows of {@code Data} messages, aren't
+     * copied.
+     */
+    private static final class PacketDecoder extends ByteToMessageDecoder {
+        private static final int HEADER_SIZE = 5;
 
-                    // if we cannot read the full packet, create a contract for it.
-                    msg.retain();
-                    contracts.put(ctx.channel(), new PacketContract(msg, type, length));
-                    return;
-                }
+        private final EdgeDBBinaryClient client;
 
-                if(msg.readableBytes() > 0){
-                    msg.retain();
-                    contracts.put(ctx.channel(), new PacketContract(msg, null, null));
-                    return;
-                }
+        public PacketDecoder(EdgeDBBinaryClient client) {
+            this.client = client;
+        }
 
-                if(fromContract){
-                    msg.release();
-                }
+        @Override
+        protected void decode(@NotNull ChannelHandlerContext ctx, @NotNull ByteBuf in, @NotNull List<Object> out) throws Exception {
+            if(in.readableBytes() < HEADER_SIZE) {
+                return;
             }
 
-            class PacketContract {
-                private @Nullable Receivable packet;
-                private ByteBuf data;
+            var start = in.readerIndex();
+            var code = in.getByte(start);
+            var length = in.getUnsignedInt(start + 1) - 4; // remove length of self.
 
-                private @Nullable ServerMessageType messageType;
-                private @Nullable Long length;
-
-                private final List<ByteBuf> components;
-
-                public PacketContract(
-                        ByteBuf data,
-                        @Nullable ServerMessageType messageType,
-                        @Nullable Long length
-                ) {
-                    this.data = data;
-                    this.length = length;
-                    this.messageType = messageType;
-
-                    this.components = new ArrayList<>() {{
-                        add(data);
-                    }};
-                }
-
-                public long getSize() {
-                    long size = 0;
-
-                    for (var component : components) {
-                        size += component.readableBytes();
-                    }
-
-                    return size;
-                }
-
-                public boolean tryComplete(@NotNull ByteBuf other) {
-                    var orig = data.slice();
-                    data = Unpooled.wrappedBuffer(orig, other);
-
-                    if (messageType == null) {
-                        messageType = getEnumValue(ServerMessageType.class, data.readByte());
-                    }
-
-                    if (length == null) {
-                        length = data.readUnsignedInt() - 4;
-                    }
+            if(in.readableBytes() - HEADER_SIZE < length) {
+                return;
+            }
 
-                    other.retain();
-                    components.add(other);
+            var type = ServerMessageType.fromCode(code);
 
-                    if (data.readableBytes() >= length) {
-                        // read
-                        packet = PacketSerializer.deserialize(client, messageType, length, data, false);
+            if(type == null) {
+                throw new EdgeDBException(String.format("Failed to read message type 0x%02x: malformed data", code));
+            }
 
-                        return true;
-                    }
+            in.skipBytes(HEADER_SIZE);
 
-                    return false;
-                }
+            client.getConfig().getMetrics().bytesReceived(HEADER_SIZE + length);
 
-                public @NotNull Receivable getPacket() throws OperationNotSupportedException {
-                    if (packet == null) {
-                        throw new OperationNotSupportedException("Packet contract was incomplete");
-                    }
+            var packet = PacketSerializer.deserialize(client, type, length, in.readSlice((int) length));
 
-                    return packet;
-                }
+            if(packet == null) {
+                logger.error("Got null result for packet type {}", type);
+                throw new EdgeDBException("Failed to read message type: malformed data");
             }
-        };
+
+            logger.debug("S->C: T:{}", type);
+            out.add(packet);
+        }
     }
 
-    public static @NotNull MessageToMessageEncoder<Sendable> createEncoder() {
+    public static @NotNull MessageToMessageEncoder<Sendable> createEncoder(EdgeDBBinaryClient client) {
         return new MessageToMessageEncoder<>() {
 
             @Override
@@ -187,6 +99,8 @@ public class PacketSerializer {
 
                     logger.debug("C->S: T:{} D:{}", msg.type, HexUtils.bufferToHexString(data));
 
+                    client.getConfig().getMetrics().bytesSent(data.readableBytes());
+
                     out.add(data);
                 } catch (Throwable x) {
                     logger.error("Failed to serialize packet", x);
@@ -212,8 +126,8 @@ public class PacketSerializer {
     }
 
     public static @Nullable Receivable deserializeSingle(EdgeDBBinaryClient client, PacketReader reader) {
-        var messageType = reader.readEnum(ServerMessageType.class, Byte.TYPE);
-        var length = reader.readUInt32().longValue();
+        var messageType = ServerMessageType.fromCode(reader.readByte());
+        var length = reader.readUnsignedInt32();
 
         return deserializeSingle(client, messageType, length, reader, false);
     }
@@ -310,6 +224,8 @@ public class PacketSerializer {
 
                 var completeBuffer = Unpooled.wrappedBuffer(buffers.toArray(new ByteBuf[0]));
 
+                client.getConfig().getMetrics().bytesReceived(completeBuffer.readableBytes());
+
                 var reader = new PacketReader(completeBuffer);
                 var data = new ArrayList<Receivable>();
 
@@ -207,6 +207,15 @@ public class PacketWriter implements AutoCloseable {
         this.buffer.writeBytes(array);
     }
 
+    public void writeArrayWithoutLength(@NotNull ByteBuf buffer) throws OperationNotSupportedException {
+        if(!buffer.isReadable()) {
+            return;
+        }
+
+        ensureCanWrite(buffer.readableBytes());
+        this.buffer.writeBytes(buffer, buffer.readerIndex(), buffer.readableBytes());
+    }
+
     public <T extends SerializableData> void write(@NotNull T serializable) throws OperationNotSupportedException {
         ensureCanWrite(serializable.getSize());
         serializable.write(this);
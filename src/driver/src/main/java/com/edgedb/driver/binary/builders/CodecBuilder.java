@@ -15,6 +15,7 @@ import com.edgedb.driver.binary.protocol.common.descriptors.CodecMetadata;
 import com.edgedb.driver.clients.EdgeDBBinaryClient;
 import com.edgedb.driver.exceptions.EdgeDBException;
 import com.edgedb.driver.exceptions.MissingCodecException;
+import com.edgedb.driver.jfr.CodecBuildEvent;
 import io.netty.buffer.ByteBuf;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -62,6 +63,15 @@ public final class CodecBuilder {
         codecCaches = new ConcurrentHashMap<>(2);
     }
 
+    /**
+     * Drops the codecs and query codecs cached for every protocol version, the next queries are parsed again.
+     * <br/><br/>
+     * The cache is shared by the whole process, this is meant for tests needing a cold cache.
+     */
+    public static void clearCache() {
+        codecCaches.clear();
+    }
+
     @SuppressWarnings("unchecked")
     public static <T> @Nullable Codec<T> getCodec(ProtocolProvider provider, UUID id, Class<T> ignoredCls) {
         return (Codec<T>) getCodec(provider, id);
@@ -96,6 +106,8 @@ public final class CodecBuilder {
     }
 
     public static @NotNull Codec<?> buildCodec(EdgeDBBinaryClient client, @NotNull UUID id, @NotNull PacketReader reader) throws EdgeDBException {
+        CodecBuildEvent event = null;
+
         try {
             if(id.equals(NULL_CODEC_ID)) {
                 logger.debug("Returning null codec");
@@ -104,6 +116,9 @@ public final class CodecBuilder {
 
             var providerCache = codecCaches.computeIfAbsent(client.getProtocolProvider().getVersion(), CodecCache::new);
 
+            event = CodecBuildEvent.start();
+            var descriptorsStart = reader.position();
+
             var descriptors = new ArrayList<TypeDescriptorInfo<? extends Enum<?>>>();
 
             while(!reader.isEmpty()) {
@@ -164,10 +179,19 @@ public final class CodecBuilder {
                 throw new MissingCodecException("Failed to find end tail of codec tree");
             }
 
+            if(event != null) {
+                event.finish(id, descriptors.size(), reader.position() - descriptorsStart, finalCodec);
+            }
+
             return finalCodec;
         }
         catch (Throwable x) {
             logger.error("Failed to build codec", x);
+
+            if(event != null) {
+                event.finish(id, 0, 0, null);
+            }
+
             throw x;
         }
     }
@@ -185,8 +209,8 @@ public final class CodecBuilder {
             return null;
         }
 
-        var inCodec = providerCache.cache.get(ids.inputCodecId);
-        var outCodec = providerCache.cache.get(ids.outputCodecId);
+        var inCodec = getCodec(provider, ids.inputCodecId);
+        var outCodec = getCodec(provider, ids.outputCodecId);
 
         if(inCodec == null || outCodec == null) {
             providerCache.queryCodecsCache.remove(cacheKey);
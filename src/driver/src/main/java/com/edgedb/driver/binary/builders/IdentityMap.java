@@ -0,0 +1,42 @@
+package com.edgedb.driver.binary.builders;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Represents the identity map of a single query execution, resolving objects with the same {@code id} and shape to
+ * the same instance and interning UUIDs. Instances are confined to the thread decoding the result.
+ */
+public final class IdentityMap {
+    private final @NotNull Map<Object, Map<UUID, Object>> objects;
+    private final @NotNull Map<UUID, UUID> uuids;
+
+    public IdentityMap() {
+        this.objects = new HashMap<>();
+        this.uuids = new HashMap<>();
+    }
+
+    /**
+     * Gets a previously deserialized object.
+     * @param shape The shape and target type the object was deserialized with.
+     * @param id The id of the object.
+     * @return The object if it was previously deserialized within the execution; otherwise {@code null}.
+     */
+    public @Nullable Object get(@NotNull Object shape, @NotNull UUID id) {
+        var shapeObjects = objects.get(shape);
+        return shapeObjects == null ? null : shapeObjects.get(id);
+    }
+
+    public void put(@NotNull Object shape, @NotNull UUID id, @NotNull Object value) {
+        objects.computeIfAbsent(shape, v -> new HashMap<>()).put(id, value);
+    }
+
+    public @NotNull UUID intern(@NotNull UUID uuid) {
+        var existing = uuids.putIfAbsent(uuid, uuid);
+        return existing == null ? uuid : existing;
+    }
+}
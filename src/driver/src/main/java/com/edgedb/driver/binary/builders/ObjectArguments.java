@@ -0,0 +1,84 @@
+package com.edgedb.driver.binary.builders;
+
+import com.edgedb.driver.binary.builders.types.TypeBuilder;
+import com.edgedb.driver.exceptions.EdgeDBException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Represents a POJO, record or {@linkplain com.edgedb.driver.annotations.EdgeDBType} instance used as query arguments.
+ * Object codecs recognize this map and read the properties straight from the {@linkplain #getSource() source} through
+ * compiled getters, named by the naming strategy of the client running the query.
+ * <br/><br/>
+ * That strategy isn't known here, so the entries of this map can't be read: only its size is, which doesn't call any
+ * getter. Two instances are equal when their sources are.
+ */
+public final class ObjectArguments extends AbstractMap<String, Object> {
+    private final @NotNull Object source;
+    private int size = -1;
+
+    private ObjectArguments(@NotNull Object source) {
+        this.source = source;
+    }
+
+    /**
+     * Wraps the given object as a map of arguments.
+     * @param source The object containing the arguments.
+     * @return The source if it's already a map; otherwise a map backed by the source object.
+     */
+    @SuppressWarnings("unchecked")
+    public static @Nullable Map<String, Object> of(@Nullable Object source) {
+        if(source == null || source instanceof Map) {
+            return (Map<String, Object>) source;
+        }
+
+        return new ObjectArguments(source);
+    }
+
+    public @NotNull Object getSource() {
+        return source;
+    }
+
+    @Override
+    public int size() {
+        if(size < 0) {
+            try {
+                size = TypeBuilder.getSerializerInfo(source.getClass()).getPropertyCount();
+            } catch (EdgeDBException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public @NotNull Set<Entry<String, Object>> entrySet() {
+        throw new UnsupportedOperationException(
+                "The names of the arguments of " + source.getClass().getName() + " depend on the naming strategy of " +
+                "the client, use getSource() to read them"
+        );
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || (o instanceof ObjectArguments && source.equals(((ObjectArguments) o).source));
+    }
+
+    @Override
+    public int hashCode() {
+        return source.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return source.toString();
+    }
+}
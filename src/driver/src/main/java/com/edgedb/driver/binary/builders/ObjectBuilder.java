@@ -1,9 +1,10 @@
 package com.edgedb.driver.binary.builders;
 
+import com.edgedb.driver.CollectionFactory;
 import com.edgedb.driver.binary.builders.types.TypeBuilder;
 import com.edgedb.driver.binary.codecs.Codec;
+import com.edgedb.driver.binary.codecs.CodecContext;
 import com.edgedb.driver.binary.codecs.ObjectCodec;
-import com.edgedb.driver.binary.codecs.visitors.TypeVisitor;
 import com.edgedb.driver.clients.EdgeDBBinaryClient;
 import com.edgedb.driver.exceptions.EdgeDBException;
 import com.edgedb.driver.exceptions.NoTypeConverterException;
@@ -13,34 +14,49 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import javax.naming.OperationNotSupportedException;
-import java.lang.reflect.InvocationTargetException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public final class ObjectBuilder {
-    @FunctionalInterface
-    public interface CollectionConverter<T extends Iterable<?>> {
-        T convert(Object[] value);
-    }
+    private static final @NotNull Map<Class<?>, CollectionFactory<?>> collectionFactories;
 
-    private static final @NotNull Map<Class<?>, CollectionConverter<?>> collectionConverters;
+    // resolved factories for types without a registered factory, ex: a sub-type of a registered type.
+    private static final @NotNull ConcurrentMap<Class<?>, Optional<CollectionFactory<?>>> resolvedCollectionFactories;
 
     static {
-        collectionConverters = new HashMap<>(){{
+        collectionFactories = Collections.synchronizedMap(new LinkedHashMap<>(){{
             put(List.class, List::of);
-            put(HashSet.class, v -> new HashSet<>(List.of(v)));
-        }};
+            put(Collection.class, List::of);
+            put(Iterable.class, List::of);
+            put(ArrayList.class, v -> new ArrayList<>(Arrays.asList(v)));
+            put(LinkedList.class, v -> new LinkedList<>(Arrays.asList(v)));
+            put(Set.class, v -> new HashSet<>(Arrays.asList(v)));
+            put(HashSet.class, v -> new HashSet<>(Arrays.asList(v)));
+            put(LinkedHashSet.class, v -> new LinkedHashSet<>(Arrays.asList(v)));
+        }});
+        resolvedCollectionFactories = new ConcurrentHashMap<>();
+    }
+
+    public static <T> void registerCollectionFactory(@NotNull Class<T> cls, @NotNull CollectionFactory<T> factory) {
+        collectionFactories.put(cls, factory);
+        resolvedCollectionFactories.clear();
     }
 
     public static <T> @Nullable T buildResult(@NotNull EdgeDBBinaryClient client, Codec<?> codec, @NotNull ByteBuf data, @NotNull Class<T> cls) throws EdgeDBException, OperationNotSupportedException {
-        var visitor = new TypeVisitor(client);
+        return buildResult(client.getCodecContext(), codec, data, cls);
+    }
+
+    public static <T> @Nullable T buildResult(@NotNull CodecContext context, Codec<?> codec, @NotNull ByteBuf data, @NotNull Class<T> cls) throws EdgeDBException, OperationNotSupportedException {
+        var visitor = context.getTypeVisitor();
         visitor.setTargetType(cls);
         codec = visitor.visit(codec);
 
         if(codec instanceof ObjectCodec) {
-            return TypeBuilder.buildObject(client, cls, (ObjectCodec)codec, data);
+            return TypeBuilder.buildObject(context, cls, (ObjectCodec)codec, data);
         }
 
-        var value = Codec.deserializeFromBuffer(codec, Objects.requireNonNull(data), client.getCodecContext());
+        var value = Codec.deserializeFromBuffer(codec, Objects.requireNonNull(data), context);
         return convertTo(cls, value);
     }
 
@@ -96,25 +112,48 @@ public final class ObjectBuilder {
             throw new IllegalArgumentException("Value is not a collection");
         }
 
-        if(collectionConverters.containsKey(target)) {
-            return (T)collectionConverters.get(target).convert((Object[])value);
+        var factory = collectionFactories.get(target);
+
+        if(factory == null) {
+            factory = resolvedCollectionFactories
+                    .computeIfAbsent(target, t -> Optional.ofNullable(resolveCollectionFactory(t)))
+                    .orElseThrow(() -> new OperationNotSupportedException(
+                            "Cannot convert Object[] to target collection type " + target.getName()
+                    ));
         }
 
-        // slow check
-        for (var converter : collectionConverters.entrySet()) {
-            if(target.isAssignableFrom(converter.getKey())) {
-                return (T)converter.getValue().convert((Object[])value);
-            } else if (converter.getKey().isAssignableFrom(target)) {
-                // check for ctor with collection param
-                try {
-                    var ctor = target.getConstructor(Collection.class);
-                    //noinspection JavaReflectionInvocation
-                    return ctor.newInstance(converter.getValue().convert((Object[])value));
-                } catch (NoSuchMethodException | InvocationTargetException | InstantiationException | IllegalAccessException ignored) {
+        return (T)factory.create((Object[])value);
+    }
+
+    private static @Nullable CollectionFactory<?> resolveCollectionFactory(@NotNull Class<?> target) {
+        synchronized (collectionFactories) {
+            for (var factory : collectionFactories.entrySet()) {
+                if(target.isAssignableFrom(factory.getKey())) {
+                    return factory.getValue();
+                }
+            }
+
+            for (var factory : collectionFactories.entrySet()) {
+                if(factory.getKey().isAssignableFrom(target)) {
+                    // check for ctor with collection param
+                    try {
+                        var ctor = target.getConstructor(Collection.class);
+                        var inner = factory.getValue();
+
+                        return v -> {
+                            try {
+                                //noinspection JavaReflectionInvocation
+                                return ctor.newInstance(inner.create(v));
+                            } catch (ReflectiveOperationException e) {
+                                throw new IllegalStateException("Failed to construct " + target.getName(), e);
+                            }
+                        };
+                    } catch (NoSuchMethodException ignored) {
+                    }
                 }
             }
         }
 
-        throw new OperationNotSupportedException("Cannot convert Object[] to target collection type " + target.getName());
+        return null;
     }
 }
@@ -35,6 +35,10 @@ public final class ObjectEnumeratorImpl implements ObjectEnumerator {
         return this.context.client;
     }
 
+    public ObjectCodec getCodec() {
+        return this.codec;
+    }
+
     @Override
     public boolean hasRemaining() {
         return position < numElements && !reader.isEmpty();
@@ -2,11 +2,13 @@ package com.edgedb.driver.binary.builders.types;
 
 import com.edgedb.driver.annotations.EdgeDBType;
 import com.edgedb.driver.binary.codecs.Codec;
+import com.edgedb.driver.binary.codecs.CodecContext;
 import com.edgedb.driver.binary.codecs.ObjectCodec;
 import com.edgedb.driver.clients.EdgeDBBinaryClient;
 import com.edgedb.driver.datatypes.Tuple;
 import com.edgedb.driver.datatypes.internal.TupleImpl;
 import com.edgedb.driver.exceptions.EdgeDBException;
+import com.edgedb.driver.namingstrategies.NamingStrategy;
 import io.netty.buffer.ByteBuf;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -18,6 +20,7 @@ import java.util.concurrent.ConcurrentMap;
 
 public final class TypeBuilder {
     private static final @NotNull ConcurrentMap<Class<?>, TypeDeserializerInfo<?>> deserializerInfo;
+    private static final @NotNull ConcurrentMap<Class<?>, TypeSerializerInfo<?>> serializerInfo = new ConcurrentHashMap<>();
 
 
     static {
@@ -30,6 +33,11 @@ public final class TypeBuilder {
 
     @SuppressWarnings("unchecked")
     public static <T> @Nullable T buildObject(@NotNull EdgeDBBinaryClient client, @NotNull Class<T> type, ObjectCodec codec, @NotNull ByteBuf data) throws OperationNotSupportedException, EdgeDBException {
+        return buildObject(client.getCodecContext(), type, codec, data);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> @Nullable T buildObject(@NotNull CodecContext context, @NotNull Class<T> type, ObjectCodec codec, @NotNull ByteBuf data) throws OperationNotSupportedException, EdgeDBException {
         var info = getDeserializerInfo(type);
 
         if(info == null) {
@@ -41,7 +49,7 @@ public final class TypeBuilder {
         }
 
 
-        return (T) Codec.deserializeFromBuffer(codec, data, client.getCodecContext());
+        return (T) Codec.deserializeFromBuffer(codec, data, context);
     }
 
     @SuppressWarnings("unchecked")
@@ -57,6 +65,51 @@ public final class TypeBuilder {
         return info;
     }
 
+    @SuppressWarnings("unchecked")
+    public static <T> @NotNull TypeSerializerInfo<T> getSerializerInfo(@NotNull Class<T> cls) throws EdgeDBException {
+        try {
+            return (TypeSerializerInfo<T>) serializerInfo.computeIfAbsent(cls, t -> {
+                try {
+                    return new TypeSerializerInfo<>(t);
+                } catch (EdgeDBException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+        }
+        catch (RuntimeException e) {
+            if(e.getCause() instanceof EdgeDBException) {
+                throw (EdgeDBException)e.getCause();
+            }
+
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the getters of the given arguments type bound to the positions of a shape, computing them once per cache.
+     * @param cache The per-shape cache of bound accessors.
+     * @param cls The type of the arguments object.
+     * @param strategy The naming strategy in use by the client.
+     * @param names The names of the shape elements, in order.
+     * @return The getters of the type in shape order.
+     * @throws EdgeDBException The accessors for the type could not be built.
+     */
+    public static TypeSerializerInfo.@NotNull ShapeAccessors getShapeAccessors(
+            @NotNull ConcurrentMap<Class<?>, TypeSerializerInfo.ShapeAccessors> cache,
+            @NotNull Class<?> cls,
+            @NotNull NamingStrategy strategy,
+            String @NotNull [] names
+    ) throws EdgeDBException {
+        var accessors = cache.get(cls);
+
+        if(accessors == null || accessors.strategy != strategy) {
+            accessors = getSerializerInfo(cls).bind(strategy, names);
+            cache.put(cls, accessors);
+        }
+
+        return accessors;
+    }
+
     public static boolean requiredImplicitTypeNames(@NotNull Class<?> cls) {
         var info = getDeserializerInfo(cls);
         return info != null && info.requiresTypeNameIntrospection();
@@ -67,6 +120,6 @@ public final class TypeBuilder {
             return true;
         }
 
-        return type.getAnnotation(EdgeDBType.class) != null;
+        return type.getAnnotation(EdgeDBType.class) != null || TypeSerializerInfo.isRecord(type);
     }
 }
@@ -5,11 +5,11 @@ import com.edgedb.driver.annotations.*;
 import com.edgedb.driver.binary.builders.ObjectBuilder;
 import com.edgedb.driver.binary.builders.TypeDeserializerFactory;
 import com.edgedb.driver.binary.builders.internal.ObjectEnumeratorImpl;
+import com.edgedb.driver.binary.codecs.ObjectCodec;
 import com.edgedb.driver.binary.protocol.common.Cardinality;
 import com.edgedb.driver.exceptions.EdgeDBException;
 import com.edgedb.driver.exceptions.NoTypeConverterException;
 import com.edgedb.driver.namingstrategies.NamingStrategy;
-import com.edgedb.driver.util.FastInverseIndexer;
 import com.edgedb.driver.util.StringsUtil;
 import com.edgedb.driver.util.TypeUtils;
 import org.jetbrains.annotations.NotNull;
@@ -18,8 +18,14 @@ import org.reflections.Reflections;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.naming.OperationNotSupportedException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -37,12 +43,10 @@ public class TypeDeserializerInfo<T> {
     private Reflections reflection;
     private Collection<Class<?>> bases;
 
-    private final @NotNull Map<NamingStrategy, NamingStrategyMap<Parameter>> constructorNamingMap;
     private final @NotNull Map<NamingStrategy, NamingStrategyMap<FieldInfo>> fieldNamingMap;
     private final @NotNull Map<String, TypeDeserializerInfo<? extends T>> children;
 
     public TypeDeserializerInfo(@NotNull Class<T> type) {
-        this.constructorNamingMap = new HashMap<>();
         this.fieldNamingMap = new HashMap<>();
         this.type = type;
         this.edgeDBTypeAnno = type.getAnnotation(EdgeDBType.class);
@@ -60,7 +64,6 @@ public class TypeDeserializerInfo<T> {
         this.type = cls;
         this.factory = factory;
         this.edgeDBTypeAnno = type.getAnnotation(EdgeDBType.class);
-        this.constructorNamingMap = new HashMap<>();
         this.fieldNamingMap = new HashMap<>();
         this.children = new HashMap<>();
     }
@@ -192,46 +195,12 @@ public class TypeDeserializerInfo<T> {
                 return (enumerator, parent) -> (T)ctor.newInstance(enumerator);
             }
 
-            return (enumerator, parent) -> {
-                var namingStrategyEntry = constructorNamingMap.computeIfAbsent(
-                        ((ObjectEnumeratorImpl)enumerator).getClient().getConfig().getNamingStrategy(),
-                        (n) -> new NamingStrategyMap<>(n, (v) -> getNameOrAnnotated(v, Parameter::getName), ctor.getParameters())
-                );
-
-                var params = new Object[namingStrategyEntry.nameIndexMap.size()];
-                var inverseIndexer = new FastInverseIndexer(params.length);
-
-                ObjectEnumerator.ObjectElement element;
-
-                var unhandled = new Vector<ObjectEnumerator.ObjectElement>(params.length);
-
-                while(enumerator.hasRemaining() && (element = enumerator.next()) != null) {
-                    if(namingStrategyEntry.map.containsKey(element.getName())) {
-                        var i = namingStrategyEntry.nameIndexMap.get(element.getName());
-                        inverseIndexer.set(i);
-                        params[i] = element.getValue();
-                    } else {
-                        unhandled.add(element);
-                    }
-                }
-
-                var missed = inverseIndexer.getInverseIndexes();
-
-                for(int i = 0; i != missed.length; i++) {
-                    params[missed[i]] = TypeUtils.getDefaultValue(namingStrategyEntry.values.get(i).getType());
-                }
-
-                var instance = (T)ctor.newInstance(params);
-
-                if(parent != null) {
-                    for (var unhandledElement : unhandled) {
-                        parent.accept(instance, unhandledElement);
-                    }
-                }
-
-                return instance;
-            };
+            var deserializer = new ConstructorDeserializer<T>(
+                    ctor,
+                    Arrays.stream(ctorParams).map(v -> getNameOrAnnotated(v, Parameter::getName)).toArray(String[]::new)
+            );
 
+            return deserializer::deserialize;
         }
 
         // abstract or interface
@@ -284,6 +253,20 @@ public class TypeDeserializerInfo<T> {
         // default case
         var emptyCtor = Arrays.stream(constructors).filter(v -> v.getParameterCount() == 0).findFirst();
 
+        // records and immutable classes, ex: kotlin data classes
+        if(TypeSerializerInfo.isRecord(type) || emptyCtor.isEmpty()) {
+            var canonical = findCanonicalConstructor(constructors);
+
+            if(canonical != null) {
+                var deserializer = new ConstructorDeserializer<T>(
+                        canonical,
+                        getInstanceFields().stream().map(v -> getNameOrAnnotated(v, Field::getName)).toArray(String[]::new)
+                );
+
+                return deserializer::deserialize;
+            }
+        }
+
         if(emptyCtor.isEmpty()) {
             throw new ReflectiveOperationException(String.format("No empty constructor found to construct the type %s", this.type));
         }
@@ -312,6 +295,32 @@ public class TypeDeserializerInfo<T> {
         };
     }
 
+    private @NotNull List<Field> getInstanceFields() {
+        return Arrays.stream(type.getDeclaredFields())
+                .filter(v -> !Modifier.isStatic(v.getModifiers()) && !v.isSynthetic())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Finds the constructor whose parameters match the instance fields of the type in declaration order, this is the
+     * canonical constructor of records and the primary constructor of kotlin data classes.
+     */
+    private @Nullable Constructor<?> findCanonicalConstructor(Constructor<?> @NotNull [] constructors) {
+        var fieldTypes = getInstanceFields().stream().map(Field::getType).toArray(Class<?>[]::new);
+
+        if(fieldTypes.length == 0) {
+            return null;
+        }
+
+        for(var ctor : constructors) {
+            if(Arrays.equals(ctor.getParameterTypes(), fieldTypes)) {
+                return ctor;
+            }
+        }
+
+        return null;
+    }
+
     public @NotNull NamingStrategyMap<FieldInfo> getFieldMap(NamingStrategy strategy) {
         return fieldNamingMap.computeIfAbsent(
                 strategy,
@@ -428,6 +437,112 @@ public class TypeDeserializerInfo<T> {
         }
     }
 
+    /**
+     * Deserializes a type through one of its constructors. The mapping of shape elements to constructor parameters is
+     * computed once per object codec and naming strategy, and the instance is created through a spread
+     * {@linkplain MethodHandle}.
+     */
+    private static final class ConstructorDeserializer<T> {
+        private static final MethodType FACTORY_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+        private final @NotNull MethodHandle factory;
+        private final String @NotNull [] names;
+        private final Class<?> @NotNull [] types;
+        private final Object @NotNull [] defaults;
+        private final @NotNull ConcurrentMap<ObjectCodec, ShapeBinding> bindings;
+
+        public ConstructorDeserializer(@NotNull Constructor<?> ctor, String @NotNull [] names) throws ReflectiveOperationException {
+            ctor.setAccessible(true);
+
+            this.names = names;
+            this.types = ctor.getParameterTypes();
+            this.defaults = Arrays.stream(types).map(TypeUtils::getDefaultValue).toArray();
+            this.factory = MethodHandles.lookup()
+                    .unreflectConstructor(ctor)
+                    .asSpreader(Object[].class, types.length)
+                    .asType(FACTORY_TYPE);
+            this.bindings = new ConcurrentHashMap<>();
+        }
+
+        @SuppressWarnings("unchecked")
+        public T deserialize(
+                @NotNull ObjectEnumerator enumerator,
+                TypeDeserializerFactory.@Nullable ParentDeserializer<T> parent
+        ) throws EdgeDBException, OperationNotSupportedException, ReflectiveOperationException {
+            var enumeratorImpl = (ObjectEnumeratorImpl)enumerator;
+            var binding = getBinding(enumeratorImpl.getCodec(), enumeratorImpl.getClient().getConfig().getNamingStrategy());
+
+            var params = defaults.clone();
+            List<ObjectEnumerator.ObjectElement> unhandled = null;
+            ObjectEnumerator.ObjectElement element;
+
+            for(int position = 0; enumerator.hasRemaining() && (element = enumerator.next()) != null; position++) {
+                var index = binding.parameterIndexes[position];
+
+                if(index >= 0) {
+                    var value = element.getValue();
+                    params[index] = value == null ? defaults[index] : ObjectBuilder.convertTo(types[index], value);
+                } else if(parent != null) {
+                    if(unhandled == null) {
+                        unhandled = new ArrayList<>();
+                    }
+
+                    unhandled.add(element);
+                }
+            }
+
+            T instance;
+
+            try {
+                instance = (T)(Object)factory.invokeExact(params);
+            } catch (ReflectiveOperationException | EdgeDBException | RuntimeException e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new InvocationTargetException(e);
+            }
+
+            if(unhandled != null) {
+                for (var unhandledElement : unhandled) {
+                    parent.accept(instance, unhandledElement);
+                }
+            }
+
+            return instance;
+        }
+
+        private @NotNull ShapeBinding getBinding(@NotNull ObjectCodec codec, @NotNull NamingStrategy strategy) {
+            if(codec instanceof ObjectCodec.TypeInitializedObjectCodec) {
+                codec = ((ObjectCodec.TypeInitializedObjectCodec)codec).getParent();
+            }
+
+            var binding = bindings.get(codec);
+
+            if(binding == null || binding.strategy != strategy) {
+                var parameterIndexes = new int[codec.elements.length];
+                var convertedNames = Arrays.stream(names).map(strategy::convert).collect(Collectors.toList());
+
+                for(int i = 0; i != parameterIndexes.length; i++) {
+                    parameterIndexes[i] = convertedNames.indexOf(codec.elements[i].name);
+                }
+
+                binding = new ShapeBinding(strategy, parameterIndexes);
+                bindings.put(codec, binding);
+            }
+
+            return binding;
+        }
+
+        private static final class ShapeBinding {
+            public final @NotNull NamingStrategy strategy;
+            public final int @NotNull [] parameterIndexes;
+
+            public ShapeBinding(@NotNull NamingStrategy strategy, int @NotNull [] parameterIndexes) {
+                this.strategy = strategy;
+                this.parameterIndexes = parameterIndexes;
+            }
+        }
+    }
+
     public static class NamingStrategyMap<T> {
         public final @NotNull NamingStrategy strategy;
         public final @NotNull Map<String, T> map;
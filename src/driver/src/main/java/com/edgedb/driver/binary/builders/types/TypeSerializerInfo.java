@@ -0,0 +1,189 @@
+package com.edgedb.driver.binary.builders.types;
+
+import com.edgedb.driver.annotations.EdgeDBIgnore;
+import com.edgedb.driver.annotations.EdgeDBName;
+import com.edgedb.driver.annotations.EdgeDBType;
+import com.edgedb.driver.exceptions.EdgeDBException;
+import com.edgedb.driver.namingstrategies.NamingStrategy;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Describes how to read the properties of a POJO, record or {@linkplain EdgeDBType} class when it's used as an
+ * argument. Property getters are compiled once to {@linkplain MethodHandle}s of the type {@code (Object)Object}.
+ * @param <T> The type this info describes.
+ */
+public final class TypeSerializerInfo<T> {
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final @NotNull Class<T> type;
+    private final @NotNull List<PropertyAccessor> properties;
+    private final @NotNull Map<NamingStrategy, Map<String, MethodHandle>> namingMap;
+
+    public TypeSerializerInfo(@NotNull Class<T> type) throws EdgeDBException {
+        this.type = type;
+        this.namingMap = new ConcurrentHashMap<>();
+
+        try {
+            this.properties = findProperties(type);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new EdgeDBException("Failed to build argument accessors for " + type.getName(), e);
+        }
+    }
+
+    public @NotNull Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * Gets the number of properties of this type, each one being an argument.
+     * @return The number of properties.
+     */
+    public int getPropertyCount() {
+        return properties.size();
+    }
+
+    /**
+     * Gets the getters of this type, keyed by their EdgeDB name under the given naming strategy.
+     * @param strategy The naming strategy used to convert property names.
+     * @return A map of EdgeDB property names to getters.
+     */
+    public @NotNull Map<String, MethodHandle> getAccessors(@NotNull NamingStrategy strategy) {
+        return namingMap.computeIfAbsent(strategy, s -> {
+            var map = new HashMap<String, MethodHandle>(properties.size());
+
+            for (var property : properties) {
+                map.put(s.convert(property.annotatedName != null ? property.annotatedName : property.name), property.getter);
+            }
+
+            return map;
+        });
+    }
+
+    /**
+     * Binds the getters of this type to the positions of the given shape.
+     * @param strategy The naming strategy used to convert property names.
+     * @param names The names of the shape elements, in order.
+     * @return A positional {@linkplain ShapeAccessors} for the given shape.
+     */
+    public @NotNull ShapeAccessors bind(@NotNull NamingStrategy strategy, String @NotNull [] names) {
+        var accessors = getAccessors(strategy);
+        var getters = new MethodHandle[names.length];
+
+        for(int i = 0; i != names.length; i++) {
+            getters[i] = accessors.get(names[i]);
+        }
+
+        return new ShapeAccessors(strategy, getters);
+    }
+
+    private static @NotNull List<PropertyAccessor> findProperties(@NotNull Class<?> type) throws ReflectiveOperationException {
+        var lookup = MethodHandles.lookup();
+        var isRecord = isRecord(type);
+        var properties = new ArrayList<PropertyAccessor>();
+
+        Class<?> current = type;
+
+        do {
+            for(var field : current.getDeclaredFields()) {
+                if(Modifier.isStatic(field.getModifiers()) || field.isSynthetic() || field.getAnnotation(EdgeDBIgnore.class) != null) {
+                    continue;
+                }
+
+                var getter = isRecord ? current.getDeclaredMethod(field.getName()) : findGetter(current, field);
+                MethodHandle handle;
+
+                if(getter != null) {
+                    getter.setAccessible(true);
+                    handle = lookup.unreflect(getter);
+                } else {
+                    field.setAccessible(true);
+                    handle = lookup.unreflectGetter(field);
+                }
+
+                var nameAnno = field.getAnnotation(EdgeDBName.class);
+
+                properties.add(new PropertyAccessor(
+                        field.getName(),
+                        nameAnno != null ? nameAnno.value() : null,
+                        handle.asType(GETTER_TYPE)
+                ));
+            }
+        } while((current = current.getSuperclass()) != null && current.isAnnotationPresent(EdgeDBType.class));
+
+        return properties;
+    }
+
+    private static @Nullable Method findGetter(@NotNull Class<?> type, @NotNull Field field) {
+        var suffix = field.getName().substring(0, 1).toUpperCase() + field.getName().substring(1);
+        var candidates = field.getType().equals(Boolean.TYPE)
+                ? new String[] { "get" + suffix, "is" + suffix }
+                : new String[] { "get" + suffix };
+
+        for(var name : candidates) {
+            try {
+                var method = type.getDeclaredMethod(name);
+
+                if(Modifier.isPublic(method.getModifiers()) && !Modifier.isStatic(method.getModifiers()) && method.getReturnType().equals(field.getType())) {
+                    return method;
+                }
+            } catch (NoSuchMethodException ignored) {}
+        }
+
+        return null;
+    }
+
+    public static boolean isRecord(@NotNull Class<?> type) {
+        // records are java 16+, check by name to keep compatibility with older runtimes.
+        return type.getSuperclass() != null && type.getSuperclass().getName().equals("java.lang.Record");
+    }
+
+    private static final class PropertyAccessor {
+        public final @NotNull String name;
+        public final @Nullable String annotatedName;
+        public final @NotNull MethodHandle getter;
+
+        public PropertyAccessor(@NotNull String name, @Nullable String annotatedName, @NotNull MethodHandle getter) {
+            this.name = name;
+            this.annotatedName = annotatedName;
+            this.getter = getter;
+        }
+    }
+
+    /**
+     * Represents the getters of a type bound to the element positions of a shape; a {@code null} getter represents an
+     * element that isn't present on the type.
+     */
+    public static final class ShapeAccessors {
+        public final @NotNull NamingStrategy strategy;
+        public final @Nullable MethodHandle @NotNull [] getters;
+
+        public ShapeAccessors(@NotNull NamingStrategy strategy, @Nullable MethodHandle @NotNull [] getters) {
+            this.strategy = strategy;
+            this.getters = getters;
+        }
+
+        public @Nullable Object get(int index, @NotNull Object instance) throws EdgeDBException {
+            var getter = getters[index];
+
+            if(getter == null) {
+                return null;
+            }
+
+            try {
+                return (Object) getter.invokeExact(instance);
+            } catch (Throwable e) {
+                throw new EdgeDBException("Failed to read argument property", e);
+            }
+        }
+    }
+}
@@ -1,14 +1,22 @@
 package com.edgedb.driver.binary.codecs;
 
+import com.edgedb.driver.binary.builders.IdentityMap;
 import com.edgedb.driver.binary.codecs.visitors.TypeVisitor;
 import com.edgedb.driver.clients.EdgeDBBinaryClient;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public final class CodecContext {
     public final EdgeDBBinaryClient client;
+    public final @Nullable IdentityMap identityMap;
 
     public CodecContext(EdgeDBBinaryClient client) {
+        this(client, null);
+    }
+
+    public CodecContext(EdgeDBBinaryClient client, @Nullable IdentityMap identityMap) {
         this.client = client;
+        this.identityMap = identityMap;
     }
 
     public @NotNull TypeVisitor getTypeVisitor() {
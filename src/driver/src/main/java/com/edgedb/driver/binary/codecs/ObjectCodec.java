@@ -2,17 +2,22 @@ package com.edgedb.driver.binary.codecs;
 
 import com.edgedb.driver.binary.PacketReader;
 import com.edgedb.driver.binary.PacketWriter;
+import com.edgedb.driver.binary.builders.ObjectArguments;
 import com.edgedb.driver.binary.builders.internal.ObjectEnumeratorImpl;
 import com.edgedb.driver.binary.builders.types.TypeBuilder;
 import com.edgedb.driver.binary.builders.types.TypeDeserializerInfo;
+import com.edgedb.driver.binary.builders.types.TypeSerializerInfo;
+import com.edgedb.driver.binary.codecs.visitors.TypeVisitor;
 import com.edgedb.driver.binary.protocol.common.Cardinality;
 import com.edgedb.driver.binary.protocol.common.descriptors.CodecMetadata;
 import com.edgedb.driver.exceptions.EdgeDBException;
 import com.edgedb.driver.exceptions.NoTypeConverterException;
+import com.edgedb.driver.util.BinaryProtocolUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import javax.naming.OperationNotSupportedException;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
@@ -53,13 +58,31 @@ public class ObjectCodec extends CodecBase<Object> implements ArgumentCodec<Obje
         public @Nullable Object deserialize(@NotNull PacketReader reader, CodecContext context) throws EdgeDBException {
             assert deserializer != null;
 
+            UUID id = null;
+
+            if(context.identityMap != null && (id = peekId(reader)) != null) {
+                var existing = context.identityMap.get(this, id);
+
+                if(existing != null) {
+                    return existing;
+                }
+            }
+
             var enumerator = new ObjectEnumeratorImpl(reader, this, context);
 
+            Object instance;
+
             try {
-                return deserializer.factory.deserialize(enumerator);
+                instance = deserializer.factory.deserialize(enumerator);
             } catch (Exception x) {
                 throw new EdgeDBException("Failed to deserialize " + target.getName(), x);
             }
+
+            if(id != null && instance != null) {
+                context.identityMap.put(this, id, instance);
+            }
+
+            return instance;
         }
 
         public Class<?> getTarget() {
@@ -88,20 +111,29 @@ public class ObjectCodec extends CodecBase<Object> implements ArgumentCodec<Obje
 
     public final @Nullable UUID typeId;
     public final ObjectProperty[] elements;
+    private final String @NotNull [] elementNames;
+    private final int idIndex;
     private final @NotNull ConcurrentMap<Class<?>, TypeInitializedObjectCodec> typeCodecs;
+    private final @NotNull ConcurrentMap<Class<?>, TypeSerializerInfo.ShapeAccessors> argumentAccessors;
 
     public ObjectCodec(UUID shapeId, @Nullable UUID typeId, @Nullable CodecMetadata metadata, ObjectProperty... elements) {
         super(shapeId, metadata, Object.class);
         this.typeId = typeId;
         this.elements = elements;
+        this.elementNames = Arrays.stream(elements).map(v -> v.name).toArray(String[]::new);
+        this.idIndex = Arrays.asList(elementNames).indexOf("id");
         this.typeCodecs = new ConcurrentHashMap<>();
+        this.argumentAccessors = new ConcurrentHashMap<>();
     }
 
     private ObjectCodec(ObjectCodec other) {
         super(other.id, other.metadata, Object.class);
         this.typeId = other.typeId;
         this.elements = other.elements;
+        this.elementNames = other.elementNames;
+        this.idIndex = other.idIndex;
         this.typeCodecs = other.typeCodecs;
+        this.argumentAccessors = other.argumentAccessors;
     }
 
     public TypeInitializedObjectCodec getOrCreateTypeCodec(Class<?> cls) throws EdgeDBException {
@@ -134,6 +166,31 @@ public class ObjectCodec extends CodecBase<Object> implements ArgumentCodec<Obje
         }
     }
 
+    /**
+     * Reads the {@code id} property of the object at the current position of the reader, without advancing it.
+     * @param reader The reader positioned at the start of an object.
+     * @return The id of the object if it's part of the shape and present; otherwise {@code null}.
+     */
+    protected @Nullable UUID peekId(@NotNull PacketReader reader) {
+        if(idIndex < 0 || reader.peekInt32(0) <= idIndex) {
+            return null;
+        }
+
+        // element layout: int32 reserved, int32 length, data
+        var offset = BinaryProtocolUtils.INT_SIZE;
+
+        for(int i = 0; i != idIndex; i++) {
+            var length = reader.peekInt32(offset + BinaryProtocolUtils.INT_SIZE);
+            offset += BinaryProtocolUtils.INT_SIZE * 2 + Math.max(length, 0);
+        }
+
+        if(reader.peekInt32(offset + BinaryProtocolUtils.INT_SIZE) != BinaryProtocolUtils.UUID_SIZE) {
+            return null;
+        }
+
+        return reader.peekUUID(offset + BinaryProtocolUtils.INT_SIZE * 2);
+    }
+
     @Override
     public final void serializeArguments(@NotNull PacketWriter writer, @Nullable Map<String, ?> value, @NotNull CodecContext context) throws EdgeDBException, OperationNotSupportedException {
         this.serialize(writer, value, context);
@@ -146,8 +203,13 @@ public class ObjectCodec extends CodecBase<Object> implements ArgumentCodec<Obje
             throw new IllegalArgumentException("Serializable object value cannot be null");
         }
 
+        if(rawValue instanceof ObjectArguments) {
+            rawValue = ((ObjectArguments)rawValue).getSource();
+        }
+
         if(!(rawValue instanceof Map)) {
-            throw new EdgeDBException("Expected map type for object serialization");
+            serializeObject(writer, rawValue, context);
+            return;
         }
 
         var value = (Map<String, ?>)rawValue;
@@ -173,14 +235,51 @@ public class ObjectCodec extends CodecBase<Object> implements ArgumentCodec<Obje
                 continue;
             }
 
-            visitor.setTargetType(elementValue.getClass());
-            var codec = (Codec)visitor.visit(element.codec);
-            visitor.reset();
+            serializeElement(writer, visitor, element, elementValue, context);
+        }
+    }
+
+    private void serializeObject(@NotNull PacketWriter writer, @NotNull Object value, @NotNull CodecContext context) throws OperationNotSupportedException, EdgeDBException {
+        var accessors = TypeBuilder.getShapeAccessors(
+                argumentAccessors,
+                value.getClass(),
+                context.client.getConfig().getNamingStrategy(),
+                elementNames
+        );
+
+        writer.write(elements.length);
+
+        var visitor = context.getTypeVisitor();
+
+        for(int i = 0; i != elements.length; i++) {
+            writer.write(0); // reserved
+
+            var elementValue = accessors.get(i, value);
 
-            writer.writeDelegateWithLength((v) -> codec.serialize(v, elementValue, context));
+            if(elementValue == null) {
+                writer.write(-1);
+                continue;
+            }
+
+            serializeElement(writer, visitor, elements[i], elementValue, context);
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private static void serializeElement(
+            @NotNull PacketWriter writer,
+            @NotNull TypeVisitor visitor,
+            @NotNull ObjectProperty element,
+            @NotNull Object value,
+            @NotNull CodecContext context
+    ) throws OperationNotSupportedException, EdgeDBException {
+        visitor.setTargetType(value.getClass());
+        var codec = (Codec)visitor.visit(element.codec);
+        visitor.reset();
+
+        writer.writeDelegateWithLength((v) -> codec.serialize(v, value, context));
+    }
+
     @Override
     public @Nullable Object deserialize(@NotNull PacketReader reader, CodecContext context) throws EdgeDBException {
         var enumerator = new ObjectEnumeratorImpl(reader, this, context);
@@ -2,6 +2,9 @@ package com.edgedb.driver.binary.codecs;
 
 import com.edgedb.driver.binary.PacketReader;
 import com.edgedb.driver.binary.PacketWriter;
+import com.edgedb.driver.binary.builders.ObjectArguments;
+import com.edgedb.driver.binary.builders.types.TypeBuilder;
+import com.edgedb.driver.binary.builders.types.TypeSerializerInfo;
 import com.edgedb.driver.binary.protocol.common.descriptors.CodecMetadata;
 import com.edgedb.driver.exceptions.EdgeDBException;
 import org.jetbrains.annotations.NotNull;
@@ -11,6 +14,8 @@ import javax.naming.OperationNotSupportedException;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -19,6 +24,7 @@ public final class SparseObjectCodec extends CodecBase<Map<String, ?>> {
     private final Codec[] innerCodecs;
     private final @NotNull Map<String, Integer> propertyNamesMap;
     private final String @NotNull [] propertyNames;
+    private final @NotNull ConcurrentMap<Class<?>, TypeSerializerInfo.ShapeAccessors> argumentAccessors;
 
     public SparseObjectCodec(UUID id, @Nullable CodecMetadata metadata, Codec[] innerCodecs, String @NotNull [] propertyNames) {
         super(id, metadata, (Class<Map<String,?>>) Map.of().getClass());
@@ -28,10 +34,16 @@ public final class SparseObjectCodec extends CodecBase<Map<String, ?>> {
         this.propertyNamesMap = IntStream.range(0, propertyNames.length)
                 .mapToObj((i) -> Map.entry(propertyNames[i], i))
                 .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        this.argumentAccessors = new ConcurrentHashMap<>();
     }
 
     @Override
     public void serialize(@NotNull PacketWriter writer, @Nullable Map<String, ?> value, @NotNull CodecContext context) throws OperationNotSupportedException, EdgeDBException {
+        if(value instanceof ObjectArguments) {
+            serializeObject(writer, ((ObjectArguments)value).getSource(), context);
+            return;
+        }
+
         if(value == null || value.isEmpty()) {
             writer.write(0);
             return;
@@ -63,6 +75,45 @@ public final class SparseObjectCodec extends CodecBase<Map<String, ?>> {
         }
     }
 
+    private void serializeObject(@NotNull PacketWriter writer, @NotNull Object value, @NotNull CodecContext context) throws OperationNotSupportedException, EdgeDBException {
+        var accessors = TypeBuilder.getShapeAccessors(
+                argumentAccessors,
+                value.getClass(),
+                context.client.getConfig().getNamingStrategy(),
+                propertyNames
+        );
+
+        // null properties are treated as unset, the same as a missing key in a map.
+        var values = new Object[propertyNames.length];
+        int count = 0;
+
+        for(int i = 0; i != values.length; i++) {
+            if((values[i] = accessors.get(i, value)) != null) {
+                count++;
+            }
+        }
+
+        writer.write(count);
+
+        var visitor = context.getTypeVisitor();
+
+        for(int i = 0; i != values.length; i++) {
+            final var elementValue = values[i];
+
+            if(elementValue == null) {
+                continue;
+            }
+
+            writer.write(i);
+
+            visitor.setTargetType(elementValue.getClass());
+            var codec = (Codec)visitor.visit(innerCodecs[i]);
+            visitor.reset();
+
+            writer.writeDelegateWithLength(v -> codec.serialize(v, elementValue, context));
+        }
+    }
+
     @Override
     public @NotNull Map<String, ?> deserialize(@NotNull PacketReader reader, CodecContext context) throws EdgeDBException, OperationNotSupportedException {
         var numElements = reader.readInt32();
@@ -63,9 +63,9 @@ public final class BigIntCodec extends ScalarCodecBase<BigInteger> {
 
     @Override
     public @NotNull BigInteger deserialize(@NotNull PacketReader reader, CodecContext context) {
-        var nDigits = reader.readUInt16().intValue();
+        var nDigits = reader.readUnsignedInt16();
         var weight = reader.readInt16();
-        var isPos = reader.readUInt16().compareTo(ushort(0)) == 0;
+        var isPos = reader.readUnsignedInt16() == 0;
 
         // reserved
         reader.skip(BinaryProtocolUtils.SHORT_SIZE);
@@ -76,7 +76,7 @@ public final class BigIntCodec extends ScalarCodecBase<BigInteger> {
 
         while(i >= 0) {
             if(i <= weight && d < nDigits) {
-                var digit = Integer.toString(reader.readUInt16().intValue());
+                var digit = Integer.toString(reader.readUnsignedInt16());
                 result.append(d > 0 ? StringsUtil.padLeft(digit, '0', 4) : digit);
                 d++;
             } else {
@@ -63,10 +63,10 @@ public final class DecimalCodec extends ScalarCodecBase<BigDecimal> {
 
     @Override
     public @NotNull BigDecimal deserialize(@NotNull PacketReader reader, CodecContext context) {
-        var numDigits = reader.readUInt16().intValue();
+        var numDigits = reader.readUnsignedInt16();
         var weight = reader.readInt16();
-        var isPos = reader.readUInt16().compareTo(ushort(0)) == 0;
-        var displayScale = reader.readUInt16().intValue();
+        var isPos = reader.readUnsignedInt16() == 0;
+        var displayScale = reader.readUnsignedInt16();
 
         StringBuilder value = new StringBuilder(isPos ? "" : "-");
 
@@ -77,8 +77,8 @@ public final class DecimalCodec extends ScalarCodecBase<BigDecimal> {
             value.append("0");
         } else {
             for(d = 0; d <= weight; d++) {
-                var digit = d < numDigits ? reader.readUInt16() : 0;
-                var sDigit = Integer.toString(digit.intValue());
+                var digit = d < numDigits ? reader.readUnsignedInt16() : 0;
+                var sDigit = Integer.toString(digit);
                 if(d > 0) {
                     sDigit = StringsUtil.padLeft(sDigit, '0', 4);
                 }
@@ -93,7 +93,7 @@ public final class DecimalCodec extends ScalarCodecBase<BigDecimal> {
 
             var end = value.length() + displayScale;
             for(int i = 0; i < displayScale; d++, i += 4) {
-                var digit = d >= 0 && d < numDigits ? reader.readUInt16().intValue() : 0;
+                var digit = d >= 0 && d < numDigits ? reader.readUnsignedInt16() : 0;
                 value.append(StringsUtil.padLeft(Integer.toString(digit), '0', 4));
             }
 
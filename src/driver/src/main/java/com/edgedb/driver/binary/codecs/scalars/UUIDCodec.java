@@ -25,6 +25,7 @@ public final class UUIDCodec extends ScalarCodecBase<UUID> {
 
     @Override
     public @NotNull UUID deserialize(@NotNull PacketReader reader, CodecContext context) {
-        return reader.readUUID();
+        var uuid = reader.readUUID();
+        return context.identityMap == null ? uuid : context.identityMap.intern(uuid);
     }
 }
@@ -2,9 +2,11 @@ package com.edgedb.driver.binary.duplexers;
 
 import com.edgedb.driver.ErrorCode;
 import com.edgedb.driver.async.ChannelCompletableFuture;
+import com.edgedb.driver.binary.protocol.ClientMessageType;
 import com.edgedb.driver.binary.protocol.ProtocolProvider;
 import com.edgedb.driver.binary.protocol.Receivable;
 import com.edgedb.driver.binary.protocol.Sendable;
+import com.edgedb.driver.binary.protocol.ServerMessageType;
 import com.edgedb.driver.binary.protocol.common.ProtocolError;
 import com.edgedb.driver.clients.EdgeDBBinaryClient;
 import com.edgedb.driver.exceptions.ConnectionFailedException;
@@ -13,37 +15,53 @@ import com.edgedb.driver.exceptions.EdgeDBException;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.util.concurrent.EventExecutor;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.naming.OperationNotSupportedException;
-import java.util.ArrayDeque;
-import java.util.Arrays;
 import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicReference;
 
-import static com.edgedb.driver.util.ComposableUtil.composeWith;
 import static com.edgedb.driver.util.ComposableUtil.exceptionallyCompose;
 
+/**
+ * A {@linkplain Duplexer} over a netty channel.
+ * <br/><br/>
+ * Inbound messages are handed from the channel handler to the single reader, the duplex state machine of the client,
+ * through a lock-free queue and at most one pending read; the executor of the handler never waits on the reader. The
+ * message timeout is scheduled on that executor once per duplex operation or waiting read, so it never races with the
+ * dispatch, and reschedules itself while messages keep arriving.
+ * <br/><br/>
+ * Every {@code Sync} is answered by a {@code ReadyForCommand}. An operation that ends before reading the answer to its
+ * {@code Sync}, because it failed on an error or timed out, leaves the rest of its response on the connection; the
+ * next operation discards it up to the last answer before sending anything, which resynchronizes the connection
+ * without closing it.
+ */
 public class ChannelDuplexer extends Duplexer {
     private static final Logger logger = LoggerFactory.getLogger(ChannelDuplexer.class);
 
     public final ChannelHandler channelHandler = new ChannelHandler();
 
     private final @NotNull Queue<Receivable> messageQueue;
-    private final @NotNull Queue<CompletableFuture<Receivable>> readPromises;
-
-    private final ReentrantLock messageEnqueueLock = new ReentrantLock();
+    private final @NotNull AtomicReference<CompletableFuture<Receivable>> pendingRead;
 
     private final EdgeDBBinaryClient client;
 
-    private boolean isConnected;
+    private final @NotNull AtomicInteger unansweredSyncs;
+
+    private volatile boolean isConnected;
+    private volatile long lastMessageNanos;
 
     private @Nullable Channel channel;
 
@@ -64,7 +82,17 @@ public class ChannelDuplexer extends Duplexer {
         @Override
         public void channelActive(@NotNull ChannelHandlerContext ctx) {
             logger.debug("Channel active");
+
+            // whatever the previous connection left unread can't be answered anymore
+            unansweredSyncs.set(0);
+            Receivable stale;
+
+            while((stale = messageQueue.poll()) != null) {
+                discard(stale);
+            }
+
             isConnected = true;
+            client.getConfig().getMetrics().connectionOpened();
             channelActivePromise.complete(null);
         }
 
@@ -72,16 +100,10 @@ public class ChannelDuplexer extends Duplexer {
         public void userEventTriggered(ChannelHandlerContext ctx, @NotNull Object evt) {
             logger.debug("event fired {}", evt);
             if (evt.equals("TIMEOUT")) {
-                var exc = new TimeoutException("A message read process passed the configured message timeout");
-                for(var promise : readPromises) {
-                    promise.completeExceptionally(exc);
-                }
+                failPendingRead(new TimeoutException("A message read process passed the configured message timeout"));
             } else if (evt.equals("DISCONNECT")) {
                 disconnect();
-                var exc = new ConnectionFailedException("Client requested a disconnect");
-                for(var promise : readPromises) {
-                    promise.completeExceptionally(exc);
-                }
+                failPendingRead(new ConnectionFailedException("Client requested a disconnect"));
             }
         }
 
@@ -89,6 +111,7 @@ public class ChannelDuplexer extends Duplexer {
         public void channelInactive(@NotNull ChannelHandlerContext ctx) {
             isConnected = false;
             logger.debug("Channel inactive");
+            client.getConfig().getMetrics().connectionClosed();
         }
 
         @Override
@@ -106,51 +129,9 @@ public class ChannelDuplexer extends Duplexer {
                 return;
             }
 
-            int completeCount = 0;
-
-            try {
-                logger.debug("Read fired, entering message lock, message type {}", protocolMessage.getMessageType());
-                if(!messageEnqueueLock.tryLock(client.getConfig().getMessageTimeoutValue(), client.getConfig().getMessageTimeoutUnit())) {
-                    ctx.fireUserEventTriggered("TIMEOUT");
-                    return;
-                }
-            } catch (InterruptedException e) {
-                ctx.fireExceptionCaught(e);
-                return;
-            }
-
-            try {
-                logger.debug("Dependant promises empty?: {}", readPromises.isEmpty());
-
-                if(readPromises.isEmpty()) {
-                    logger.debug("Enqueuing message into message queue");
-                    messageQueue.add(protocolMessage);
-                }
-                else {
-                    logger.debug("Completing {} message promise(s)", readPromises.size());
-
-                    // we don't want to iterate and complete within the lock, since the complete method *can* enqueue
-                    // more promises.
-                    completeCount = readPromises.size();
-                }
-            } finally {
-                messageEnqueueLock.unlock();
-            }
-
-            for(int i = 0; i != completeCount; i++) {
-                var promise = readPromises.poll();
-
-                if(promise == null) {
-                    break;
-                }
-
-                logger.debug(
-                        "Completing promise {} with message type {}; already complete?: {}",
-                        promise.hashCode(), protocolMessage.getMessageType(), promise.isDone()
-                );
-
-                promise.complete(protocolMessage);
-            }
+            lastMessageNanos = System.nanoTime();
+            messageQueue.add(protocolMessage);
+            dispatch();
         }
 
         @Override
@@ -169,8 +150,9 @@ public class ChannelDuplexer extends Duplexer {
 
     public ChannelDuplexer(EdgeDBBinaryClient client) {
         this.client = client;
-        this.messageQueue = new ArrayDeque<>();
-        this.readPromises = new ArrayDeque<>();
+        this.messageQueue = new ConcurrentLinkedQueue<>();
+        this.pendingRead = new AtomicReference<>();
+        this.unansweredSyncs = new AtomicInteger();
     }
 
     @Override
@@ -180,43 +162,178 @@ public class ChannelDuplexer extends Duplexer {
 
     @Override
     public @NotNull CompletionStage<Receivable> readNext() {
-        logger.debug("Entering message queue lock");
+        var message = messageQueue.poll();
+
+        if(message != null) {
+            return CompletableFuture.completedFuture(consumed(message));
+        }
+
+        var promise = awaitMessage();
+
+        if(!promise.isDone()) {
+            scheduleTimeout(promise, "A message processor passed the configured message timeout");
+        }
+
+        return promise.thenApply(this::consumed);
+    }
+
+    /**
+     * Counts the {@code ReadyForCommand} answering a {@code Sync} once the reader takes it.
+     */
+    private @NotNull Receivable consumed(@NotNull Receivable message) {
+        if(message.getMessageType() == ServerMessageType.READY_FOR_COMMAND) {
+            // the ReadyForCommand ending the handshake answers no Sync
+            unansweredSyncs.getAndUpdate(v -> Math.max(0, v - 1));
+        }
+
+        return message;
+    }
+
+    private void discard(@NotNull Receivable message) {
+        logger.debug("Discarding {} left by a previous operation", message.getMessageType());
 
         try {
-            if(!messageEnqueueLock.tryLock(client.getConfig().getMessageTimeoutValue(), client.getConfig().getMessageTimeoutUnit())) {
-                return CompletableFuture.failedFuture(new TimeoutException("A message processor passed the configured message timeout"));
+            message.close();
+        } catch (Exception e) {
+            logger.debug("Failed to release a discarded message", e);
+        }
+    }
+
+    /**
+     * Reads and discards messages until every {@code Sync} sent so far is answered.
+     * @param currentRead Set to the pending read, so the operation waiting on the resync can take it back.
+     */
+    private @NotNull CompletionStage<Void> resync(@NotNull AtomicReference<CompletableFuture<Receivable>> currentRead) {
+        while(unansweredSyncs.get() > 0) {
+            var message = messageQueue.poll();
+
+            if(message == null) {
+                var read = awaitMessage();
+                currentRead.set(read);
+
+                return read.thenCompose(m -> {
+                    discard(consumed(m));
+                    return resync(currentRead);
+                });
             }
-        } catch (InterruptedException e) {
-            return CompletableFuture.failedFuture(e);
+
+            discard(consumed(message));
         }
 
-        try {
-            logger.debug("Queue empty?: {}", this.messageQueue.isEmpty());
+        return CompletableFuture.completedFuture(null);
+    }
 
-            if(this.messageQueue.isEmpty()) {
-                logger.debug("Creating message wait promise");
+    /**
+     * Publishes the read of the single consumer, called once the message queue was seen empty.
+     */
+    private @NotNull CompletableFuture<Receivable> awaitMessage() {
+        var promise = new CompletableFuture<Receivable>();
 
-                var promise = new CompletableFuture<Receivable>()
-                        .orTimeout(
-                                client.getConfig().getMessageTimeoutValue(),
-                                client.getConfig().getMessageTimeoutUnit()
-                        );
+        if(!pendingRead.compareAndSet(null, promise)) {
+            return CompletableFuture.failedFuture(
+                    new IllegalStateException("A message is already being read from this connection")
+            );
+        }
 
-                final var readPromiseId = promise.hashCode();
+        // a message may have been queued between the poll and publishing the read
+        dispatch();
+        return promise;
+    }
 
-                promise.whenComplete((v,e) -> logger.debug("Read promise completed, ID: {}, is success?: {}", promise.hashCode(), e == null && !promise.isCancelled()));
+    /**
+     * Hands queued messages to the pending read. Both the channel handler and the reader call this; only the one that
+     * takes the pending read polls the queue, so each message goes to exactly one read.
+     */
+    private void dispatch() {
+        while(!messageQueue.isEmpty()) {
+            var read = pendingRead.getAndSet(null);
 
-                logger.debug("Enqueueing read promise: ID: {}", readPromiseId);
-                readPromises.add(promise);
-                return promise;
-            } else {
-                var message = this.messageQueue.poll();
-                logger.debug("Returning polled message {}", message.getMessageType());
-                return CompletableFuture.completedFuture(message);
+            if(read == null) {
+                return;
+            }
+
+            var message = messageQueue.poll();
+
+            if(message == null) {
+                // another dispatch took the message we saw, put the read back and look again.
+                pendingRead.set(read);
+                continue;
             }
+
+            read.complete(message);
+        }
+    }
+
+    private void failPendingRead(@NotNull Throwable error) {
+        var read = pendingRead.getAndSet(null);
+
+        if(read != null) {
+            read.completeExceptionally(error);
+        }
+    }
+
+    private void scheduleTimeout(@NotNull CompletableFuture<?> operation, @NotNull String message) {
+        var channel = this.channel;
+
+        if(channel == null) {
+            return;
         }
-        finally {
-            messageEnqueueLock.unlock();
+
+        // the handler can run on its own executor rather than the event loop of the channel
+        var context = channel.pipeline().context(channelHandler);
+        var executor = context == null ? channel.eventLoop() : context.executor();
+
+        new MessageTimeout(operation, executor, message).schedule(
+                client.getConfig().getMessageTimeout(TimeUnit.NANOSECONDS)
+        );
+    }
+
+    /**
+     * Fails an operation once no message was received for the configured message timeout. Runs on the executor of the
+     * handler, like the dispatch of messages, and fails the pending read along with the operation so that it can't take a
+     * message of the next one.
+     */
+    private final class MessageTimeout implements Runnable {
+        private final @NotNull CompletableFuture<?> operation;
+        private final @NotNull EventExecutor executor;
+        private final @NotNull String message;
+        private volatile @Nullable ScheduledFuture<?> future;
+
+        private MessageTimeout(@NotNull CompletableFuture<?> operation, @NotNull EventExecutor executor, @NotNull String message) {
+            this.operation = operation;
+            this.executor = executor;
+            this.message = message;
+
+            operation.whenComplete((v, e) -> {
+                var future = this.future;
+
+                if(future != null) {
+                    future.cancel(false);
+                }
+            });
+        }
+
+        private void schedule(long nanos) {
+            future = executor.schedule(this, nanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void run() {
+            if(operation.isDone()) {
+                return;
+            }
+
+            var timeout = client.getConfig().getMessageTimeout(TimeUnit.NANOSECONDS);
+            var idle = System.nanoTime() - lastMessageNanos;
+
+            if(idle < timeout) {
+                schedule(timeout - idle);
+                return;
+            }
+
+            var error = new TimeoutException(message);
+            failPendingRead(error);
+            operation.completeExceptionally(error);
         }
     }
 
@@ -230,10 +347,12 @@ public class ChannelDuplexer extends Duplexer {
         }
 
         logger.debug("Beginning packet encoding and writing...");
+        countSync(packet);
         var result = ChannelCompletableFuture.completeFrom(channel.write(packet));
 
         if(packets != null) {
             for (var p : packets) {
+                countSync(p);
                 result.thenCompose(channel.write(p));
             }
         }
@@ -244,6 +363,12 @@ public class ChannelDuplexer extends Duplexer {
         return result;
     }
 
+    private void countSync(@Nullable Sendable packet) {
+        if(packet != null && packet.type == ClientMessageType.SYNC) {
+            unansweredSyncs.incrementAndGet();
+        }
+    }
+
     private CompletionStage<Void> send0(AtomicInteger attempts, Sendable packet, @Nullable Sendable... packets) {
         return exceptionallyCompose(this.channelHandler.whenReady().thenCompose(v -> {
             if(!isConnected) {
@@ -298,47 +423,105 @@ public class ChannelDuplexer extends Duplexer {
 
     @Override
     public CompletionStage<Void> duplex(@NotNull DuplexCallback func, @NotNull Sendable packet, @Nullable Sendable... packets) {
-        var firstHashcode = packet.hashCode();
-        final var duplexId = 31 * firstHashcode + Arrays.hashCode(packets);
-        logger.debug("Starting duplex step, ID: {}", duplexId);
         final var duplexPromise = new CompletableFuture<Void>();
+        final var currentRead = new AtomicReference<CompletableFuture<Receivable>>();
+
+        scheduleTimeout(duplexPromise, "A duplex operation passed the configured message timeout");
 
-        duplexPromise.whenComplete((v,e) -> logger.debug("Duplex step complete, ID: {}, isCancelled?: {}, isExceptional?: {}", duplexId, duplexPromise.isCancelled(), e != null));
+        // the operation can be failed from outside, like by the deadline of a query; its read mustn't outlive it and
+        // take a message of the next operation.
+        duplexPromise.whenComplete((v, e) -> {
+            var read = currentRead.get();
+
+            if(e != null && read != null && pendingRead.compareAndSet(read, null)) {
+                read.completeExceptionally(e);
+            }
+        });
 
-        return this.send(packet, packets)
-                .thenCompose((v) -> processDuplexStep(func, duplexPromise, duplexId))
-                .thenCompose((v) -> duplexPromise);
+        var synced = unansweredSyncs.get() > 0
+                ? resync(currentRead)
+                : CompletableFuture.<Void>completedFuture(null);
+
+        // nothing is sent for an operation that was failed while the connection caught up
+        synced.thenCompose(v -> duplexPromise.isDone() ? duplexPromise : this.send(packet, packets))
+                .thenCompose((v) -> processDuplexStep(func, duplexPromise, currentRead))
+                .whenComplete((v, e) -> {
+                    if(e != null) {
+                        duplexPromise.completeExceptionally(e instanceof CompletionException && e.getCause() != null
+                                ? e.getCause()
+                                : e
+                        );
+                    }
+                });
+
+        return duplexPromise;
     }
 
-    private CompletionStage<Void> processDuplexStep(@NotNull DuplexCallback func, @NotNull CompletableFuture<Void> promise, int id) {
-        logger.debug("Handling duplex step, ID: {}", id);
+    private CompletionStage<Void> processDuplexStep(
+            @NotNull DuplexCallback func,
+            @NotNull CompletableFuture<Void> promise,
+            @NotNull AtomicReference<CompletableFuture<Receivable>> currentRead
+    ) {
+        // process the messages already queued without growing the stack, and only wait when the queue runs dry.
+        while(!promise.isDone()) {
+            var message = messageQueue.poll();
+
+            if(message == null) {
+                var read = awaitMessage();
+                currentRead.set(read);
+
+                if(promise.isDone() && pendingRead.compareAndSet(read, null)) {
+                    // failed before the read was published above
+                    read.cancel(false);
+                }
 
-        return composeWith(readNext(), (packet) -> {
-            logger.debug("Invoking duplex consumer, ID: {}, Message: {}", id, packet.getMessageType());
-            try {
-                return func.process(new DuplexResult(packet, promise));
-            } catch (EdgeDBException | OperationNotSupportedException e) {
-                return CompletableFuture.failedFuture(e);
+                return read
+                        .thenCompose(packet -> processMessage(func, promise, packet))
+                        .thenCompose(v -> processDuplexStep(func, promise, currentRead));
             }
-        }).thenCompose(v -> {
-            logger.debug(
-                    "Post-invoke duplex step ID: {}, isDone?: {}, isCancelled?: {}, isExceptional?: {}, ",
-                    id, promise.isDone(), promise.isCancelled(), promise.isCompletedExceptionally()
-            );
 
-            if(promise.isDone()) {
-                if(promise.isCompletedExceptionally() || promise.isCancelled()) {
-                    logger.debug("Returning failed-state promise to callee, ID: {}", id);
-                    return promise;
-                }
+            var step = processMessage(func, promise, message).toCompletableFuture();
 
-                logger.debug("Returning completed state promise, ID: {}", id);
-                return CompletableFuture.completedFuture(null);
+            if(!step.isDone() || step.isCompletedExceptionally()) {
+                return step.thenCompose(v -> processDuplexStep(func, promise, currentRead));
             }
+        }
 
-            logger.debug("Continuing duplex step for ID: {}", id);
-            return processDuplexStep(func, promise, id);
-        });
+        if(promise.isCompletedExceptionally() || promise.isCancelled()) {
+            return promise;
+        }
+
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private CompletionStage<Void> processMessage(
+            @NotNull DuplexCallback func, @NotNull CompletableFuture<Void> promise, @NotNull Receivable packet
+    ) {
+        if(promise.isDone()) {
+            // the operation was failed while the message was on its way
+            discard(consumed(packet));
+            return CompletableFuture.completedFuture(null);
+        }
+
+        try {
+            return func.process(new DuplexResult(consumed(packet), promise));
+        } catch (EdgeDBException | OperationNotSupportedException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public void setAutoRead(boolean autoRead) {
+        if(this.channel != null) {
+            this.channel.config().setAutoRead(autoRead);
+        }
+    }
+
+    @Override
+    public void requestRead() {
+        if(this.channel != null) {
+            this.channel.read();
+        }
     }
 
     public void init(Channel channel) {
@@ -365,7 +548,12 @@ public class ChannelDuplexer extends Duplexer {
 
         if(this.isConnected) {
             logger.debug("Sending terminate for disconnect");
+            // a connection which is already going away can't take the terminate, it's closed all the same.
             return send(getProtocolProvider().terminate())
+                    .exceptionally(e -> {
+                        logger.debug("Failed to send terminate, closing the channel", e);
+                        return null;
+                    })
                     .thenCompose(v -> ChannelCompletableFuture.completeFrom(this.channel.disconnect()));
         }
 
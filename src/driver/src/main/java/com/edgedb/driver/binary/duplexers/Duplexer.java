@@ -27,6 +27,18 @@ public abstract class Duplexer {
             @Nullable Sendable... packets
     );
 
+    /**
+     * Sets whether the connection is read as data arrives, or only on {@linkplain #requestRead()}. Reading on demand
+     * lets a slow consumer of a long response hold back the server instead of buffering the response.
+     * @param autoRead Whether to read as data arrives.
+     */
+    public void setAutoRead(boolean autoRead) { }
+
+    /**
+     * Requests a read from the connection when it isn't read automatically.
+     */
+    public void requestRead() { }
+
     public final CompletionStage<Void> send(Sendable packet) {
         return this.send(packet, (Sendable[]) null);
     }
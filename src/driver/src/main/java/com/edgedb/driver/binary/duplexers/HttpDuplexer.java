@@ -115,7 +115,9 @@ public class HttpDuplexer extends Duplexer {
                 .thenApply((v) -> {
                     try {
                         logger.debug("Creating buffer stream");
-                        return new ByteBufInputStream(PacketSerializer.serialize(packet, packets), true);
+                        var data = PacketSerializer.serialize(packet, packets);
+                        client.getConfig().getMetrics().bytesSent(data.readableBytes());
+                        return new ByteBufInputStream(data, true);
                     } catch (OperationNotSupportedException e) {
                         logger.debug("Failed to create buffer stream", e);
                         throw new CompletionException(e);
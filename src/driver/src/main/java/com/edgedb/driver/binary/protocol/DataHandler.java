@@ -0,0 +1,45 @@
+package com.edgedb.driver.binary.protocol;
+
+import com.edgedb.driver.binary.codecs.Codec;
+import com.edgedb.driver.exceptions.EdgeDBException;
+import io.netty.buffer.ByteBuf;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Represents a consumer of the {@code Data} payloads produced while executing a query. The payload is only valid for
+ * the duration of the call, handlers that keep it around must {@linkplain ByteBuf#retain()} it.
+ * <br/><br/>
+ * The next payload isn't handed over before the stage returned for the previous one completes, so a handler can
+ * consume a payload off the thread reading the connection, like writing it to a slow channel.
+ */
+@FunctionalInterface
+public interface DataHandler {
+    /**
+     * Consumes a payload.
+     * @param codec The codec of the payload.
+     * @param payload The payload.
+     * @return A {@linkplain CompletionStage} completed once the payload is consumed.
+     * @throws EdgeDBException The payload can't be consumed.
+     */
+    @NotNull CompletionStage<Void> handle(@NotNull Codec<?> codec, @NotNull ByteBuf payload) throws EdgeDBException;
+
+    /**
+     * Gets whether this handler consumes the payloads asynchronously. The connection is then read on demand, one read
+     * per message handled, so the payloads waiting on the handler are bounded rather than queued as they arrive.
+     * @return {@code true} if the stages returned by {@linkplain #handle(Codec, ByteBuf)} complete later.
+     */
+    default boolean isAsync() {
+        return false;
+    }
+
+    /**
+     * Gets whether this handler has consumed any data; a query isn't retried once it has, since the handler can't
+     * take back what it consumed.
+     * @return {@code true} if the handler has consumed data; otherwise {@code false}.
+     */
+    default boolean hasReceivedData() {
+        return false;
+    }
+}
@@ -0,0 +1,18 @@
+package com.edgedb.driver.binary.protocol;
+
+import io.netty.buffer.ByteBuf;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Represents a consumer of the messages of a dump. The buffers are the raw bodies of the {@code DumpHeader} and
+ * {@code DumpBlock} messages, and are only valid for the duration of the call, handlers that keep them around must
+ * {@linkplain ByteBuf#retain()} them.
+ * <br/><br/>
+ * The next message isn't read before the stage returned for the previous one completes.
+ */
+public interface DumpHandler {
+    @NotNull CompletionStage<Void> header(@NotNull ByteBuf data);
+    @NotNull CompletionStage<Void> block(@NotNull ByteBuf data);
+}
@@ -1,17 +1,40 @@
 package com.edgedb.driver.binary.protocol;
 
+import com.edgedb.driver.binary.BufferTracker;
 import com.edgedb.driver.binary.codecs.Codec;
 import io.netty.buffer.ByteBuf;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
 
 public class ExecuteResult {
     public final Codec<?> codec;
     public final List<ByteBuf> data;
-
+    private final @Nullable BufferTracker.Lease lease;
 
     public ExecuteResult(Codec<?> codec, List<ByteBuf> data) {
         this.codec = codec;
         this.data = data;
+        this.lease = null;
+    }
+
+    public ExecuteResult(Codec<?> codec, List<ByteBuf> data, @Nullable BufferTracker tracker, String query) {
+        this.codec = codec;
+        this.data = data;
+        this.lease = tracker == null || data.isEmpty() ? null : tracker.track(this, data, query);
+    }
+
+    /**
+     * Releases the retained {@linkplain #data} buffers, the consumer of the result must call this exactly once.
+     */
+    public void release() {
+        if(lease != null) {
+            lease.release();
+            return;
+        }
+
+        for (var buffer : data) {
+            buffer.release();
+        }
     }
 }
@@ -11,6 +11,7 @@ import com.edgedb.driver.exceptions.UnexpectedMessageException;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ConcurrentHashMap;
@@ -52,6 +53,12 @@ public interface ProtocolProvider {
 
     CompletionStage<ParseResult> parseQuery(QueryParameters queryParameters);
     CompletionStage<ExecuteResult> executeQuery(QueryParameters queryParameters, ParseResult parseResult);
+    CompletionStage<ExecuteResult> executeQuery(QueryParameters queryParameters, ParseResult parseResult, DataHandler handler);
+
+    CompletionStage<Void> executePipeline(List<QueryParameters> statements, List<ParseResult> parseResults);
+
+    CompletionStage<Void> dump(DumpHandler handler);
+    CompletionStage<Void> restore(RestoreSource source, int jobs);
 
     CompletionStage<Void> sendSyncMessage();
     CompletionStage<Void> processMessage(Receivable packet);
@@ -4,6 +4,8 @@ import com.edgedb.driver.Capabilities;
 import com.edgedb.driver.binary.builders.CodecBuilder;
 import com.edgedb.driver.binary.protocol.common.Cardinality;
 import com.edgedb.driver.binary.protocol.common.IOFormat;
+import com.edgedb.driver.internal.Deadline;
+import com.edgedb.driver.internal.QueryTracer;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.EnumSet;
@@ -17,6 +19,16 @@ public final class QueryParameters {
     public final IOFormat format;
     public final boolean implicitTypeNames;
 
+    /**
+     * The tracer of this execution, {@code null} when no query listener is configured.
+     */
+    public @Nullable QueryTracer tracer;
+
+    /**
+     * The deadline of this execution, {@code null} when the query has no timeout.
+     */
+    public @Nullable Deadline deadline;
+
     public QueryParameters(
             String query,
             @Nullable Map<String, @Nullable Object> arguments,
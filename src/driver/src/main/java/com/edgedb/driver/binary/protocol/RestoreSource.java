@@ -0,0 +1,22 @@
+package com.edgedb.driver.binary.protocol;
+
+import io.netty.buffer.ByteBuf;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Represents the source of a restore, producing the raw bodies of the {@code DumpHeader} and {@code DumpBlock}
+ * messages of a dump, in order. Ownership of the returned buffers passes to the caller.
+ * <br/><br/>
+ * A read isn't started before the previous one completes.
+ */
+public interface RestoreSource {
+    @NotNull CompletionStage<ByteBuf> readHeader();
+
+    /**
+     * Reads the next block of the dump.
+     * @return A {@linkplain CompletionStage} completed with the block, or with {@code null} once the dump ends.
+     */
+    @NotNull CompletionStage<ByteBuf> readBlock();
+}
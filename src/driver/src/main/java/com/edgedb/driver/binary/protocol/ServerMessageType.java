@@ -1,6 +1,7 @@
 package com.edgedb.driver.binary.protocol;
 
 import com.edgedb.driver.binary.BinaryEnum;
+import org.jetbrains.annotations.Nullable;
 
 public enum ServerMessageType implements BinaryEnum<Byte> {
     AUTHENTICATION (0x52),
@@ -18,12 +19,29 @@ public enum ServerMessageType implements BinaryEnum<Byte> {
     SERVER_HANDSHAKE (0x76),
     SERVER_KEY_DATA (0x4b);
 
+    private static final ServerMessageType[] byCode = new ServerMessageType[256];
+
+    static {
+        for (var type : values()) {
+            byCode[type.code & 0xFF] = type;
+        }
+    }
+
     private final byte code;
 
     ServerMessageType(int code) {
         this.code = (byte)code;
     }
 
+    /**
+     * Gets the message type with the given code.
+     * @param code The code read from the message header.
+     * @return The message type, or {@code null} if the code isn't known.
+     */
+    public static @Nullable ServerMessageType fromCode(byte code) {
+        return byCode[code & 0xFF];
+    }
+
     @Override
     public Byte getValue() {
         return code;
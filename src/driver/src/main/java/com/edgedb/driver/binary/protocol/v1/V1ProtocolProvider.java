@@ -2,6 +2,7 @@ package com.edgedb.driver.binary.protocol.v1;
 
 import com.edgedb.driver.Capabilities;
 import com.edgedb.driver.ErrorCode;
+import com.edgedb.driver.binary.BufferTracker;
 import com.edgedb.driver.binary.PacketReader;
 import com.edgedb.driver.binary.builders.CodecBuilder;
 import com.edgedb.driver.binary.codecs.*;
@@ -15,6 +16,7 @@ import com.edgedb.driver.binary.protocol.v1.sendables.*;
 import com.edgedb.driver.clients.EdgeDBBinaryClient;
 import com.edgedb.driver.datatypes.Range;
 import com.edgedb.driver.exceptions.*;
+import com.edgedb.driver.jfr.AuthenticationEvent;
 import com.edgedb.driver.util.BinaryProtocolUtils;
 import com.edgedb.driver.util.Scram;
 import io.netty.buffer.ByteBuf;
@@ -273,11 +275,13 @@ public class V1ProtocolProvider implements ProtocolProvider {
 
         public boolean stateUpdated;
 
+        public boolean retryWithUpdatedState;
+
         public CodecBuilder.QueryCodecs codecs;
 
         public boolean isComplete;
 
-        public List<ByteBuf> data;
+        public DataHandler dataHandler;
 
         public ProtocolState(QueryParameters args, ByteBuf stateBuffer) {
             this.stateBuffer = stateBuffer;
@@ -285,9 +289,9 @@ public class V1ProtocolProvider implements ProtocolProvider {
             this.cardinality = args.cardinality;
         }
 
-        public ProtocolState(QueryParameters args, ByteBuf stateBuffer, List<ByteBuf> data) {
+        public ProtocolState(QueryParameters args, ByteBuf stateBuffer, DataHandler dataHandler) {
             this(args, stateBuffer);
-            this.data = data;
+            this.dataHandler = dataHandler;
         }
     }
 
@@ -301,7 +305,13 @@ public class V1ProtocolProvider implements ProtocolProvider {
             return CompletableFuture.failedFuture(e);
         }
 
+        var tracer = queryParameters.tracer;
+
         if(queryParameters.format == IOFormat.NONE && (queryParameters.arguments == null || queryParameters.arguments.isEmpty())) {
+            if(tracer != null) {
+                tracer.parseSkipped();
+            }
+
             return CompletableFuture.completedFuture(new ParseResult(
                     CodecBuilder.NULL_CODEC,
                     CodecBuilder.NULL_CODEC,
@@ -316,22 +326,45 @@ public class V1ProtocolProvider implements ProtocolProvider {
         var cacheKey = queryParameters.getCacheKey();
 
         var cachedCodecs = CodecBuilder.getCachedCodecs(this, cacheKey);
+        var metrics = client.getConfig().getMetrics();
 
         if(cachedCodecs == null) {
             ProtocolState parseState = new ProtocolState(queryParameters, stateBuffer);
+            var start = System.nanoTime();
+
+            if(tracer != null) {
+                tracer.parseStarted();
+            }
 
             return runWithAttempts(
                     queryParameters,
                     a -> parse0(a, parseState),
                     ignored -> parseState.isComplete,
                     () -> parseState.attempts++
-            ).thenApply(v ->
-                new ParseResult(
+            ).whenComplete((v, e) -> {
+                // on success the state buffer is handed to the execution, which releases it.
+                if(e != null) {
+                    releaseStateBuffer(parseState);
+                }
+            }).thenApply(v -> {
+                metrics.queryParsed(System.nanoTime() - start);
+
+                if(tracer != null) {
+                    tracer.parseEnded();
+                }
+
+                return new ParseResult(
                         parseState.codecs.inputCodec, parseState.codecs.outputCodec, parseState.codecs.inputCodecId,
                         parseState.codecs.outputCodecId, parseState.stateBuffer, parseState.capabilities,
                         parseState.cardinality
-                )
-            );
+                );
+            });
+        }
+
+        metrics.parseCacheHit();
+
+        if(tracer != null) {
+            tracer.parseSkipped();
         }
 
         return CompletableFuture.completedFuture(
@@ -359,9 +392,13 @@ public class V1ProtocolProvider implements ProtocolProvider {
         var parseCapabilities = state.capabilities;
         var stateBuffer = state.stateBuffer;
 
+        if(args.deadline != null && args.deadline.isExpired()) {
+            return CompletableFuture.failedFuture(args.deadline.toException("before it was parsed", false));
+        }
+
         logger.debug("Starting to parse... attempt {}/{}", state.attempts + 1, MAX_PARSE_ATTEMPTS);
 
-        return client.getDuplexer().duplexAndSync(new Parse(
+        return withDeadline(args, "waiting for EdgeDB to parse it", false, client.getDuplexer().duplexAndSync(new Parse(
                 parseCapabilities,
                 getCompilationFlags(args),
                 args.format,
@@ -443,23 +480,46 @@ public class V1ProtocolProvider implements ProtocolProvider {
             }
 
             return CompletableFuture.completedFuture(null);
-        });
+        }));
     }
 
     @Override
     public CompletionStage<ExecuteResult> executeQuery(QueryParameters queryParameters, ParseResult parseResult) {
         var data = new ArrayList<ByteBuf>();
-        var state = new ProtocolState(queryParameters, parseResult.stateData, data);
+        var tracker = client.getBufferTracker();
+        var hint = tracker == null ? null : BufferTracker.hint(queryParameters.query, ServerMessageType.DATA);
+
+        // retain the data buffer once, so it's available for the consumer of
+        // data, since after the duplex step, `Data` and its children (buffers) are freed.
+        return executeQuery(
+                queryParameters,
+                parseResult,
+                (codec, payload) -> {
+                    data.add(hint == null ? payload.retain() : payload.retain().touch(hint));
+                    return CompletableFuture.completedFuture(null);
+                }
+        ).whenComplete((r, e) -> {
+            if(e != null) {
+                for (var buffer : data) {
+                    buffer.release();
+                }
+            }
+        }).thenApply(r -> new ExecuteResult(r.codec, data, tracker, queryParameters.query));
+    }
+
+    @Override
+    public CompletionStage<ExecuteResult> executeQuery(QueryParameters queryParameters, ParseResult parseResult, DataHandler handler) {
+        var state = new ProtocolState(queryParameters, parseResult.stateData, handler);
 
         return runWithAttempts(
                 queryParameters,
                 p -> execute0(p, parseResult, state),
                 p -> state.isComplete,
                 () -> state.attempts++
-        ).thenApply(v ->
+        ).whenComplete((v, e) -> releaseStateBuffer(state)).thenApply(v ->
                 new ExecuteResult(
                         parseResult.outCodec,
-                        data
+                        Collections.emptyList()
                 )
         );
     }
@@ -480,54 +540,240 @@ public class V1ProtocolProvider implements ProtocolProvider {
             );
         }
 
+        ByteBuf arguments;
+
         try {
-            return client.getDuplexer().duplexAndSync(new Execute(
-                    queryParameters.capabilities,
-                    getCompilationFlags(queryParameters),
-                    client.getConfig().getImplicitLimit(),
-                    queryParameters.format,
-                    queryParameters.cardinality,
-                    queryParameters.query,
-                    client.getStateDescriptorId(),
-                    parseResult.stateData,
-                    parseResult.inCodecId,
-                    parseResult.outCodecId,
-                    ArgumentCodec.serializeToBuffer(
-                            (ArgumentCodec<?>) parseResult.inCodec,
-                            queryParameters.arguments,
-                            client.getCodecContext()
-                    )
-            ), (result) -> {
-                switch (result.packet.getMessageType()) {
-                    case DATA:
-                        var data = result.packet.as(Data.class);
-                        assert data.payloadBuffer != null;
-                        // retain the data buffer once, so it's available for the
-                        // consumer of data, since after this duplex step, `Data` and
-                        // its children (buffers) are freed.
-                        data.payloadBuffer.retain();
-                        state.data.add(data.payloadBuffer);
-                        break;
-                    case STATE_DATA_DESCRIPTION:
-                        updateStateCodec(state, result);
-                        break;
-                    case ERROR_RESPONSE:
-                        var err = result.packet.as(ErrorResponse.class);
-                        handleCommandError(queryParameters, state, result, err);
-                        break;
-                    case READY_FOR_COMMAND:
-                        var ready = result.packet.as(ReadyForCommand.class);
-                        client.setTransactionState(ready.transactionState);
-                        state.isComplete = true;
-                        result.finishDuplexing();
-                        break;
+            arguments = ArgumentCodec.serializeToBuffer(
+                    (ArgumentCodec<?>) parseResult.inCodec,
+                    queryParameters.arguments,
+                    client.getCodecContext()
+            );
+        } catch (OperationNotSupportedException | EdgeDBException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        var tracer = queryParameters.tracer;
+        var deadline = queryParameters.deadline;
+
+        if(deadline != null && deadline.isExpired()) {
+            arguments.release();
+            return CompletableFuture.failedFuture(deadline.toException("before it was executed", false));
+        }
+
+        if(tracer != null) {
+            tracer.executeSent();
+        }
+
+        var duplexer = client.getDuplexer();
+        var onDemand = state.dataHandler.isAsync();
+
+        if(onDemand) {
+            // read the result as fast as the handler consumes it
+            duplexer.setAutoRead(false);
+            duplexer.requestRead();
+        }
+
+        // the arguments are copied into the message, they can be released once the duplex is over.
+        return withDeadline(queryParameters, "waiting for EdgeDB to execute it", true, duplexer.duplexAndSync(new Execute(
+                queryParameters.capabilities,
+                getCompilationFlags(queryParameters),
+                client.getConfig().getImplicitLimit(),
+                queryParameters.format,
+                queryParameters.cardinality,
+                queryParameters.query,
+                client.getStateDescriptorId(),
+                state.stateBuffer,
+                parseResult.inCodecId,
+                parseResult.outCodecId,
+                arguments
+        ), (result) -> {
+            switch (result.packet.getMessageType()) {
+                case DATA:
+                    var data = result.packet.as(Data.class);
+                    assert data.payloadBuffer != null;
+
+                    if(tracer != null) {
+                        tracer.dataReceived(data.payloadBuffer.readableBytes());
+                    }
+
+                    var handled = state.dataHandler.handle(parseResult.outCodec, data.payloadBuffer);
+
+                    // the next message is read once the handler is done with this one
+                    return onDemand ? handled.whenComplete((v, e) -> duplexer.requestRead()) : handled;
+                case STATE_DATA_DESCRIPTION:
+                    updateStateCodec(state, result);
+                    break;
+                case ERROR_RESPONSE:
+                    var err = result.packet.as(ErrorResponse.class);
+                    handleCommandError(queryParameters, state, result, err);
+                    break;
+                case READY_FOR_COMMAND:
+                    var ready = result.packet.as(ReadyForCommand.class);
+                    client.setTransactionState(ready.transactionState);
+
+                    if(tracer != null) {
+                        tracer.readyForCommand();
+                    }
+
+                    // a state mismatch skips the execution, it's retried with the state the server described.
+                    state.isComplete = !state.retryWithUpdatedState;
+                    state.retryWithUpdatedState = false;
+                    result.finishDuplexing();
+                    break;
+            }
+
+            if(onDemand) {
+                duplexer.requestRead();
+            }
+
+            return CompletableFuture.completedFuture(null);
+        })).whenComplete((v, e) -> {
+            arguments.release();
+
+            if(onDemand) {
+                duplexer.setAutoRead(true);
+            }
+        });
+    }
+
+    @Override
+    public CompletionStage<Void> executePipeline(
+            @NotNull List<QueryParameters> statements, @NotNull List<ParseResult> parseResults
+    ) {
+        ByteBuf stateBuffer;
+
+        try {
+            stateBuffer = client.serializeState();
+        } catch (OperationNotSupportedException | EdgeDBException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        var state = new ProtocolState(statements.get(0), stateBuffer);
+
+        return runWithAttempts(
+                statements.get(0),
+                p -> executePipeline0(statements, parseResults, state),
+                p -> state.isComplete,
+                () -> state.attempts++
+        ).whenComplete((v, e) -> releaseStateBuffer(state));
+    }
+
+    /**
+     * Sends an {@code Execute} for each statement and a single {@code Sync}. Once a statement fails the server skips
+     * the following ones, the error is reported after {@code ReadyForCommand} so the transaction state is known.
+     */
+    private CompletionStage<Void> executePipeline0(
+            @NotNull List<QueryParameters> statements, @NotNull List<ParseResult> parseResults,
+            @NotNull ProtocolState state
+    ) {
+        if(state.attempts > 2) {
+            return CompletableFuture.failedFuture(
+                    new EdgeDBException("Failed to execute pipeline after " + state.attempts + " attempts")
+            );
+        }
+
+        var messages = new Sendable[statements.size()];
+        var arguments = new ArrayList<ByteBuf>(statements.size());
+
+        try {
+            for(int i = 0; i != statements.size(); i++) {
+                var statement = statements.get(i);
+                var parseResult = parseResults.get(i);
+
+                if(!(parseResult.inCodec instanceof ArgumentCodec)) {
+                    throw new MissingCodecException(String.format(
+                            "Cannot encode arguments, %s is not a valid argument codec",
+                            parseResult.inCodec.toString()
+                    ));
                 }
 
-                return CompletableFuture.completedFuture(null);
-            });
+                var encoded = ArgumentCodec.serializeToBuffer(
+                        (ArgumentCodec<?>) parseResult.inCodec,
+                        statement.arguments,
+                        client.getCodecContext()
+                );
+                arguments.add(encoded);
+
+                messages[i] = new Execute(
+                        statement.capabilities,
+                        getCompilationFlags(statement),
+                        client.getConfig().getImplicitLimit(),
+                        statement.format,
+                        statement.cardinality,
+                        statement.query,
+                        client.getStateDescriptorId(),
+                        state.stateBuffer,
+                        parseResult.inCodecId,
+                        parseResult.outCodecId,
+                        encoded
+                );
+            }
         } catch (OperationNotSupportedException | EdgeDBException e) {
+            for (var buffer : arguments) {
+                buffer.release();
+            }
+
             return CompletableFuture.failedFuture(e);
         }
+
+        var following = Arrays.copyOf(Arrays.copyOfRange(messages, 1, messages.length), messages.length);
+        following[messages.length - 1] = sync();
+
+        // the index of the Execute whose response is being read, each one ends with a CommandComplete
+        var executing = new int[1];
+        var error = new AtomicReference<Throwable>();
+
+        return client.getDuplexer().duplex(result -> {
+            switch (result.packet.getMessageType()) {
+                case COMMAND_COMPLETE:
+                    executing[0]++;
+                    break;
+                case STATE_DATA_DESCRIPTION:
+                    updateStateCodec(state, result);
+                    break;
+                case ERROR_RESPONSE:
+                    var err = result.packet.as(ErrorResponse.class);
+
+                    if(err.errorCode == ErrorCode.STATE_MISMATCH_ERROR && state.stateUpdated) {
+                        // nothing ran, the pipeline is sent again with the state the server described
+                        state.retryWithUpdatedState = true;
+                    } else {
+                        // past the last statement, the error is about the Sync rather than a statement
+                        var failed = executing[0] < statements.size() ? statements.get(executing[0]).query : null;
+                        error.compareAndSet(null, err.toException(failed));
+                    }
+                    break;
+                case READY_FOR_COMMAND:
+                    var ready = result.packet.as(ReadyForCommand.class);
+                    client.setTransactionState(ready.transactionState);
+
+                    state.isComplete = !state.retryWithUpdatedState;
+                    state.retryWithUpdatedState = false;
+
+                    if(error.get() != null) {
+                        result.finishExceptionally(error.get());
+                    } else {
+                        result.finishDuplexing();
+                    }
+                    break;
+            }
+
+            return CompletableFuture.completedFuture(null);
+        }, messages[0], following).whenComplete((v, e) -> {
+            for (var buffer : arguments) {
+                buffer.release();
+            }
+        });
+    }
+
+    /**
+     * Bounds a duplex of a query by the deadline of the query, if it has one. The duplex is failed when the deadline
+     * passes, and the connection is resynchronized by the next duplex.
+     */
+    private static CompletionStage<Void> withDeadline(
+            @NotNull QueryParameters args, @NotNull String phase, boolean executed, @NotNull CompletionStage<Void> duplex
+    ) {
+        return args.deadline == null ? duplex : args.deadline.bound(duplex.toCompletableFuture(), phase, executed);
     }
 
     private @NotNull EnumSet<CompilationFlags> getCompilationFlags(QueryParameters args) {
@@ -559,6 +805,8 @@ public class V1ProtocolProvider implements ProtocolProvider {
                         "Failed to properly encode state data, this is a bug",
                         EdgeDBException::new
                 );
+            } else {
+                args.retryWithUpdatedState = true;
             }
         }
         else {
@@ -599,6 +847,13 @@ public class V1ProtocolProvider implements ProtocolProvider {
         }
     }
 
+    private static void releaseStateBuffer(@NotNull ProtocolState state) {
+        if(state.stateBuffer != null) {
+            state.stateBuffer.release();
+            state.stateBuffer = null;
+        }
+    }
+
     private CompletionStage<Void> runWithAttempts(
             QueryParameters args,
             @NotNull Function<QueryParameters, CompletionStage<Void>> delegate,
@@ -616,6 +871,181 @@ public class V1ProtocolProvider implements ProtocolProvider {
                 });
     }
 
+    /**
+     * The state of a dump or restore flow. An error ends the flow on the server, which skips messages until the next
+     * {@code Sync}; the flow keeps reading until {@code ReadyForCommand} and fails with the error afterwards, so the
+     * connection stays usable.
+     */
+    private static final class DumpState {
+        public @Nullable Throwable error;
+        public int jobs = 1;
+    }
+
+    @Override
+    public CompletionStage<Void> dump(@NotNull DumpHandler handler) {
+        var state = new DumpState();
+        var duplexer = client.getDuplexer();
+
+        // read the dump as fast as the handler consumes it
+        duplexer.setAutoRead(false);
+        duplexer.requestRead();
+
+        return duplexer.duplexAndSync(new Dump(new Annotation[0]), (result) -> {
+            switch (result.packet.getMessageType()) {
+                case DUMP_HEADER:
+                case DUMP_BLOCK:
+                    if(state.error != null) {
+                        break;
+                    }
+
+                    var handled = result.packet instanceof DumpHeader
+                            ? handler.header(result.packet.as(DumpHeader.class).rawData)
+                            : handler.block(result.packet.as(DumpBlock.class).rawData);
+
+                    // read the next message once this one is written
+                    return handled.handle((v, e) -> {
+                        if(e != null) {
+                            // drain the rest of the dump, the server can't be stopped midway without a Sync
+                            state.error = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                        }
+
+                        duplexer.requestRead();
+                        return null;
+                    });
+                case ERROR_RESPONSE:
+                    if(state.error == null) {
+                        state.error = result.packet.as(ErrorResponse.class).toException();
+                    }
+                    break;
+                case READY_FOR_COMMAND:
+                    client.setTransactionState(result.packet.as(ReadyForCommand.class).transactionState);
+
+                    if(state.error != null) {
+                        result.finishExceptionally(state.error);
+                    } else {
+                        result.finishDuplexing();
+                    }
+                    break;
+            }
+
+            duplexer.requestRead();
+            return CompletableFuture.completedFuture(null);
+        }).whenComplete((v, e) -> duplexer.setAutoRead(true));
+    }
+
+    @Override
+    public CompletionStage<Void> restore(@NotNull RestoreSource source, int jobs) {
+        return source.readHeader().thenCompose(header -> restore(source, header, jobs));
+    }
+
+    private CompletionStage<Void> restore(@NotNull RestoreSource source, @NotNull ByteBuf header, int jobs) {
+        var state = new DumpState();
+        var duplexer = client.getDuplexer();
+
+        return duplexer.duplex(new Restore(new KeyValue[0], (short)Math.min(jobs, Short.MAX_VALUE), header), (result) -> {
+            switch (result.packet.getMessageType()) {
+                case RESTORE_READY:
+                    state.jobs = Math.max(1, result.packet.as(RestoreReady.class).jobs.intValue());
+                    result.finishDuplexing();
+                    break;
+                case ERROR_RESPONSE:
+                    state.error = result.packet.as(ErrorResponse.class).toException();
+                    return duplexer.send(sync());
+                case READY_FOR_COMMAND:
+                    client.setTransactionState(result.packet.as(ReadyForCommand.class).transactionState);
+                    result.finishExceptionally(state.error != null
+                            ? state.error
+                            : new UnexpectedMessageException("Restore ended before the server was ready for blocks")
+                    );
+                    break;
+            }
+
+            return CompletableFuture.completedFuture(null);
+        })
+        .whenComplete((v, e) -> header.release())
+        .thenCompose(v -> exceptionallyCompose(sendRestoreBlocks(source, state.jobs, new ArrayDeque<>()), e -> {
+            // the server is waiting for more blocks, there's no way to tell it the restore failed on our end
+            logger.debug("Restore failed while sending blocks, closing the connection", e);
+            return client.disconnect().thenCompose(d -> CompletableFuture.failedFuture(e));
+        }))
+        .thenCompose(v -> duplexer.duplex(new RestoreEOF(), (result) -> {
+            switch (result.packet.getMessageType()) {
+                case ERROR_RESPONSE:
+                    if(state.error == null) {
+                        state.error = result.packet.as(ErrorResponse.class).toException();
+                        return duplexer.send(sync());
+                    }
+                    break;
+                case READY_FOR_COMMAND:
+                    client.setTransactionState(result.packet.as(ReadyForCommand.class).transactionState);
+
+                    if(state.error != null) {
+                        result.finishExceptionally(state.error);
+                    } else {
+                        result.finishDuplexing();
+                    }
+                    break;
+            }
+
+            return CompletableFuture.completedFuture(null);
+        }));
+    }
+
+    /**
+     * Sends the blocks of a restore, keeping up to {@code window} of them written but not yet flushed to the socket,
+     * which is as many as the server restores in parallel. Reading the source waits on the oldest write once the
+     * window is full, so a slow server holds back the reads rather than buffering the whole dump.
+     * <br/><br/>
+     * Blocks must never be sent from the event loop of the channel: a write from the event loop goes through right
+     * away, ahead of the writes other threads queued before it, and the server would restore the blocks out of order.
+     * Waiting on a write therefore resumes on another thread rather than the event loop completing the write.
+     */
+    private CompletionStage<Void> sendRestoreBlocks(
+            @NotNull RestoreSource source, int window, @NotNull Deque<CompletableFuture<Void>> inFlight
+    ) {
+        while(true) {
+            if(inFlight.size() >= window) {
+                var oldest = inFlight.poll();
+
+                if(!oldest.isDone() || oldest.isCompletedExceptionally()) {
+                    return oldest.thenComposeAsync(v -> sendRestoreBlocks(source, window, inFlight));
+                }
+
+                continue;
+            }
+
+            var read = source.readBlock().toCompletableFuture();
+
+            if(!read.isDone() || read.isCompletedExceptionally()) {
+                return read.thenCompose(block -> {
+                    if(block == null) {
+                        return CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new));
+                    }
+
+                    sendRestoreBlock(block, inFlight);
+                    return sendRestoreBlocks(source, window, inFlight);
+                });
+            }
+
+            // loop rather than recurse over the blocks a source has at hand
+            var block = read.join();
+
+            if(block == null) {
+                return CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new));
+            }
+
+            sendRestoreBlock(block, inFlight);
+        }
+    }
+
+    private void sendRestoreBlock(@NotNull ByteBuf block, @NotNull Deque<CompletableFuture<Void>> inFlight) {
+        inFlight.add(client.getDuplexer()
+                .send(new RestoreBlock(block))
+                .whenComplete((v, e) -> block.release())
+                .toCompletableFuture()
+        );
+    }
+
     @Override
     public CompletionStage<Void> sendSyncMessage() {
         if(!client.getDuplexer().isConnected()) {
@@ -716,7 +1146,16 @@ public class V1ProtocolProvider implements ProtocolProvider {
                 case AUTHENTICATION:
                     var auth = (AuthenticationStatus)packet;
                     if(auth.authStatus == AuthStatus.AUTHENTICATION_REQUIRED_SASL_MESSAGE) {
-                        return startSASLAuthentication(auth);
+                        var event = AuthenticationEvent.start();
+
+                        if(event == null) {
+                            return startSASLAuthentication(auth);
+                        }
+
+                        assert auth.authenticationMethods != null;
+                        var method = auth.authenticationMethods[0];
+
+                        return startSASLAuthentication(auth).whenComplete((v, e) -> event.finish(method, e));
                     } else if (auth.authStatus != AuthStatus.AUTHENTICATION_OK) {
                         throw new UnexpectedMessageException(
                                 "Expected AuthenticationRequiredSASLMessage, got " + auth.authStatus
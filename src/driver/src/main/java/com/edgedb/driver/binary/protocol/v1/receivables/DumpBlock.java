@@ -4,18 +4,26 @@ import com.edgedb.driver.binary.PacketReader;
 import com.edgedb.driver.binary.protocol.Receivable;
 import com.edgedb.driver.binary.protocol.ServerMessageType;
 import com.edgedb.driver.binary.protocol.common.KeyValue;
+import io.netty.buffer.ByteBuf;
 import org.jetbrains.annotations.NotNull;
 
 public class DumpBlock implements Receivable {
     public final KeyValue @NotNull [] attributes;
 
+    /**
+     * The whole message body, which is what dump files store and {@code RestoreBlock} sends back.
+     */
+    public final @NotNull ByteBuf rawData;
+
     public DumpBlock(@NotNull PacketReader reader) {
-        attributes = reader.readAttributes();
+        rawData = reader.readRemaining();
+        attributes = new PacketReader(rawData.duplicate()).readAttributes();
     }
 
     @Override
     public void close() throws Exception {
         release(attributes);
+        rawData.release();
     }
 
     @Override
@@ -6,6 +6,7 @@ import com.edgedb.driver.binary.protocol.ServerMessageType;
 import com.edgedb.driver.binary.protocol.common.DumpObjectDescriptor;
 import com.edgedb.driver.binary.protocol.common.DumpTypeInfo;
 import com.edgedb.driver.binary.protocol.common.KeyValue;
+import io.netty.buffer.ByteBuf;
 import org.jetbrains.annotations.NotNull;
 import org.joou.UInteger;
 import org.joou.UShort;
@@ -18,7 +19,15 @@ public class DumpHeader implements Receivable {
     public final DumpTypeInfo @NotNull [] typeInfo;
     public final DumpObjectDescriptor @NotNull [] descriptors;
 
-    public DumpHeader(@NotNull PacketReader reader) {
+    /**
+     * The whole message body, which is what dump files store and {@code Restore} sends back.
+     */
+    public final @NotNull ByteBuf rawData;
+
+    public DumpHeader(@NotNull PacketReader packet) {
+        rawData = packet.readRemaining();
+
+        var reader = new PacketReader(rawData.duplicate());
         attributes = reader.readAttributes();
         majorVersion = reader.readUInt16();
         minorVersion = reader.readUInt16();
@@ -31,6 +40,7 @@ public class DumpHeader implements Receivable {
     public void close() throws Exception {
         release(attributes);
         release(descriptors);
+        rawData.release();
     }
 
     @Override
@@ -24,13 +24,14 @@ public class Restore extends Sendable {
 
     @Override
     public int getDataSize() {
-        return BinaryProtocolUtils.SHORT_SIZE + BinaryProtocolUtils.sizeOf(attributes, Short.TYPE) + BinaryProtocolUtils.sizeOf(headerData);
+        return BinaryProtocolUtils.SHORT_SIZE + BinaryProtocolUtils.sizeOf(attributes, Short.TYPE) + headerData.readableBytes();
     }
 
     @Override
     protected void buildPacket(@NotNull PacketWriter writer) throws OperationNotSupportedException {
         writer.writeArray(attributes, Short.TYPE);
         writer.write(jobs);
-        writer.writeArray(headerData);
+        // the body of the DumpHeader message, as is; it isn't length prefixed
+        writer.writeArrayWithoutLength(headerData);
     }
 }
@@ -3,7 +3,6 @@ package com.edgedb.driver.binary.protocol.v1.sendables;
 import com.edgedb.driver.binary.PacketWriter;
 import com.edgedb.driver.binary.protocol.ClientMessageType;
 import com.edgedb.driver.binary.protocol.Sendable;
-import com.edgedb.driver.util.BinaryProtocolUtils;
 import io.netty.buffer.ByteBuf;
 import org.jetbrains.annotations.NotNull;
 
@@ -19,11 +18,12 @@ public class RestoreBlock extends Sendable {
 
     @Override
     public int getDataSize() {
-        return BinaryProtocolUtils.sizeOf(blockData);
+        return blockData.readableBytes();
     }
 
     @Override
     protected void buildPacket(@NotNull PacketWriter writer) throws OperationNotSupportedException {
-        writer.writeArray(blockData);
+        // the body of the DumpBlock message, as is; it isn't length prefixed
+        writer.writeArrayWithoutLength(blockData);
     }
 }
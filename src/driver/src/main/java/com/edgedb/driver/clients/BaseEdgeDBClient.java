@@ -92,6 +92,8 @@ public abstract class BaseEdgeDBClient implements StatefulClient, EdgeDBQueryabl
     public abstract CompletionStage<Void> disconnect();
 
     public CompletionStage<Void> reconnect() {
+        config.getMetrics().reconnected();
+
         return disconnect().thenCompose((v) -> {
             logger.debug("Executing connection attempt from reconnect");
             return connect();
@@ -0,0 +1,71 @@
+package com.edgedb.driver.clients;
+
+import com.edgedb.driver.exceptions.EdgeDBException;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.channels.Channel;
+import java.nio.channels.SelectableChannel;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs the blocking reads and writes of the channels given to a client on the stream executor of its config, off the
+ * threads reading the connections.
+ * @see com.edgedb.driver.EdgeDBClientConfig#getStreamExecutor()
+ */
+final class ChannelIO {
+    /**
+     * A read or write of a channel.
+     * @param <T> The result of the operation.
+     */
+    @FunctionalInterface
+    interface Operation<T> {
+        T run() throws IOException, EdgeDBException;
+    }
+
+    private ChannelIO() {}
+
+    /**
+     * Checks that a channel blocks, the executor would spin on a non-blocking channel that isn't ready.
+     * @param channel The channel to check.
+     * @throws EdgeDBException The channel is in non-blocking mode.
+     */
+    static void requireBlocking(@NotNull Channel channel) throws EdgeDBException {
+        if(channel instanceof SelectableChannel && !((SelectableChannel) channel).isBlocking()) {
+            throw new EdgeDBException("The channel is in non-blocking mode, only blocking channels are supported");
+        }
+    }
+
+    /**
+     * Runs an operation on an executor.
+     * @param executor The executor to run the operation on.
+     * @param error The message of the {@linkplain EdgeDBException} the operation fails with if the channel fails.
+     * @param operation The operation.
+     * @return The result of the operation.
+     * @param <T> The result of the operation.
+     */
+    static <T> @NotNull CompletionStage<T> run(
+            @NotNull Executor executor, @NotNull String error, @NotNull Operation<T> operation
+    ) {
+        var result = new CompletableFuture<T>();
+
+        try {
+            executor.execute(() -> {
+                try {
+                    result.complete(operation.run());
+                } catch (IOException e) {
+                    result.completeExceptionally(new EdgeDBException(error, e));
+                } catch (Throwable x) {
+                    result.completeExceptionally(x);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(new EdgeDBException(error, e));
+        }
+
+        return result;
+    }
+}
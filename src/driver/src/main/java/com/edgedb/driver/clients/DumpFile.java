@@ -0,0 +1,240 @@
+package com.edgedb.driver.clients;
+
+import com.edgedb.driver.binary.protocol.DumpHandler;
+import com.edgedb.driver.binary.protocol.RestoreSource;
+import com.edgedb.driver.exceptions.EdgeDBException;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
+/**
+ * The dump file format of the EdgeDB CLI: a magic header and a format version, followed by the header and the blocks
+ * of the dump. Each one is stored as a tag byte, the SHA-1 of the data, the length of the data as an uint32 and the
+ * data, which is the body of the {@code DumpHeader} or {@code DumpBlock} message it came from.
+ */
+final class DumpFile {
+    private static final byte[] MAGIC = new byte[] {
+            (byte)0xff, (byte)0xd8, 0x00, 0x00, (byte)0xd8,
+            'E', 'D', 'G', 'E', 'D', 'B', 0x00, 'D', 'U', 'M', 'P', 0x00
+    };
+    private static final long FORMAT_VERSION = 1;
+
+    private static final byte HEADER_TAG = 'H';
+    private static final byte BLOCK_TAG = 'D';
+    private static final int HASH_SIZE = 20;
+    private static final int PACKET_HEADER_SIZE = 1 + HASH_SIZE + 4;
+
+    private DumpFile() {}
+
+    private static @NotNull MessageDigest sha1() throws EdgeDBException {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new EdgeDBException("SHA-1 is required for dump files", e);
+        }
+    }
+
+    private static byte @NotNull [] hash(@NotNull MessageDigest digest, @NotNull ByteBuf data) {
+        digest.reset();
+
+        for(var buffer : data.nioBuffers(data.readerIndex(), data.readableBytes())) {
+            digest.update(buffer);
+        }
+
+        return digest.digest();
+    }
+
+    /**
+     * A {@linkplain DumpHandler} writing a dump file into a channel as the messages arrive, on an executor. The
+     * connection is read on demand during a dump, one read per message written, so a slow channel holds back the
+     * server rather than buffering the dump in memory.
+     */
+    static final class Writer implements DumpHandler {
+        private final @NotNull WritableByteChannel channel;
+        private final @NotNull Executor executor;
+        private final @NotNull MessageDigest digest;
+        private final @NotNull ByteBuffer packetHeader = ByteBuffer.allocate(PACKET_HEADER_SIZE);
+        private long count;
+
+        Writer(@NotNull WritableByteChannel channel, @NotNull Executor executor) throws EdgeDBException {
+            ChannelIO.requireBlocking(channel);
+
+            this.channel = channel;
+            this.executor = executor;
+            this.digest = sha1();
+        }
+
+        /**
+         * Gets the number of bytes written to the channel.
+         */
+        long getCount() {
+            return count;
+        }
+
+        @Override
+        public @NotNull CompletionStage<Void> header(@NotNull ByteBuf data) {
+            return writePacket(HEADER_TAG, data, "Failed to write the dump header to the channel");
+        }
+
+        @Override
+        public @NotNull CompletionStage<Void> block(@NotNull ByteBuf data) {
+            return writePacket(BLOCK_TAG, data, "Failed to write a dump block to the channel");
+        }
+
+        private @NotNull CompletionStage<Void> writePacket(byte tag, @NotNull ByteBuf data, @NotNull String error) {
+            var packet = data.retainedSlice();
+
+            return ChannelIO.<Void>run(executor, error, () -> {
+                if(tag == HEADER_TAG) {
+                    write(ByteBuffer.allocate(MAGIC.length + 8).put(MAGIC).putLong(FORMAT_VERSION).flip());
+                }
+
+                packetHeader.clear()
+                        .put(tag)
+                        .put(hash(digest, packet))
+                        .putInt(packet.readableBytes())
+                        .flip();
+
+                write(packetHeader);
+
+                for(var buffer : packet.nioBuffers()) {
+                    write(buffer);
+                }
+
+                return null;
+            }).whenComplete((v, e) -> packet.release());
+        }
+
+        private void write(@NotNull ByteBuffer buffer) throws IOException {
+            // the channel blocks, each write makes progress
+            while(buffer.hasRemaining()) {
+                count += channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * A {@linkplain RestoreSource} reading a dump file from a channel on an executor, one packet at a time, and
+     * verifying the hash of each one.
+     */
+    static final class Reader implements RestoreSource {
+        private static final String READ_ERROR = "Failed to read the dump from the channel";
+
+        private final @NotNull ReadableByteChannel channel;
+        private final @NotNull Executor executor;
+        private final @NotNull MessageDigest digest;
+        private final @NotNull ByteBuffer packetHeader = ByteBuffer.allocate(PACKET_HEADER_SIZE);
+        private final byte @NotNull [] expectedHash = new byte[HASH_SIZE];
+
+        Reader(@NotNull ReadableByteChannel channel, @NotNull Executor executor) throws EdgeDBException {
+            ChannelIO.requireBlocking(channel);
+
+            this.channel = channel;
+            this.executor = executor;
+            this.digest = sha1();
+        }
+
+        @Override
+        public @NotNull CompletionStage<ByteBuf> readHeader() {
+            return ChannelIO.run(executor, READ_ERROR, this::readHeader0);
+        }
+
+        @Override
+        public @NotNull CompletionStage<ByteBuf> readBlock() {
+            return ChannelIO.run(executor, READ_ERROR, () -> readPacket(BLOCK_TAG));
+        }
+
+        private @NotNull ByteBuf readHeader0() throws IOException, EdgeDBException {
+            var preamble = ByteBuffer.allocate(MAGIC.length + 8);
+
+            if(!readFully(preamble) || !Arrays.equals(Arrays.copyOf(preamble.array(), MAGIC.length), MAGIC)) {
+                throw new EdgeDBException("The channel doesn't contain an EdgeDB dump");
+            }
+
+            var version = preamble.getLong(MAGIC.length);
+
+            if(version < 1 || version > FORMAT_VERSION) {
+                throw new EdgeDBException("Unsupported dump format version " + version);
+            }
+
+            var header = readPacket(HEADER_TAG);
+
+            if(header == null) {
+                throw new EdgeDBException("The dump has no header");
+            }
+
+            return header;
+        }
+
+        private @Nullable ByteBuf readPacket(byte expectedTag) throws IOException, EdgeDBException {
+            packetHeader.clear();
+
+            if(!readFully(packetHeader)) {
+                if(packetHeader.position() == 0) {
+                    return null;
+                }
+
+                throw new EdgeDBException("Unexpected end of the dump");
+            }
+
+            packetHeader.flip();
+
+            var tag = packetHeader.get();
+
+            if(tag != expectedTag) {
+                throw new EdgeDBException(String.format("Unexpected packet '%c' in the dump, expected '%c'", tag, expectedTag));
+            }
+
+            packetHeader.get(expectedHash);
+            var length = Integer.toUnsignedLong(packetHeader.getInt());
+
+            if(length > Integer.MAX_VALUE) {
+                throw new EdgeDBException("Dump packet of " + length + " bytes is too large");
+            }
+
+            var data = ByteBufAllocator.DEFAULT.buffer((int)length);
+
+            try {
+                if(!readFully(data.nioBuffer(0, (int)length))) {
+                    throw new EdgeDBException("Unexpected end of the dump");
+                }
+
+                data.writerIndex((int)length);
+
+                if(!MessageDigest.isEqual(expectedHash, hash(digest, data))) {
+                    throw new EdgeDBException("The dump is corrupted, the hash of a packet doesn't match its data");
+                }
+
+                return data;
+            } catch (Throwable x) {
+                data.release();
+                throw x;
+            }
+        }
+
+        /**
+         * Fills the buffer from the channel.
+         * @return {@code false} if the channel ended before the buffer was filled.
+         */
+        private boolean readFully(@NotNull ByteBuffer buffer) throws IOException {
+            while(buffer.hasRemaining()) {
+                if(channel.read(buffer) < 0) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.edgedb.driver.clients;
 
 import com.edgedb.driver.*;
+import com.edgedb.driver.binary.BufferTracker;
 import com.edgedb.driver.binary.builders.CodecBuilder;
+import com.edgedb.driver.binary.builders.IdentityMap;
 import com.edgedb.driver.binary.builders.ObjectBuilder;
 import com.edgedb.driver.binary.builders.types.TypeBuilder;
+import com.edgedb.driver.binary.codecs.ArgumentCodec;
 import com.edgedb.driver.binary.codecs.Codec;
 import com.edgedb.driver.binary.codecs.CodecContext;
 import com.edgedb.driver.binary.duplexers.Duplexer;
@@ -14,8 +17,15 @@ import com.edgedb.driver.datatypes.Json;
 import com.edgedb.driver.exceptions.ConnectionFailedException;
 import com.edgedb.driver.exceptions.EdgeDBErrorException;
 import com.edgedb.driver.exceptions.EdgeDBException;
+import com.edgedb.driver.exceptions.QueryTimeoutException;
 import com.edgedb.driver.exceptions.ResultCardinalityMismatchException;
+import com.edgedb.driver.internal.Deadline;
+import com.edgedb.driver.internal.QueryTracer;
+import com.edgedb.driver.jfr.ConnectEvent;
+import com.edgedb.driver.jfr.DecodeEvent;
+import com.edgedb.driver.metrics.DriverMetrics;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.joou.UShort;
@@ -23,12 +33,17 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.naming.OperationNotSupportedException;
+import java.nio.channels.WritableByteChannel;
 import java.util.*;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
 
 import static com.edgedb.driver.util.ComposableUtil.exceptionallyCompose;
 
@@ -45,6 +60,7 @@ public abstract class EdgeDBBinaryClient extends BaseEdgeDBClient {
     private final @NotNull Semaphore querySemaphore;
     private @NotNull CompletableFuture<Void> readyPromise;
     private final CodecContext codecContext = new CodecContext(this);
+    private @Nullable BufferTracker bufferTracker;
 
     public EdgeDBBinaryClient(EdgeDBConnection connection, EdgeDBClientConfig config, AutoCloseable poolHandle) {
         super(connection, config, poolHandle);
@@ -74,6 +90,26 @@ public abstract class EdgeDBBinaryClient extends BaseEdgeDBClient {
         return this.codecContext;
     }
 
+    /**
+     * Gets the tracker accounting for the buffers this client retains for query results.
+     * @return The tracker of the client pool, or {@code null} if buffer accounting isn't enabled.
+     */
+    public @Nullable BufferTracker getBufferTracker() {
+        return this.bufferTracker;
+    }
+
+    public void setBufferTracker(@Nullable BufferTracker tracker) {
+        this.bufferTracker = tracker;
+    }
+
+    /**
+     * Creates the codec context used to decode the result of a single query execution.
+     * @return A context with a fresh identity map if enabled; otherwise the shared context of this client.
+     */
+    @NotNull CodecContext createQueryCodecContext() {
+        return getConfig().useIdentityMap() ? new CodecContext(this, new IdentityMap()) : this.codecContext;
+    }
+
     public UUID getStateDescriptorId() {
         return this.stateDescriptorId;
     }
@@ -90,51 +126,248 @@ public abstract class EdgeDBBinaryClient extends BaseEdgeDBClient {
         public int attempts;
     }
 
+    /**
+     * Counts the rows a {@linkplain DataHandler} consumes and the time it spends on them, for
+     * {@linkplain DriverMetrics#rowsDecoded(long, long)}, the query's trace and the {@linkplain DecodeEvent}.
+     */
+    private static final class MeasuredDataHandler implements DataHandler {
+        private final @NotNull DataHandler handler;
+        private final boolean recordEvent;
+        private @Nullable DecodeEvent event;
+        private long rows;
+        private long bytes;
+        private long nanos;
+
+        public MeasuredDataHandler(@NotNull DataHandler handler, boolean recordEvent) {
+            this.handler = handler;
+            this.recordEvent = recordEvent;
+        }
+
+        @Override
+        public @NotNull CompletionStage<Void> handle(@NotNull Codec<?> codec, @NotNull ByteBuf payload) throws EdgeDBException {
+            if(recordEvent && event == null) {
+                event = DecodeEvent.start();
+            }
+
+            bytes += payload.readableBytes();
+            var start = System.nanoTime();
+            CompletionStage<Void> handled;
+
+            try {
+                handled = handler.handle(codec, payload);
+            } catch (EdgeDBException | RuntimeException e) {
+                measured(start);
+                throw e;
+            }
+
+            if(handled.toCompletableFuture().isDone()) {
+                measured(start);
+                return handled;
+            }
+
+            // an asynchronous handler is done with the row once its stage completes
+            return handled.whenComplete((v, e) -> measured(start));
+        }
+
+        private void measured(long start) {
+            nanos += System.nanoTime() - start;
+            rows++;
+        }
+
+        @Override
+        public boolean isAsync() {
+            return handler.isAsync();
+        }
+
+        @Override
+        public boolean hasReceivedData() {
+            return handler.hasReceivedData();
+        }
+    }
+
+    /**
+     * Measures the decoding of a result that was received in full.
+     */
+    private static final class DecodeMeasurement {
+        private final long start = System.nanoTime();
+        private final long bytes;
+        private final @Nullable DecodeEvent event = DecodeEvent.start();
+
+        public DecodeMeasurement(@NotNull List<ByteBuf> data) {
+            long bytes = 0;
+
+            for(var buffer : data) {
+                bytes += buffer.readableBytes();
+            }
+
+            this.bytes = bytes;
+        }
+    }
+
+    private boolean isMeasured(@NotNull QueryParameters params) {
+        return params.tracer != null || getConfig().getMetrics() != DriverMetrics.NOOP || DecodeEvent.isRecording();
+    }
+
+    private @Nullable DecodeMeasurement decodeStart(@NotNull QueryParameters params, @NotNull ExecuteResult result) {
+        return isMeasured(params) ? new DecodeMeasurement(result.data) : null;
+    }
+
+    private void decodeFinished(@NotNull QueryParameters params, long rows, @Nullable DecodeMeasurement measurement) {
+        if(measurement == null) {
+            return;
+        }
+
+        decoded(params, rows, measurement.bytes, System.nanoTime() - measurement.start, measurement.event);
+    }
+
+    private void decoded(
+            @NotNull QueryParameters params,
+            long rows,
+            long bytes,
+            long nanos,
+            @Nullable DecodeEvent event
+    ) {
+        getConfig().getMetrics().rowsDecoded(rows, nanos);
+
+        if(params.tracer != null) {
+            params.tracer.decoded(nanos);
+        }
+
+        if(event != null) {
+            event.finish(params.query, rows, bytes, nanos);
+        }
+    }
+
+    /**
+     * Completes the trace of a query that didn't go through the client pool, like one within a transaction; the
+     * client pool completes the traces of its own queries.
+     */
+    private <T> CompletionStage<T> traced(@NotNull QueryParameters params, @NotNull CompletionStage<T> stage) {
+        var tracer = params.tracer;
+
+        if(tracer == null || tracer.isPooled()) {
+            return stage;
+        }
+
+        return stage.whenComplete((r, e) -> tracer.completed(e));
+    }
+
+    private static @NotNull QueryParameters parameters(
+            @NotNull String query,
+            @Nullable Map<String, @Nullable Object> args,
+            @NotNull EnumSet<Capabilities> capabilities,
+            @NotNull IOFormat format,
+            boolean implicitTypeNames,
+            @Nullable Scoped scope
+    ) {
+        var params = new QueryParameters(query, args, capabilities, Cardinality.MANY, format, implicitTypeNames);
+
+        if(scope != null) {
+            params.tracer = scope.tracer;
+            params.deadline = scope.deadline;
+        }
+
+        return params;
+    }
+
     public final CompletionStage<ExecuteResult> executeQuery(
             @NotNull QueryParameters args
+    ) {
+        return executeQuery(args, null);
+    }
+
+    public final CompletionStage<ExecuteResult> executeQuery(
+            @NotNull QueryParameters args,
+            @Nullable DataHandler handler
     ) {
         logger.debug("Execute request: is connected? {}", getDuplexer().isConnected());
 
+        if(args.tracer == null) {
+            args.tracer = QueryTracer.start(getConfig(), args.query, args.capabilities);
+        }
+
+        final var deadline = args.deadline;
+
         if(!getDuplexer().isConnected()) {
+            // the connect attempt may be shared, bound a copy of it.
+            var connected = deadline == null
+                    ? connect()
+                    : deadline.bound(connect().toCompletableFuture().copy(), "connecting to EdgeDB", false);
+
             // TODO: check for recursion
-            return connect()
-                    .thenCompose(v -> executeQuery(args));
+            return connected
+                    .thenCompose(v -> executeQuery(args, handler));
         }
 
-        final var hasReleased = new AtomicBoolean();
+        final var hasAcquired = new AtomicBoolean();
         final var executionState = new ExecutionState();
+        final var measured = handler != null && isMeasured(args)
+                ? new MeasuredDataHandler(handler, DecodeEvent.isRecording())
+                : null;
 
         return CompletableFuture.runAsync(() -> {
                     try {
                         logger.debug("acquiring query semaphore...");
-                        this.querySemaphore.acquire();
+
+                        if(deadline == null) {
+                            this.querySemaphore.acquire();
+                        } else if(!this.querySemaphore.tryAcquire(deadline.remainingNanos(), TimeUnit.NANOSECONDS)) {
+                            throw new CompletionException(
+                                    deadline.toException("waiting for the previous query on its connection", false)
+                            );
+                        }
+
+                        hasAcquired.set(true);
                         logger.debug("query semaphore acquired");
                     } catch (InterruptedException e) {
                         throw new RuntimeException(e);
                     }
                 })
-                .thenCompose((v) -> executeQuery0(args,executionState))
+                .thenCompose((v) -> executeQuery0(args, measured != null ? measured : handler, executionState))
                 .whenComplete((v,e) -> {
-                    if(!hasReleased.get()) {
+                    if(hasAcquired.get()) {
                         this.querySemaphore.release();
                     }
+
+                    if(measured != null) {
+                        decoded(args, measured.rows, measured.bytes, measured.nanos, measured.event);
+                    }
                 });
     }
 
-    private CompletionStage<ExecuteResult> executeQuery0(@NotNull QueryParameters args, ExecutionState state) {
+    private CompletionStage<ExecuteResult> executeQuery0(
+            @NotNull QueryParameters args,
+            @Nullable DataHandler handler,
+            ExecutionState state
+    ) {
         return exceptionallyCompose(
                 protocolProvider
                         .parseQuery(args)
-                        .thenCompose(parseResult -> protocolProvider.executeQuery(args, parseResult)),
+                        .thenCompose(parseResult -> handler == null
+                                ? protocolProvider.executeQuery(args, parseResult)
+                                : protocolProvider.executeQuery(args, parseResult, handler)
+                        ),
                 e -> {
                     logger.debug("got exception in execute step", e);
 
-                    if(e instanceof EdgeDBErrorException && !((EdgeDBException)e).shouldReconnect && !((EdgeDBException)e).shouldRetry) {
-                        return CompletableFuture.failedFuture(e);
+                    var cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+
+                    if(cause instanceof QueryTimeoutException || cause instanceof CancellationException) {
+                        // the deadline of the query passed or the query was abandoned, it's not retried
+                        return CompletableFuture.failedFuture(cause);
+                    }
+
+                    if(cause instanceof EdgeDBErrorException && !((EdgeDBException)cause).shouldReconnect && !((EdgeDBException)cause).shouldRetry) {
+                        return CompletableFuture.failedFuture(cause);
+                    }
+
+                    if(handler != null && handler.hasReceivedData()) {
+                        // rows were already handed off, re-running the query would repeat them.
+                        return CompletableFuture.failedFuture(new EdgeDBException("Failed to execute query", e));
                     }
 
-                    if(e instanceof EdgeDBException) {
-                        var edbException = (EdgeDBException) e;
+                    if(cause instanceof EdgeDBException) {
+                        var edbException = (EdgeDBException) cause;
                         if(state.attempts > getConfig().getMaxConnectionRetries()) {
                             return CompletableFuture.failedFuture(
                                     new EdgeDBException(
@@ -151,7 +384,7 @@ public abstract class EdgeDBBinaryClient extends BaseEdgeDBClient {
                             state.attempts++;
                             logger.debug("Retrying with attempts now at {}", state.attempts);
 
-                            return executeQuery0(args, state);
+                            return executeQuery0(args, handler, state);
                         }
 
                         if(edbException.shouldReconnect) {
@@ -159,7 +392,7 @@ public abstract class EdgeDBBinaryClient extends BaseEdgeDBClient {
                             logger.debug("Reconnecting and retrying with attempts now at {}", state.attempts);
 
                             return this.reconnect()
-                                    .thenCompose(y -> executeQuery0(args, state));
+                                    .thenCompose(y -> executeQuery0(args, handler, state));
                         }
                     }
 
@@ -174,14 +407,67 @@ public abstract class EdgeDBBinaryClient extends BaseEdgeDBClient {
             @Nullable Map<String, @Nullable Object> args,
             EnumSet<Capabilities> capabilities
     ) {
-        return executeQuery(new QueryParameters(
-                query,
-                args,
-                capabilities,
-                Cardinality.MANY,
-                IOFormat.NONE,
-                false
-        )).thenApply(r -> null);
+        return execute0(query, args, capabilities, null);
+    }
+
+    private CompletionStage<Void> execute0(
+            @NotNull String query,
+            @Nullable Map<String, @Nullable Object> args,
+            EnumSet<Capabilities> capabilities,
+            @Nullable Scoped scope
+    ) {
+        var params = parameters(query, args, capabilities, IOFormat.NONE, false, scope);
+
+        return traced(params, executeQuery(params).thenApply(r -> null));
+    }
+
+    /**
+     * Executes statements without results in a single round trip, once they're parsed. Statements whose codecs are
+     * cached, or without arguments, aren't parsed again; the others are parsed one at a time first.
+     * @param statements The statements to execute, in order.
+     * @return A {@linkplain CompletionStage} that fails with the error of the first failed statement, the following
+     * statements being skipped.
+     */
+    public CompletionStage<Void> executePipeline(@NotNull List<QueryParameters> statements) {
+        if(!getDuplexer().isConnected()) {
+            return connect().thenCompose(v -> executePipeline(statements));
+        }
+
+        final var hasAcquired = new AtomicBoolean();
+        final var parseResults = new ArrayList<ParseResult>(statements.size());
+
+        return CompletableFuture.runAsync(() -> {
+                    try {
+                        this.querySemaphore.acquire();
+                        hasAcquired.set(true);
+                    } catch (InterruptedException e) {
+                        throw new CompletionException(e);
+                    }
+                })
+                .thenCompose(v -> parseAll(statements, parseResults))
+                .whenComplete((v, e) -> {
+                    // the pipeline serializes the state once for every statement
+                    for (var parseResult : parseResults) {
+                        parseResult.stateData.release();
+                    }
+                })
+                .thenCompose(v -> protocolProvider.executePipeline(statements, parseResults))
+                .whenComplete((v, e) -> {
+                    if(hasAcquired.get()) {
+                        this.querySemaphore.release();
+                    }
+                });
+    }
+
+    private CompletionStage<Void> parseAll(@NotNull List<QueryParameters> statements, @NotNull List<ParseResult> results) {
+        if(results.size() == statements.size()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        return protocolProvider.parseQuery(statements.get(results.size())).thenCompose(parseResult -> {
+            results.add(parseResult);
+            return parseAll(statements, results);
+        });
     }
 
     @Override
@@ -191,37 +477,41 @@ public abstract class EdgeDBBinaryClient extends BaseEdgeDBClient {
             @Nullable Map<String, Object> args,
             @NotNull EnumSet<Capabilities> capabilities
     ) {
-        return executeQuery(new QueryParameters(
+        return query(
+                cls,
                 query,
                 args,
                 capabilities,
-                Cardinality.MANY,
-                IOFormat.BINARY,
-                TypeBuilder.requiredImplicitTypeNames(cls)
-        )).thenCompose(result -> {
-            var arr = new ArrayList<T>(result.data.size());
-
-            for(int i = 0; i != result.data.size(); i++) {
-                try {
-                    arr.add(
-                            i,
-                            ObjectBuilder.buildResult(
-                                    this,
-                                    result.codec,
-                                    result.data.get(i),
-                                    cls
-                            )
-                    );
-                } catch (EdgeDBException | OperationNotSupportedException e) {
-                    return CompletableFuture.failedFuture(e);
-                } finally {
-                    // free the buffer
-                    result.data.get(i).release();
-                }
-            }
+                Collectors.collectingAndThen(Collectors.toCollection(ArrayList<T>::new), Collections::unmodifiableList)
+        );
+    }
 
-            return CompletableFuture.completedFuture(Collections.unmodifiableList(arr));
-        });
+    @Override
+    public <T, A, R> CompletionStage<R> query(
+            @NotNull Class<T> cls,
+            @NotNull String query,
+            @Nullable Map<String, Object> args,
+            @NotNull EnumSet<Capabilities> capabilities,
+            @NotNull Collector<? super T, A, R> collector
+    ) {
+        return query0(cls, query, args, capabilities, collector, null);
+    }
+
+    private <T, A, R> CompletionStage<R> query0(
+            @NotNull Class<T> cls,
+            @NotNull String query,
+            @Nullable Map<String, Object> args,
+            @NotNull EnumSet<Capabilities> capabilities,
+            @NotNull Collector<? super T, A, R> collector,
+            @Nullable Scoped scope
+    ) {
+        var rows = new RowCollector<>(createQueryCodecContext(), cls, collector);
+
+        var params = parameters(
+                query, args, capabilities, IOFormat.BINARY, TypeBuilder.requiredImplicitTypeNames(cls), scope
+        );
+
+        return traced(params, executeQuery(params, rows).thenApply(result -> rows.finish()));
     }
 
     @Override
@@ -231,31 +521,38 @@ public abstract class EdgeDBBinaryClient extends BaseEdgeDBClient {
             @Nullable Map<String, Object> args,
             @NotNull EnumSet<Capabilities> capabilities
     ) {
-        return executeQuery(new QueryParameters(
-                query,
-                args,
-                capabilities,
-                Cardinality.MANY,
-                IOFormat.BINARY,
-                TypeBuilder.requiredImplicitTypeNames(cls)
-        )).thenApply(result -> {
+        return querySingle0(cls, query, args, capabilities, null);
+    }
+
+    private <T> CompletionStage<T> querySingle0(
+            @NotNull Class<T> cls,
+            @NotNull String query,
+            @Nullable Map<String, Object> args,
+            @NotNull EnumSet<Capabilities> capabilities,
+            @Nullable Scoped scope
+    ) {
+        var params = parameters(
+                query, args, capabilities, IOFormat.BINARY, TypeBuilder.requiredImplicitTypeNames(cls), scope
+        );
+
+        return traced(params, executeQuery(params).thenApply(result -> {
             if(result.data.size() == 0) {
                 return null;
             }
 
             if(result.data.size() > 1) {
-                for (var buffer : result.data) {
-                    buffer.release();
-                }
+                result.release();
 
                 throw new CompletionException(
                         new ResultCardinalityMismatchException(Cardinality.AT_MOST_ONE, Cardinality.MANY)
                 );
             }
 
+            var decode = decodeStart(params, result);
+
             try {
                 return ObjectBuilder.buildResult(
-                        this,
+                        createQueryCodecContext(),
                         result.codec,
                         result.data.get(0),
                         cls
@@ -264,9 +561,10 @@ public abstract class EdgeDBBinaryClient extends BaseEdgeDBClient {
                 throw new CompletionException(e);
             }
             finally {
-                result.data.get(0).release();
+                result.release();
+                decodeFinished(params, 1, decode);
             }
-        });
+        }));
 
     }
 
@@ -277,28 +575,35 @@ public abstract class EdgeDBBinaryClient extends BaseEdgeDBClient {
             @Nullable Map<String, Object> args,
             @NotNull EnumSet<Capabilities> capabilities
     ) {
+        return queryRequiredSingle0(cls, query, args, capabilities, null);
+    }
 
-        return executeQuery(new QueryParameters(
-                query,
-                args,
-                capabilities,
-                Cardinality.MANY,
-                IOFormat.BINARY,
-                TypeBuilder.requiredImplicitTypeNames(cls)
-        )).thenApply(result -> {
+    private <T> CompletionStage<T> queryRequiredSingle0(
+            @NotNull Class<T> cls,
+            @NotNull String query,
+            @Nullable Map<String, Object> args,
+            @NotNull EnumSet<Capabilities> capabilities,
+            @Nullable Scoped scope
+    ) {
+
+        var params = parameters(
+                query, args, capabilities, IOFormat.BINARY, TypeBuilder.requiredImplicitTypeNames(cls), scope
+        );
+
+        return traced(params, executeQuery(params).thenApply(result -> {
             if(result.data.size() != 1) {
-                for (var buffer : result.data) {
-                    buffer.release();
-                }
+                result.release();
 
                 throw new CompletionException(
                         new ResultCardinalityMismatchException(Cardinality.ONE, Cardinality.MANY)
                 );
             }
 
+            var decode = decodeStart(params, result);
+
             try {
                 return ObjectBuilder.buildResult(
-                        this,
+                        createQueryCodecContext(),
                         result.codec,
                         result.data.get(0),
                         cls
@@ -307,9 +612,73 @@ public abstract class EdgeDBBinaryClient extends BaseEdgeDBClient {
                 throw new CompletionException(e);
             }
             finally {
-                result.data.get(0).release();
+                result.release();
+                decodeFinished(params, 1, decode);
             }
-        });
+        }));
+    }
+
+    /**
+     * Executes a query without decoding its result, which can then be decoded any number of times.
+     * @param cls The type the result is decoded to, which decides whether the implicit type names are requested.
+     * @param query The query to execute.
+     * @param args The arguments of the query.
+     * @param capabilities The capabilities of the query.
+     * @return A {@linkplain CompletionStage} that represents the asynchronous operation of executing the query. The
+     * result of the {@linkplain CompletionStage} is the undecoded result of the query.
+     */
+    public CompletionStage<RawQueryResult> queryRaw(
+            @NotNull Class<?> cls,
+            @NotNull String query,
+            @Nullable Map<String, Object> args,
+            @NotNull EnumSet<Capabilities> capabilities
+    ) {
+        return queryRaw0(cls, query, args, capabilities, null);
+    }
+
+    private CompletionStage<RawQueryResult> queryRaw0(
+            @NotNull Class<?> cls,
+            @NotNull String query,
+            @Nullable Map<String, Object> args,
+            @NotNull EnumSet<Capabilities> capabilities,
+            @Nullable Scoped scope
+    ) {
+        var params = parameters(
+                query, args, capabilities, IOFormat.BINARY, TypeBuilder.requiredImplicitTypeNames(cls), scope
+        );
+
+        return traced(params, executeQuery(params).thenApply(result -> new RawQueryResult(this, result)));
+    }
+
+    /**
+     * Encodes the arguments of a query the way they're sent to EdgeDB, without running it.
+     * @param query The query the arguments are for.
+     * @param args The arguments to encode.
+     * @return The encoded arguments, or {@code null} if the query wasn't parsed yet, so its argument codec isn't
+     * known.
+     * @throws EdgeDBException The arguments don't match the ones of the query.
+     * @throws OperationNotSupportedException An argument can't be encoded.
+     */
+    public byte @Nullable [] encodeArguments(
+            @NotNull String query,
+            @Nullable Map<String, Object> args
+    ) throws EdgeDBException, OperationNotSupportedException {
+        var codecs = CodecBuilder.getCachedCodecs(
+                this.protocolProvider,
+                CodecBuilder.getCacheKey(query, Cardinality.MANY, IOFormat.BINARY)
+        );
+
+        if(codecs == null || !(codecs.inputCodec instanceof ArgumentCodec)) {
+            return null;
+        }
+
+        var buffer = ArgumentCodec.serializeToBuffer((ArgumentCodec<?>)codecs.inputCodec, args, this.codecContext);
+
+        try {
+            return ByteBufUtil.getBytes(buffer);
+        } finally {
+            buffer.release();
+        }
     }
 
     @Override
@@ -318,18 +687,20 @@ public abstract class EdgeDBBinaryClient extends BaseEdgeDBClient {
             @Nullable Map<String, Object> args,
             @NotNull EnumSet<Capabilities> capabilities
     ) {
-        return executeQuery(new QueryParameters(
-                query,
-                args,
-                capabilities,
-                Cardinality.MANY,
-                IOFormat.JSON,
-                false
-        )).thenApply(result -> {
+        return queryJson0(query, args, capabilities, null);
+    }
+
+    private CompletionStage<Json> queryJson0(
+            @NotNull String query,
+            @Nullable Map<String, Object> args,
+            @NotNull EnumSet<Capabilities> capabilities,
+            @Nullable Scoped scope
+    ) {
+        var params = parameters(query, args, capabilities, IOFormat.JSON, false, scope);
+
+        return traced(params, executeQuery(params).thenApply(result -> {
             if(result.data.size() > 1) {
-                for (var buffer : result.data) {
-                    buffer.release();
-                }
+                result.release();
 
                 throw new CompletionException(
                         new ResultCardinalityMismatchException(Cardinality.AT_MOST_ONE, Cardinality.MANY)
@@ -340,6 +711,8 @@ public abstract class EdgeDBBinaryClient extends BaseEdgeDBClient {
                 return new Json("[]");
             }
 
+            var decode = decodeStart(params, result);
+
             try {
                 return new Json(
                         (String)Objects.requireNonNull(Codec.deserializeFromBuffer(
@@ -352,21 +725,28 @@ public abstract class EdgeDBBinaryClient extends BaseEdgeDBClient {
                 throw new CompletionException(e);
             }
             finally {
-                result.data.get(0).release();
+                result.release();
+                decodeFinished(params, 1, decode);
             }
-        });
+        }));
     }
 
     @Override
     public CompletionStage<List<Json>> queryJsonElements(@NotNull String query, @Nullable Map<String, Object> args, @NotNull EnumSet<Capabilities> capabilities) {
-        return executeQuery(new QueryParameters(
-                query,
-                args,
-                capabilities,
-                Cardinality.MANY,
-                IOFormat.JSON_ELEMENTS,
-                false
-        )).thenApply(result -> {
+        return queryJsonElements0(query, args, capabilities, null);
+    }
+
+    private CompletionStage<List<Json>> queryJsonElements0(
+            @NotNull String query,
+            @Nullable Map<String, Object> args,
+            @NotNull EnumSet<Capabilities> capabilities,
+            @Nullable Scoped scope
+    ) {
+        var params = parameters(query, args, capabilities, IOFormat.JSON_ELEMENTS, false, scope);
+
+        return traced(params, executeQuery(params).thenApply(result -> {
+            var decode = decodeStart(params, result);
+
             try {
                 var data = new Json[result.data.size()];
 
@@ -387,11 +767,169 @@ public abstract class EdgeDBBinaryClient extends BaseEdgeDBClient {
                 return List.of(data);
             }
             finally {
-                for (var buffer : result.data) {
-                    buffer.release();
-                }
+                result.release();
+
+                decodeFinished(params, result.data.size(), decode);
             }
-        });
+        }));
+    }
+
+    @Override
+    public CompletionStage<Long> queryJsonTo(
+            @NotNull WritableByteChannel channel,
+            @NotNull JsonStreamMode mode,
+            @NotNull String query,
+            @Nullable Map<String, Object> args,
+            @NotNull EnumSet<Capabilities> capabilities
+    ) {
+        return queryJsonTo0(channel, mode, query, args, capabilities, null);
+    }
+
+    private CompletionStage<Long> queryJsonTo0(
+            @NotNull WritableByteChannel channel,
+            @NotNull JsonStreamMode mode,
+            @NotNull String query,
+            @Nullable Map<String, Object> args,
+            @NotNull EnumSet<Capabilities> capabilities,
+            @Nullable Scoped scope
+    ) {
+        JsonStreamWriter writer;
+
+        try {
+            writer = new JsonStreamWriter(channel, mode, getConfig().getStreamExecutor());
+        } catch (EdgeDBException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        var params = parameters(query, args, capabilities, IOFormat.JSON_ELEMENTS, false, scope);
+
+        return traced(params, executeQuery(params, writer)
+                .thenCompose(result -> writer.finish())
+                .thenApply(v -> writer.getCount())
+        );
+    }
+
+    /**
+     * Gets a view of this client running its queries with the given tracer and deadline, used by the client pool to
+     * carry the pool wait and the timeout of a query, which started before the query waited for a client, over to the
+     * client running it.
+     * @param tracer The tracer of the queries run through the view.
+     * @param deadline The deadline of the queries run through the view.
+     * @return A view of this client.
+     */
+    public @NotNull Scoped scoped(@Nullable QueryTracer tracer, @Nullable Deadline deadline) {
+        return new Scoped(tracer, deadline);
+    }
+
+    /**
+     * A view of a client running its queries with the tracer and the deadline of a query of the client pool.
+     */
+    public final class Scoped implements EdgeDBQueryable {
+        private final @Nullable QueryTracer tracer;
+        private final @Nullable Deadline deadline;
+
+        private Scoped(@Nullable QueryTracer tracer, @Nullable Deadline deadline) {
+            this.tracer = tracer;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public CompletionStage<Void> execute(
+                @NotNull String query,
+                @Nullable Map<String, @Nullable Object> args,
+                @NotNull EnumSet<Capabilities> capabilities
+        ) {
+            return execute0(query, args, capabilities, this);
+        }
+
+        @Override
+        public <T> CompletionStage<List<T>> query(
+                @NotNull Class<T> cls,
+                @NotNull String query,
+                @Nullable Map<String, Object> args,
+                @NotNull EnumSet<Capabilities> capabilities
+        ) {
+            return query0(
+                    cls,
+                    query,
+                    args,
+                    capabilities,
+                    Collectors.collectingAndThen(Collectors.toCollection(ArrayList<T>::new), Collections::unmodifiableList),
+                    this
+            );
+        }
+
+        @Override
+        public <T, A, R> CompletionStage<R> query(
+                @NotNull Class<T> cls,
+                @NotNull String query,
+                @Nullable Map<String, Object> args,
+                @NotNull EnumSet<Capabilities> capabilities,
+                @NotNull Collector<? super T, A, R> collector
+        ) {
+            return query0(cls, query, args, capabilities, collector, this);
+        }
+
+        @Override
+        public <T> CompletionStage<T> querySingle(
+                @NotNull Class<T> cls,
+                @NotNull String query,
+                @Nullable Map<String, Object> args,
+                @NotNull EnumSet<Capabilities> capabilities
+        ) {
+            return querySingle0(cls, query, args, capabilities, this);
+        }
+
+        @Override
+        public <T> CompletionStage<T> queryRequiredSingle(
+                @NotNull Class<T> cls,
+                @NotNull String query,
+                @Nullable Map<String, Object> args,
+                @NotNull EnumSet<Capabilities> capabilities
+        ) {
+            return queryRequiredSingle0(cls, query, args, capabilities, this);
+        }
+
+        /**
+         * Executes a query without decoding its result, see {@linkplain EdgeDBBinaryClient#queryRaw}.
+         */
+        public CompletionStage<RawQueryResult> queryRaw(
+                @NotNull Class<?> cls,
+                @NotNull String query,
+                @Nullable Map<String, Object> args,
+                @NotNull EnumSet<Capabilities> capabilities
+        ) {
+            return queryRaw0(cls, query, args, capabilities, this);
+        }
+
+        @Override
+        public CompletionStage<Json> queryJson(
+                @NotNull String query,
+                @Nullable Map<String, Object> args,
+                @NotNull EnumSet<Capabilities> capabilities
+        ) {
+            return queryJson0(query, args, capabilities, this);
+        }
+
+        @Override
+        public CompletionStage<List<Json>> queryJsonElements(
+                @NotNull String query,
+                @Nullable Map<String, Object> args,
+                @NotNull EnumSet<Capabilities> capabilities
+        ) {
+            return queryJsonElements0(query, args, capabilities, this);
+        }
+
+        @Override
+        public CompletionStage<Long> queryJsonTo(
+                @NotNull WritableByteChannel channel,
+                @NotNull JsonStreamMode mode,
+                @NotNull String query,
+                @Nullable Map<String, Object> args,
+                @NotNull EnumSet<Capabilities> capabilities
+        ) {
+            return queryJsonTo0(channel, mode, query, args, capabilities, this);
+        }
     }
 
     @Nullable
@@ -428,6 +966,8 @@ public abstract class EdgeDBBinaryClient extends BaseEdgeDBClient {
 
     @Override
     public CompletionStage<Void> connect() {
+        var event = ConnectEvent.start();
+
         return CompletableFuture
                 .runAsync(() -> {
                     try {
@@ -444,7 +984,14 @@ public abstract class EdgeDBBinaryClient extends BaseEdgeDBClient {
                 .thenRunAsync(this::doClientHandshake)
                 .thenCompose((v) -> this.readyPromise)
                 .thenAccept(v -> this.connectionAttempts = 0)
-                .whenComplete((v,e) -> this.connectionSemaphore.release());
+                .whenComplete((v,e) -> {
+                    this.connectionSemaphore.release();
+
+                    if(event != null) {
+                        var connection = getConnectionArguments();
+                        event.finish(connection.getHostname(), connection.getPort(), e);
+                    }
+                });
     }
 
     private CompletionStage<Void> doClientHandshake() {
@@ -473,6 +1020,7 @@ public abstract class EdgeDBBinaryClient extends BaseEdgeDBClient {
                             this.connectionAttempts++;
 
                             logger.warn("Attempting to reconnect... {}/{}", this.connectionAttempts, getConfig().getMaxConnectionRetries(), error);
+                            getConfig().getMetrics().reconnected();
 
                             return disconnect()
                                     .thenCompose(v -> {
@@ -525,6 +1073,7 @@ public abstract class EdgeDBBinaryClient extends BaseEdgeDBClient {
                         this.connectionAttempts++;
 
                         logger.warn("Attempting to reconnect... {}/{}", this.connectionAttempts, getConfig().getMaxConnectionRetries(), err);
+                        getConfig().getMetrics().reconnected();
 
                         return disconnect()
                                 .thenCompose(v -> retryableConnect());
@@ -5,6 +5,8 @@ import com.edgedb.driver.async.ChannelCompletableFuture;
 import com.edgedb.driver.binary.PacketSerializer;
 import com.edgedb.driver.binary.duplexers.ChannelDuplexer;
 import com.edgedb.driver.exceptions.ConnectionFailedTemporarilyException;
+import com.edgedb.driver.exceptions.EdgeDBException;
+import com.edgedb.driver.internal.TransactionImpl;
 import com.edgedb.driver.util.SslUtils;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.buffer.PooledByteBufAllocator;
@@ -22,6 +24,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.ConnectException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.EnumSet;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
@@ -74,7 +78,7 @@ public class EdgeDBTCPClient extends EdgeDBBinaryClient implements TransactableC
                         // edgedb-binary protocol and duplexer
                         pipeline.addLast(
                                 PacketSerializer.createDecoder(EdgeDBTCPClient.this),
-                                PacketSerializer.createEncoder()
+                                PacketSerializer.createEncoder(EdgeDBTCPClient.this)
                         );
 
                         pipeline.addLast(DUPLEXER_GROUP, duplexer.channelHandler);
@@ -128,6 +132,46 @@ public class EdgeDBTCPClient extends EdgeDBBinaryClient implements TransactableC
         return this.duplexer.disconnect();
     }
 
+    /**
+     * Dumps the database into a channel, in the dump file format of the EdgeDB CLI.
+     * @param channel The channel to write the dump to.
+     * @return A {@linkplain CompletionStage} representing the asynchronous operation of the dump. The result of the
+     * {@linkplain CompletionStage} is the number of bytes written to the channel.
+     */
+    public CompletionStage<Long> dump(@NotNull WritableByteChannel channel) {
+        if(!getDuplexer().isConnected()) {
+            return connect().thenCompose(v -> dump(channel));
+        }
+
+        final DumpFile.Writer writer;
+
+        try {
+            writer = new DumpFile.Writer(channel, getConfig().getStreamExecutor());
+        } catch (EdgeDBException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return getProtocolProvider().dump(writer).thenApply(v -> writer.getCount());
+    }
+
+    /**
+     * Restores a dump made by {@linkplain #dump(WritableByteChannel)} or the EdgeDB CLI into the database.
+     * @param channel The channel to read the dump from.
+     * @param jobs The number of blocks of the dump the server may restore in parallel.
+     * @return A {@linkplain CompletionStage} representing the asynchronous operation of the restore.
+     */
+    public CompletionStage<Void> restore(@NotNull ReadableByteChannel channel, int jobs) {
+        if(!getDuplexer().isConnected()) {
+            return connect().thenCompose(v -> restore(channel, jobs));
+        }
+
+        try {
+            return getProtocolProvider().restore(new DumpFile.Reader(channel, getConfig().getStreamExecutor()), jobs);
+        } catch (EdgeDBException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
     @Override
     public TransactionState getTransactionState() {
         return this.transactionState;
@@ -135,13 +179,7 @@ public class EdgeDBTCPClient extends EdgeDBBinaryClient implements TransactableC
 
     @Override
     public CompletionStage<Void> startTransaction(@NotNull TransactionIsolation isolation, boolean readonly, boolean deferrable) {
-        String query = "start transaction isolation " +
-                isolation +
-                ", " +
-                (readonly ? "read only" : "read write") +
-                ", " +
-                (deferrable ? "" : "not ") +
-                "deferrable";
+        var query = TransactionImpl.startStatement(isolation, readonly, deferrable);
 
         return execute(query, EnumSet.of(Capabilities.TRANSACTION));
     }
@@ -0,0 +1,112 @@
+package com.edgedb.driver.clients;
+
+import com.edgedb.driver.JsonStreamMode;
+import com.edgedb.driver.binary.codecs.Codec;
+import com.edgedb.driver.binary.codecs.scalars.JsonCodec;
+import com.edgedb.driver.binary.protocol.DataHandler;
+import com.edgedb.driver.exceptions.EdgeDBException;
+import io.netty.buffer.ByteBuf;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+
+/**
+ * A {@linkplain DataHandler} that writes JSON elements straight from the {@code Data} payloads into a channel,
+ * framing them according to a {@linkplain JsonStreamMode}.
+ * <br/><br/>
+ * Each element is written on the given executor, the payload being retained until it's written. The connection is
+ * read on demand meanwhile, so a slow channel holds back the server rather than the thread reading the connection.
+ */
+final class JsonStreamWriter implements DataHandler {
+    private static final String WRITE_ERROR = "Failed to write JSON result to the channel";
+
+    private static final byte[] ARRAY_START = new byte[] { '[' };
+    private static final byte[] ARRAY_END = new byte[] { ']' };
+    private static final byte[] ARRAY_SEPARATOR = new byte[] { ',' };
+    private static final byte[] LINE_SEPARATOR = new byte[] { '\n' };
+
+    private final @NotNull WritableByteChannel channel;
+    private final @NotNull JsonStreamMode mode;
+    private final @NotNull Executor executor;
+    private long count;
+
+    public JsonStreamWriter(
+            @NotNull WritableByteChannel channel, @NotNull JsonStreamMode mode, @NotNull Executor executor
+    ) throws EdgeDBException {
+        ChannelIO.requireBlocking(channel);
+
+        this.channel = channel;
+        this.mode = mode;
+        this.executor = executor;
+    }
+
+    public long getCount() {
+        return this.count;
+    }
+
+    @Override
+    public boolean isAsync() {
+        return true;
+    }
+
+    @Override
+    public boolean hasReceivedData() {
+        return this.count > 0;
+    }
+
+    @Override
+    public @NotNull CompletionStage<Void> handle(@NotNull Codec<?> codec, @NotNull ByteBuf payload) {
+        var prefix = mode == JsonStreamMode.ARRAY ? (count == 0 ? ARRAY_START : ARRAY_SEPARATOR) : null;
+        var suffix = mode == JsonStreamMode.NDJSON ? LINE_SEPARATOR : null;
+
+        // binary json is prefixed with a format byte, text isn't.
+        var offset = codec instanceof JsonCodec ? 1 : 0;
+        var element = payload.retainedSlice(payload.readerIndex() + offset, payload.readableBytes() - offset);
+
+        count++;
+
+        return ChannelIO.<Void>run(executor, WRITE_ERROR, () -> {
+            write(prefix);
+
+            for(var buffer : element.nioBuffers()) {
+                write(buffer);
+            }
+
+            write(suffix);
+            return null;
+        }).whenComplete((v, e) -> element.release());
+    }
+
+    public @NotNull CompletionStage<Void> finish() {
+        if(mode != JsonStreamMode.ARRAY) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        var empty = count == 0;
+
+        return ChannelIO.run(executor, WRITE_ERROR, () -> {
+            write(empty ? ARRAY_START : null);
+            write(ARRAY_END);
+            return null;
+        });
+    }
+
+    private void write(byte @Nullable [] bytes) throws IOException {
+        if(bytes != null) {
+            write(ByteBuffer.wrap(bytes));
+        }
+    }
+
+    private void write(@NotNull ByteBuffer buffer) throws IOException {
+        // the channel blocks, each write makes progress
+        while(buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.edgedb.driver.clients;
+
+import com.edgedb.driver.binary.builders.ObjectBuilder;
+import com.edgedb.driver.binary.codecs.Codec;
+import com.edgedb.driver.binary.protocol.ExecuteResult;
+import com.edgedb.driver.binary.protocol.common.Cardinality;
+import com.edgedb.driver.exceptions.EdgeDBException;
+import com.edgedb.driver.exceptions.ResultCardinalityMismatchException;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.naming.OperationNotSupportedException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The undecoded result of a query: its {@code Data} payloads, copied out of the buffers of the connection so the
+ * result outlives the query, along with the codec to decode them.
+ * <br/><br/>
+ * Each decode builds new objects from the payloads, so a single execution can hand out independent copies of its
+ * result.
+ */
+public final class RawQueryResult {
+    private final @NotNull EdgeDBBinaryClient client;
+    private final @NotNull Codec<?> codec;
+    private final byte @NotNull [] @NotNull [] rows;
+    private final long size;
+
+    RawQueryResult(@NotNull EdgeDBBinaryClient client, @NotNull ExecuteResult result) {
+        this.client = client;
+        this.codec = result.codec;
+        this.rows = new byte[result.data.size()][];
+
+        long size = 0;
+
+        try {
+            for(int i = 0; i != rows.length; i++) {
+                rows[i] = ByteBufUtil.getBytes(result.data.get(i));
+                size += rows[i].length;
+            }
+        } finally {
+            result.release();
+        }
+
+        this.size = size;
+    }
+
+    /**
+     * Gets the number of rows of the result.
+     * @return The row count.
+     */
+    public int getRowCount() {
+        return rows.length;
+    }
+
+    /**
+     * Gets the size of the payloads of the result.
+     * @return The size, in bytes.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Decodes every row of the result.
+     * @param cls The type of the rows.
+     * @return An unmodifiable list of the decoded rows.
+     * @param <T> The type of the rows.
+     * @throws EdgeDBException A row couldn't be decoded.
+     * @throws OperationNotSupportedException A row couldn't be decoded to the type.
+     */
+    public <T> @NotNull List<T> decodeList(@NotNull Class<T> cls) throws EdgeDBException, OperationNotSupportedException {
+        var context = client.createQueryCodecContext();
+        var result = new ArrayList<T>(rows.length);
+
+        for (var row : rows) {
+            result.add(ObjectBuilder.buildResult(context, codec, Unpooled.wrappedBuffer(row), cls));
+        }
+
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Decodes the only row of the result.
+     * @param cls The type of the row.
+     * @return The decoded row, or {@code null} if the result is empty.
+     * @param <T> The type of the row.
+     * @throws EdgeDBException The result has more than one row, or the row couldn't be decoded.
+     * @throws OperationNotSupportedException The row couldn't be decoded to the type.
+     */
+    public <T> @Nullable T decodeSingle(@NotNull Class<T> cls) throws EdgeDBException, OperationNotSupportedException {
+        if(rows.length > 1) {
+            throw new ResultCardinalityMismatchException(Cardinality.AT_MOST_ONE, Cardinality.MANY);
+        }
+
+        return rows.length == 0 ? null : decodeRow(cls);
+    }
+
+    /**
+     * Decodes the only row of the result, which must have one.
+     * @param cls The type of the row.
+     * @return The decoded row.
+     * @param <T> The type of the row.
+     * @throws EdgeDBException The result doesn't have exactly one row, or the row couldn't be decoded.
+     * @throws OperationNotSupportedException The row couldn't be decoded to the type.
+     */
+    public <T> T decodeRequiredSingle(@NotNull Class<T> cls) throws EdgeDBException, OperationNotSupportedException {
+        if(rows.length != 1) {
+            throw new ResultCardinalityMismatchException(Cardinality.ONE, Cardinality.MANY);
+        }
+
+        return decodeRow(cls);
+    }
+
+    private <T> T decodeRow(@NotNull Class<T> cls) throws EdgeDBException, OperationNotSupportedException {
+        return ObjectBuilder.buildResult(client.createQueryCodecContext(), codec, Unpooled.wrappedBuffer(rows[0]), cls);
+    }
+}
@@ -0,0 +1,68 @@
+package com.edgedb.driver.clients;
+
+import com.edgedb.driver.binary.builders.ObjectBuilder;
+import com.edgedb.driver.binary.codecs.Codec;
+import com.edgedb.driver.binary.codecs.CodecContext;
+import com.edgedb.driver.binary.protocol.DataHandler;
+import io.netty.buffer.ByteBuf;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.function.BiConsumer;
+import java.util.stream.Collector;
+
+/**
+ * A {@linkplain DataHandler} that decodes each {@code Data} payload as it's received and feeds it into a
+ * {@linkplain Collector}, without retaining the payloads.
+ * <p>
+ * Errors while decoding or accumulating don't interrupt the read loop, the remaining rows are skipped so the
+ * connection stays in sync and the error is reported by {@linkplain #finish()}.
+ */
+final class RowCollector<T, A, R> implements DataHandler {
+    private final @NotNull CodecContext context;
+    private final @NotNull Class<T> cls;
+    private final @NotNull Collector<? super T, A, R> collector;
+    private final @NotNull BiConsumer<A, ? super T> accumulator;
+    private final A container;
+    private @Nullable Exception error;
+    private boolean hasReceivedData;
+
+    public RowCollector(@NotNull CodecContext context, @NotNull Class<T> cls, @NotNull Collector<? super T, A, R> collector) {
+        this.context = context;
+        this.cls = cls;
+        this.collector = collector;
+        this.accumulator = collector.accumulator();
+        this.container = collector.supplier().get();
+    }
+
+    @Override
+    public boolean hasReceivedData() {
+        return hasReceivedData;
+    }
+
+    @Override
+    public @NotNull CompletionStage<Void> handle(@NotNull Codec<?> codec, @NotNull ByteBuf payload) {
+        hasReceivedData = true;
+
+        if(error == null) {
+            try {
+                accumulator.accept(container, ObjectBuilder.buildResult(context, codec, payload, cls));
+            } catch (Exception e) {
+                error = e;
+            }
+        }
+
+        return CompletableFuture.completedFuture(null);
+    }
+
+    public R finish() {
+        if(error != null) {
+            throw new CompletionException(error);
+        }
+
+        return collector.finisher().apply(container);
+    }
+}
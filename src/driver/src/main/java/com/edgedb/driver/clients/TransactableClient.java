@@ -1,9 +1,11 @@
 package com.edgedb.driver.clients;
 
 import com.edgedb.driver.*;
+import com.edgedb.driver.binary.protocol.QueryParameters;
 import com.edgedb.driver.internal.TransactionImpl;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.List;
 import java.util.concurrent.CompletionStage;
 import java.util.function.Function;
 
@@ -22,6 +24,13 @@ public interface TransactableClient extends EdgeDBQueryable, AutoCloseable {
         return tx.run(func);
     }
 
+    default CompletionStage<Void> transaction(TransactionSettings settings, @NotNull TransactionScript script) {
+        var tx = new TransactionImpl(this, settings);
+        return tx.run(script);
+    }
+
+    CompletionStage<Void> executePipeline(@NotNull List<QueryParameters> statements);
+
     CompletionStage<Void> startTransaction(TransactionIsolation isolation, boolean readonly, boolean deferrable);
 
     CompletionStage<Void> commit();
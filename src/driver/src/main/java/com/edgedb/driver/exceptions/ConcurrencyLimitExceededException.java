@@ -0,0 +1,29 @@
+package com.edgedb.driver.exceptions;
+
+/**
+ * Represents an exception thrown when a query was rejected by the adaptive concurrency limit of a client pool. The
+ * query wasn't sent to EdgeDB, it can be retried once the load goes down.
+ * @see com.edgedb.driver.ConcurrencyLimitSettings
+ */
+public class ConcurrencyLimitExceededException extends EdgeDBException {
+    private static final long serialVersionUID = 1L;
+
+    private final int limit;
+
+    /**
+     * Constructs a new {@linkplain ConcurrencyLimitExceededException}.
+     * @param limit The concurrency limit when the query was rejected.
+     */
+    public ConcurrencyLimitExceededException(int limit) {
+        super(String.format("The query was rejected, the client pool already runs its limit of %d queries", limit));
+        this.limit = limit;
+    }
+
+    /**
+     * Gets the concurrency limit of the client pool when the query was rejected.
+     * @return The limit.
+     */
+    public int getLimit() {
+        return limit;
+    }
+}
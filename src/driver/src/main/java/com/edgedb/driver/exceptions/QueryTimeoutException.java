@@ -0,0 +1,45 @@
+package com.edgedb.driver.exceptions;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+
+/**
+ * Represents an exception thrown when a query didn't complete within the timeout it was given.
+ * @see com.edgedb.driver.EdgeDBClient#withTimeout(Duration)
+ */
+public class QueryTimeoutException extends EdgeDBException {
+    private static final long serialVersionUID = 1L;
+
+    private final @NotNull Duration timeout;
+    private final boolean executed;
+
+    /**
+     * Constructs a new {@linkplain QueryTimeoutException}.
+     * @param timeout The timeout of the query.
+     * @param phase The step of the query that was running when the timeout passed.
+     * @param executed Whether the query was sent to EdgeDB to be executed before the timeout passed.
+     */
+    public QueryTimeoutException(@NotNull Duration timeout, @NotNull String phase, boolean executed) {
+        super(String.format("The query didn't complete within its timeout of %s, it timed out %s", timeout, phase));
+        this.timeout = timeout;
+        this.executed = executed;
+    }
+
+    /**
+     * Gets the timeout the query was given.
+     * @return The timeout of the query.
+     */
+    public @NotNull Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Gets whether the query was sent to EdgeDB to be executed before the timeout passed. A query that wasn't
+     * executed had no effect on the database and can safely be retried.
+     * @return {@code true} if the query may have run; otherwise {@code false}.
+     */
+    public boolean wasExecuted() {
+        return executed;
+    }
+}
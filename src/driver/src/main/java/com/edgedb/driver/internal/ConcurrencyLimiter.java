@@ -0,0 +1,152 @@
+package com.edgedb.driver.internal;
+
+import com.edgedb.driver.ConcurrencyLimitSettings;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.LongSupplier;
+
+/**
+ * An adaptive limit on the queries in flight through a client pool, following the gradient between the long term
+ * average latency of the queries and their recent latency.
+ * <br/><br/>
+ * Each latency sample moves the limit towards {@code limit * gradient + sqrt(limit)}, where the gradient is the
+ * long term latency times the tolerance over the recent latency, kept within {@code [0.5, 1]}. While the latency is
+ * stable the gradient is 1 and the square root lets the limit grow; when the latency rises the gradient shrinks the
+ * limit, at most by half per sample. Samples taken while less than half the limit was in use say nothing about the
+ * capacity and are ignored, and a query that timed out or lost its connection shrinks the limit by a tenth.
+ */
+public final class ConcurrencyLimiter {
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimiter.class);
+
+    private static final double SMOOTHING = 0.2;
+    private static final double DROP_BACKOFF = 0.9;
+    private static final int SHORT_WINDOW = 10;
+    private static final int LONG_WINDOW = 600;
+
+    private final @NotNull ConcurrencyLimitSettings settings;
+    private final @NotNull LongSupplier poolSize;
+
+    private double limit;
+    private int inFlight;
+    private double shortLatency;
+    private double longLatency;
+
+    /**
+     * Creates a limiter.
+     * @param settings The settings of the limit.
+     * @param poolSize The current size of the pool, the highest the limit goes if the settings don't set one.
+     */
+    public ConcurrencyLimiter(@NotNull ConcurrencyLimitSettings settings, @NotNull LongSupplier poolSize) {
+        this.settings = settings;
+        this.poolSize = poolSize;
+        this.limit = clamp(settings.getInitialLimit());
+    }
+
+    /**
+     * Gets the current limit.
+     * @return The number of queries allowed in flight.
+     */
+    public synchronized int getLimit() {
+        return (int)limit;
+    }
+
+    /**
+     * Takes a place for a query if the limit allows it.
+     * @return The permit of the query, or {@code null} if the limit is reached.
+     */
+    public synchronized @Nullable Permit tryAcquire() {
+        if(inFlight >= (int)limit) {
+            return null;
+        }
+
+        return new Permit(++inFlight);
+    }
+
+    private double clamp(double value) {
+        var max = settings.getMaxLimit() == 0 ? poolSize.getAsLong() : settings.getMaxLimit();
+        return Math.max(settings.getMinLimit(), Math.min(Math.max(max, settings.getMinLimit()), value));
+    }
+
+    private synchronized void sample(long latencyNanos, int inFlightAtStart) {
+        inFlight--;
+
+        if(latencyNanos <= 0) {
+            return;
+        }
+
+        if(longLatency == 0) {
+            shortLatency = longLatency = latencyNanos;
+        } else {
+            shortLatency += (latencyNanos - shortLatency) / SHORT_WINDOW;
+            longLatency += (latencyNanos - longLatency) / LONG_WINDOW;
+        }
+
+        // the long term latency catches up faster once the latency went down after a rise
+        if(longLatency / shortLatency > 2) {
+            longLatency *= 0.95;
+        }
+
+        if(inFlightAtStart < limit / 2) {
+            return;
+        }
+
+        var gradient = Math.max(0.5, Math.min(1.0, settings.getTolerance() * longLatency / shortLatency));
+        var target = limit * gradient + Math.sqrt(limit);
+
+        update(limit * (1 - SMOOTHING) + target * SMOOTHING);
+    }
+
+    private synchronized void drop() {
+        inFlight--;
+        update(limit * DROP_BACKOFF);
+    }
+
+    private synchronized void ignore() {
+        inFlight--;
+    }
+
+    private void update(double value) {
+        var previous = (int)limit;
+        limit = clamp(value);
+
+        if((int)limit != previous) {
+            logger.debug("Concurrency limit changed from {} to {}", previous, (int)limit);
+        }
+    }
+
+    /**
+     * The place of a query within the limit, released once with the outcome of the query.
+     */
+    public final class Permit {
+        private final int inFlightAtStart;
+
+        private Permit(int inFlightAtStart) {
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /**
+         * Releases the place of a query which completed, sampling its latency.
+         * @param latencyNanos The latency of the query.
+         */
+        public void completed(long latencyNanos) {
+            sample(latencyNanos, inFlightAtStart);
+        }
+
+        /**
+         * Releases the place of a query which failed because of the load, like a query that timed out.
+         */
+        public void dropped() {
+            drop();
+        }
+
+        /**
+         * Releases the place of a query whose outcome says nothing about the load, like a query error.
+         */
+        public void ignored() {
+            ignore();
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.edgedb.driver.internal;
+
+import com.edgedb.driver.exceptions.QueryTimeoutException;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The point in time by which a query has to complete, started when the query is called on a client with a timeout.
+ * <br/><br/>
+ * The deadline bounds every step of the query that waits: the pool, the query lock of the client and the response of
+ * the server. It's also checked before the steps that would put the query on the wire, so a query that already ran
+ * out of time is shed instead of sent.
+ * <br/><br/>
+ * An attempt of a query can also be abandoned before its deadline, once its result isn't needed anymore, like the
+ * slower of the two attempts of a hedged query. It then fails the same way, with a {@linkplain CancellationException}.
+ */
+public final class Deadline {
+    // a single timer for every pool, shared with the hedges; deadlines don't need better than 10ms resolution
+    private static final HashedWheelTimer timer = new HashedWheelTimer(
+            new DefaultThreadFactory("edgedb-deadline", true), 10, TimeUnit.MILLISECONDS
+    );
+
+    private final @Nullable Duration timeout;
+    private final long deadlineNanos;
+    private final @NotNull Set<CompletableFuture<?>> bound = ConcurrentHashMap.newKeySet();
+    private volatile boolean abandoned;
+
+    private Deadline(@Nullable Duration timeout, long deadlineNanos) {
+        this.timeout = timeout;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Starts a deadline.
+     * @param timeout The time from now until the deadline.
+     * @return The deadline.
+     */
+    public static @NotNull Deadline after(@NotNull Duration timeout) {
+        return new Deadline(timeout, System.nanoTime() + timeout.toNanos());
+    }
+
+    /**
+     * Creates the deadline of an attempt of a query, which can be abandoned on its own.
+     * @param parent The deadline of the query, or {@code null} if it has no timeout.
+     * @return The deadline of the attempt, passing along with the one of the query.
+     */
+    public static @NotNull Deadline attempt(@Nullable Deadline parent) {
+        return parent == null ? new Deadline(null, 0) : new Deadline(parent.timeout, parent.deadlineNanos);
+    }
+
+    /**
+     * Schedules a task on the timer of the deadlines.
+     * @param task The task to run.
+     * @param delayNanos The delay before running it.
+     * @return The handle of the scheduled task.
+     */
+    static @NotNull Timeout schedule(@NotNull TimerTask task, long delayNanos) {
+        return timer.newTimeout(task, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public long remainingNanos() {
+        if(abandoned) {
+            return 0;
+        }
+
+        return timeout == null ? Long.MAX_VALUE : deadlineNanos - System.nanoTime();
+    }
+
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    /**
+     * Abandons the query: the steps of the query pending on the deadline fail right away, and the ones checking it
+     * fail instead of going on.
+     */
+    public void abandon() {
+        this.abandoned = true;
+
+        for(var future : bound) {
+            future.completeExceptionally(new CancellationException("The query was abandoned"));
+        }
+    }
+
+    /**
+     * Creates the exception a query fails with once the deadline passed.
+     * @param phase What the query was doing, like {@code "waiting for a client"}.
+     * @param executed Whether the query was sent to EdgeDB to be executed.
+     * @return A {@linkplain QueryTimeoutException}, or a {@linkplain CancellationException} if the query was
+     * abandoned.
+     */
+    public @NotNull Exception toException(@NotNull String phase, boolean executed) {
+        if(abandoned || timeout == null) {
+            return new CancellationException("The query was abandoned " + phase);
+        }
+
+        return new QueryTimeoutException(timeout, phase, executed);
+    }
+
+    /**
+     * Fails a future with a {@linkplain QueryTimeoutException} if it isn't complete by the deadline, or with a
+     * {@linkplain CancellationException} if the query is abandoned first.
+     * @param future The future to bound.
+     * @param phase What the query is doing while the future is pending.
+     * @param executed Whether the query was sent to EdgeDB to be executed once the future is pending.
+     * @return The supplied future.
+     * @param <T> The result type of the future.
+     */
+    public <T> @NotNull CompletableFuture<T> bound(@NotNull CompletableFuture<T> future, @NotNull String phase, boolean executed) {
+        if(future.isDone()) {
+            return future;
+        }
+
+        var remaining = remainingNanos();
+
+        if(remaining <= 0) {
+            future.completeExceptionally(toException(phase, executed));
+            return future;
+        }
+
+        var expiry = timeout == null
+                ? null
+                : schedule(t -> future.completeExceptionally(toException(phase, executed)), remaining);
+
+        bound.add(future);
+
+        future.whenComplete((v, e) -> {
+            bound.remove(future);
+
+            if(expiry != null) {
+                expiry.cancel();
+            }
+        });
+
+        // abandoned while the future was being bound
+        if(abandoned) {
+            future.completeExceptionally(toException(phase, executed));
+        }
+
+        return future;
+    }
+}
@@ -0,0 +1,206 @@
+package com.edgedb.driver.internal;
+
+import com.edgedb.driver.BatchLoader;
+import com.edgedb.driver.BatchLoaderSettings;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Array;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+/**
+ * A {@linkplain BatchLoader} collecting the keys loaded within the delay of its settings into a batch, looked up by
+ * a single query.
+ * <br/><br/>
+ * At most one batch collects keys at a time. It's taken out once its delay passes or once it's full, then its query
+ * runs while the next loads start a new batch.
+ */
+public final class QueryBatcher<K, V> implements BatchLoader<K, V> {
+    /**
+     * Runs the query of a batch.
+     * @param <K> The type of the keys.
+     * @param <V> The type of the rows.
+     */
+    @FunctionalInterface
+    public interface BatchQuery<K, V> {
+        /**
+         * Looks up a batch of keys.
+         * @param keys The distinct keys of the batch.
+         * @return The rows found, in any order.
+         */
+        CompletionStage<List<V>> run(K @NotNull [] keys);
+    }
+
+    private final @NotNull Class<K> keyType;
+    private final @NotNull Function<? super V, ? extends K> keyOf;
+    private final @NotNull BatchQuery<K, V> query;
+    private final @NotNull IntConsumer onBatch;
+    private final int maxBatchSize;
+    // the timer of the deadlines ticks every 10ms, too coarse for delays of a few milliseconds
+    private final @NotNull Executor delayed;
+
+    private @Nullable Batch current;
+
+    /**
+     * Creates a batch loader.
+     * @param keyType The type of the keys, the array of keys passed to the query is of that type.
+     * @param keyOf Gets the key of a row returned by the query.
+     * @param query Runs the query of a batch.
+     * @param settings The settings of the loader.
+     * @param onBatch Called with the number of keys of each batch, before its query runs.
+     */
+    public QueryBatcher(
+            @NotNull Class<K> keyType, @NotNull Function<? super V, ? extends K> keyOf,
+            @NotNull BatchQuery<K, V> query, @NotNull BatchLoaderSettings settings, @NotNull IntConsumer onBatch
+    ) {
+        this.keyType = keyType;
+        this.keyOf = keyOf;
+        this.query = query;
+        this.onBatch = onBatch;
+        this.maxBatchSize = settings.getMaxBatchSize();
+        this.delayed = CompletableFuture.delayedExecutor(settings.getDelay().toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public CompletionStage<V> load(@NotNull K key) {
+        Objects.requireNonNull(key, "key");
+
+        Batch started = null;
+        Batch full = null;
+        CompletableFuture<V> lookup;
+
+        synchronized (this) {
+            if(current == null) {
+                current = started = new Batch();
+            }
+
+            lookup = current.lookups.computeIfAbsent(key, k -> new CompletableFuture<>());
+
+            if(current.lookups.size() >= maxBatchSize) {
+                full = take(current);
+            }
+        }
+
+        if(full != null) {
+            run(full);
+        } else if(started != null) {
+            var batch = started;
+            delayed.execute(() -> {
+                if(take(batch) != null) {
+                    run(batch);
+                }
+            });
+        }
+
+        // a copy, so one load can't complete the result of the others
+        return lookup.copy();
+    }
+
+    @Override
+    public CompletionStage<List<V>> loadMany(@NotNull Collection<? extends K> keys) {
+        var lookups = new ArrayList<CompletableFuture<V>>(keys.size());
+
+        for (var key : keys) {
+            lookups.add(load(key).toCompletableFuture());
+        }
+
+        return CompletableFuture.allOf(lookups.toArray(CompletableFuture<?>[]::new)).thenApply(v -> {
+            var results = new ArrayList<V>(lookups.size());
+
+            for (var lookup : lookups) {
+                results.add(lookup.join());
+            }
+
+            return results;
+        });
+    }
+
+    @Override
+    public void dispatch() {
+        Batch batch;
+
+        synchronized (this) {
+            batch = current == null ? null : take(current);
+        }
+
+        if(batch != null) {
+            run(batch);
+        }
+    }
+
+    /**
+     * Takes a batch out, so it stops collecting keys.
+     * @return The batch, or {@code null} if it was already taken.
+     */
+    private synchronized @Nullable Batch take(@NotNull Batch batch) {
+        if(batch.taken) {
+            return null;
+        }
+
+        batch.taken = true;
+
+        if(current == batch) {
+            current = null;
+        }
+
+        return batch;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void run(@NotNull Batch batch) {
+        // the batch was taken out, no load adds to it anymore
+        var keys = batch.lookups.keySet().toArray((K[]) Array.newInstance(keyType, batch.lookups.size()));
+
+        onBatch.accept(keys.length);
+
+        CompletionStage<List<V>> rows;
+
+        try {
+            rows = query.run(keys);
+        } catch (Throwable x) {
+            rows = CompletableFuture.failedFuture(x);
+        }
+
+        rows.whenComplete((r, e) -> {
+            if(e != null) {
+                batch.fail(e);
+                return;
+            }
+
+            var found = new HashMap<K, V>(r.size());
+
+            try {
+                for (var row : r) {
+                    if(row != null) {
+                        found.putIfAbsent(keyOf.apply(row), row);
+                    }
+                }
+            } catch (Throwable x) {
+                batch.fail(x);
+                return;
+            }
+
+            for (var lookup : batch.lookups.entrySet()) {
+                lookup.getValue().complete(found.get(lookup.getKey()));
+            }
+        });
+    }
+
+    private final class Batch {
+        final @NotNull Map<K, CompletableFuture<V>> lookups = new LinkedHashMap<>();
+        // guarded by the loader
+        boolean taken;
+
+        void fail(@NotNull Throwable error) {
+            for (var lookup : lookups.values()) {
+                lookup.completeExceptionally(error);
+            }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.edgedb.driver.internal;
+
+import com.edgedb.driver.Capabilities;
+import com.edgedb.driver.binary.builders.ObjectArguments;
+import com.edgedb.driver.datatypes.Json;
+import com.edgedb.driver.datatypes.Memory;
+import com.edgedb.driver.datatypes.RelativeDuration;
+import com.edgedb.driver.exceptions.ConcurrencyLimitExceededException;
+import com.edgedb.driver.exceptions.QueryTimeoutException;
+import com.edgedb.driver.state.Session;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.*;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Runs identical queries of a client pool once while they're in flight: a query called while the same one is running
+ * waits for it and shares its outcome, errors included, instead of taking a client of its own.
+ * <br/><br/>
+ * Two queries are the same when they have the same text, arguments, session, capabilities, result type and shape.
+ * Once a query completes it's forgotten, the next call runs it again.
+ * <br/><br/>
+ * The timeout and the concurrency limit of the caller that ran the query are its own: when the query fails with a
+ * {@linkplain QueryTimeoutException} or a {@linkplain ConcurrencyLimitExceededException}, the callers that joined it
+ * run it again instead, within their own timeouts.
+ */
+public final class QueryCoalescer {
+    private static final Set<Class<?>> IMMUTABLE_TYPES = Set.of(
+            String.class, Boolean.class, Byte.class, Short.class, Integer.class, Long.class, Float.class,
+            Double.class, Character.class, BigInteger.class, BigDecimal.class, UUID.class, Json.class, Memory.class,
+            RelativeDuration.class, Duration.class, Period.class, Instant.class, LocalDate.class, LocalTime.class,
+            LocalDateTime.class, OffsetDateTime.class, ZonedDateTime.class
+    );
+
+    private final @NotNull Map<Key, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Gets whether a result type can be shared as-is between the callers of a query, rather than decoded for each.
+     * @param cls The result type.
+     * @return {@code true} if instances of the type can't be mutated.
+     */
+    public static boolean isImmutable(@NotNull Class<?> cls) {
+        return cls.isPrimitive() || cls.isEnum() || IMMUTABLE_TYPES.contains(cls);
+    }
+
+    /**
+     * Runs a query, or joins the identical query in flight.
+     * @param key The identity of the query.
+     * @param run Runs the query, called if no identical query is in flight.
+     * @param onJoined Called when the query joins one in flight.
+     * @return The outcome of the query.
+     * @param <V> The result of the query, the same for every query with the same key.
+     */
+    @SuppressWarnings("unchecked")
+    public <V> @NotNull CompletionStage<V> execute(
+            @NotNull Key key, @NotNull Supplier<CompletionStage<V>> run, @NotNull Runnable onJoined
+    ) {
+        var flight = new CompletableFuture<V>();
+        var existing = inFlight.putIfAbsent(key, flight);
+
+        if(existing != null) {
+            onJoined.run();
+            return join((CompletableFuture<V>)existing, key, run, onJoined);
+        }
+
+        try {
+            run.get().whenComplete((v, e) -> {
+                inFlight.remove(key, flight);
+
+                if(e != null) {
+                    flight.completeExceptionally(e);
+                } else {
+                    flight.complete(v);
+                }
+            });
+        } catch (Throwable x) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(x);
+        }
+
+        return flight.copy();
+    }
+
+    private <V> @NotNull CompletionStage<V> join(
+            @NotNull CompletableFuture<V> flight, @NotNull Key key,
+            @NotNull Supplier<CompletionStage<V>> run, @NotNull Runnable onJoined
+    ) {
+        // a future of its own, so one caller can't complete the result of the others
+        var result = new CompletableFuture<V>();
+
+        flight.whenComplete((v, e) -> {
+            if(e == null) {
+                result.complete(v);
+                return;
+            }
+
+            var cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+
+            if(!(cause instanceof QueryTimeoutException || cause instanceof ConcurrencyLimitExceededException)) {
+                result.completeExceptionally(e);
+                return;
+            }
+
+            execute(key, run, onJoined).whenComplete((rv, re) -> {
+                if(re != null) {
+                    result.completeExceptionally(re);
+                } else {
+                    result.complete(rv);
+                }
+            });
+        });
+
+        return result;
+    }
+
+    /**
+     * The identity of a query.
+     */
+    public static final class Key {
+        private final @NotNull String shape;
+        private final @NotNull Class<?> cls;
+        private final @NotNull String query;
+        private final @Nullable Object args;
+        private final @NotNull Session session;
+        private final @NotNull EnumSet<Capabilities> capabilities;
+        private final int hash;
+
+        /**
+         * Creates the identity of a query.
+         * @param shape The shape of the result, like {@code "single"}, queries of different shapes aren't joined.
+         * @param cls The result type.
+         * @param query The text of the query.
+         * @param args The arguments of the query, the arguments of an object are keyed by the object itself.
+         * @param session The session the query runs with.
+         * @param capabilities The capabilities of the query.
+         */
+        public Key(
+                @NotNull String shape, @NotNull Class<?> cls, @NotNull String query,
+                @Nullable Map<String, Object> args, @NotNull Session session,
+                @NotNull EnumSet<Capabilities> capabilities
+        ) {
+            this.shape = shape;
+            this.cls = cls;
+            this.query = query;
+            this.args = args instanceof ObjectArguments
+                    ? ((ObjectArguments) args).getSource()
+                    : args == null || args.isEmpty() ? null : args;
+            this.session = session;
+            this.capabilities = capabilities;
+            this.hash = Objects.hash(shape, cls, query, this.args, session, capabilities);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(this == o) {
+                return true;
+            }
+
+            if(!(o instanceof Key)) {
+                return false;
+            }
+
+            var other = (Key) o;
+
+            return hash == other.hash
+                    && shape.equals(other.shape)
+                    && cls.equals(other.cls)
+                    && query.equals(other.query)
+                    && Objects.equals(args, other.args)
+                    && session.equals(other.session)
+                    && capabilities.equals(other.capabilities);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
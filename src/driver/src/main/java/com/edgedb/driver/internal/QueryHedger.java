@@ -0,0 +1,244 @@
+package com.edgedb.driver.internal;
+
+import com.edgedb.driver.HedgeSettings;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Hedges the read-only queries of a client pool: a query still running after a percentile of the latency of the
+ * recent ones is run a second time, and the first attempt to succeed wins while the other one is abandoned.
+ * <br/><br/>
+ * The percentile is taken over a window of the latest latencies, once enough of them were seen. Each query earns the
+ * budget of the settings towards a hedge and each hedge spends one, with a few saved up at most for bursts.
+ * <br/><br/>
+ * The latency of a query is taken from its start, so a query won by its hedge counts the hedge delay as well.
+ */
+public final class QueryHedger {
+    private static final int WINDOW = 1024;
+    private static final int MIN_SAMPLES = 100;
+    private static final int RECOMPUTE_INTERVAL = 64;
+    private static final double MAX_SAVED_HEDGES = 10;
+
+    /**
+     * Runs an attempt of a hedged query.
+     * @param <U> The result of the query.
+     */
+    @FunctionalInterface
+    public interface Attempt<U> {
+        /**
+         * Runs the query once.
+         * @param deadline The deadline of the attempt, abandoned if the other attempt wins.
+         * @param hedge Whether the attempt is the hedge, rather than the first attempt.
+         * @return The result of the attempt, or {@code null} if the hedge couldn't be started and the query keeps
+         * waiting on its first attempt.
+         */
+        @Nullable CompletionStage<U> run(@NotNull Deadline deadline, boolean hedge);
+    }
+
+    private final @NotNull HedgeSettings settings;
+    private final long minDelayNanos;
+
+    private final long @NotNull [] samples = new long[WINDOW];
+    private final long @NotNull [] sorted = new long[WINDOW];
+    private int sampleCount;
+    private int nextSample;
+    private int sinceRecompute;
+    private long delayNanos = -1;
+    private double savedHedges;
+
+    public QueryHedger(@NotNull HedgeSettings settings) {
+        this.settings = settings;
+        this.minDelayNanos = settings.getMinDelay().toNanos();
+    }
+
+    /**
+     * Gets the time after which a query is hedged.
+     * @return The delay, or {@code -1} if not enough queries were seen yet.
+     */
+    public synchronized long getDelayNanos() {
+        return delayNanos;
+    }
+
+    /**
+     * Runs a query, hedging it if it's still running after the hedge delay and the budget allows it.
+     * @param deadline The deadline of the query, or {@code null} if it has no timeout.
+     * @param attempt Runs an attempt of the query.
+     * @param onHedged Called when the query is hedged.
+     * @return The result of the first attempt that succeeded, or the error of the first attempt if both failed.
+     * @param <U> The result of the query.
+     */
+    public <U> @NotNull CompletionStage<U> execute(
+            @Nullable Deadline deadline, @NotNull Attempt<U> attempt, @NotNull Runnable onHedged
+    ) {
+        var delay = earn();
+        var race = new Race<>(attempt, deadline);
+
+        race.start(false);
+
+        if(delay >= 0) {
+            var hedge = Deadline.schedule(t -> {
+                if(race.result.isDone() || !spend()) {
+                    return;
+                }
+
+                if(race.start(true)) {
+                    onHedged.run();
+                } else {
+                    refund();
+                }
+            }, delay);
+
+            race.result.whenComplete((v, e) -> hedge.cancel());
+        }
+
+        return race.result;
+    }
+
+    private synchronized long earn() {
+        savedHedges = Math.min(MAX_SAVED_HEDGES, savedHedges + settings.getBudget());
+        return delayNanos;
+    }
+
+    private synchronized boolean spend() {
+        if(savedHedges < 1) {
+            return false;
+        }
+
+        savedHedges--;
+        return true;
+    }
+
+    private synchronized void refund() {
+        savedHedges++;
+    }
+
+    private synchronized void record(long latencyNanos) {
+        samples[nextSample] = latencyNanos;
+        nextSample = (nextSample + 1) % WINDOW;
+        sampleCount = Math.min(sampleCount + 1, WINDOW);
+
+        if(sampleCount < MIN_SAMPLES || (delayNanos >= 0 && ++sinceRecompute < RECOMPUTE_INTERVAL)) {
+            return;
+        }
+
+        sinceRecompute = 0;
+
+        System.arraycopy(samples, 0, sorted, 0, sampleCount);
+        Arrays.sort(sorted, 0, sampleCount);
+
+        var index = (int)Math.ceil(settings.getPercentile() * sampleCount) - 1;
+        delayNanos = Math.max(minDelayNanos, sorted[Math.max(0, index)]);
+    }
+
+    /**
+     * The attempts of a query, the first one to succeed completes the result.
+     */
+    private final class Race<U> {
+        final @NotNull CompletableFuture<U> result = new CompletableFuture<>();
+
+        private final @NotNull Attempt<U> attempt;
+        private final @Nullable Deadline deadline;
+        private final @NotNull List<Deadline> attempts = new ArrayList<>(2);
+        private final long start = System.nanoTime();
+        private int pending;
+        private @Nullable Throwable error;
+
+        Race(@NotNull Attempt<U> attempt, @Nullable Deadline deadline) {
+            this.attempt = attempt;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Starts an attempt.
+         * @return Whether the attempt was started.
+         */
+        boolean start(boolean hedge) {
+            var attemptDeadline = Deadline.attempt(deadline);
+
+            synchronized (this) {
+                // the race is over once an attempt succeeded or every attempt failed
+                if(result.isDone() || (error != null && pending == 0)) {
+                    return false;
+                }
+
+                attempts.add(attemptDeadline);
+                pending++;
+            }
+
+            CompletionStage<U> stage;
+
+            try {
+                stage = attempt.run(attemptDeadline, hedge);
+            } catch (Throwable x) {
+                stage = CompletableFuture.failedFuture(x);
+            }
+
+            if(stage == null) {
+                Throwable failed;
+
+                synchronized (this) {
+                    attempts.remove(attemptDeadline);
+                    pending--;
+
+                    // the first attempt may have failed meanwhile, waiting on this one
+                    failed = pending == 0 ? error : null;
+                }
+
+                if(failed != null) {
+                    result.completeExceptionally(failed);
+                }
+
+                return false;
+            }
+
+            stage.whenComplete((v, e) -> finished(attemptDeadline, v, e));
+            return true;
+        }
+
+        private void finished(@NotNull Deadline attemptDeadline, U value, @Nullable Throwable e) {
+            if(e == null) {
+                record(System.nanoTime() - start);
+
+                if(result.complete(value)) {
+                    abandonOthers(attemptDeadline);
+                }
+
+                return;
+            }
+
+            synchronized (this) {
+                pending--;
+
+                if(error == null) {
+                    error = e;
+                }
+
+                if(pending > 0) {
+                    return;
+                }
+            }
+
+            result.completeExceptionally(error);
+        }
+
+        private void abandonOthers(@NotNull Deadline winner) {
+            List<Deadline> losers;
+
+            synchronized (this) {
+                losers = new ArrayList<>(attempts);
+            }
+
+            for(var loser : losers) {
+                if(loser != winner) {
+                    loser.abandon();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.edgedb.driver.internal;
+
+import com.edgedb.driver.Capabilities;
+import com.edgedb.driver.EdgeDBClientConfig;
+import com.edgedb.driver.jfr.QueryEvent;
+import com.edgedb.driver.metrics.QueryListener;
+import com.edgedb.driver.metrics.QueryTrace;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.function.BiConsumer;
+
+/**
+ * Records the phases of a single query execution and reports them to a {@linkplain QueryListener} and as a
+ * {@linkplain QueryEvent}. Only created when a listener is configured or the event is recorded; the phases of one
+ * execution happen one after another, so it needs no synchronization.
+ */
+public final class QueryTracer implements QueryTrace {
+    private static final Logger logger = LoggerFactory.getLogger(QueryTracer.class);
+
+    private final @NotNull QueryListener listener;
+    private final @NotNull String query;
+    private final @NotNull EnumSet<Capabilities> capabilities;
+    private final @Nullable QueryEvent event;
+    private final long started;
+
+    private long acquired;
+    private boolean pooled;
+    private long parseStarted;
+    private long parseEnded;
+    private boolean parseCacheHit;
+    private long executeSent;
+    private long firstData;
+    private long ready;
+    private long decodeNanos;
+    private long completed;
+    private long rows;
+    private long bytes;
+
+    private QueryTracer(
+            @NotNull QueryListener listener,
+            @NotNull String query,
+            @NotNull EnumSet<Capabilities> capabilities,
+            @Nullable QueryEvent event
+    ) {
+        this.listener = listener;
+        this.query = query;
+        this.capabilities = capabilities;
+        this.event = event;
+        this.started = System.nanoTime();
+    }
+
+    /**
+     * Starts tracing a query.
+     * @param config The config of the client executing the query.
+     * @param query The query text.
+     * @param capabilities The capabilities of the query.
+     * @return A tracer for the query, or {@code null} if no listener is configured and the event isn't recorded.
+     */
+    public static @Nullable QueryTracer start(
+            @NotNull EdgeDBClientConfig config,
+            @NotNull String query,
+            @NotNull EnumSet<Capabilities> capabilities
+    ) {
+        var listener = config.getQueryListener();
+        var event = QueryEvent.start();
+
+        if(listener == QueryListener.NOOP && event == null) {
+            return null;
+        }
+
+        return new QueryTracer(listener, query, capabilities, event);
+    }
+
+    /**
+     * Gets whether the query went through the client pool, which then completes the trace.
+     * @return {@code true} if the query got its client from the pool.
+     */
+    public boolean isPooled() {
+        return pooled;
+    }
+
+    public void poolAcquired() {
+        acquired = System.nanoTime();
+        pooled = true;
+        notify(QueryListener::onPoolAcquired);
+    }
+
+    public void parseStarted() {
+        parseStarted = System.nanoTime();
+        notify(QueryListener::onParseStart);
+    }
+
+    public void parseEnded() {
+        parseEnded = System.nanoTime();
+        notify(QueryListener::onParseEnd);
+    }
+
+    /**
+     * Records a query which didn't need the parse round trip, raising both parse events with no time in between.
+     */
+    public void parseSkipped() {
+        parseStarted = parseEnded = System.nanoTime();
+        parseCacheHit = true;
+        notify(QueryListener::onParseStart);
+        notify(QueryListener::onParseEnd);
+    }
+
+    public void executeSent() {
+        executeSent = System.nanoTime();
+        notify(QueryListener::onExecuteSent);
+    }
+
+    public void dataReceived(int size) {
+        if(rows++ == 0) {
+            firstData = System.nanoTime();
+            notify(QueryListener::onFirstData);
+        }
+
+        bytes += size;
+    }
+
+    public void readyForCommand() {
+        ready = System.nanoTime();
+        notify(QueryListener::onReadyForCommand);
+    }
+
+    public void decoded(long nanos) {
+        decodeNanos += nanos;
+        notify(QueryListener::onDecodeEnd);
+    }
+
+    public void completed(@Nullable Throwable error) {
+        if(completed != 0) {
+            return;
+        }
+
+        completed = System.nanoTime();
+
+        if(event != null) {
+            event.finish(this, error);
+        }
+
+        try {
+            listener.onCompleted(this, error);
+        } catch (Throwable x) {
+            logger.warn("Query listener {} failed", listener, x);
+        }
+    }
+
+    private void notify(@NotNull BiConsumer<QueryListener, QueryTrace> phase) {
+        try {
+            phase.accept(listener, this);
+        } catch (Throwable x) {
+            logger.warn("Query listener {} failed", listener, x);
+        }
+    }
+
+    private static @NotNull Duration between(long start, long end) {
+        return start == 0 || end == 0 ? Duration.ZERO : Duration.ofNanos(end - start);
+    }
+
+    @Override
+    public @NotNull String getQuery() {
+        return query;
+    }
+
+    @Override
+    public @NotNull EnumSet<Capabilities> getCapabilities() {
+        return capabilities;
+    }
+
+    @Override
+    public boolean isParseCacheHit() {
+        return parseCacheHit;
+    }
+
+    @Override
+    public long getRowCount() {
+        return rows;
+    }
+
+    @Override
+    public long getByteCount() {
+        return bytes;
+    }
+
+    @Override
+    public @NotNull Duration getPoolWait() {
+        return between(started, acquired);
+    }
+
+    @Override
+    public @NotNull Duration getParseDuration() {
+        return between(parseStarted, parseEnded);
+    }
+
+    @Override
+    public @NotNull Duration getTimeToFirstData() {
+        return between(executeSent, firstData);
+    }
+
+    @Override
+    public @NotNull Duration getExecuteDuration() {
+        return between(executeSent, ready);
+    }
+
+    @Override
+    public @NotNull Duration getDecodeDuration() {
+        return Duration.ofNanos(decodeNanos);
+    }
+
+    @Override
+    public @NotNull Duration getTotalDuration() {
+        return Duration.ofNanos((completed == 0 ? System.nanoTime() : completed) - started);
+    }
+}
@@ -0,0 +1,266 @@
+package com.edgedb.driver.internal;
+
+import com.edgedb.driver.ReplicaSettings;
+import io.netty.util.Timeout;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Spreads the read-only queries of a client pool across its read replicas. A query goes to the replica with the
+ * lowest score, its queries in flight plus one times the moving average of its latency. A replica without a latency
+ * yet scores its queries in flight times the average latency of the others: it's tried first while idle, without
+ * taking every query until its first one completes.
+ * <br/><br/>
+ * The replicas are health checked in the background, the checks also feeding the latencies so an idle replica's
+ * latency doesn't go stale. A replica failing enough consecutive checks or connections is ejected, skipped by the
+ * routing, until it passes a check again.
+ * @param <T> The type of the replicas.
+ */
+public final class ReplicaRouter<T> implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRouter.class);
+    // the weight of a new latency in the moving average
+    private static final double LATENCY_WEIGHT = 0.2;
+
+    /**
+     * A read replica along with its load and health.
+     * @param <T> The type of the replica.
+     */
+    public static final class Host<T> {
+        private final @NotNull T target;
+        private final @NotNull ReplicaRouter<T> router;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicInteger failures = new AtomicInteger();
+        private final AtomicBoolean checking = new AtomicBoolean();
+        private volatile double latencyNanos;
+        private volatile boolean ejected;
+
+        private Host(@NotNull T target, @NotNull ReplicaRouter<T> router) {
+            this.target = target;
+            this.router = router;
+        }
+
+        public @NotNull T getTarget() {
+            return target;
+        }
+
+        public boolean isEjected() {
+            return ejected;
+        }
+
+        /**
+         * Called when a query routed to this replica succeeded.
+         * @param latencyNanos The latency of the query.
+         */
+        public void completed(long latencyNanos) {
+            outstanding.decrementAndGet();
+            failures.set(0);
+            record(latencyNanos);
+        }
+
+        /**
+         * Called when a query routed to this replica failed because the replica couldn't be reached.
+         */
+        public void failed() {
+            outstanding.decrementAndGet();
+            router.onFailure(this);
+        }
+
+        /**
+         * Called when a query routed to this replica failed for a reason that says nothing of the replica's health.
+         */
+        public void released() {
+            outstanding.decrementAndGet();
+        }
+
+        private double score(double priorNanos) {
+            return latencyNanos == 0
+                    ? outstanding.get() * priorNanos
+                    : (outstanding.get() + 1) * latencyNanos;
+        }
+
+        private synchronized void record(long latencyNanos) {
+            this.latencyNanos = this.latencyNanos == 0
+                    ? latencyNanos
+                    : this.latencyNanos + LATENCY_WEIGHT * (latencyNanos - this.latencyNanos);
+        }
+    }
+
+    private final @NotNull List<Host<T>> hosts;
+    private final @NotNull ReplicaSettings settings;
+    private final @NotNull Function<T, CompletionStage<?>> healthCheck;
+    private final @NotNull Runnable onEjected;
+    private final AtomicInteger nextHost = new AtomicInteger();
+    private volatile @Nullable Timeout nextCheck;
+    private volatile boolean closed;
+
+    /**
+     * Constructs a new {@linkplain ReplicaRouter} and starts checking its replicas.
+     * @param replicas The replicas to route the queries to.
+     * @param settings The settings of the replicas.
+     * @param healthCheck Checks a replica, its result failing if the replica is unhealthy.
+     * @param onEjected Called when a replica is ejected.
+     */
+    public ReplicaRouter(
+            @NotNull List<T> replicas, @NotNull ReplicaSettings settings,
+            @NotNull Function<T, CompletionStage<?>> healthCheck, @NotNull Runnable onEjected
+    ) {
+        var hosts = new ArrayList<Host<T>>(replicas.size());
+
+        for (var replica : replicas) {
+            hosts.add(new Host<>(replica, this));
+        }
+
+        this.hosts = Collections.unmodifiableList(hosts);
+        this.settings = settings;
+        this.healthCheck = healthCheck;
+        this.onEjected = onEjected;
+
+        scheduleChecks();
+    }
+
+    public @NotNull List<Host<T>> getHosts() {
+        return hosts;
+    }
+
+    /**
+     * Picks the replica to run a query on, counting the query as in flight on it.
+     * @return The replica, or {@code null} if every replica is ejected.
+     */
+    public @Nullable Host<T> route() {
+        // ties, like idle replicas with the same latency, go to each replica in turn
+        var start = Math.floorMod(nextHost.getAndIncrement(), hosts.size());
+        var prior = prior();
+        Host<T> best = null;
+        var bestScore = Double.MAX_VALUE;
+
+        for(int i = 0; i != hosts.size(); i++) {
+            var host = hosts.get((start + i) % hosts.size());
+
+            if(host.ejected) {
+                continue;
+            }
+
+            var score = host.score(prior);
+
+            if(score < bestScore) {
+                best = host;
+                bestScore = score;
+            }
+        }
+
+        if(best != null) {
+            best.outstanding.incrementAndGet();
+        }
+
+        return best;
+    }
+
+    /**
+     * Gets the latency assumed for a replica that has none yet, the average of the others.
+     */
+    private double prior() {
+        var total = 0d;
+        var count = 0;
+
+        for (var host : hosts) {
+            var latency = host.latencyNanos;
+
+            if(!host.ejected && latency != 0) {
+                total += latency;
+                count++;
+            }
+        }
+
+        // with no latency at all, the replicas are told apart by their queries in flight
+        return count == 0 ? 1 : total / count;
+    }
+
+    private void onFailure(@NotNull Host<T> host) {
+        if(host.failures.incrementAndGet() < settings.getFailureThreshold() || host.ejected) {
+            return;
+        }
+
+        synchronized (host) {
+            if(host.ejected) {
+                return;
+            }
+
+            host.ejected = true;
+        }
+
+        logger.warn("Read replica {} ejected after {} consecutive failure(s)", host.target, host.failures.get());
+        onEjected.run();
+    }
+
+    private void scheduleChecks() {
+        if(closed) {
+            return;
+        }
+
+        nextCheck = Deadline.schedule(t -> {
+            for (var host : hosts) {
+                check(host);
+            }
+
+            scheduleChecks();
+        }, settings.getHealthCheckInterval().toNanos());
+    }
+
+    private void check(@NotNull Host<T> host) {
+        // a check still running past the interval isn't doubled up
+        if(closed || !host.checking.compareAndSet(false, true)) {
+            return;
+        }
+
+        var start = System.nanoTime();
+        CompletionStage<?> check;
+
+        try {
+            check = healthCheck.apply(host.target);
+        } catch (Throwable x) {
+            host.checking.set(false);
+            logger.debug("Health check of read replica {} failed", host.target, x);
+            onFailure(host);
+            return;
+        }
+
+        check.whenComplete((v, e) -> {
+            host.checking.set(false);
+
+            if(e != null) {
+                logger.debug("Health check of read replica {} failed", host.target, e);
+                onFailure(host);
+                return;
+            }
+
+            host.failures.set(0);
+            host.record(System.nanoTime() - start);
+
+            if(host.ejected) {
+                host.ejected = false;
+                logger.info("Read replica {} passed its health check and is back in rotation", host.target);
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+
+        var check = nextCheck;
+
+        if(check != null) {
+            check.cancel();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.edgedb.driver.internal;
+
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * The executor running the blocking reads and writes of the channels given to a client, like the channel of
+ * {@linkplain com.edgedb.driver.EdgeDBQueryable#queryJsonTo} or of a dump, when its config doesn't set one.
+ * <br/><br/>
+ * These never run on the threads dispatching the messages of the connections, which are shared by every connection
+ * of the process: a slow channel would hold back all of them.
+ */
+public final class StreamExecutor {
+    // threads are only started while channels are being written to, and stop once idle
+    private static final @NotNull Executor executor = Executors.newCachedThreadPool(
+            new DefaultThreadFactory("edgedb-stream", true)
+    );
+
+    private StreamExecutor() {}
+
+    public static @NotNull Executor get() {
+        return executor;
+    }
+}
@@ -1,12 +1,20 @@
 package com.edgedb.driver.internal;
 
 import com.edgedb.driver.Capabilities;
+import com.edgedb.driver.ErrorCode;
+import com.edgedb.driver.JsonStreamMode;
 import com.edgedb.driver.Transaction;
+import com.edgedb.driver.TransactionIsolation;
+import com.edgedb.driver.TransactionScript;
 import com.edgedb.driver.TransactionSettings;
 import com.edgedb.driver.TransactionState;
 import com.edgedb.driver.abstractions.QueryDelegate;
+import com.edgedb.driver.binary.protocol.QueryParameters;
+import com.edgedb.driver.binary.protocol.common.Cardinality;
+import com.edgedb.driver.binary.protocol.common.IOFormat;
 import com.edgedb.driver.clients.TransactableClient;
 import com.edgedb.driver.datatypes.Json;
+import com.edgedb.driver.exceptions.EdgeDBErrorException;
 import com.edgedb.driver.exceptions.EdgeDBException;
 import com.edgedb.driver.exceptions.TransactionException;
 import org.jetbrains.annotations.NotNull;
@@ -14,6 +22,8 @@ import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
@@ -21,11 +31,19 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
+import java.util.stream.Collector;
+
+import static com.edgedb.driver.util.ComposableUtil.exceptionallyCompose;
 
 public final class TransactionImpl implements Transaction {
     private static final Logger logger = LoggerFactory.getLogger(com.edgedb.driver.Transaction.class);
+    // the retry delay doubles up to this many times
+    private static final int MAX_BACKOFF_EXPONENT = 10;
+
     private final TransactableClient client;
     private final TransactionSettings settings;
 
@@ -55,6 +73,111 @@ public final class TransactionImpl implements Transaction {
                 }));
     }
 
+    /**
+     * Runs a script as a single pipeline: the start of the transaction, its statements and the commit. If a statement
+     * fails the following ones are skipped and the transaction is rolled back; the whole script is retried after a
+     * transaction conflict, waiting a randomized, exponentially growing delay between the attempts.
+     */
+    public CompletionStage<Void> run(@NotNull TransactionScript script) {
+        var statements = new ArrayList<QueryParameters>(script.getStatements().size() + 2);
+
+        statements.add(transactionStatement(
+                startStatement(settings.getIsolation(), settings.isReadOnly(), settings.isDeferrable())
+        ));
+
+        for (var statement : script.getStatements()) {
+            statements.add(new QueryParameters(
+                    statement.getQuery(),
+                    statement.getArguments(),
+                    statement.getCapabilities(),
+                    Cardinality.MANY,
+                    IOFormat.NONE,
+                    false
+            ));
+        }
+
+        statements.add(transactionStatement("commit"));
+
+        return runScript(statements, 0);
+    }
+
+    private CompletionStage<Void> runScript(@NotNull List<QueryParameters> statements, int attempt) {
+        return exceptionallyCompose(client.executePipeline(statements), e -> {
+            var cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+
+            // the transaction is still open unless its start or its commit failed
+            var rolledBack = getState() == TransactionState.NOT_IN_TRANSACTION
+                    ? CompletableFuture.<Void>completedFuture(null)
+                    : rollback().exceptionally(x -> {
+                        logger.warn("Exception in transaction rollback", x);
+                        return null;
+                    });
+
+            return rolledBack.thenCompose(v -> {
+                if(!isConflict(cause)) {
+                    return CompletableFuture.<Void>failedFuture(cause);
+                }
+
+                if(attempt >= settings.getRetryAttempts()) {
+                    return CompletableFuture.<Void>failedFuture(new TransactionException(
+                            "Transaction failed after " + (attempt + 1) + " attempt(s)", cause
+                    ));
+                }
+
+                logger.debug("Retrying transaction script after a conflict, attempt {}", attempt + 1);
+
+                var retry = new CompletableFuture<Void>();
+                Deadline.schedule(t -> retry.complete(null), backoffNanos(attempt));
+
+                return retry.thenCompose(x -> runScript(statements, attempt + 1));
+            });
+        });
+    }
+
+    /**
+     * Gets the delay before a retry: the base delay doubled for each attempt so far, of which a random half to all
+     * is waited.
+     */
+    private long backoffNanos(int attempt) {
+        var delay = settings.getRetryDelay().toNanos() << Math.min(attempt, MAX_BACKOFF_EXPONENT);
+
+        if(delay <= 0) {
+            return 0;
+        }
+
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    /**
+     * Gets whether a transaction failed because it conflicted with another one, like a serialization failure or a
+     * deadlock, in which case it can succeed if it runs again.
+     */
+    private static boolean isConflict(@NotNull Throwable cause) {
+        if(!(cause instanceof EdgeDBErrorException)) {
+            return false;
+        }
+
+        var code = ((EdgeDBErrorException) cause).getErrorCode().getValue();
+
+        return (code & 0xFFFFFF00) == ErrorCode.TRANSACTION_CONFLICT_ERROR.getValue();
+    }
+
+    private static @NotNull QueryParameters transactionStatement(@NotNull String query) {
+        return new QueryParameters(
+                query, null, EnumSet.of(Capabilities.TRANSACTION), Cardinality.MANY, IOFormat.NONE, false
+        );
+    }
+
+    public static @NotNull String startStatement(@NotNull TransactionIsolation isolation, boolean readonly, boolean deferrable) {
+        return "start transaction isolation " +
+                isolation +
+                ", " +
+                (readonly ? "read only" : "read write") +
+                ", " +
+                (deferrable ? "" : "not ") +
+                "deferrable";
+    }
+
     private CompletionStage<Void> start() {
         return this.client.startTransaction(settings.getIsolation(), settings.isReadOnly(), settings.isDeferrable());
     }
@@ -103,14 +226,22 @@ public final class TransactionImpl implements Transaction {
             @NotNull QueryDelegate<T, U> delegate
     ) {
         final AtomicInteger attempts = new AtomicInteger();
+        final AtomicBoolean hasAcquired = new AtomicBoolean();
 
+        // the statements of a transaction run one at a time
         return CompletableFuture.runAsync(() -> {
             try {
                 semaphore.acquire();
+                hasAcquired.set(true);
             } catch (InterruptedException e) {
                 throw new CompletionException(e);
             }
-        }).thenCompose((v) -> executeTransactionStep(cls, query, args, capabilities, attempts, delegate));
+        }).thenCompose((v) -> executeTransactionStep(cls, query, args, capabilities, attempts, delegate))
+                .whenComplete((v, e) -> {
+                    if(hasAcquired.get()) {
+                        semaphore.release();
+                    }
+                });
     }
 
     @Override
@@ -128,6 +259,13 @@ public final class TransactionImpl implements Transaction {
         return executeTransaction(cls, query, args, capabilities, client::query);
     }
 
+    @Override
+    public <T, A, R> CompletionStage<R> query(@NotNull Class<T> cls, @NotNull String query, @Nullable Map<String, Object> args, @NotNull EnumSet<Capabilities> capabilities, @NotNull Collector<? super T, A, R> collector) {
+        return executeTransaction(cls, query, args, capabilities,
+                (t, q, a, ca) -> client.query(t, q, a, ca, collector)
+        );
+    }
+
     @Override
     public <T> CompletionStage<T> querySingle(@NotNull Class<T> cls, @NotNull String query, @Nullable Map<String, Object> args, @NotNull EnumSet<Capabilities> capabilities) {
         return executeTransaction(cls, query, args, capabilities, client::querySingle);
@@ -151,4 +289,11 @@ public final class TransactionImpl implements Transaction {
                 (c, q, a, ca) -> client.queryJsonElements(q, a, ca)
         );
     }
+
+    @Override
+    public CompletionStage<Long> queryJsonTo(@NotNull WritableByteChannel channel, @NotNull JsonStreamMode mode, @NotNull String query, @Nullable Map<String, Object> args, @NotNull EnumSet<Capabilities> capabilities) {
+        return executeTransaction(Long.class, query, args, capabilities,
+                (c, q, a, ca) -> client.queryJsonTo(channel, mode, q, a, ca)
+        );
+    }
 }
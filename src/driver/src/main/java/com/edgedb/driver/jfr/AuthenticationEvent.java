@@ -0,0 +1,54 @@
+package com.edgedb.driver.jfr;
+
+import jdk.jfr.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A JFR event covering the SASL exchange of a connection's handshake, the key derivation of SCRAM included.
+ */
+@Name("com.edgedb.Authentication")
+@Label("Authentication")
+@Category({"EdgeDB", "Connection"})
+@Description("A SASL authentication exchange with an EdgeDB server")
+@Enabled(false)
+@StackTrace(false)
+public final class AuthenticationEvent extends Event {
+    @Label("Method")
+    private String method;
+
+    @Label("Succeeded")
+    private boolean succeeded;
+
+    /**
+     * Begins an authentication event if the event is enabled in a running recording.
+     * @return The started event, or {@code null} if it isn't enabled.
+     */
+    public static @Nullable AuthenticationEvent start() {
+        var event = new AuthenticationEvent();
+
+        if(!event.isEnabled()) {
+            return null;
+        }
+
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the event and commits it.
+     * @param method The SASL method used.
+     * @param error The error the authentication failed with, or {@code null} if it succeeded.
+     */
+    public void finish(@NotNull String method, @Nullable Throwable error) {
+        end();
+
+        if(!shouldCommit()) {
+            return;
+        }
+
+        this.method = method;
+        this.succeeded = error == null;
+        commit();
+    }
+}
@@ -0,0 +1,66 @@
+package com.edgedb.driver.jfr;
+
+import jdk.jfr.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.UUID;
+
+/**
+ * A JFR event covering the construction of a codec tree from the type descriptors sent by the server.
+ */
+@Name("com.edgedb.CodecBuild")
+@Label("Codec Build")
+@Category({"EdgeDB", "Codecs"})
+@Description("A codec built from type descriptors")
+@Enabled(false)
+public final class CodecBuildEvent extends Event {
+    @Label("Descriptor Id")
+    private String descriptorId;
+
+    @Label("Descriptors")
+    private int descriptors;
+
+    @Label("Descriptor Size")
+    @DataAmount
+    private long descriptorBytes;
+
+    @Label("Codec")
+    private String codec;
+
+    /**
+     * Begins a codec build event if the event is enabled in a running recording.
+     * @return The started event, or {@code null} if it isn't enabled.
+     */
+    public static @Nullable CodecBuildEvent start() {
+        var event = new CodecBuildEvent();
+
+        if(!event.isEnabled()) {
+            return null;
+        }
+
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the event and commits it.
+     * @param id The id of the root descriptor.
+     * @param descriptors The number of descriptors read.
+     * @param descriptorBytes The size of the descriptors.
+     * @param codec The codec built, or {@code null} if building failed.
+     */
+    public void finish(@NotNull UUID id, int descriptors, long descriptorBytes, @Nullable Object codec) {
+        end();
+
+        if(!shouldCommit()) {
+            return;
+        }
+
+        this.descriptorId = id.toString();
+        this.descriptors = descriptors;
+        this.descriptorBytes = descriptorBytes;
+        this.codec = codec == null ? null : codec.getClass().getSimpleName();
+        commit();
+    }
+}
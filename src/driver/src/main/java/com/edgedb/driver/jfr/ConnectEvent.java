@@ -0,0 +1,60 @@
+package com.edgedb.driver.jfr;
+
+import jdk.jfr.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A JFR event covering a connection attempt, from opening the socket through the handshake and authentication to the
+ * server being ready for commands. Authentication is also recorded on its own by {@linkplain AuthenticationEvent}.
+ */
+@Name("com.edgedb.Connect")
+@Label("Connect")
+@Category({"EdgeDB", "Connection"})
+@Description("A connection and handshake to an EdgeDB server")
+@Enabled(false)
+@StackTrace(false)
+public final class ConnectEvent extends Event {
+    @Label("Host")
+    private String host;
+
+    @Label("Port")
+    private int port;
+
+    @Label("Succeeded")
+    private boolean succeeded;
+
+    /**
+     * Begins a connect event if the event is enabled in a running recording.
+     * @return The started event, or {@code null} if it isn't enabled.
+     */
+    public static @Nullable ConnectEvent start() {
+        var event = new ConnectEvent();
+
+        if(!event.isEnabled()) {
+            return null;
+        }
+
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the event and commits it.
+     * @param host The host connected to.
+     * @param port The port connected to.
+     * @param error The error the connection failed with, or {@code null} if it succeeded.
+     */
+    public void finish(@NotNull String host, int port, @Nullable Throwable error) {
+        end();
+
+        if(!shouldCommit()) {
+            return;
+        }
+
+        this.host = host;
+        this.port = port;
+        this.succeeded = error == null;
+        commit();
+    }
+}
@@ -0,0 +1,76 @@
+package com.edgedb.driver.jfr;
+
+import jdk.jfr.*;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A JFR event covering the decoding of a query result. Streamed results are decoded as their rows arrive, so the event
+ * spans from the first row to the last; the decode time only counts the time spent decoding. The default threshold
+ * only records large results.
+ */
+@Name("com.edgedb.Decode")
+@Label("Result Decode")
+@Category({"EdgeDB", "Query"})
+@Description("The decoding of a query result into objects")
+@Enabled(false)
+@Threshold("10 ms")
+public final class DecodeEvent extends Event {
+    @Label("Query Hash")
+    private int queryHash;
+
+    @Label("Rows")
+    private long rows;
+
+    @Label("Result Size")
+    @DataAmount
+    private long bytes;
+
+    @Label("Decode Time")
+    @Timespan
+    private long decodeTime;
+
+    /**
+     * Gets whether the event is enabled in a running recording, for results decoded as they're streamed, where the
+     * event only begins at the first row.
+     * @return {@code true} if the event would be recorded.
+     */
+    public static boolean isRecording() {
+        return new DecodeEvent().isEnabled();
+    }
+
+    /**
+     * Begins a decode event if the event is enabled in a running recording.
+     * @return The started event, or {@code null} if it isn't enabled.
+     */
+    public static @Nullable DecodeEvent start() {
+        var event = new DecodeEvent();
+
+        if(!event.isEnabled()) {
+            return null;
+        }
+
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the event and commits it.
+     * @param query The query text, only its hash is recorded.
+     * @param rows The number of rows decoded.
+     * @param bytes The size of the rows decoded.
+     * @param decodeNanos The time spent decoding.
+     */
+    public void finish(String query, long rows, long bytes, long decodeNanos) {
+        end();
+
+        if(!shouldCommit()) {
+            return;
+        }
+
+        this.queryHash = query.hashCode();
+        this.rows = rows;
+        this.bytes = bytes;
+        this.decodeTime = decodeNanos;
+        commit();
+    }
+}
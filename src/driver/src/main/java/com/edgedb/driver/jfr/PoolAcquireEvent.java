@@ -0,0 +1,57 @@
+package com.edgedb.driver.jfr;
+
+import com.edgedb.driver.metrics.PoolStatistics;
+import jdk.jfr.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A JFR event covering the wait for a client from the pool, including connecting a new client.
+ */
+@Name("com.edgedb.PoolAcquire")
+@Label("Pool Acquire")
+@Category({"EdgeDB", "Pool"})
+@Description("A wait for a client from the EdgeDB client pool")
+@Enabled(false)
+public final class PoolAcquireEvent extends Event {
+    @Label("In Use Clients")
+    private int inUseClients;
+
+    @Label("Idle Clients")
+    private int idleClients;
+
+    @Label("Pending Acquires")
+    private int pendingAcquires;
+
+    /**
+     * Begins a pool acquire event if the event is enabled in a running recording.
+     * @return The started event, or {@code null} if it isn't enabled.
+     */
+    public static @Nullable PoolAcquireEvent start() {
+        var event = new PoolAcquireEvent();
+
+        if(!event.isEnabled()) {
+            return null;
+        }
+
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the event and commits it with the state of the pool once the client was acquired.
+     * @param pool The statistics of the pool.
+     */
+    public void finish(@NotNull PoolStatistics pool) {
+        end();
+
+        if(!shouldCommit()) {
+            return;
+        }
+
+        inUseClients = pool.getInUseClients();
+        idleClients = pool.getIdleClients();
+        pendingAcquires = pool.getPendingAcquires();
+        commit();
+    }
+}
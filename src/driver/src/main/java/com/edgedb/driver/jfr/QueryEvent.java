@@ -0,0 +1,98 @@
+package com.edgedb.driver.jfr;
+
+import com.edgedb.driver.metrics.QueryTrace;
+import jdk.jfr.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A JFR event covering a query from the request to its completion, pool wait included. The query text isn't recorded,
+ * only its hash, which matches the {@code queryHash} of {@linkplain DecodeEvent}.
+ */
+@Name("com.edgedb.Query")
+@Label("Query")
+@Category({"EdgeDB", "Query"})
+@Description("A query executed by the EdgeDB driver, with the time spent in each phase")
+@Enabled(false)
+@StackTrace(false)
+public final class QueryEvent extends Event {
+    @Label("Query Hash")
+    private int queryHash;
+
+    @Label("Capabilities")
+    private String capabilities;
+
+    @Label("Parse Cache Hit")
+    private boolean parseCacheHit;
+
+    @Label("Pool Wait")
+    @Timespan
+    private long poolWait;
+
+    @Label("Parse Time")
+    @Timespan
+    private long parseTime;
+
+    @Label("Time To First Data")
+    @Timespan
+    private long timeToFirstData;
+
+    @Label("Execute Time")
+    @Timespan
+    private long executeTime;
+
+    @Label("Decode Time")
+    @Timespan
+    private long decodeTime;
+
+    @Label("Rows")
+    private long rows;
+
+    @Label("Result Size")
+    @DataAmount
+    private long bytes;
+
+    @Label("Succeeded")
+    private boolean succeeded;
+
+    /**
+     * Begins a query event if the event is enabled in a running recording.
+     * @return The started event, or {@code null} if it isn't enabled.
+     */
+    public static @Nullable QueryEvent start() {
+        var event = new QueryEvent();
+
+        if(!event.isEnabled()) {
+            return null;
+        }
+
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the event and commits it with the phases of the completed query.
+     * @param trace The trace of the query.
+     * @param error The error the query failed with, or {@code null} if it succeeded.
+     */
+    public void finish(@NotNull QueryTrace trace, @Nullable Throwable error) {
+        end();
+
+        if(!shouldCommit()) {
+            return;
+        }
+
+        queryHash = trace.getQuery().hashCode();
+        capabilities = trace.getCapabilities().toString();
+        parseCacheHit = trace.isParseCacheHit();
+        poolWait = trace.getPoolWait().toNanos();
+        parseTime = trace.getParseDuration().toNanos();
+        timeToFirstData = trace.getTimeToFirstData().toNanos();
+        executeTime = trace.getExecuteDuration().toNanos();
+        decodeTime = trace.getDecodeDuration().toNanos();
+        rows = trace.getRowCount();
+        bytes = trace.getByteCount();
+        succeeded = error == null;
+        commit();
+    }
+}
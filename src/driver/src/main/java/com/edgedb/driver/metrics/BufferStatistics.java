@@ -0,0 +1,27 @@
+package com.edgedb.driver.metrics;
+
+/**
+ * Represents the gauges of the buffers a client pool retains for query results, only available when buffer
+ * accounting is enabled. The values are read when called, so they can be polled by a metrics backend at its own pace.
+ * @see com.edgedb.driver.EdgeDBClientConfig.Builder#withBufferAccounting(boolean)
+ */
+public interface BufferStatistics {
+    /**
+     * Gets the number of buffers retained for query results that weren't released yet.
+     * @return The number of outstanding buffers.
+     */
+    long getOutstandingBuffers();
+
+    /**
+     * Gets the size of the buffers retained for query results that weren't released yet.
+     * @return The number of outstanding bytes.
+     */
+    long getOutstandingBytes();
+
+    /**
+     * Gets the number of buffers that were garbage collected without being released. Leaked buffers are released
+     * when they're found and no longer count as outstanding.
+     * @return The number of leaked buffers.
+     */
+    long getLeakedBuffers();
+}
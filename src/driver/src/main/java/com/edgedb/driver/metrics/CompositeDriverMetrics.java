@@ -0,0 +1,158 @@
+package com.edgedb.driver.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+final class CompositeDriverMetrics implements DriverMetrics {
+    private final DriverMetrics @NotNull [] metrics;
+
+    CompositeDriverMetrics(DriverMetrics @NotNull [] metrics) {
+        this.metrics = metrics.clone();
+    }
+
+    @Override
+    public void bindPool(@NotNull PoolStatistics pool) {
+        for (var m : metrics) {
+            m.bindPool(pool);
+        }
+    }
+
+    @Override
+    public void bindBuffers(@NotNull BufferStatistics buffers) {
+        for (var m : metrics) {
+            m.bindBuffers(buffers);
+        }
+    }
+
+    @Override
+    public void poolAcquired(long waitNanos) {
+        for (var m : metrics) {
+            m.poolAcquired(waitNanos);
+        }
+    }
+
+    @Override
+    public void connectionOpened() {
+        for (var m : metrics) {
+            m.connectionOpened();
+        }
+    }
+
+    @Override
+    public void connectionClosed() {
+        for (var m : metrics) {
+            m.connectionClosed();
+        }
+    }
+
+    @Override
+    public void reconnected() {
+        for (var m : metrics) {
+            m.reconnected();
+        }
+    }
+
+    @Override
+    public void queryParsed(long durationNanos) {
+        for (var m : metrics) {
+            m.queryParsed(durationNanos);
+        }
+    }
+
+    @Override
+    public void parseCacheHit() {
+        for (var m : metrics) {
+            m.parseCacheHit();
+        }
+    }
+
+    @Override
+    public void bytesSent(long bytes) {
+        for (var m : metrics) {
+            m.bytesSent(bytes);
+        }
+    }
+
+    @Override
+    public void bytesReceived(long bytes) {
+        for (var m : metrics) {
+            m.bytesReceived(bytes);
+        }
+    }
+
+    @Override
+    public void rowsDecoded(long rows, long durationNanos) {
+        for (var m : metrics) {
+            m.rowsDecoded(rows, durationNanos);
+        }
+    }
+
+    @Override
+    public void queryShed() {
+        for (var m : metrics) {
+            m.queryShed();
+        }
+    }
+
+    @Override
+    public void queryRejected() {
+        for (var m : metrics) {
+            m.queryRejected();
+        }
+    }
+
+    @Override
+    public void queryHedged() {
+        for (var m : metrics) {
+            m.queryHedged();
+        }
+    }
+
+    @Override
+    public void queryCoalesced() {
+        for (var m : metrics) {
+            m.queryCoalesced();
+        }
+    }
+
+    @Override
+    public void resultCacheHit() {
+        for (var m : metrics) {
+            m.resultCacheHit();
+        }
+    }
+
+    @Override
+    public void resultCacheMiss() {
+        for (var m : metrics) {
+            m.resultCacheMiss();
+        }
+    }
+
+    @Override
+    public void lookupsBatched(int keys) {
+        for (var m : metrics) {
+            m.lookupsBatched(keys);
+        }
+    }
+
+    @Override
+    public void queryRoutedToReplica() {
+        for (var m : metrics) {
+            m.queryRoutedToReplica();
+        }
+    }
+
+    @Override
+    public void replicaEjected() {
+        for (var m : metrics) {
+            m.replicaEjected();
+        }
+    }
+
+    @Override
+    public void queryCompleted(long durationNanos, boolean succeeded) {
+        for (var m : metrics) {
+            m.queryCompleted(durationNanos, succeeded);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.edgedb.driver.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a sink for the instrumentation of a client pool: pool acquires, connections, parses, bytes and rows.
+ * Every method has an empty default, implementations only override what they report and forward it to their
+ * metrics backend.
+ * <br/><br/>
+ * Methods are called inline on the driver's I/O and completion threads, so implementations must be thread-safe and
+ * shouldn't block. Durations are in nanoseconds.
+ * @see SimpleDriverMetrics
+ * @see com.edgedb.driver.EdgeDBClientConfig.Builder#withMetrics(DriverMetrics)
+ */
+public interface DriverMetrics {
+    /**
+     * A {@linkplain DriverMetrics} that discards everything, the default of a client pool. The driver doesn't take
+     * timings when this instance is configured.
+     */
+    DriverMetrics NOOP = new DriverMetrics() {};
+
+    /**
+     * Creates a {@linkplain DriverMetrics} that forwards every event to all the supplied metrics, in order.
+     * @param metrics The metrics to forward to.
+     * @return A {@linkplain DriverMetrics} forwarding to all supplied metrics.
+     */
+    static @NotNull DriverMetrics composite(@NotNull DriverMetrics @NotNull ... metrics) {
+        return new CompositeDriverMetrics(metrics);
+    }
+
+    /**
+     * Called once when a client pool is created with this metrics, giving access to the pool's gauges.
+     * @param pool The gauges of the client pool, valid for the lifetime of the pool.
+     */
+    default void bindPool(@NotNull PoolStatistics pool) {}
+
+    /**
+     * Called once when a client pool with buffer accounting enabled is created with this metrics, giving access to
+     * the gauges of the buffers retained for query results.
+     * @param buffers The buffer gauges of the client pool, valid for the lifetime of the pool.
+     * @see com.edgedb.driver.EdgeDBClientConfig.Builder#withBufferAccounting(boolean)
+     */
+    default void bindBuffers(@NotNull BufferStatistics buffers) {}
+
+    /**
+     * Called when a query got a client from the pool.
+     * @param waitNanos The time the query waited for the client.
+     */
+    default void poolAcquired(long waitNanos) {}
+
+    /**
+     * Called when a client's connection to EdgeDB becomes active.
+     */
+    default void connectionOpened() {}
+
+    /**
+     * Called when a client's connection to EdgeDB becomes inactive, whether it was closed by the client or the server.
+     */
+    default void connectionClosed() {}
+
+    /**
+     * Called when a client reconnects, either to recover a failed query or to retry a failed connection attempt.
+     */
+    default void reconnected() {}
+
+    /**
+     * Called when a query was parsed by the server because its codecs weren't cached.
+     * @param durationNanos The time the parse round trip took.
+     */
+    default void queryParsed(long durationNanos) {}
+
+    /**
+     * Called when a query skipped the parse step because its codecs were cached.
+     */
+    default void parseCacheHit() {}
+
+    /**
+     * Called when protocol messages are written to EdgeDB.
+     * @param bytes The number of bytes written.
+     */
+    default void bytesSent(long bytes) {}
+
+    /**
+     * Called when protocol messages are received from EdgeDB.
+     * @param bytes The number of bytes received.
+     */
+    default void bytesReceived(long bytes) {}
+
+    /**
+     * Called when the result of a query was decoded.
+     * @param rows The number of rows decoded.
+     * @param durationNanos The time spent decoding the rows.
+     */
+    default void rowsDecoded(long rows, long durationNanos) {}
+
+    /**
+     * Called when a query with a timeout was dropped because the timeout passed before it was sent to EdgeDB to be
+     * executed, while it waited for a client, for its turn on the connection or for its parse.
+     * @see com.edgedb.driver.EdgeDBClient#withTimeout(java.time.Duration)
+     */
+    default void queryShed() {}
+
+    /**
+     * Called when a query was rejected by the adaptive concurrency limit of the client pool, without being sent.
+     * @see com.edgedb.driver.ConcurrencyLimitSettings
+     */
+    default void queryRejected() {}
+
+    /**
+     * Called when a slow read-only query was hedged, sent a second time on another client of the pool.
+     * @see com.edgedb.driver.HedgeSettings
+     */
+    default void queryHedged() {}
+
+    /**
+     * Called when a query joined an identical query in flight instead of running on its own.
+     * @see com.edgedb.driver.EdgeDBClientConfig#useQueryCoalescing()
+     */
+    default void queryCoalesced() {}
+
+    /**
+     * Called when a query was answered from the result cache.
+     * @see com.edgedb.driver.EdgeDBClient#withCaching(java.time.Duration, String...)
+     */
+    default void resultCacheHit() {}
+
+    /**
+     * Called when a cached query wasn't in the result cache and was run.
+     * @see com.edgedb.driver.EdgeDBClient#withCaching(java.time.Duration, String...)
+     */
+    default void resultCacheMiss() {}
+
+    /**
+     * Called when a read-only query was sent to a read replica rather than to the primary.
+     * @see com.edgedb.driver.ReplicaSettings
+     */
+    default void queryRoutedToReplica() {}
+
+    /**
+     * Called when a read replica was taken out of rotation after failing its health checks or queries, until it
+     * passes a health check again.
+     * @see com.edgedb.driver.ReplicaSettings
+     */
+    default void replicaEjected() {}
+
+    /**
+     * Called when a batch loader ran the lookups it collected as one query.
+     * @param keys The number of distinct keys looked up by the query.
+     * @see com.edgedb.driver.BatchLoader
+     */
+    default void lookupsBatched(int keys) {}
+
+    /**
+     * Called when a query executed through a client pool completed, including the time it waited for a client.
+     * @param durationNanos The time the query took.
+     * @param succeeded {@code true} if the query succeeded; {@code false} if it failed.
+     */
+    default void queryCompleted(long durationNanos, boolean succeeded) {}
+}
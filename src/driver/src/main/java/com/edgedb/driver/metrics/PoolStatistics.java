@@ -0,0 +1,25 @@
+package com.edgedb.driver.metrics;
+
+/**
+ * Represents the gauges of a client pool. The values are read when called, so they can be polled by a metrics
+ * backend at its own pace.
+ */
+public interface PoolStatistics {
+    /**
+     * Gets the number of clients currently running a query or transaction.
+     * @return The number of clients in use.
+     */
+    int getInUseClients();
+
+    /**
+     * Gets the number of clients waiting in the pool to be reused.
+     * @return The number of idle clients.
+     */
+    int getIdleClients();
+
+    /**
+     * Gets the number of queries waiting for the pool to have room for another client.
+     * @return The number of pending acquires.
+     */
+    int getPendingAcquires();
+}
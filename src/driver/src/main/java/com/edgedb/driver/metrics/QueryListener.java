@@ -0,0 +1,71 @@
+package com.edgedb.driver.metrics;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents a listener notified at each phase of a query's execution. Every method has an empty default; phases that
+ * don't apply to a query, like parsing for a cached query or decoding for {@code execute}, aren't reported.
+ * <br/><br/>
+ * Methods are called inline on the driver's I/O and completion threads, so implementations must be thread-safe and
+ * shouldn't block. Exceptions thrown by a listener are logged and otherwise ignored.
+ * @see SlowQueryLogger
+ * @see com.edgedb.driver.EdgeDBClientConfig.Builder#withQueryListener(QueryListener)
+ */
+public interface QueryListener {
+    /**
+     * A {@linkplain QueryListener} that ignores everything, the default of a client pool. The driver doesn't trace
+     * queries when this instance is configured.
+     */
+    QueryListener NOOP = new QueryListener() {};
+
+    /**
+     * Called when the query got a client from the pool.
+     * @param trace The trace of the query.
+     */
+    default void onPoolAcquired(@NotNull QueryTrace trace) {}
+
+    /**
+     * Called before the query is sent to the server for parsing, or right before {@linkplain #onParseEnd} when its
+     * codecs are cached.
+     * @param trace The trace of the query.
+     */
+    default void onParseStart(@NotNull QueryTrace trace) {}
+
+    /**
+     * Called when the query's codecs are known, either from the parse round trip or from the cache.
+     * @param trace The trace of the query, {@linkplain QueryTrace#isParseCacheHit()} tells which.
+     */
+    default void onParseEnd(@NotNull QueryTrace trace) {}
+
+    /**
+     * Called when the execute message was sent.
+     * @param trace The trace of the query.
+     */
+    default void onExecuteSent(@NotNull QueryTrace trace) {}
+
+    /**
+     * Called when the first {@code Data} message of the result was received.
+     * @param trace The trace of the query.
+     */
+    default void onFirstData(@NotNull QueryTrace trace) {}
+
+    /**
+     * Called when the server finished the execution and is ready for the next command.
+     * @param trace The trace of the query.
+     */
+    default void onReadyForCommand(@NotNull QueryTrace trace) {}
+
+    /**
+     * Called when the result was decoded.
+     * @param trace The trace of the query.
+     */
+    default void onDecodeEnd(@NotNull QueryTrace trace) {}
+
+    /**
+     * Called once when the query completed.
+     * @param trace The trace of the query.
+     * @param error The error the query failed with, or {@code null} if it succeeded.
+     */
+    default void onCompleted(@NotNull QueryTrace trace, @Nullable Throwable error) {}
+}
@@ -0,0 +1,82 @@
+package com.edgedb.driver.metrics;
+
+import com.edgedb.driver.Capabilities;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.EnumSet;
+
+/**
+ * Represents the timings and sizes of a single query execution, handed to a {@linkplain QueryListener} at each phase.
+ * Durations of phases that haven't happened yet, or didn't happen at all, are {@linkplain Duration#ZERO}.
+ * <br/><br/>
+ * A trace is only valid within the listener call it's passed to; it keeps changing as the query progresses.
+ */
+public interface QueryTrace {
+    /**
+     * Gets the query text.
+     * @return The query text.
+     */
+    @NotNull String getQuery();
+
+    /**
+     * Gets the capabilities the query was executed with.
+     * @return The capabilities of the query.
+     */
+    @NotNull EnumSet<Capabilities> getCapabilities();
+
+    /**
+     * Gets whether the query skipped the parse round trip because its codecs were cached.
+     * @return {@code true} if the query wasn't parsed by the server; otherwise {@code false}.
+     */
+    boolean isParseCacheHit();
+
+    /**
+     * Gets the number of {@code Data} messages received for the query.
+     * @return The number of rows received.
+     */
+    long getRowCount();
+
+    /**
+     * Gets the size of the {@code Data} payloads received for the query.
+     * @return The number of result bytes received.
+     */
+    long getByteCount();
+
+    /**
+     * Gets the time the query waited for a pooled client, zero when it ran on a client directly, like within a
+     * transaction.
+     * @return The pool wait time.
+     */
+    @NotNull Duration getPoolWait();
+
+    /**
+     * Gets the time the parse round trip took.
+     * @return The parse time, zero on a cache hit.
+     */
+    @NotNull Duration getParseDuration();
+
+    /**
+     * Gets the time between sending the execute message and the first {@code Data} message.
+     * @return The time to the first row.
+     */
+    @NotNull Duration getTimeToFirstData();
+
+    /**
+     * Gets the time between sending the execute message and the server being ready for the next command.
+     * @return The execution time, including the transfer of the result.
+     */
+    @NotNull Duration getExecuteDuration();
+
+    /**
+     * Gets the time spent decoding the result into objects.
+     * @return The decode time.
+     */
+    @NotNull Duration getDecodeDuration();
+
+    /**
+     * Gets the time since the query was requested.
+     * @return The elapsed time so far, or the total time once the query completed.
+     */
+    @NotNull Duration getTotalDuration();
+}
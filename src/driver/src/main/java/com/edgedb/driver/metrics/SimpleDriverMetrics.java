@@ -0,0 +1,424 @@
+package com.edgedb.driver.metrics;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@linkplain DriverMetrics} that accumulates events into in-memory counters and timers. The values only grow, which
+ * suits polling metrics backends: expose the getters as function counters and gauges, and compute rates from the
+ * difference between two reads.
+ */
+public class SimpleDriverMetrics implements DriverMetrics {
+    private volatile @Nullable PoolStatistics pool;
+    private volatile @Nullable BufferStatistics buffers;
+
+    private final Timer poolWait = new Timer();
+    private final Timer parses = new Timer();
+    private final Timer decodes = new Timer();
+    private final Timer queries = new Timer();
+    private final LongAdder connectionsOpened = new LongAdder();
+    private final LongAdder connectionsClosed = new LongAdder();
+    private final LongAdder reconnects = new LongAdder();
+    private final LongAdder parseCacheHits = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder rowsDecoded = new LongAdder();
+    private final LongAdder failedQueries = new LongAdder();
+    private final LongAdder shedQueries = new LongAdder();
+    private final LongAdder rejectedQueries = new LongAdder();
+    private final LongAdder hedgedQueries = new LongAdder();
+    private final LongAdder coalescedQueries = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder lookupBatches = new LongAdder();
+    private final LongAdder batchedLookups = new LongAdder();
+    private final LongAdder replicaQueries = new LongAdder();
+    private final LongAdder replicaEjections = new LongAdder();
+
+    /**
+     * Represents the count, total and maximum of a timed event.
+     */
+    public static final class Timer {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        /**
+         * Gets the number of recorded events.
+         * @return The number of recorded events.
+         */
+        public long getCount() {
+            return count.sum();
+        }
+
+        /**
+         * Gets the sum of the durations of all recorded events.
+         * @return The total duration.
+         */
+        public @NotNull Duration getTotal() {
+            return Duration.ofNanos(totalNanos.sum());
+        }
+
+        /**
+         * Gets the longest recorded duration.
+         * @return The longest duration, or {@linkplain Duration#ZERO} if nothing was recorded.
+         */
+        public @NotNull Duration getMax() {
+            return Duration.ofNanos(maxNanos.get());
+        }
+    }
+
+    @Override
+    public void bindPool(@NotNull PoolStatistics pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public void bindBuffers(@NotNull BufferStatistics buffers) {
+        this.buffers = buffers;
+    }
+
+    @Override
+    public void poolAcquired(long waitNanos) {
+        poolWait.record(waitNanos);
+    }
+
+    @Override
+    public void connectionOpened() {
+        connectionsOpened.increment();
+    }
+
+    @Override
+    public void connectionClosed() {
+        connectionsClosed.increment();
+    }
+
+    @Override
+    public void reconnected() {
+        reconnects.increment();
+    }
+
+    @Override
+    public void queryParsed(long durationNanos) {
+        parses.record(durationNanos);
+    }
+
+    @Override
+    public void parseCacheHit() {
+        parseCacheHits.increment();
+    }
+
+    @Override
+    public void bytesSent(long bytes) {
+        bytesSent.add(bytes);
+    }
+
+    @Override
+    public void bytesReceived(long bytes) {
+        bytesReceived.add(bytes);
+    }
+
+    @Override
+    public void rowsDecoded(long rows, long durationNanos) {
+        rowsDecoded.add(rows);
+        decodes.record(durationNanos);
+    }
+
+    @Override
+    public void queryShed() {
+        shedQueries.increment();
+    }
+
+    @Override
+    public void queryRejected() {
+        rejectedQueries.increment();
+    }
+
+    @Override
+    public void queryHedged() {
+        hedgedQueries.increment();
+    }
+
+    @Override
+    public void queryCoalesced() {
+        coalescedQueries.increment();
+    }
+
+    @Override
+    public void resultCacheHit() {
+        cacheHits.increment();
+    }
+
+    @Override
+    public void resultCacheMiss() {
+        cacheMisses.increment();
+    }
+
+    @Override
+    public void lookupsBatched(int keys) {
+        lookupBatches.increment();
+        batchedLookups.add(keys);
+    }
+
+    @Override
+    public void queryRoutedToReplica() {
+        replicaQueries.increment();
+    }
+
+    @Override
+    public void replicaEjected() {
+        replicaEjections.increment();
+    }
+
+    @Override
+    public void queryCompleted(long durationNanos, boolean succeeded) {
+        queries.record(durationNanos);
+
+        if(!succeeded) {
+            failedQueries.increment();
+        }
+    }
+
+    /**
+     * Gets the time queries waited for a pooled client.
+     * @return The pool acquire timer.
+     */
+    public @NotNull Timer getPoolWait() {
+        return poolWait;
+    }
+
+    /**
+     * Gets the number of clients currently running a query or transaction.
+     * @return The number of clients in use, or {@code 0} if no pool uses this metrics.
+     */
+    public int getInUseClients() {
+        var pool = this.pool;
+        return pool == null ? 0 : pool.getInUseClients();
+    }
+
+    /**
+     * Gets the number of clients waiting in the pool to be reused.
+     * @return The number of idle clients, or {@code 0} if no pool uses this metrics.
+     */
+    public int getIdleClients() {
+        var pool = this.pool;
+        return pool == null ? 0 : pool.getIdleClients();
+    }
+
+    /**
+     * Gets the number of queries waiting for the pool to have room for another client.
+     * @return The number of pending acquires, or {@code 0} if no pool uses this metrics.
+     */
+    public int getPendingAcquires() {
+        var pool = this.pool;
+        return pool == null ? 0 : pool.getPendingAcquires();
+    }
+
+    /**
+     * Gets the number of buffers retained for query results that weren't released yet.
+     * @return The number of outstanding buffers, or {@code 0} if buffer accounting isn't enabled.
+     */
+    public long getOutstandingBuffers() {
+        var buffers = this.buffers;
+        return buffers == null ? 0 : buffers.getOutstandingBuffers();
+    }
+
+    /**
+     * Gets the size of the buffers retained for query results that weren't released yet.
+     * @return The number of outstanding bytes, or {@code 0} if buffer accounting isn't enabled.
+     */
+    public long getOutstandingBytes() {
+        var buffers = this.buffers;
+        return buffers == null ? 0 : buffers.getOutstandingBytes();
+    }
+
+    /**
+     * Gets the number of buffers that were garbage collected without being released.
+     * @return The number of leaked buffers, or {@code 0} if buffer accounting isn't enabled.
+     */
+    public long getLeakedBuffers() {
+        var buffers = this.buffers;
+        return buffers == null ? 0 : buffers.getLeakedBuffers();
+    }
+
+    /**
+     * Gets the number of connections opened to EdgeDB.
+     * @return The number of opened connections.
+     */
+    public long getConnectionsOpened() {
+        return connectionsOpened.sum();
+    }
+
+    /**
+     * Gets the number of connections to EdgeDB that were closed.
+     * @return The number of closed connections.
+     */
+    public long getConnectionsClosed() {
+        return connectionsClosed.sum();
+    }
+
+    /**
+     * Gets the number of reconnects.
+     * @return The number of reconnects.
+     */
+    public long getReconnects() {
+        return reconnects.sum();
+    }
+
+    /**
+     * Gets the parse round trips of queries whose codecs weren't cached.
+     * @return The parse timer.
+     */
+    public @NotNull Timer getParses() {
+        return parses;
+    }
+
+    /**
+     * Gets the number of queries that skipped parsing because their codecs were cached.
+     * @return The number of parse cache hits.
+     */
+    public long getParseCacheHits() {
+        return parseCacheHits.sum();
+    }
+
+    /**
+     * Gets the number of bytes written to EdgeDB.
+     * @return The number of bytes sent.
+     */
+    public long getBytesSent() {
+        return bytesSent.sum();
+    }
+
+    /**
+     * Gets the number of bytes received from EdgeDB.
+     * @return The number of bytes received.
+     */
+    public long getBytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    /**
+     * Gets the number of decoded rows.
+     * @return The number of decoded rows.
+     */
+    public long getRowsDecoded() {
+        return rowsDecoded.sum();
+    }
+
+    /**
+     * Gets the time spent decoding results, one event per query result.
+     * @return The decode timer.
+     */
+    public @NotNull Timer getDecodes() {
+        return decodes;
+    }
+
+    /**
+     * Gets the duration of queries executed through the pool, including the time they waited for a client.
+     * @return The query timer.
+     */
+    public @NotNull Timer getQueries() {
+        return queries;
+    }
+
+    /**
+     * Gets the number of queries executed through the pool that failed.
+     * @return The number of failed queries.
+     */
+    public long getFailedQueries() {
+        return failedQueries.sum();
+    }
+
+    /**
+     * Gets the number of queries dropped because their timeout passed before they were sent to EdgeDB to be
+     * executed. Shed queries are also counted as failed.
+     * @return The number of shed queries.
+     */
+    public long getShedQueries() {
+        return shedQueries.sum();
+    }
+
+    /**
+     * Gets the number of queries rejected by the concurrency limit of the pool. Rejected queries aren't counted as
+     * queries.
+     * @return The number of rejected queries.
+     */
+    public long getRejectedQueries() {
+        return rejectedQueries.sum();
+    }
+
+    /**
+     * Gets the number of read-only queries that were hedged. A hedged query is counted once as a query.
+     * @return The number of hedged queries.
+     */
+    public long getHedgedQueries() {
+        return hedgedQueries.sum();
+    }
+
+    /**
+     * Gets the number of queries that joined an identical query in flight. Those queries aren't counted as queries,
+     * only the one they joined is.
+     * @return The number of coalesced queries.
+     */
+    public long getCoalescedQueries() {
+        return coalescedQueries.sum();
+    }
+
+    /**
+     * Gets the number of queries answered from the result cache. Those queries aren't counted as queries.
+     * @return The number of cache hits.
+     */
+    public long getResultCacheHits() {
+        return cacheHits.sum();
+    }
+
+    /**
+     * Gets the number of cached queries that weren't in the result cache.
+     * @return The number of cache misses.
+     */
+    public long getResultCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    /**
+     * Gets the number of queries run by batch loaders, each looking up a batch of keys.
+     * @return The number of batches.
+     */
+    public long getLookupBatches() {
+        return lookupBatches.sum();
+    }
+
+    /**
+     * Gets the number of distinct keys looked up by the batches of batch loaders.
+     * @return The number of batched keys.
+     */
+    public long getBatchedLookups() {
+        return batchedLookups.sum();
+    }
+
+    /**
+     * Gets the number of read-only queries sent to a read replica.
+     * @return The number of routed queries.
+     */
+    public long getReplicaQueries() {
+        return replicaQueries.sum();
+    }
+
+    /**
+     * Gets the number of times a read replica was taken out of rotation.
+     * @return The number of ejections.
+     */
+    public long getReplicaEjections() {
+        return replicaEjections.sum();
+    }
+}
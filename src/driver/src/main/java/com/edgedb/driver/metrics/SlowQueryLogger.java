@@ -0,0 +1,203 @@
+package com.edgedb.driver.metrics;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@linkplain QueryListener} that logs queries slower than a threshold, with the time spent in each phase, to the
+ * {@code com.edgedb.driver.metrics.SlowQueryLogger} logger at {@code WARN}.
+ * <br/><br/>
+ * Slow queries can be sampled, and the number of log entries per interval is limited so a slow database doesn't flood
+ * the logs; the entries that were dropped are counted in the next entry. Query arguments are never logged.
+ */
+public final class SlowQueryLogger implements QueryListener {
+    private static final Logger logger = LoggerFactory.getLogger(SlowQueryLogger.class);
+
+    private final long thresholdNanos;
+    private final double sampleRate;
+    private final int maxPerInterval;
+    private final long intervalNanos;
+    private final int maxQueryLength;
+    private final @NotNull Logger target;
+
+    private final Object rateLock = new Object();
+    private long intervalStart;
+    private int loggedInInterval;
+    private final AtomicLong suppressed = new AtomicLong();
+
+    private SlowQueryLogger(@NotNull Builder builder) {
+        this.thresholdNanos = builder.threshold.toNanos();
+        this.sampleRate = builder.sampleRate;
+        this.maxPerInterval = builder.maxPerInterval;
+        this.intervalNanos = builder.interval.toNanos();
+        this.maxQueryLength = builder.maxQueryLength;
+        this.target = builder.logger;
+        this.intervalStart = System.nanoTime();
+    }
+
+    /**
+     * Gets a builder used to construct a {@linkplain SlowQueryLogger}.
+     * @return A new builder instance.
+     */
+    public static @NotNull Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public void onCompleted(@NotNull QueryTrace trace, @Nullable Throwable error) {
+        var total = trace.getTotalDuration();
+
+        if(total.toNanos() < thresholdNanos || !target.isWarnEnabled()) {
+            return;
+        }
+
+        if(sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+
+        if(!tryAcquire()) {
+            suppressed.incrementAndGet();
+            return;
+        }
+
+        var query = trace.getQuery();
+
+        if(query.length() > maxQueryLength) {
+            query = query.substring(0, maxQueryLength) + "...";
+        }
+
+        target.warn(
+                "Slow query ({} ms{}): {} | pool wait {} ms, parse {} ms{}, first data {} ms, execute {} ms, " +
+                        "decode {} ms, {} rows, {} bytes{}",
+                millis(total),
+                error == null ? "" : ", failed: " + error,
+                query,
+                millis(trace.getPoolWait()),
+                millis(trace.getParseDuration()),
+                trace.isParseCacheHit() ? " (cached)" : "",
+                millis(trace.getTimeToFirstData()),
+                millis(trace.getExecuteDuration()),
+                millis(trace.getDecodeDuration()),
+                trace.getRowCount(),
+                trace.getByteCount(),
+                suppressedSuffix()
+        );
+    }
+
+    private boolean tryAcquire() {
+        synchronized (rateLock) {
+            var now = System.nanoTime();
+
+            if(now - intervalStart >= intervalNanos) {
+                intervalStart = now;
+                loggedInInterval = 0;
+            }
+
+            if(loggedInInterval >= maxPerInterval) {
+                return false;
+            }
+
+            loggedInInterval++;
+            return true;
+        }
+    }
+
+    private @NotNull String suppressedSuffix() {
+        var count = suppressed.getAndSet(0);
+        return count == 0 ? "" : String.format(" (%d slow queries not logged due to the rate limit)", count);
+    }
+
+    private static @NotNull String millis(@NotNull Duration duration) {
+        return String.format("%.2f", duration.toNanos() / 1e6);
+    }
+
+    /**
+     * A builder class used to construct {@linkplain SlowQueryLogger}s.
+     */
+    public static final class Builder {
+        private Duration threshold = Duration.ofSeconds(1);
+        private double sampleRate = 1;
+        private int maxPerInterval = 10;
+        private Duration interval = Duration.ofMinutes(1);
+        private int maxQueryLength = 1000;
+        private Logger logger = SlowQueryLogger.logger;
+
+        private Builder() {}
+
+        /**
+         * Sets the duration above which a query is logged, pool wait included.
+         * @param threshold The value to set.
+         * @return The current builder.
+         */
+        public @NotNull Builder withThreshold(@NotNull Duration threshold) {
+            this.threshold = threshold;
+            return this;
+        }
+
+        /**
+         * Sets the fraction of slow queries that are logged.
+         * @param sampleRate The value to set, between {@code 0} and {@code 1}.
+         * @return The current builder.
+         * @exception IllegalArgumentException The sample rate isn't between {@code 0} and {@code 1}.
+         */
+        public @NotNull Builder withSampleRate(double sampleRate) {
+            if(sampleRate < 0 || sampleRate > 1) {
+                throw new IllegalArgumentException("Sample rate must be between 0 and 1");
+            }
+
+            this.sampleRate = sampleRate;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of slow queries logged per interval.
+         * @param maxPerInterval The value to set.
+         * @param interval The interval the limit applies to.
+         * @return The current builder.
+         * @exception IllegalArgumentException The limit is negative or the interval isn't positive.
+         */
+        public @NotNull Builder withRateLimit(int maxPerInterval, @NotNull Duration interval) {
+            if(maxPerInterval < 0 || interval.isNegative() || interval.isZero()) {
+                throw new IllegalArgumentException("Rate limit must be positive");
+            }
+
+            this.maxPerInterval = maxPerInterval;
+            this.interval = interval;
+            return this;
+        }
+
+        /**
+         * Sets the length at which logged query texts are truncated.
+         * @param maxQueryLength The value to set.
+         * @return The current builder.
+         */
+        public @NotNull Builder withMaxQueryLength(int maxQueryLength) {
+            this.maxQueryLength = maxQueryLength;
+            return this;
+        }
+
+        /**
+         * Sets the logger slow queries are logged to.
+         * @param logger The value to set.
+         * @return The current builder.
+         */
+        public @NotNull Builder withLogger(@NotNull Logger logger) {
+            this.logger = logger;
+            return this;
+        }
+
+        /**
+         * Constructs a {@linkplain SlowQueryLogger} from the current builder.
+         * @return A {@linkplain SlowQueryLogger} that represents the current builder.
+         */
+        public @NotNull SlowQueryLogger build() {
+            return new SlowQueryLogger(this);
+        }
+    }
+}
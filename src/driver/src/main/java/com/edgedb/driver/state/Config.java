@@ -6,6 +6,7 @@ import org.jetbrains.annotations.Nullable;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Represents a session-level configuration.
@@ -136,6 +137,32 @@ public final class Config {
             }};
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) {
+            return true;
+        }
+
+        if(!(o instanceof Config)) {
+            return false;
+        }
+
+        var other = (Config) o;
+
+        return Objects.equals(idleTransactionTimeout, other.idleTransactionTimeout)
+                && Objects.equals(queryExecutionTimeout, other.queryExecutionTimeout)
+                && Objects.equals(allowDMLInFunctions, other.allowDMLInFunctions)
+                && Objects.equals(allowBareDDL, other.allowBareDDL)
+                && Objects.equals(applyAccessPolicies, other.applyAccessPolicies);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(
+                idleTransactionTimeout, queryExecutionTimeout, allowDMLInFunctions, allowBareDDL, applyAccessPolicies
+        );
+    }
+
     /**
      * Represents a builder used to construct a {@linkplain Config}.
      */
@@ -4,6 +4,7 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -189,6 +190,29 @@ public final class Session {
         );
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if(this == o) {
+            return true;
+        }
+
+        if(!(o instanceof Session)) {
+            return false;
+        }
+
+        var other = (Session) o;
+
+        return module.equals(other.module)
+                && aliases.equals(other.aliases)
+                && config.equals(other.config)
+                && globals.equals(other.globals);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(module, aliases, config, globals);
+    }
+
     /**
      * Represents a builder used to construct {@linkplain Session}s.
      */
@@ -1,78 +1,156 @@
 package com.edgedb.driver.util;
 
 import com.edgedb.driver.clients.BaseEdgeDBClient;
+import com.edgedb.driver.internal.Deadline;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Objects;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
+/**
+ * Limits the number of clients of a pool in use at once. A client is in use from the time it's taken from the pool,
+ * by {@linkplain #acquire(Deadline)}, until it's returned, by closing its {@linkplain PoolContract}.
+ * <br/><br/>
+ * The size can change at any time: growing it hands the new room to the queued waiters right away, shrinking it
+ * makes acquires wait until enough clients in use are returned.
+ */
 public final class ClientPoolHolder {
     private static final Logger logger = LoggerFactory.getLogger(ClientPoolHolder.class);
 
     private long size;
-    private final @NotNull ConcurrentLinkedQueue<CompletableFuture<Void>> queue;
-
-    private final @NotNull AtomicLong count;
+    private long inUse;
+    private final @NotNull ArrayDeque<CompletableFuture<Void>> queue;
 
     public ClientPoolHolder(int initialSize) {
         this.size = initialSize;
-        this.queue = new ConcurrentLinkedQueue<>();
-        this.count = new AtomicLong(size);
+        this.queue = new ArrayDeque<>();
+    }
+
+    public synchronized long size() {
+        return this.size;
+    }
+
+    public synchronized long remaining() {
+        return Math.max(0, this.size - this.inUse);
     }
 
-    public long remaining() {
-        return this.size - count.get();
+    public synchronized int pending() {
+        return this.queue.size();
     }
 
     public void resize(long newValue) {
-        if(newValue == this.size) {
-            return;
+        if(newValue < 1) {
+            throw new IllegalArgumentException("Pool size must be at least 1");
         }
 
-        count.getAndUpdate(v -> v + (newValue - size));
-        this.size = newValue;
-    }
+        List<CompletableFuture<Void>> woken;
 
-    public CompletionStage<PoolContract> acquireContract() {
-        var c = count.decrementAndGet();
+        synchronized (this) {
+            if(newValue == this.size) {
+                return;
+            }
 
-        if(c < 0) {
-            count.compareAndSet(-1, 0);
+            logger.debug("Resizing pool from {} to {}, {} in use", this.size, newValue, this.inUse);
 
-            var promise = new CompletableFuture<Void>();
+            this.size = newValue;
+            woken = takeWaiters();
+        }
 
-            queue.add(promise);
+        wake(woken);
+    }
+
+    /**
+     * Takes a place in the pool, waiting for a client in use to be returned if the pool is full.
+     * @param deadline The deadline of the query acquiring the place; a query still waiting when it passes leaves
+     *                 the queue and fails.
+     * @return A {@linkplain CompletionStage} completed once the place is taken.
+     */
+    public CompletionStage<Void> acquire(@Nullable Deadline deadline) {
+        var promise = new CompletableFuture<Void>();
+
+        synchronized (this) {
+            if(this.inUse < this.size && this.queue.isEmpty()) {
+                this.inUse++;
+                return CompletableFuture.completedFuture(null);
+            }
 
-            return promise.thenApply(v -> lendContract());
+            this.queue.add(promise);
         }
-        else {
-            return CompletableFuture.completedFuture(lendContract());
+
+        if(deadline != null) {
+            deadline.bound(promise, "waiting for a client from the pool", false)
+                    .whenComplete((v, e) -> {
+                        if(e != null) {
+                            synchronized (this) {
+                                this.queue.remove(promise);
+                            }
+                        }
+                    });
         }
+
+        return promise;
     }
 
-    private @NotNull PoolContract lendContract() {
+    /**
+     * Gives back a place taken by {@linkplain #acquire(Deadline)}, handing it to the next waiter if there's room.
+     */
+    public void release() {
+        List<CompletableFuture<Void>> woken;
+
+        synchronized (this) {
+            this.inUse--;
+            woken = takeWaiters();
+        }
+
+        wake(woken);
+    }
+
+    /**
+     * Creates the contract of a new client, which gives back the client's place in the pool each time it's closed.
+     * @return The contract.
+     */
+    public @NotNull PoolContract newContract() {
         return new PoolContract(this::completeContract);
     }
 
     private void completeContract(PoolContract contract) {
         logger.debug("Completing contract {}...", contract);
+        release();
+    }
+
+    /**
+     * Takes the waiters that fit in the pool, counting them as in use. Must be called while holding the lock; the
+     * waiters are completed by {@linkplain #wake(List)} once it's released, as they continue inline.
+     */
+    private @NotNull List<CompletableFuture<Void>> takeWaiters() {
+        List<CompletableFuture<Void>> woken = null;
+
+        while(this.inUse < this.size && !this.queue.isEmpty()) {
+            if(woken == null) {
+                woken = new ArrayList<>();
+            }
 
-        if(queue.isEmpty()) {
-            logger.debug("Empty contract queue, incrementing count");
-            count.incrementAndGet();
-            return;
+            woken.add(this.queue.poll());
+            this.inUse++;
         }
 
+        return woken == null ? List.of() : woken;
+    }
 
-        logger.debug("Polling queue and completing...");
-        Objects.requireNonNull(queue.poll()).complete(null);
+    private void wake(@NotNull List<CompletableFuture<Void>> woken) {
+        for(var waiter : woken) {
+            // a waiter whose deadline passed gives its place back to the next one.
+            if(!waiter.complete(null)) {
+                release();
+            }
+        }
     }
 
     public static class PoolContract implements AutoCloseable {
@@ -91,11 +169,12 @@ public final class ClientPoolHolder {
 
         @Override
         public void close() {
-            this.completer.accept(this);
-
+            // the client is back in the pool before its place is, so the next waiter can reuse it.
             if(client != null && onComplete != null) {
                 onComplete.accept(client);
             }
+
+            this.completer.accept(this);
         }
 
         @Override
@@ -22,34 +22,54 @@ public class ComposableUtil {
             @NotNull V with,
             @NotNull Function<V, U> composed
     ) {
-        return composed.apply(with)
-                .thenApply((v) -> {
-                    try {
-                        with.close();
-                    } catch (Exception x) {
-                        throw new CompletionException(x);
-                    }
-
-                    return v;
-                }
-        );
+        CompletionStage<T> result;
+
+        try {
+            result = composed.apply(with);
+        } catch (Throwable x) {
+            closeQuietly(with, x);
+            throw x;
+        }
+
+        // closed whether the composed stage succeeds or not, a failure of the stage takes precedence.
+        return result.handle((v, e) -> {
+            if(e != null) {
+                closeQuietly(with, e);
+                throw e instanceof CompletionException ? (CompletionException)e : new CompletionException(e);
+            }
+
+            try {
+                with.close();
+            } catch (Exception x) {
+                throw new CompletionException(x);
+            }
+
+            return v;
+        });
+    }
+
+    private static void closeQuietly(@NotNull AutoCloseable with, @NotNull Throwable cause) {
+        try {
+            with.close();
+        } catch (Exception x) {
+            cause.addSuppressed(x);
+        }
     }
 
     public static <T, U extends CompletionStage<T>, V extends ReferenceCounted> CompletionStage<T> composeWith(
             @NotNull V with,
             @NotNull Function<V, U> composed
     ) {
-        return composed.apply(with)
-                .thenApply((v) -> {
-                            try {
-                                with.release();
-                            } catch (Exception x) {
-                                throw new CompletionException(x);
-                            }
-
-                            return v;
-                        }
-                );
+        CompletionStage<T> result;
+
+        try {
+            result = composed.apply(with);
+        } catch (Throwable x) {
+            with.release();
+            throw x;
+        }
+
+        return result.whenComplete((v, e) -> with.release());
     }
 
     public static <T, U extends CompletionStage<T>, V extends AutoCloseable, W extends CompletionStage<V>>
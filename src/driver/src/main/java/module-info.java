@@ -5,6 +5,7 @@ module com.edgedb.driver {
     exports com.edgedb.driver.namingstrategies;
     exports com.edgedb.driver.annotations;
     exports com.edgedb.driver.state;
+    exports com.edgedb.driver.metrics;
 
     requires org.jetbrains.annotations;
     requires com.fasterxml.jackson.core;
@@ -19,6 +20,7 @@ module com.edgedb.driver {
     requires org.jooq.joou;
     requires org.reflections;
     requires java.net.http;
+    requires jdk.jfr;
 
     opens com.edgedb.driver;
 }
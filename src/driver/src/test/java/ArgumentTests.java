@@ -0,0 +1,104 @@
+import com.edgedb.driver.Capabilities;
+import com.edgedb.driver.annotations.EdgeDBIgnore;
+import com.edgedb.driver.annotations.EdgeDBName;
+import com.edgedb.driver.binary.builders.ObjectArguments;
+import com.edgedb.driver.binary.builders.types.TypeBuilder;
+import com.edgedb.driver.exceptions.EdgeDBException;
+import com.edgedb.driver.internal.QueryCoalescer;
+import com.edgedb.driver.namingstrategies.NamingStrategy;
+import com.edgedb.driver.state.Session;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ArgumentTests {
+    public static class PersonArgs {
+        private final String firstName;
+        @EdgeDBName("years")
+        private final int age;
+        @EdgeDBIgnore
+        private final String ignored = "ignored";
+
+        public PersonArgs(String firstName, int age) {
+            this.firstName = firstName;
+            this.age = age;
+        }
+
+        public String getFirstName() {
+            return firstName;
+        }
+    }
+
+    @Test
+    public void testBindArgumentsToShape() throws EdgeDBException {
+        var accessors = TypeBuilder.getSerializerInfo(PersonArgs.class)
+                .bind(NamingStrategy.snakeCase(), new String[] { "years", "unknown", "first_name" });
+
+        var args = new PersonArgs("John", 42);
+
+        assertThat(accessors.get(0, args)).isEqualTo(42);
+        assertThat(accessors.get(1, args)).isNull();
+        assertThat(accessors.get(2, args)).isEqualTo("John");
+    }
+
+    public static class CountedArgs {
+        static final AtomicInteger reads = new AtomicInteger();
+
+        private final String name;
+
+        public CountedArgs(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            reads.incrementAndGet();
+            return name;
+        }
+    }
+
+    @Test
+    public void testObjectArgumentsMapView() {
+        var map = Map.<String, Object>of("a", 1);
+
+        assertThat(ObjectArguments.of(map)).isSameAs(map);
+
+        var args = ObjectArguments.of(new PersonArgs("John", 42));
+
+        // the names depend on the naming strategy of the client, the codecs read the source instead
+        assertThat(args).hasSize(2);
+        assertThatThrownBy(args::entrySet).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    public void testObjectArgumentsSizeDoesNotReadProperties() {
+        CountedArgs.reads.set(0);
+
+        var args = ObjectArguments.of(new CountedArgs("John"));
+
+        assertThat(args).isNotNull();
+        assertThat(args.isEmpty()).isFalse();
+        assertThat(args.size()).isEqualTo(1);
+        assertThat(CountedArgs.reads).hasValue(0);
+    }
+
+    @Test
+    public void testObjectArgumentsAreCoalescedOnTheirSource() {
+        var person = new PersonArgs("John", 42);
+        var capabilities = EnumSet.of(Capabilities.READ_ONLY);
+        var query = "select <str>$first_name";
+
+        var key = new QueryCoalescer.Key(
+                "single", String.class, query, ObjectArguments.of(person), Session.DEFAULT, capabilities
+        );
+        var same = new QueryCoalescer.Key(
+                "single", String.class, query, ObjectArguments.of(person), Session.DEFAULT, capabilities
+        );
+
+        assertThat(same).isEqualTo(key).hasSameHashCodeAs(key);
+    }
+}
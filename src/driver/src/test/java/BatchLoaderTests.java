@@ -0,0 +1,142 @@
+import com.edgedb.driver.BatchLoaderSettings;
+import com.edgedb.driver.EdgeDBClient;
+import com.edgedb.driver.EdgeDBClientConfig;
+import com.edgedb.driver.ErrorCode;
+import com.edgedb.driver.binary.protocol.common.Cardinality;
+import com.edgedb.driver.exceptions.EdgeDBErrorException;
+import com.edgedb.driver.metrics.SimpleDriverMetrics;
+import com.edgedb.driver.mock.MockDescriptors;
+import com.edgedb.driver.mock.MockEdgeDBServer;
+import com.edgedb.driver.mock.MockQuery;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BatchLoaderTests {
+    private static final UUID ALICE = UUID.fromString("0b6f6c3e-1d55-4a8e-9c43-6a0d2f1e7a01");
+    private static final UUID BOB = UUID.fromString("0b6f6c3e-1d55-4a8e-9c43-6a0d2f1e7a02");
+    private static final UUID CAROL = UUID.fromString("0b6f6c3e-1d55-4a8e-9c43-6a0d2f1e7a03");
+
+    private static byte[] encode(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+
+    /**
+     * A lookup by ids returning the ids found, the mock server returns Alice and Carol whatever the ids.
+     */
+    private static MockQuery lookup(String query) {
+        var shapeId = UUID.fromString("7c0e2d1a-5b3f-4e6a-8d2c-1f9b0a4e6c01");
+        var arrayId = UUID.fromString("7c0e2d1a-5b3f-4e6a-8d2c-1f9b0a4e6c02");
+
+        return MockQuery.builder(query)
+                .withCardinality(Cardinality.MANY)
+                .withInput(shapeId, MockDescriptors.arrayArgument(
+                        shapeId, arrayId, MockDescriptors.STD_UUID, "std::uuid", "ids"
+                ))
+                .withOutput(MockDescriptors.STD_UUID, MockDescriptors.scalar(MockDescriptors.STD_UUID, "std::uuid"))
+                .withData(encode(CAROL))
+                .withData(encode(ALICE))
+                .build();
+    }
+
+    @Test
+    public void testLoadsWithinTheDelayRunAsOneQuery() throws Exception {
+        var metrics = new SimpleDriverMetrics();
+        var text = "select array_unpack(<array<uuid>>$ids)";
+
+        try(
+                var server = MockEdgeDBServer.builder()
+                        .withQuery(lookup(text))
+                        .build().start();
+                var client = new EdgeDBClient(server.getConnection(), EdgeDBClientConfig.builder().withMetrics(metrics).build())
+        ) {
+            var loader = client.batchLoader(
+                    UUID.class, UUID.class, text, "ids", Function.identity(),
+                    BatchLoaderSettings.builder().withDelay(Duration.ofMillis(50)).build()
+            );
+
+            var alice = loader.load(ALICE);
+            var bob = loader.load(BOB);
+            var carol = loader.loadMany(List.of(CAROL, ALICE));
+
+            assertThat(alice.toCompletableFuture().get()).isEqualTo(ALICE);
+            assertThat(bob.toCompletableFuture().get()).isNull();
+            assertThat(carol.toCompletableFuture().get()).containsExactly(CAROL, ALICE);
+
+            assertThat(server.getExecuteCount()).isEqualTo(1);
+            assertThat(metrics.getLookupBatches()).isEqualTo(1);
+            assertThat(metrics.getBatchedLookups()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    public void testFullBatchesRunWithoutWaiting() throws Exception {
+        var metrics = new SimpleDriverMetrics();
+        var text = "select array_unpack(<array<uuid>>$ids)";
+
+        try(
+                var server = MockEdgeDBServer.builder()
+                        .withQuery(lookup(text))
+                        .build().start();
+                var client = new EdgeDBClient(server.getConnection(), EdgeDBClientConfig.builder().withMetrics(metrics).build())
+        ) {
+            var loader = client.batchLoader(
+                    UUID.class, UUID.class, text, "ids", Function.identity(),
+                    BatchLoaderSettings.builder().withDelay(Duration.ofMinutes(1)).withMaxBatchSize(2).build()
+            );
+
+            var alice = loader.load(ALICE);
+            var bob = loader.load(BOB);
+
+            assertThat(alice.toCompletableFuture().get(5, TimeUnit.SECONDS)).isEqualTo(ALICE);
+            assertThat(bob.toCompletableFuture().get(5, TimeUnit.SECONDS)).isNull();
+
+            // a batch that isn't full runs when it's dispatched
+            var carol = loader.load(CAROL);
+            loader.dispatch();
+
+            assertThat(carol.toCompletableFuture().get(5, TimeUnit.SECONDS)).isEqualTo(CAROL);
+            assertThat(server.getExecuteCount()).isEqualTo(2);
+            assertThat(metrics.getBatchedLookups()).isEqualTo(3);
+        }
+
+        assertThatThrownBy(() -> BatchLoaderSettings.builder().withMaxBatchSize(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testFailedBatchFailsEveryLoad() throws Exception {
+        var text = "select array_unpack(<array<uuid>>$ids)";
+
+        try(
+                var server = MockEdgeDBServer.builder()
+                        .withQuery(MockQuery.builder(text).withError(ErrorCode.QUERY_ERROR, "no such property").build())
+                        .build().start();
+                var client = new EdgeDBClient(server.getConnection(), EdgeDBClientConfig.DEFAULT)
+        ) {
+            var loader = client.batchLoader(UUID.class, UUID.class, text, "ids", Function.identity());
+
+            var alice = loader.load(ALICE);
+            var bob = loader.load(BOB);
+
+            for (var lookup : List.of(alice, bob)) {
+                assertThatThrownBy(() -> lookup.toCompletableFuture().get())
+                        .isInstanceOf(ExecutionException.class)
+                        .hasRootCauseInstanceOf(EdgeDBErrorException.class)
+                        .hasStackTraceContaining("no such property");
+            }
+        }
+    }
+}
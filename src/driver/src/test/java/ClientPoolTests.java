@@ -0,0 +1,178 @@
+import com.edgedb.driver.EdgeDBClient;
+import com.edgedb.driver.EdgeDBClientConfig;
+import com.edgedb.driver.ErrorCode;
+import com.edgedb.driver.metrics.SimpleDriverMetrics;
+import com.edgedb.driver.mock.MockEdgeDBServer;
+import com.edgedb.driver.mock.MockQuery;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ClientPoolTests {
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        var end = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        while(!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).isLessThan(end);
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    public void testSuggestedConcurrencyResizesPool() throws Exception {
+        var query = "select Person.name";
+
+        try(
+                var server = MockEdgeDBServer.builder()
+                        .withSuggestedPoolConcurrency(3)
+                        .withQuery(MockQuery.strings(query, "Alice", 1).build())
+                        .build().start();
+                var client = new EdgeDBClient(server.getConnection(), EdgeDBClientConfig.DEFAULT)
+        ) {
+            assertThat(client.getPoolSize()).isEqualTo(EdgeDBClientConfig.DEFAULT.getPoolSize());
+
+            client.query(String.class, query).toCompletableFuture().get();
+
+            assertThat(client.getPoolSize()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    public void testClosingViewLeavesPoolOpen() throws Exception {
+        var query = "select Person.name";
+
+        try(
+                var server = MockEdgeDBServer.builder().withQuery(MockQuery.strings(query, "Alice", 1).build()).build().start();
+                var client = new EdgeDBClient(server.getConnection(), EdgeDBClientConfig.DEFAULT)
+        ) {
+            try(var view = client.withTimeout(Duration.ofSeconds(5))) {
+                assertThat(view.query(String.class, query).toCompletableFuture().get()).hasSize(1);
+            }
+
+            // the idle client the view returned to the shared pool is still there
+            assertThat(client.getClientCount()).isEqualTo(1);
+            assertThat(client.query(String.class, query).toCompletableFuture().get()).hasSize(1);
+            assertThat(server.getTotalConnections()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void testGrowingPoolWakesWaiters() throws Exception {
+        var metrics = new SimpleDriverMetrics();
+        var slow = "select Person.name";
+        var fast = "select Person.email";
+
+        try(
+                var server = MockEdgeDBServer.builder()
+                        .withQuery(MockQuery.strings(slow, "Alice", 1).withLatency(Duration.ofMillis(500)).build())
+                        .withQuery(MockQuery.strings(fast, "Alice", 1).build())
+                        .build().start();
+                var client = new EdgeDBClient(server.getConnection(), EdgeDBClientConfig.builder().withMetrics(metrics).build())
+        ) {
+            client.setPoolSize(1);
+
+            var pending = client.query(String.class, slow).toCompletableFuture();
+            awaitCondition(() -> server.getParseCount() == 1);
+
+            var waiting = client.query(String.class, fast).toCompletableFuture();
+            awaitCondition(() -> metrics.getPendingAcquires() == 1);
+
+            client.setPoolSize(2);
+
+            assertThat(waiting.get(400, TimeUnit.MILLISECONDS)).containsExactly("Alice");
+            assertThat(pending).isNotDone();
+            assertThat(pending.get()).containsExactly("Alice");
+
+            // an explicit size isn't overridden by the suggestion of the server
+            assertThat(client.getPoolSize()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    public void testShrinkingPoolRetiresClients() throws Exception {
+        var query = "select Person.name";
+
+        try(
+                var server = MockEdgeDBServer.builder()
+                        .withQuery(MockQuery.strings(query, "Alice", 1).withLatency(Duration.ofMillis(200)).build())
+                        .build().start();
+                var client = new EdgeDBClient(server.getConnection(), EdgeDBClientConfig.DEFAULT)
+        ) {
+            client.setPoolSize(4);
+
+            var queries = new ArrayList<CompletableFuture<List<String>>>();
+
+            for(int i = 0; i != 4; i++) {
+                queries.add(client.query(String.class, query).toCompletableFuture());
+            }
+
+            awaitCondition(() -> server.getActiveConnections() == 4);
+
+            client.setPoolSize(1);
+
+            for(var q : queries) {
+                assertThat(q.get()).containsExactly("Alice");
+            }
+
+            assertThat(client.getClientCount()).isEqualTo(1);
+            awaitCondition(() -> server.getActiveConnections() == 1);
+        }
+    }
+
+    @Test
+    public void testFailedQueriesReturnClients() throws Exception {
+        var metrics = new SimpleDriverMetrics();
+        var failing = "select Person.email";
+        var query = "select Person.name";
+
+        try(
+                var server = MockEdgeDBServer.builder()
+                        .withQuery(MockQuery.builder(failing).withError(ErrorCode.QUERY_ERROR, "boom").build())
+                        .withQuery(MockQuery.strings(query, "Alice", 1).build())
+                        .build().start();
+                var client = new EdgeDBClient(server.getConnection(), EdgeDBClientConfig.builder().withMetrics(metrics).build())
+        ) {
+            for(int i = 0; i != 3; i++) {
+                assertThatThrownBy(() -> client.query(String.class, failing).toCompletableFuture().get())
+                        .isInstanceOf(ExecutionException.class);
+            }
+
+            assertThat(client.getClientCount()).isEqualTo(1);
+            assertThat(metrics.getInUseClients()).isZero();
+
+            assertThat(client.query(String.class, query).toCompletableFuture().get()).containsExactly("Alice");
+            assertThat(server.getTotalConnections()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void testClientMaxAgeDisconnectsIdleClients() throws Exception {
+        var query = "select Person.name";
+
+        try(
+                var server = MockEdgeDBServer.builder().withQuery(MockQuery.strings(query, "Alice", 1).build()).build().start();
+                var client = new EdgeDBClient(server.getConnection(), EdgeDBClientConfig.DEFAULT)
+        ) {
+            client.query(String.class, query).toCompletableFuture().get();
+            assertThat(client.getClientCount()).isEqualTo(1);
+
+            Thread.sleep(10);
+            client.setClientMaxAge(Duration.ofMillis(1));
+
+            assertThat(client.getClientCount()).isZero();
+            awaitCondition(() -> server.getActiveConnections() == 0);
+
+            assertThatThrownBy(() -> client.setClientAvailability(-1)).isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> client.setPoolSize(0)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+import com.edgedb.driver.Capabilities;
+import com.edgedb.driver.EdgeDBClient;
+import com.edgedb.driver.EdgeDBClientConfig;
+import com.edgedb.driver.exceptions.QueryTimeoutException;
+import com.edgedb.driver.metrics.SimpleDriverMetrics;
+import com.edgedb.driver.mock.MockDescriptors;
+import com.edgedb.driver.mock.MockEdgeDBServer;
+import com.edgedb.driver.mock.MockQuery;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CoalescingTests {
+    private static final EnumSet<Capabilities> READ_ONLY = EnumSet.of(Capabilities.READ_ONLY);
+
+    private static EdgeDBClientConfig config(SimpleDriverMetrics metrics) {
+        return EdgeDBClientConfig.builder()
+                .withMetrics(metrics)
+                .withQueryCoalescing(true)
+                .build();
+    }
+
+    /**
+     * Calls a query once, then the given number of times while the first call is stalled by the server.
+     */
+    private static <T> List<T> callConcurrently(
+            MockEdgeDBServer server, int count, Supplier<CompletionStage<T>> call
+    ) throws Exception {
+        server.stallNext(1, Duration.ofMillis(300));
+
+        var calls = new ArrayList<CompletableFuture<T>>();
+        calls.add(call.get().toCompletableFuture());
+
+        Thread.sleep(50);
+
+        for(int i = 0; i != count; i++) {
+            calls.add(call.get().toCompletableFuture());
+        }
+
+        var results = new ArrayList<T>();
+
+        for (var c : calls) {
+            results.add(c.get());
+        }
+
+        return results;
+    }
+
+    @Test
+    public void testIdenticalReadOnlyQueriesShareOneExecution() throws Exception {
+        var metrics = new SimpleDriverMetrics();
+        var text = "select Person.name";
+
+        try(
+                var server = MockEdgeDBServer.builder()
+                        .withQuery(MockQuery.strings(text, "Alice", 2).build())
+                        .build().start();
+                var client = new EdgeDBClient(server.getConnection(), config(metrics))
+        ) {
+            var results = callConcurrently(server, 9, () -> client.query(String.class, text, null, READ_ONLY));
+
+            assertThat(server.getExecuteCount()).isEqualTo(1);
+            assertThat(metrics.getCoalescedQueries()).isEqualTo(9);
+            assertThat(metrics.getQueries().getCount()).isEqualTo(1);
+
+            // strings are immutable, every caller gets the same result
+            for (var result : results) {
+                assertThat(result).isSameAs(results.get(0)).containsExactly("Alice", "Alice");
+            }
+
+            // a completed query isn't joined
+            assertThat(client.query(String.class, text, null, READ_ONLY).toCompletableFuture().get()).hasSize(2);
+            assertThat(server.getExecuteCount()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    public void testMutableResultsAreDecodedForEachCaller() throws Exception {
+        var metrics = new SimpleDriverMetrics();
+        var text = "select Person.name";
+
+        try(
+                var server = MockEdgeDBServer.builder()
+                        .withQuery(MockQuery.scalars(text, MockDescriptors.STD_BYTES, "std::bytes", "png", 2).build())
+                        .build().start();
+                var client = new EdgeDBClient(server.getConnection(), config(metrics))
+        ) {
+            var results = callConcurrently(server, 4, () -> client.query(Byte[].class, text, null, READ_ONLY));
+
+            assertThat(server.getExecuteCount()).isEqualTo(1);
+            assertThat(metrics.getCoalescedQueries()).isEqualTo(4);
+
+            // arrays are mutable, each caller decodes its own
+            var first = results.get(0);
+            first.get(0)[0] = 0;
+
+            for (var result : results.subList(1, results.size())) {
+                assertThat(result).hasSize(2);
+                assertThat(result.get(0)).isNotSameAs(first.get(0)).containsExactly((byte)'p', (byte)'n', (byte)'g');
+            }
+        }
+    }
+
+    @Test
+    public void testQueriesThatMayModifyDataAreNotCoalesced() throws Exception {
+        var metrics = new SimpleDriverMetrics();
+        var text = "select Person.name";
+
+        try(
+                var server = MockEdgeDBServer.builder()
+                        .withQuery(MockQuery.strings(text, "Alice", 2).build())
+                        .build().start();
+                var client = new EdgeDBClient(server.getConnection(), config(metrics))
+        ) {
+            callConcurrently(server, 4, () -> client.query(String.class, text));
+
+            assertThat(server.getExecuteCount()).isEqualTo(5);
+            assertThat(metrics.getCoalescedQueries()).isZero();
+        }
+    }
+
+    @Test
+    public void testJoinedQueryDoesNotInheritTimeout() throws Exception {
+        var metrics = new SimpleDriverMetrics();
+        var text = "select Person.name";
+
+        try(
+                var server = MockEdgeDBServer.builder()
+                        .withQuery(MockQuery.strings(text, "Alice", 2).build())
+                        .build().start();
+                var client = new EdgeDBClient(server.getConnection(), config(metrics))
+        ) {
+            server.stallNext(1, Duration.ofMillis(300));
+
+            var leader = client.withTimeout(Duration.ofMillis(100))
+                    .query(String.class, text, null, READ_ONLY).toCompletableFuture();
+
+            Thread.sleep(50);
+
+            var joined = client.query(String.class, text, null, READ_ONLY).toCompletableFuture();
+
+            assertThatThrownBy(leader::get)
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(QueryTimeoutException.class);
+
+            // the leader's timeout isn't the joined caller's, which runs the query again
+            assertThat(joined.get()).containsExactly("Alice", "Alice");
+            assertThat(metrics.getCoalescedQueries()).isEqualTo(1);
+        }
+    }
+}
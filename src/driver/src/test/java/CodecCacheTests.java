@@ -0,0 +1,57 @@
+import com.edgedb.driver.EdgeDBClient;
+import com.edgedb.driver.EdgeDBClientConfig;
+import com.edgedb.driver.binary.protocol.common.Cardinality;
+import com.edgedb.driver.mock.MockDescriptors;
+import com.edgedb.driver.mock.MockEdgeDBServer;
+import com.edgedb.driver.mock.MockQuery;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CodecCacheTests {
+    private static MockQuery countQuery(String query, long count) {
+        return MockQuery.builder(query)
+                .withCardinality(Cardinality.MANY)
+                .withOutput(MockDescriptors.STD_INT64, MockDescriptors.scalar(MockDescriptors.STD_INT64, "std::int64"))
+                .withData(ByteBuffer.allocate(8).putLong(count).array(), 3)
+                .build();
+    }
+
+    @Test
+    public void testCachedCodecsSkipParse() throws Exception {
+        var query = "select count(Person)";
+
+        try(
+                var server = MockEdgeDBServer.builder().withQuery(countQuery(query, 7)).build().start();
+                var client = new EdgeDBClient(server.getConnection(), EdgeDBClientConfig.DEFAULT)
+        ) {
+            for(int i = 0; i != 3; i++) {
+                assertThat(client.query(Long.class, query).toCompletableFuture().get()).containsExactly(7L, 7L, 7L);
+            }
+
+            assertThat(server.getParseCount()).isEqualTo(1);
+            assertThat(server.getExecuteCount()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    public void testCachedCodecsWithStateMismatch() throws Exception {
+        var query = "select count(Person)";
+
+        try(
+                var server = MockEdgeDBServer.builder().withQuery(countQuery(query, 9)).build().start();
+                var client = new EdgeDBClient(server.getConnection(), EdgeDBClientConfig.DEFAULT)
+        ) {
+            client.query(Long.class, query).toCompletableFuture().get();
+
+            server.rotateStateDescriptor();
+
+            // parse is skipped, so the mismatch is reported by execute, which has to retry with the new state.
+            assertThat(client.query(Long.class, query).toCompletableFuture().get()).containsExactly(9L, 9L, 9L);
+            assertThat(server.getParseCount()).isEqualTo(1);
+            assertThat(server.getErrorCount()).isEqualTo(1);
+        }
+    }
+}
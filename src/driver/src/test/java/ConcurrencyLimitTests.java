@@ -0,0 +1,134 @@
+import com.edgedb.driver.ConcurrencyLimitSettings;
+import com.edgedb.driver.EdgeDBClient;
+import com.edgedb.driver.EdgeDBClientConfig;
+import com.edgedb.driver.exceptions.ConcurrencyLimitExceededException;
+import com.edgedb.driver.internal.ConcurrencyLimiter;
+import com.edgedb.driver.metrics.SimpleDriverMetrics;
+import com.edgedb.driver.mock.MockEdgeDBServer;
+import com.edgedb.driver.mock.MockQuery;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ConcurrencyLimitTests {
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * Runs as many queries as the limit allows at once, each with the given latency.
+     */
+    private static void saturate(ConcurrencyLimiter limiter, long latencyNanos) {
+        var permits = new ArrayList<ConcurrencyLimiter.Permit>();
+        ConcurrencyLimiter.Permit permit;
+
+        while((permit = limiter.tryAcquire()) != null) {
+            permits.add(permit);
+        }
+
+        for(var p : permits) {
+            p.completed(latencyNanos);
+        }
+    }
+
+    @Test
+    public void testLimitFollowsLatency() {
+        var settings = ConcurrencyLimitSettings.builder().withInitialLimit(10).withMinLimit(2).build();
+        var limiter = new ConcurrencyLimiter(settings, () -> 100);
+
+        for(int i = 0; i != 20; i++) {
+            saturate(limiter, 10 * MILLIS);
+        }
+
+        var grown = limiter.getLimit();
+        assertThat(grown).isGreaterThan(10).isLessThanOrEqualTo(100);
+
+        // a latency well beyond the tolerance shrinks the limit
+        for(int i = 0; i != 5; i++) {
+            saturate(limiter, 200 * MILLIS);
+        }
+
+        assertThat(limiter.getLimit()).isLessThan(grown);
+
+        for(int i = 0; i != 50; i++) {
+            saturate(limiter, 200 * MILLIS);
+        }
+
+        assertThat(limiter.getLimit()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    public void testUnsaturatedSamplesDontGrowLimit() {
+        var limiter = new ConcurrencyLimiter(ConcurrencyLimitSettings.builder().withInitialLimit(10).build(), () -> 100);
+
+        for(int i = 0; i != 100; i++) {
+            var permit = limiter.tryAcquire();
+            assertThat(permit).isNotNull();
+            permit.completed(10 * MILLIS);
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    public void testDroppedQueriesShrinkLimit() {
+        var limiter = new ConcurrencyLimiter(ConcurrencyLimitSettings.builder().withInitialLimit(10).build(), () -> 100);
+
+        var permit = limiter.tryAcquire();
+        assertThat(permit).isNotNull();
+        permit.dropped();
+
+        assertThat(limiter.getLimit()).isEqualTo(9);
+
+        permit = limiter.tryAcquire();
+        assertThat(permit).isNotNull();
+        permit.ignored();
+
+        assertThat(limiter.getLimit()).isEqualTo(9);
+    }
+
+    @Test
+    public void testLimitIsCappedByPoolSize() {
+        var limiter = new ConcurrencyLimiter(ConcurrencyLimitSettings.builder().withInitialLimit(80).build(), () -> 5);
+
+        assertThat(limiter.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    public void testQueriesOverLimitFailFast() throws Exception {
+        var metrics = new SimpleDriverMetrics();
+        var config = EdgeDBClientConfig.builder()
+                .withMetrics(metrics)
+                .withConcurrencyLimit(ConcurrencyLimitSettings.builder().withInitialLimit(1).withMaxLimit(1).build())
+                .build();
+        var query = "select Person.name";
+
+        try(
+                var server = MockEdgeDBServer.builder()
+                        .withQuery(MockQuery.strings(query, "Alice", 1)
+                                .withLatency(Duration.ofMillis(200))
+                                .build())
+                        .build().start();
+                var client = new EdgeDBClient(server.getConnection(), config)
+        ) {
+            assertThat(client.getConcurrencyLimit()).isEqualTo(1);
+
+            var pending = client.query(String.class, query).toCompletableFuture();
+
+            assertThatThrownBy(() -> client.query(String.class, query).toCompletableFuture().get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(ConcurrencyLimitExceededException.class);
+
+            assertThat(pending.get()).containsExactly("Alice");
+            assertThat(metrics.getRejectedQueries()).isEqualTo(1);
+            assertThat(metrics.getQueries().getCount()).isEqualTo(1);
+
+            // the place is given back once the query completes
+            assertThat(client.query(String.class, query).toCompletableFuture().get()).containsExactly("Alice");
+        }
+    }
+}
@@ -0,0 +1,126 @@
+import com.edgedb.driver.EdgeDBClient;
+import com.edgedb.driver.EdgeDBClientConfig;
+import com.edgedb.driver.binary.BufferTracker;
+import com.edgedb.driver.binary.protocol.ExecuteResult;
+import com.edgedb.driver.exceptions.ResultCardinalityMismatchException;
+import com.edgedb.driver.metrics.DriverMetrics;
+import com.edgedb.driver.metrics.SimpleDriverMetrics;
+import com.edgedb.driver.mock.MockEdgeDBServer;
+import com.edgedb.driver.mock.MockQuery;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class DriverMetricsTests {
+    @Test
+    public void testQueryMetrics() throws Exception {
+        var metrics = new SimpleDriverMetrics();
+        var config = EdgeDBClientConfig.builder().withMetrics(metrics).build();
+        var query = "select Person.name";
+
+        try(
+                var server = MockEdgeDBServer.builder().withQuery(MockQuery.strings(query, "Alice", 10).build()).build().start();
+                var client = new EdgeDBClient(server.getConnection(), config)
+        ) {
+            for(int i = 0; i != 3; i++) {
+                assertThat(client.query(String.class, query).toCompletableFuture().get()).hasSize(10);
+            }
+
+            assertThat(metrics.getQueries().getCount()).isEqualTo(3);
+            assertThat(metrics.getFailedQueries()).isZero();
+            assertThat(metrics.getPoolWait().getCount()).isEqualTo(3);
+
+            // the codecs are cached after the first parse
+            assertThat(metrics.getParses().getCount()).isEqualTo(1);
+            assertThat(metrics.getParseCacheHits()).isEqualTo(2);
+            assertThat(server.getParseCount()).isEqualTo(1);
+
+            assertThat(metrics.getRowsDecoded()).isEqualTo(30);
+            assertThat(metrics.getDecodes().getCount()).isEqualTo(3);
+            assertThat(metrics.getBytesSent()).isPositive();
+            assertThat(metrics.getBytesReceived()).isGreaterThan(30 * "Alice".length());
+
+            assertThat(metrics.getConnectionsOpened()).isEqualTo(1);
+            assertThat(metrics.getInUseClients()).isZero();
+            assertThat(metrics.getIdleClients()).isEqualTo(1);
+            assertThat(metrics.getPendingAcquires()).isZero();
+        }
+    }
+
+    @Test
+    public void testCompositeMetrics() throws Exception {
+        var first = new SimpleDriverMetrics();
+        var second = new SimpleDriverMetrics();
+        var config = EdgeDBClientConfig.builder().withMetrics(DriverMetrics.composite(first, second)).build();
+        var query = "select Person.name";
+
+        try(
+                var server = MockEdgeDBServer.builder().withQuery(MockQuery.strings(query, "Alice", 1).build()).build().start();
+                var client = new EdgeDBClient(server.getConnection(), config)
+        ) {
+            client.querySingle(String.class, query).toCompletableFuture().get();
+
+            assertThat(first.getRowsDecoded()).isEqualTo(1);
+            assertThat(second.getRowsDecoded()).isEqualTo(1);
+            assertThat(second.getIdleClients()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void testBufferAccounting() throws Exception {
+        var metrics = new SimpleDriverMetrics();
+        var config = EdgeDBClientConfig.builder().withMetrics(metrics).withBufferAccounting(true).build();
+        var query = "select Person.name";
+
+        try(
+                var server = MockEdgeDBServer.builder().withQuery(MockQuery.strings(query, "Alice", 3).build()).build().start();
+                var client = new EdgeDBClient(server.getConnection(), config)
+        ) {
+            assertThat(client.query(String.class, query).toCompletableFuture().get()).hasSize(3);
+
+            // the cardinality mismatch releases the rows it received
+            assertThatThrownBy(() -> client.querySingle(String.class, query).toCompletableFuture().get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(ResultCardinalityMismatchException.class);
+
+            assertThat(metrics.getOutstandingBuffers()).isZero();
+            assertThat(metrics.getOutstandingBytes()).isZero();
+            assertThat(metrics.getLeakedBuffers()).isZero();
+        }
+    }
+
+    @Test
+    public void testBufferLeakDetection() throws Exception {
+        var tracker = new BufferTracker();
+        var buffer = Unpooled.buffer(16).writeZero(16);
+
+        leakResult(tracker, buffer);
+
+        assertThat(tracker.getOutstandingBuffers()).isEqualTo(1);
+        assertThat(tracker.getOutstandingBytes()).isEqualTo(16);
+
+        for(int i = 0; i != 50 && tracker.getLeakedBuffers() == 0; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+
+        assertThat(tracker.getLeakedBuffers()).isEqualTo(1);
+        assertThat(tracker.getOutstandingBuffers()).isZero();
+        assertThat(buffer.refCnt()).isZero();
+    }
+
+    private static void leakResult(BufferTracker tracker, ByteBuf buffer) {
+        List<ByteBuf> data = new ArrayList<>();
+        data.add(buffer);
+
+        // never released, only reachable within this method
+        new ExecuteResult(null, data, tracker, "select leaked");
+    }
+}
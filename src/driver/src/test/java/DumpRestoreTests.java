@@ -0,0 +1,215 @@
+import com.edgedb.driver.EdgeDBClient;
+import com.edgedb.driver.EdgeDBClientConfig;
+import com.edgedb.driver.exceptions.EdgeDBException;
+import com.edgedb.driver.mock.MockEdgeDBServer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.Pipe;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class DumpRestoreTests {
+    private static final String SCHEMA = "create type Person { create property name -> str; };";
+
+    private static final byte[] MAGIC = new byte[] {
+            (byte)0xff, (byte)0xd8, 0x00, 0x00, (byte)0xd8,
+            'E', 'D', 'G', 'E', 'D', 'B', 0x00, 'D', 'U', 'M', 'P', 0x00
+    };
+
+    private static List<byte[]> blocks() {
+        var large = new byte[256 * 1024];
+        ThreadLocalRandom.current().nextBytes(large);
+
+        return List.of(
+                "first".getBytes(StandardCharsets.UTF_8),
+                large,
+                "last".getBytes(StandardCharsets.UTF_8)
+        );
+    }
+
+    private static byte[] dump(MockEdgeDBServer server) throws Exception {
+        try(var client = new EdgeDBClient(server.getConnection(), EdgeDBClientConfig.DEFAULT)) {
+            var output = new ByteArrayOutputStream();
+            var count = client.dump(Channels.newChannel(output)).toCompletableFuture().get();
+
+            assertThat(count).isEqualTo(output.size());
+            return output.toByteArray();
+        }
+    }
+
+    @Test
+    public void testDumpAndRestore() throws Exception {
+        var blocks = blocks();
+        byte[] dump;
+
+        try(var server = MockEdgeDBServer.builder().withDump(SCHEMA, blocks).build().start()) {
+            dump = dump(server);
+        }
+
+        assertThat(Arrays.copyOf(dump, MAGIC.length)).isEqualTo(MAGIC);
+
+        try(
+                var server = MockEdgeDBServer.builder().build().start();
+                var client = new EdgeDBClient(server.getConnection(), EdgeDBClientConfig.DEFAULT)
+        ) {
+            client.restore(Channels.newChannel(new ByteArrayInputStream(dump)), 4).toCompletableFuture().get();
+
+            assertThat(server.getRestoredSchema()).isEqualTo(SCHEMA);
+            assertThat(server.getRestoreJobs()).isEqualTo(4);
+            assertThat(server.getRestoredBlocks()).containsExactlyElementsOf(blocks);
+
+            // the connection is ready for the next command afterwards
+            client.restore(Channels.newChannel(new ByteArrayInputStream(dump))).toCompletableFuture().get();
+            assertThat(server.getRestoredBlocks()).hasSize(blocks.size());
+            assertThat(server.getTotalConnections()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void testCorruptedDump() throws Exception {
+        byte[] dump;
+
+        try(var server = MockEdgeDBServer.builder().withDump(SCHEMA, blocks()).build().start()) {
+            dump = dump(server);
+        }
+
+        // a byte of the last block
+        dump[dump.length - 1] ^= 1;
+
+        try(
+                var server = MockEdgeDBServer.builder().build().start();
+                var client = new EdgeDBClient(server.getConnection(), EdgeDBClientConfig.DEFAULT)
+        ) {
+            assertThatThrownBy(() -> client.restore(Channels.newChannel(new ByteArrayInputStream(dump)))
+                    .toCompletableFuture().get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasRootCauseInstanceOf(EdgeDBException.class)
+                    .hasStackTraceContaining("corrupted");
+
+            assertThat(server.getRestoredSchema()).isEqualTo(SCHEMA);
+        }
+    }
+
+    @Test
+    public void testNotADump() throws Exception {
+        try(
+                var server = MockEdgeDBServer.builder().build().start();
+                var client = new EdgeDBClient(server.getConnection(), EdgeDBClientConfig.DEFAULT)
+        ) {
+            var garbage = "not a dump".getBytes(StandardCharsets.UTF_8);
+
+            assertThatThrownBy(() -> client.restore(Channels.newChannel(new ByteArrayInputStream(garbage)))
+                    .toCompletableFuture().get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasStackTraceContaining("doesn't contain an EdgeDB dump");
+
+            assertThat(server.getRestoredSchema()).isNull();
+        }
+    }
+
+    @Test
+    public void testChannelsAreUsedOnStreamExecutor() throws Exception {
+        var blocks = blocks();
+        var executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "dump-channel"));
+        var threads = ConcurrentHashMap.<String>newKeySet();
+        var config = EdgeDBClientConfig.builder().withStreamExecutor(executor).build();
+
+        try {
+            var output = new ByteArrayOutputStream();
+
+            try(
+                    var server = MockEdgeDBServer.builder().withDump(SCHEMA, blocks).build().start();
+                    var client = new EdgeDBClient(server.getConnection(), config)
+            ) {
+                client.dump(new WritableByteChannel() {
+                    private final WritableByteChannel channel = Channels.newChannel(output);
+
+                    @Override
+                    public int write(ByteBuffer src) throws IOException {
+                        threads.add(Thread.currentThread().getName());
+                        return channel.write(src);
+                    }
+
+                    @Override
+                    public boolean isOpen() {
+                        return channel.isOpen();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        channel.close();
+                    }
+                }).toCompletableFuture().get();
+            }
+
+            assertThat(threads).containsExactly("dump-channel");
+            threads.clear();
+
+            try(
+                    var server = MockEdgeDBServer.builder().build().start();
+                    var client = new EdgeDBClient(server.getConnection(), config)
+            ) {
+                client.restore(new ReadableByteChannel() {
+                    private final ReadableByteChannel channel = Channels.newChannel(new ByteArrayInputStream(output.toByteArray()));
+
+                    @Override
+                    public int read(ByteBuffer dst) throws IOException {
+                        threads.add(Thread.currentThread().getName());
+                        return channel.read(dst);
+                    }
+
+                    @Override
+                    public boolean isOpen() {
+                        return channel.isOpen();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        channel.close();
+                    }
+                }, 2).toCompletableFuture().get();
+
+                assertThat(server.getRestoredBlocks()).containsExactlyElementsOf(blocks);
+            }
+
+            assertThat(threads).containsExactly("dump-channel");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testNonBlockingChannelIsRejected() throws Exception {
+        var pipe = Pipe.open();
+
+        try(
+                var server = MockEdgeDBServer.builder().withDump(SCHEMA, blocks()).build().start();
+                var client = new EdgeDBClient(server.getConnection(), EdgeDBClientConfig.DEFAULT)
+        ) {
+            pipe.sink().configureBlocking(false);
+
+            assertThatThrownBy(() -> client.dump(pipe.sink()).toCompletableFuture().get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasRootCauseInstanceOf(EdgeDBException.class)
+                    .hasStackTraceContaining("non-blocking");
+        } finally {
+            pipe.sink().close();
+            pipe.source().close();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+import com.edgedb.driver.Capabilities;
+import com.edgedb.driver.ConcurrencyLimitSettings;
+import com.edgedb.driver.EdgeDBClient;
+import com.edgedb.driver.EdgeDBClientConfig;
+import com.edgedb.driver.HedgeSettings;
+import com.edgedb.driver.internal.QueryHedger;
+import com.edgedb.driver.metrics.SimpleDriverMetrics;
+import com.edgedb.driver.mock.MockEdgeDBServer;
+import com.edgedb.driver.mock.MockQuery;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HedgingTests {
+    private static final EnumSet<Capabilities> READ_ONLY = EnumSet.of(Capabilities.READ_ONLY);
+
+    private static EdgeDBClientConfig config(SimpleDriverMetrics metrics, double budget) {
+        return EdgeDBClientConfig.builder()
+                .withMetrics(metrics)
+                .withHedging(HedgeSettings.builder()
+                        .withPercentile(0.9)
+                        .withMinDelay(Duration.ofMillis(20))
+                        .withBudget(budget)
+                        .build())
+                .build();
+    }
+
+    private static List<String> timedQuery(EdgeDBClient client, String query, EnumSet<Capabilities> capabilities, long maxMillis) throws Exception {
+        return client.query(String.class, query, null, capabilities).toCompletableFuture().get(maxMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private static void warmUp(EdgeDBClient client, String query) throws Exception {
+        // the hedge delay is only known once enough queries were seen
+        for(int i = 0; i != 100; i++) {
+            client.query(String.class, query, null, READ_ONLY).toCompletableFuture().get();
+        }
+    }
+
+    @Test
+    public void testSlowReadOnlyQueryIsHedged() throws Exception {
+        var metrics = new SimpleDriverMetrics();
+        var query = "select Person.name";
+
+        try(
+                var server = MockEdgeDBServer.builder().withQuery(MockQuery.strings(query, "Alice", 2).build()).build().start();
+                var client = new EdgeDBClient(server.getConnection(), config(metrics, 1))
+        ) {
+            warmUp(client, query);
+            assertThat(metrics.getHedgedQueries()).isZero();
+
+            server.stallNext(1, Duration.ofSeconds(2));
+
+            assertThat(timedQuery(client, query, READ_ONLY, 1000)).containsExactly("Alice", "Alice");
+            assertThat(metrics.getHedgedQueries()).isEqualTo(1);
+            assertThat(metrics.getQueries().getCount()).isEqualTo(101);
+            assertThat(server.getTotalConnections()).isEqualTo(2);
+
+            // the connection of the abandoned attempt goes back to the pool and catches up with the server
+            for(int i = 0; i != 10; i++) {
+                assertThat(timedQuery(client, query, READ_ONLY, 3000)).containsExactly("Alice", "Alice");
+            }
+
+            assertThat(server.getTotalConnections()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    public void testHedgingRespectsBudgetAndCapabilities() throws Exception {
+        var metrics = new SimpleDriverMetrics();
+        var query = "select Person.name";
+
+        try(
+                var server = MockEdgeDBServer.builder().withQuery(MockQuery.strings(query, "Alice", 2).build()).build().start();
+                var client = new EdgeDBClient(server.getConnection(), config(metrics, 0))
+        ) {
+            warmUp(client, query);
+
+            server.stallNext(1, Duration.ofMillis(200));
+
+            var start = System.nanoTime();
+            assertThat(timedQuery(client, query, READ_ONLY, 3000)).hasSize(2);
+            assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(200));
+
+            assertThat(metrics.getHedgedQueries()).isZero();
+        }
+
+        metrics = new SimpleDriverMetrics();
+
+        try(
+                var server = MockEdgeDBServer.builder().withQuery(MockQuery.strings(query, "Alice", 2).build()).build().start();
+                var client = new EdgeDBClient(server.getConnection(), config(metrics, 1))
+        ) {
+            warmUp(client, query);
+
+            // a query that may modify data isn't hedged
+            server.stallNext(1, Duration.ofMillis(200));
+            assertThat(timedQuery(client, query, EnumSet.of(Capabilities.MODIFICATIONS), 3000)).hasSize(2);
+
+            assertThat(metrics.getHedgedQueries()).isZero();
+        }
+    }
+
+    @Test
+    public void testHedgeTakesConcurrencyPermit() throws Exception {
+        var metrics = new SimpleDriverMetrics();
+        var config = EdgeDBClientConfig.builder()
+                .withMetrics(metrics)
+                .withHedging(HedgeSettings.builder().withPercentile(0.9).withMinDelay(Duration.ofMillis(20)).withBudget(1).build())
+                .withConcurrencyLimit(ConcurrencyLimitSettings.builder().withInitialLimit(1).withMaxLimit(1).build())
+                .build();
+        var query = "select Person.name";
+
+        try(
+                var server = MockEdgeDBServer.builder().withQuery(MockQuery.strings(query, "Alice", 2).build()).build().start();
+                var client = new EdgeDBClient(server.getConnection(), config)
+        ) {
+            warmUp(client, query);
+
+            // the first attempt holds the only place, so the hedge isn't sent
+            server.stallNext(1, Duration.ofMillis(200));
+
+            var start = System.nanoTime();
+            assertThat(timedQuery(client, query, READ_ONLY, 3000)).hasSize(2);
+            assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(200));
+
+            assertThat(metrics.getHedgedQueries()).isZero();
+            assertThat(server.getTotalConnections()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void testLatencyIsTakenFromQueryStart() throws Exception {
+        var hedger = new QueryHedger(HedgeSettings.builder()
+                .withPercentile(0.9)
+                .withMinDelay(Duration.ofMillis(5))
+                .withBudget(1)
+                .build());
+
+        for(int i = 0; i != 100; i++) {
+            hedger.execute(null, (d, hedge) -> CompletableFuture.completedFuture(0), () -> {})
+                    .toCompletableFuture().get();
+        }
+
+        assertThat(hedger.getDelayNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(5));
+
+        // the first attempts never complete, the hedges complete 20ms after they're sent, 5ms into the query
+        var hedgeLatency = CompletableFuture.delayedExecutor(20, TimeUnit.MILLISECONDS);
+
+        for(int i = 0; i != 64; i++) {
+            hedger.execute(
+                    null,
+                    (d, hedge) -> hedge ? CompletableFuture.supplyAsync(() -> 0, hedgeLatency) : new CompletableFuture<>(),
+                    () -> {}
+            ).toCompletableFuture().get(1, TimeUnit.SECONDS);
+        }
+
+        assertThat(hedger.getDelayNanos()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(25));
+    }
+}
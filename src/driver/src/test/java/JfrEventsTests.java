@@ -0,0 +1,80 @@
+import com.edgedb.driver.EdgeDBClient;
+import com.edgedb.driver.EdgeDBClientConfig;
+import com.edgedb.driver.mock.MockEdgeDBServer;
+import com.edgedb.driver.mock.MockQuery;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JfrEventsTests {
+    private static List<RecordedEvent> eventsOf(List<RecordedEvent> events, String name) {
+        return events.stream().filter(e -> e.getEventType().getName().equals(name)).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testDriverEvents() throws Exception {
+        Configuration configuration;
+
+        try(var reader = new InputStreamReader(Objects.requireNonNull(
+                getClass().getResourceAsStream("/com/edgedb/driver/jfr/edgedb.jfc")
+        ), StandardCharsets.UTF_8)) {
+            configuration = Configuration.create(reader);
+        }
+
+        var query = "select Person.name";
+        var file = Files.createTempFile("edgedb", ".jfr");
+
+        try(
+                var recording = new Recording(configuration);
+                var server = MockEdgeDBServer.builder().withQuery(MockQuery.strings(query, "Alice", 4).build()).build().start();
+                var client = new EdgeDBClient(server.getConnection(), EdgeDBClientConfig.DEFAULT)
+        ) {
+            // the thresholds of the profile would depend on how warmed up the test run is
+            recording.enable("com.edgedb.Decode").withoutThreshold();
+            recording.enable("com.edgedb.PoolAcquire").withoutThreshold();
+            recording.start();
+
+            for(int i = 0; i != 2; i++) {
+                assertThat(client.query(String.class, query).toCompletableFuture().get()).hasSize(4);
+            }
+
+            recording.stop();
+            recording.dump(file);
+
+            assertThat(server.getParseCount()).isEqualTo(1);
+        }
+
+        try {
+            var events = RecordingFile.readAllEvents(file);
+
+            var queries = eventsOf(events, "com.edgedb.Query");
+            assertThat(queries).hasSize(2);
+            assertThat(queries.get(0).getInt("queryHash")).isEqualTo(query.hashCode());
+            assertThat(queries.get(0).getLong("rows")).isEqualTo(4);
+            assertThat(queries.get(0).getBoolean("parseCacheHit")).isFalse();
+            assertThat(queries.get(1).getBoolean("parseCacheHit")).isTrue();
+            assertThat(queries).allMatch(e -> e.getBoolean("succeeded"));
+
+            assertThat(eventsOf(events, "com.edgedb.PoolAcquire")).hasSize(2);
+            assertThat(eventsOf(events, "com.edgedb.Connect")).hasSize(1);
+            assertThat(eventsOf(events, "com.edgedb.CodecBuild")).isNotEmpty();
+
+            var decodes = eventsOf(events, "com.edgedb.Decode");
+            assertThat(decodes).hasSize(2);
+            assertThat(decodes.get(0).getLong("bytes")).isEqualTo(4 * "Alice".length());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
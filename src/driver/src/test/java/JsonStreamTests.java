@@ -0,0 +1,104 @@
+import com.edgedb.driver.EdgeDBClient;
+import com.edgedb.driver.EdgeDBClientConfig;
+import com.edgedb.driver.ErrorCode;
+import com.edgedb.driver.JsonStreamMode;
+import com.edgedb.driver.mock.MockEdgeDBServer;
+import com.edgedb.driver.mock.MockQuery;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class JsonStreamTests {
+    @Test
+    public void testQueryJsonTo() throws Exception {
+        var query = "select Person { name }";
+
+        try(
+                var server = MockEdgeDBServer.builder()
+                        .withQuery(MockQuery.strings(query, "{\"name\":\"Alice\"}", 2).build())
+                        .build().start();
+                var client = new EdgeDBClient(server.getConnection(), EdgeDBClientConfig.DEFAULT)
+        ) {
+            var output = new ByteArrayOutputStream();
+            var count = client.queryJsonTo(output, JsonStreamMode.NDJSON, query, null).toCompletableFuture().get();
+
+            assertThat(count).isEqualTo(2);
+            assertThat(output.toString(StandardCharsets.UTF_8))
+                    .isEqualTo("{\"name\":\"Alice\"}\n{\"name\":\"Alice\"}\n");
+        }
+    }
+
+    @Test
+    public void testPartialOutputIsNotRetried() throws Exception {
+        var query = "select Person { name } filter .conflicted";
+
+        try(
+                var server = MockEdgeDBServer.builder()
+                        .withQuery(MockQuery.strings(query, "{\"name\":\"Alice\"}", 2)
+                                .withErrorAfterData(ErrorCode.TRANSACTION_CONFLICT_ERROR, "conflict")
+                                .build())
+                        .build().start();
+                var client = new EdgeDBClient(server.getConnection(), EdgeDBClientConfig.DEFAULT)
+        ) {
+            var output = new ByteArrayOutputStream();
+
+            // the error is retryable, but the elements already written can't be taken back
+            assertThatThrownBy(() -> client.queryJsonTo(output, JsonStreamMode.NDJSON, query, null).toCompletableFuture().get())
+                    .isInstanceOf(ExecutionException.class);
+
+            assertThat(server.getExecuteCount()).isEqualTo(1);
+            assertThat(output.toString(StandardCharsets.UTF_8))
+                    .isEqualTo("{\"name\":\"Alice\"}\n{\"name\":\"Alice\"}\n");
+        }
+    }
+
+    @Test
+    public void testWritesRunOnStreamExecutor() throws Exception {
+        var query = "select Person { name } limit 20";
+        var executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "json-writer"));
+        var threads = ConcurrentHashMap.<String>newKeySet();
+
+        try(
+                var server = MockEdgeDBServer.builder()
+                        .withQuery(MockQuery.strings(query, "1", 20).build())
+                        .build().start();
+                var client = new EdgeDBClient(
+                        server.getConnection(),
+                        EdgeDBClientConfig.builder().withStreamExecutor(executor).build()
+                )
+        ) {
+            var output = new ByteArrayOutputStream() {
+                @Override
+                public synchronized void write(byte @NotNull [] b, int off, int len) {
+                    threads.add(Thread.currentThread().getName());
+
+                    // a slow stream, the connection must wait on it rather than on the thread reading it
+                    try {
+                        Thread.sleep(5);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+
+                    super.write(b, off, len);
+                }
+            };
+
+            var count = client.queryJsonTo(output, JsonStreamMode.ARRAY, query, null).toCompletableFuture().get();
+
+            assertThat(count).isEqualTo(20);
+            assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo("[" + String.join(",", Collections.nCopies(20, "1")) + "]");
+            assertThat(threads).containsExactly("json-writer");
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
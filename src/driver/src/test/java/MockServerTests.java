@@ -0,0 +1,165 @@
+import com.edgedb.driver.EdgeDBClient;
+import com.edgedb.driver.EdgeDBClientConfig;
+import com.edgedb.driver.ErrorCode;
+import com.edgedb.driver.binary.protocol.common.Cardinality;
+import com.edgedb.driver.exceptions.EdgeDBErrorException;
+import com.edgedb.driver.mock.MockDescriptors;
+import com.edgedb.driver.mock.MockEdgeDBServer;
+import com.edgedb.driver.mock.MockQuery;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class MockServerTests {
+    private static final String COUNT_QUERY = "select count(Person)";
+
+    private static MockQuery countQuery(long count, int rows) {
+        return MockQuery.builder(COUNT_QUERY)
+                .withCardinality(rows == 1 ? Cardinality.ONE : Cardinality.MANY)
+                .withOutput(MockDescriptors.STD_INT64, MockDescriptors.scalar(MockDescriptors.STD_INT64, "std::int64"))
+                .withData(ByteBuffer.allocate(8).putLong(count).array(), rows)
+                .build();
+    }
+
+    @Test
+    public void testScriptedQuery() throws Exception {
+        try(
+                var server = MockEdgeDBServer.builder().withQuery(countQuery(42, 1)).build().start();
+                var client = new EdgeDBClient(server.getConnection(), EdgeDBClientConfig.DEFAULT)
+        ) {
+            var result = client.querySingle(Long.class, COUNT_QUERY).toCompletableFuture().get();
+
+            assertThat(result).isEqualTo(42L);
+            assertThat(server.getParseCount()).isGreaterThanOrEqualTo(1);
+            assertThat(server.getExecuteCount()).isEqualTo(1);
+            assertThat(server.getActiveConnections()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void testScriptedRows() throws Exception {
+        try(
+                var server = MockEdgeDBServer.builder()
+                        .withQuery(countQuery(7, 1000))
+                        .withLatency(Duration.ofMillis(1), Duration.ofMillis(3))
+                        .build()
+                        .start();
+                var client = new EdgeDBClient(server.getConnection(), EdgeDBClientConfig.DEFAULT)
+        ) {
+            var result = client.query(Long.class, COUNT_QUERY).toCompletableFuture().get();
+
+            assertThat(result).hasSize(1000).containsOnly(7L);
+        }
+    }
+
+    @Test
+    public void testScriptedError() throws Exception {
+        var query = MockQuery.builder("select 1 / 0")
+                .withError(ErrorCode.DIVISION_BY_ZERO_ERROR, "division by zero")
+                .build();
+
+        try(
+                var server = MockEdgeDBServer.builder().withQuery(query).build().start();
+                var client = new EdgeDBClient(server.getConnection(), EdgeDBClientConfig.DEFAULT)
+        ) {
+            assertThatThrownBy(() -> client.querySingle(Long.class, "select 1 / 0").toCompletableFuture().get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasRootCauseInstanceOf(EdgeDBErrorException.class)
+                    .hasStackTraceContaining("division by zero");
+        }
+    }
+
+    @Test
+    public void testStateMismatch() throws Exception {
+        try(
+                var server = MockEdgeDBServer.builder().withQuery(countQuery(1, 1)).build().start();
+                var client = new EdgeDBClient(server.getConnection(), EdgeDBClientConfig.DEFAULT)
+        ) {
+            client.querySingle(Long.class, COUNT_QUERY).toCompletableFuture().get();
+
+            server.rotateStateDescriptor();
+
+            var result = client.querySingle(Long.class, COUNT_QUERY).toCompletableFuture().get();
+
+            assertThat(result).isEqualTo(1L);
+            assertThat(server.getErrorCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void testIdleSessionTimeout() throws Exception {
+        try(
+                var server = MockEdgeDBServer.builder().withQuery(countQuery(1, 1)).build().start();
+                var client = new EdgeDBClient(server.getConnection(), EdgeDBClientConfig.DEFAULT)
+        ) {
+            client.querySingle(Long.class, COUNT_QUERY).toCompletableFuture().get();
+
+            server.expireIdleSessions();
+
+            while(server.getActiveConnections() != 0) {
+                Thread.sleep(10);
+            }
+
+            // the driver treats the timeout as a disconnect, and reconnects for the next query
+            var result = client.querySingle(Long.class, COUNT_QUERY).toCompletableFuture().get();
+
+            assertThat(result).isEqualTo(1L);
+            assertThat(server.getIdleTimeoutCount()).isEqualTo(1);
+            assertThat(server.getTotalConnections()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    public void testFragmentedMessages() throws Exception {
+        var query = "select Person.biography";
+        var text = "a".repeat(100_000);
+
+        try(
+                var server = MockEdgeDBServer.builder()
+                        .withQuery(MockQuery.strings(query, text, 3).build())
+                        .withQuery(countQuery(7, 500))
+                        .withFragmentation(7)
+                        .build()
+                        .start();
+                var client = new EdgeDBClient(server.getConnection(), EdgeDBClientConfig.DEFAULT)
+        ) {
+            // messages split across reads, and large rows spanning many of them
+            assertThat(client.query(String.class, query).toCompletableFuture().get()).hasSize(3).containsOnly(text);
+            assertThat(client.query(Long.class, COUNT_QUERY).toCompletableFuture().get()).hasSize(500).containsOnly(7L);
+        }
+    }
+
+    @Test
+    public void testMessageTimeout() throws Exception {
+        var query = "select Person.nickname";
+        var config = EdgeDBClientConfig.builder()
+                .withMessageTimeout(200, TimeUnit.MILLISECONDS)
+                .build();
+
+        try(
+                var server = MockEdgeDBServer.builder()
+                        .withQuery(MockQuery.strings(query, "Bob", 2)
+                                .withLatency(Duration.ofSeconds(2))
+                                .build())
+                        .build()
+                        .start();
+                var client = new EdgeDBClient(server.getConnection(), config)
+        ) {
+            var started = System.nanoTime();
+
+            // the duplex times out on the event loop, which isn't held up by the read it fails
+            assertThatThrownBy(() -> client.query(String.class, query).toCompletableFuture().get())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasRootCauseInstanceOf(TimeoutException.class);
+
+            assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(2));
+        }
+    }
+}
@@ -1,7 +1,15 @@
+import com.edgedb.driver.Capabilities;
 import com.edgedb.driver.EdgeDBClient;
+import com.edgedb.driver.ErrorCode;
 import com.edgedb.driver.annotations.EdgeDBType;
+import com.edgedb.driver.binary.PacketReader;
+import com.edgedb.driver.binary.PacketSerializer;
+import com.edgedb.driver.binary.protocol.common.Cardinality;
+import com.edgedb.driver.binary.protocol.common.descriptors.ShapeElementFlags;
 import com.edgedb.driver.exceptions.EdgeDBException;
 import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.netty.buffer.Unpooled;
+import org.joou.UInteger;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,6 +34,33 @@ public class ProtocolTests {
         public String c;
     }
 
+    @Test
+    public void testBinaryEnumReads() {
+        var buffer = Unpooled.buffer()
+                .writeByte(0x6d)
+                .writeByte(0x7f)
+                .writeInt(0x05_01_00_01)
+                .writeInt(0x05_01_00_7f)
+                .writeLong(1 | 1 << 2)
+                .writeInt(1 << 2)
+                .writeShort(0);
+
+        var reader = new PacketReader(buffer);
+
+        assertThat(reader.readEnum(Cardinality.class, Byte.TYPE)).isEqualTo(Cardinality.MANY);
+        assertThat(reader.readEnum(Cardinality.class, Byte.TYPE)).isNull();
+        assertThat(reader.readEnum(ErrorCode.class, Integer.TYPE)).isEqualTo(ErrorCode.DIVISION_BY_ZERO_ERROR);
+        assertThat(reader.readEnum(ErrorCode.class, Integer.TYPE)).isNull();
+        assertThat(reader.readEnumSet(Capabilities.class, Long.TYPE))
+                .contains(Capabilities.MODIFICATIONS, Capabilities.TRANSACTION)
+                .doesNotContain(Capabilities.SESSION_CONFIG, Capabilities.DDL);
+        assertThat(reader.readEnumSet(ShapeElementFlags.class, UInteger.class)).containsExactly(ShapeElementFlags.LINK);
+        assertThat(reader.readAnnotations()).isEmpty();
+        assertThat(reader.isEmpty()).isTrue();
+
+        assertThat(PacketSerializer.getEnumValue(Cardinality.class, (byte)0x41)).isEqualTo(Cardinality.ONE);
+    }
+
     /**
      * The goal is to test the contract logic in {@linkplain com.edgedb.driver.binary.PacketSerializer}, specifically
      * the decoder returned from the <b>createDecoder</b> function. To achieve this, we can query something that
@@ -0,0 +1,128 @@
+import com.edgedb.driver.EdgeDBClient;
+import com.edgedb.driver.EdgeDBClientConfig;
+import com.edgedb.driver.metrics.QueryListener;
+import com.edgedb.driver.metrics.QueryTrace;
+import com.edgedb.driver.metrics.SlowQueryLogger;
+import com.edgedb.driver.mock.MockEdgeDBServer;
+import com.edgedb.driver.mock.MockQuery;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class QueryListenerTests {
+    private static final class RecordingListener implements QueryListener {
+        final List<String> phases = Collections.synchronizedList(new ArrayList<>());
+        final List<QueryTrace> completed = Collections.synchronizedList(new ArrayList<>());
+        volatile boolean cacheHit;
+        volatile long rows;
+        volatile long bytes;
+
+        @Override
+        public void onPoolAcquired(@NotNull QueryTrace trace) {
+            phases.add("acquired");
+        }
+
+        @Override
+        public void onParseStart(@NotNull QueryTrace trace) {
+            phases.add("parseStart");
+        }
+
+        @Override
+        public void onParseEnd(@NotNull QueryTrace trace) {
+            phases.add("parseEnd");
+        }
+
+        @Override
+        public void onExecuteSent(@NotNull QueryTrace trace) {
+            phases.add("executeSent");
+        }
+
+        @Override
+        public void onFirstData(@NotNull QueryTrace trace) {
+            phases.add("firstData");
+        }
+
+        @Override
+        public void onReadyForCommand(@NotNull QueryTrace trace) {
+            phases.add("ready");
+        }
+
+        @Override
+        public void onDecodeEnd(@NotNull QueryTrace trace) {
+            phases.add("decoded");
+        }
+
+        @Override
+        public void onCompleted(@NotNull QueryTrace trace, @Nullable Throwable error) {
+            // the trace is only valid within the call
+            cacheHit = trace.isParseCacheHit();
+            rows = trace.getRowCount();
+            bytes = trace.getByteCount();
+            phases.add("completed");
+            completed.add(trace);
+        }
+    }
+
+    @Test
+    public void testQueryPhases() throws Exception {
+        var listener = new RecordingListener();
+        var config = EdgeDBClientConfig.builder().withQueryListener(listener).build();
+        var query = "select Person.name";
+
+        try(
+                var server = MockEdgeDBServer.builder().withQuery(MockQuery.strings(query, "Alice", 5).build()).build().start();
+                var client = new EdgeDBClient(server.getConnection(), config)
+        ) {
+            assertThat(client.query(String.class, query).toCompletableFuture().get()).hasSize(5);
+
+            assertThat(listener.phases).containsExactly(
+                    "acquired", "parseStart", "parseEnd", "executeSent", "firstData", "ready", "decoded", "completed"
+            );
+            assertThat(listener.cacheHit).isFalse();
+            assertThat(listener.rows).isEqualTo(5);
+            assertThat(listener.bytes).isEqualTo(5 * "Alice".length());
+
+            listener.phases.clear();
+
+            assertThat(client.query(String.class, query).toCompletableFuture().get()).hasSize(5);
+
+            // the cached codecs skip the parse round trip, the parse events are still raised
+            assertThat(listener.phases).containsExactly(
+                    "acquired", "parseStart", "parseEnd", "executeSent", "firstData", "ready", "decoded", "completed"
+            );
+            assertThat(listener.cacheHit).isTrue();
+            assertThat(server.getParseCount()).isEqualTo(1);
+            assertThat(listener.completed).hasSize(2);
+        }
+    }
+
+    @Test
+    public void testSlowQueryLogger() throws Exception {
+        var slowQueries = SlowQueryLogger.builder()
+                .withThreshold(Duration.ZERO)
+                .withRateLimit(1, Duration.ofHours(1))
+                .build();
+        var config = EdgeDBClientConfig.builder().withQueryListener(slowQueries).build();
+        var query = "select Person.name";
+
+        try(
+                var server = MockEdgeDBServer.builder().withQuery(MockQuery.strings(query, "Alice", 2).build()).build().start();
+                var client = new EdgeDBClient(server.getConnection(), config)
+        ) {
+            for(int i = 0; i != 3; i++) {
+                assertThat(client.query(String.class, query).toCompletableFuture().get()).hasSize(2);
+            }
+        }
+
+        assertThatThrownBy(() -> SlowQueryLogger.builder().withSampleRate(2))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,98 @@
+import com.edgedb.driver.EdgeDBClient;
+import com.edgedb.driver.EdgeDBClientConfig;
+import com.edgedb.driver.exceptions.QueryTimeoutException;
+import com.edgedb.driver.metrics.SimpleDriverMetrics;
+import com.edgedb.driver.mock.MockEdgeDBServer;
+import com.edgedb.driver.mock.MockQuery;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class QueryTimeoutTests {
+    private static QueryTimeoutException timeoutOf(Throwable x) {
+        assertThat(x).isInstanceOf(ExecutionException.class).hasRootCauseInstanceOf(QueryTimeoutException.class);
+
+        while(!(x instanceof QueryTimeoutException)) {
+            x = x.getCause();
+        }
+
+        return (QueryTimeoutException) x;
+    }
+
+    @Test
+    public void testTimeoutDuringExecutionResyncsConnection() throws Exception {
+        var slow = "select Person.name";
+        var fast = "select Person.email";
+
+        try(
+                var server = MockEdgeDBServer.builder()
+                        .withSuggestedPoolConcurrency(1)
+                        .withQuery(MockQuery.strings(slow, "Alice", 2).withLatency(Duration.ofMillis(500)).build())
+                        .withQuery(MockQuery.strings(fast, "Alice", 2).build())
+                        .build().start();
+                var client = new EdgeDBClient(server.getConnection(), EdgeDBClientConfig.builder().withPoolSize(1).build())
+        ) {
+            // parses and caches the codecs, the query with a timeout only executes
+            assertThat(client.query(String.class, slow).toCompletableFuture().get()).hasSize(2);
+
+            var timeout = Duration.ofMillis(200);
+
+            assertThatThrownBy(() -> client.withTimeout(timeout).query(String.class, slow).toCompletableFuture().get())
+                    .satisfies(x -> {
+                        var e = timeoutOf(x);
+                        assertThat(e.getTimeout()).isEqualTo(timeout);
+                        assertThat(e.wasExecuted()).isTrue();
+                    });
+
+            // the late response of the timed out query is skipped, on the same connection
+            assertThat(client.query(String.class, fast).toCompletableFuture().get()).containsExactly("Alice", "Alice");
+            assertThat(server.getTotalConnections()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void testTimeoutWaitingForPoolSheds() throws Exception {
+        var metrics = new SimpleDriverMetrics();
+        var config = EdgeDBClientConfig.builder().withPoolSize(1).withMetrics(metrics).build();
+        var slow = "select Person.name";
+        var shed = "select Person.email";
+
+        try(
+                var server = MockEdgeDBServer.builder()
+                        .withSuggestedPoolConcurrency(1)
+                        .withQuery(MockQuery.strings(slow, "Alice", 2).withLatency(Duration.ofMillis(300)).build())
+                        .withQuery(MockQuery.strings(shed, "Alice", 2).build())
+                        .build().start();
+                var client = new EdgeDBClient(server.getConnection(), config)
+        ) {
+            var pending = client.query(String.class, slow).toCompletableFuture();
+
+            while(server.getParseCount() == 0) {
+                Thread.sleep(5);
+            }
+
+            assertThatThrownBy(() -> client.withTimeout(Duration.ofMillis(50)).query(String.class, shed)
+                    .toCompletableFuture().get())
+                    .satisfies(x -> assertThat(timeoutOf(x).wasExecuted()).isFalse())
+                    .hasStackTraceContaining("waiting for a client from the pool");
+
+            assertThat(pending.get()).hasSize(2);
+            assertThat(metrics.getShedQueries()).isEqualTo(1);
+            assertThat(server.getParseCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void testInvalidTimeout() throws Exception {
+        try(
+                var server = MockEdgeDBServer.builder().build().start();
+                var client = new EdgeDBClient(server.getConnection(), EdgeDBClientConfig.DEFAULT)
+        ) {
+            assertThatThrownBy(() -> client.withTimeout(Duration.ZERO)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
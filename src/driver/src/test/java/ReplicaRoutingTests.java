@@ -0,0 +1,216 @@
+import com.edgedb.driver.Capabilities;
+import com.edgedb.driver.EdgeDBClient;
+import com.edgedb.driver.EdgeDBClientConfig;
+import com.edgedb.driver.ErrorCode;
+import com.edgedb.driver.ReplicaSettings;
+import com.edgedb.driver.binary.protocol.common.Cardinality;
+import com.edgedb.driver.internal.ReplicaRouter;
+import com.edgedb.driver.metrics.SimpleDriverMetrics;
+import com.edgedb.driver.mock.MockEdgeDBServer;
+import com.edgedb.driver.mock.MockQuery;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ReplicaRoutingTests {
+    private static final EnumSet<Capabilities> READ_ONLY = EnumSet.of(Capabilities.READ_ONLY);
+    private static final EnumSet<Capabilities> MODIFICATIONS = EnumSet.of(Capabilities.MODIFICATIONS);
+
+    /**
+     * A server answering the query with its own name, along with the health checks.
+     */
+    private static MockEdgeDBServer.Builder server(String query, String name) {
+        return MockEdgeDBServer.builder()
+                .withQuery(MockQuery.strings(query, name, 1).withCardinality(Cardinality.ONE).build())
+                .withQuery(MockQuery.builder("select 1").withCardinality(Cardinality.NO_RESULT).build());
+    }
+
+    private static String run(EdgeDBClient client, String query, EnumSet<Capabilities> capabilities) throws Exception {
+        return client.querySingle(String.class, query, null, capabilities).toCompletableFuture().get(5, TimeUnit.SECONDS);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        while(!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testReadOnlyQueriesGoToReplicas() throws Exception {
+        var metrics = new SimpleDriverMetrics();
+        var query = "select Warehouse.city limit 1";
+
+        try(
+                var primary = server(query, "primary").build().start();
+                var replica = server(query, "replica").build().start();
+                var client = new EdgeDBClient(
+                        primary.getConnection(),
+                        List.of(replica.getConnection()),
+                        EdgeDBClientConfig.builder().withMetrics(metrics).build()
+                )
+        ) {
+            assertThat(run(client, query, READ_ONLY)).isEqualTo("replica");
+            assertThat(run(client, query, MODIFICATIONS)).isEqualTo("primary");
+
+            var inTransaction = client.transaction(tx -> tx.querySingle(String.class, query, null, READ_ONLY))
+                    .toCompletableFuture().get(5, TimeUnit.SECONDS);
+
+            assertThat(inTransaction).isEqualTo("primary");
+            assertThat(metrics.getReplicaQueries()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void testFasterReplicaGetsMostQueries() throws Exception {
+        var query = "select Warehouse.city limit 1";
+        var settings = ReplicaSettings.builder().withHealthCheckInterval(Duration.ofMinutes(1)).build();
+
+        try(
+                var primary = server(query, "primary").build().start();
+                var slow = server(query, "slow").withLatency(Duration.ofMillis(40), Duration.ofMillis(40)).build().start();
+                var fast = server(query, "fast").build().start();
+                var client = new EdgeDBClient(
+                        primary.getConnection(),
+                        List.of(slow.getConnection(), fast.getConnection()),
+                        EdgeDBClientConfig.builder().withReplicaRouting(settings).build()
+                )
+        ) {
+            for(int i = 0; i != 20; i++) {
+                assertThat(run(client, query, READ_ONLY)).isIn("slow", "fast");
+            }
+
+            // each replica is tried once, then the slow one is only picked while the fast one is busy
+            assertThat(slow.getExecuteCount()).isLessThanOrEqualTo(2);
+            assertThat(fast.getExecuteCount()).isGreaterThanOrEqualTo(18);
+            assertThat(primary.getExecuteCount()).isZero();
+        }
+    }
+
+    @Test
+    public void testUnhealthyReplicaIsEjected() throws Exception {
+        var metrics = new SimpleDriverMetrics();
+        var query = "select Warehouse.city limit 1";
+        var settings = ReplicaSettings.builder()
+                .withHealthCheckInterval(Duration.ofMillis(50))
+                .withFailureThreshold(1)
+                .build();
+
+        try(
+                var primary = server(query, "primary").build().start();
+                var replica = server(query, "replica").build().start();
+                var client = new EdgeDBClient(
+                        primary.getConnection(),
+                        List.of(replica.getConnection()),
+                        EdgeDBClientConfig.builder().withMetrics(metrics).withReplicaRouting(settings).build()
+                )
+        ) {
+            assertThat(run(client, query, READ_ONLY)).isEqualTo("replica");
+
+            // fails the health checks until told otherwise, the replica can't come back before it's asserted away
+            replica.failNext(Integer.MAX_VALUE, ErrorCode.INTERNAL_SERVER_ERROR);
+            await(() -> metrics.getReplicaEjections() == 1);
+
+            assertThat(run(client, query, READ_ONLY)).isEqualTo("primary");
+
+            // the replica is back once a check passes
+            replica.failNext(0, ErrorCode.INTERNAL_SERVER_ERROR);
+            await(() -> {
+                try {
+                    return run(client, query, READ_ONLY).equals("replica");
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            });
+
+            assertThat(metrics.getReplicaEjections()).isEqualTo(1);
+        }
+
+        assertThatThrownBy(() -> ReplicaSettings.builder().withFailureThreshold(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testClosingViewKeepsRouting() throws Exception {
+        var metrics = new SimpleDriverMetrics();
+        var query = "select Warehouse.city limit 1";
+        var settings = ReplicaSettings.builder()
+                .withHealthCheckInterval(Duration.ofMillis(50))
+                .withFailureThreshold(1)
+                .build();
+
+        try(
+                var primary = server(query, "primary").build().start();
+                var replica = server(query, "replica").build().start();
+                var client = new EdgeDBClient(
+                        primary.getConnection(),
+                        List.of(replica.getConnection()),
+                        EdgeDBClientConfig.builder().withMetrics(metrics).withReplicaRouting(settings).build()
+                )
+        ) {
+            try(var view = client.withTimeout(Duration.ofSeconds(5))) {
+                assertThat(run(view, query, READ_ONLY)).isEqualTo("replica");
+            }
+
+            // the health checks still run, and the replica client is still open once the replica recovers
+            replica.failNext(Integer.MAX_VALUE, ErrorCode.INTERNAL_SERVER_ERROR);
+            await(() -> metrics.getReplicaEjections() == 1);
+
+            assertThat(run(client, query, READ_ONLY)).isEqualTo("primary");
+
+            replica.failNext(0, ErrorCode.INTERNAL_SERVER_ERROR);
+            await(() -> {
+                try {
+                    return run(client, query, READ_ONLY).equals("replica");
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            });
+        }
+    }
+
+    @Test
+    public void testReplicaWithoutLatencyDoesNotTakeEveryQuery() {
+        var settings = ReplicaSettings.builder().withHealthCheckInterval(Duration.ofMinutes(1)).build();
+
+        try(var router = new ReplicaRouter<>(
+                List.of("sampled", "new"), settings, r -> CompletableFuture.completedFuture(null), () -> {}
+        )) {
+            // only one of the replicas has a latency
+            while(true) {
+                var host = router.route();
+                assertThat(host).isNotNull();
+
+                if(host.getTarget().equals("sampled")) {
+                    host.completed(TimeUnit.MILLISECONDS.toNanos(10));
+                    break;
+                }
+
+                host.released();
+            }
+
+            var routed = new HashMap<String, Integer>();
+
+            for(int i = 0; i != 10; i++) {
+                var host = router.route();
+                assertThat(host).isNotNull();
+                routed.merge(host.getTarget(), 1, Integer::sum);
+            }
+
+            // the new replica is tried first, then its queries in flight count against it
+            assertThat(routed.get("new")).isBetween(5, 6);
+            assertThat(routed.get("sampled")).isBetween(4, 5);
+        }
+    }
+}
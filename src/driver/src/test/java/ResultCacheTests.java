@@ -0,0 +1,205 @@
+import com.edgedb.driver.Capabilities;
+import com.edgedb.driver.EdgeDBClient;
+import com.edgedb.driver.EdgeDBClientConfig;
+import com.edgedb.driver.SimpleResultCache;
+import com.edgedb.driver.metrics.SimpleDriverMetrics;
+import com.edgedb.driver.mock.MockDescriptors;
+import com.edgedb.driver.mock.MockEdgeDBServer;
+import com.edgedb.driver.mock.MockQuery;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ResultCacheTests {
+    private static final EnumSet<Capabilities> READ_ONLY = EnumSet.of(Capabilities.READ_ONLY);
+
+    private static EdgeDBClientConfig config(SimpleDriverMetrics metrics, SimpleResultCache cache) {
+        return EdgeDBClientConfig.builder()
+                .withMetrics(metrics)
+                .withResultCache(cache)
+                .build();
+    }
+
+    @Test
+    public void testReadOnlyQueriesAreServedFromTheCache() throws Exception {
+        var metrics = new SimpleDriverMetrics();
+        var cache = new SimpleResultCache(1024 * 1024);
+        var text = "select Country.name";
+
+        try(
+                var server = MockEdgeDBServer.builder()
+                        .withQuery(MockQuery.strings(text, "France", 2).build())
+                        .build().start();
+                var client = new EdgeDBClient(server.getConnection(), config(metrics, cache))
+        ) {
+            var cached = client.withCaching(Duration.ofMinutes(1), "countries");
+
+            assertThat(cached.query(String.class, text, null, READ_ONLY).toCompletableFuture().get())
+                    .containsExactly("France", "France");
+            assertThat(cached.query(String.class, text, null, READ_ONLY).toCompletableFuture().get())
+                    .containsExactly("France", "France");
+
+            // the same entry is decoded to another type
+            assertThat(cached.query(Object.class, text, null, READ_ONLY).toCompletableFuture().get())
+                    .containsExactly("France", "France");
+
+            assertThat(server.getExecuteCount()).isEqualTo(1);
+            assertThat(metrics.getResultCacheMisses()).isEqualTo(1);
+            assertThat(metrics.getResultCacheHits()).isEqualTo(2);
+            assertThat(metrics.getQueries().getCount()).isEqualTo(1);
+            assertThat(cache.getCount()).isEqualTo(1);
+
+            // queries that may modify data, and queries of views that don't cache, aren't cached
+            cached.query(String.class, text).toCompletableFuture().get();
+            client.query(String.class, text, null, READ_ONLY).toCompletableFuture().get();
+
+            assertThat(server.getExecuteCount()).isEqualTo(3);
+            assertThat(metrics.getResultCacheHits()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    public void testEachHitDecodesItsOwnCopy() throws Exception {
+        var metrics = new SimpleDriverMetrics();
+        var text = "select Country.name";
+
+        try(
+                var server = MockEdgeDBServer.builder()
+                        .withQuery(MockQuery.scalars(text, MockDescriptors.STD_BYTES, "std::bytes", "svg", 2).build())
+                        .build().start();
+                var client = new EdgeDBClient(server.getConnection(), config(metrics, new SimpleResultCache(4096)))
+        ) {
+            var cached = client.withCaching(Duration.ofMinutes(1));
+
+            var a = cached.query(Byte[].class, text, null, READ_ONLY).toCompletableFuture().get();
+            a.get(0)[0] = 0;
+
+            var b = cached.query(Byte[].class, text, null, READ_ONLY).toCompletableFuture().get();
+
+            assertThat(metrics.getResultCacheHits()).isEqualTo(1);
+            assertThat(b.get(0)).isNotSameAs(a.get(0)).containsExactly((byte)'s', (byte)'v', (byte)'g');
+        }
+    }
+
+    @Test
+    public void testEntriesAreInvalidatedByTagAndExpire() throws Exception {
+        var metrics = new SimpleDriverMetrics();
+        var cache = new SimpleResultCache(1024 * 1024);
+        var countries = "select Country.capital";
+        var cities = "select City.name";
+
+        try(
+                var server = MockEdgeDBServer.builder()
+                        .withQuery(MockQuery.strings(countries, "Paris", 2).build())
+                        .withQuery(MockQuery.strings(cities, "Lyon", 2).build())
+                        .build().start();
+                var client = new EdgeDBClient(server.getConnection(), config(metrics, cache))
+        ) {
+            var cachedCountries = client.withCaching(Duration.ofMinutes(1), "countries");
+            var cachedCities = client.withCaching(Duration.ofMinutes(1), "cities");
+
+            cachedCountries.query(String.class, countries, null, READ_ONLY).toCompletableFuture().get();
+            cachedCities.query(String.class, cities, null, READ_ONLY).toCompletableFuture().get();
+            assertThat(cache.getCount()).isEqualTo(2);
+
+            client.invalidateCache("countries");
+            assertThat(cache.getCount()).isEqualTo(1);
+
+            cachedCountries.query(String.class, countries, null, READ_ONLY).toCompletableFuture().get();
+            cachedCities.query(String.class, cities, null, READ_ONLY).toCompletableFuture().get();
+
+            assertThat(server.getExecuteCount()).isEqualTo(3);
+            assertThat(metrics.getResultCacheHits()).isEqualTo(1);
+
+            // the entry of a query is shared by the views caching it, whatever their time to live
+            client.invalidateCache("cities");
+
+            var shortLived = client.withCaching(Duration.ofMillis(50));
+            shortLived.query(String.class, cities, null, READ_ONLY).toCompletableFuture().get();
+            Thread.sleep(100);
+            shortLived.query(String.class, cities, null, READ_ONLY).toCompletableFuture().get();
+
+            assertThat(server.getExecuteCount()).isEqualTo(5);
+        }
+    }
+
+    @Test
+    public void testArgumentsArePartOfTheKey() throws Exception {
+        var metrics = new SimpleDriverMetrics();
+        var text = "select Country filter .code = <str>$code";
+
+        try(
+                var server = MockEdgeDBServer.builder()
+                        .withQuery(MockQuery.strings(text, "Spain", 2)
+                                .withInput(
+                                        UUID.fromString("5d1e4a52-0c1b-4c8e-9a47-3b7a4b3e0c01"),
+                                        MockDescriptors.arguments(
+                                                UUID.fromString("5d1e4a52-0c1b-4c8e-9a47-3b7a4b3e0c01"),
+                                                MockDescriptors.STD_STR, "std::str", "code"
+                                        )
+                                ).build())
+                        .build().start();
+                var client = new EdgeDBClient(server.getConnection(), config(metrics, new SimpleResultCache(4096)))
+        ) {
+            var cached = client.withCaching(Duration.ofMinutes(1));
+
+            for(int i = 0; i != 2; i++) {
+                cached.query(String.class, text, Map.of("code", "ES"), READ_ONLY).toCompletableFuture().get();
+                cached.query(String.class, text, Map.of("code", "PT"), READ_ONLY).toCompletableFuture().get();
+            }
+
+            assertThat(server.getExecuteCount()).isEqualTo(2);
+            assertThat(metrics.getResultCacheHits()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    public void testCacheIsBoundedBySize() throws Exception {
+        var metrics = new SimpleDriverMetrics();
+        var names = "select Region.name";
+        var codes = "select Region.code";
+        // holds the entry of either query, the key and the two rows, but not both
+        var cache = new SimpleResultCache(60);
+
+        try(
+                var server = MockEdgeDBServer.builder()
+                        .withQuery(MockQuery.strings(names, "Occitanie", 2).build())
+                        .withQuery(MockQuery.strings(codes, "OC", 2).build())
+                        .build().start();
+                var client = new EdgeDBClient(server.getConnection(), config(metrics, cache))
+        ) {
+            var cached = client.withCaching(Duration.ofMinutes(1));
+
+            cached.query(String.class, names, null, READ_ONLY).toCompletableFuture().get();
+            cached.query(String.class, codes, null, READ_ONLY).toCompletableFuture().get();
+
+            assertThat(cache.getCount()).isEqualTo(1);
+            assertThat(cache.getSize()).isLessThanOrEqualTo(60);
+
+            // the least recently used entry was evicted
+            cached.query(String.class, codes, null, READ_ONLY).toCompletableFuture().get();
+            cached.query(String.class, names, null, READ_ONLY).toCompletableFuture().get();
+
+            assertThat(metrics.getResultCacheHits()).isEqualTo(1);
+            assertThat(server.getExecuteCount()).isEqualTo(3);
+        }
+
+        assertThatThrownBy(() -> new SimpleResultCache(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void testCachingRequiresAResultCache() throws Exception {
+        try(
+                var server = MockEdgeDBServer.builder().build().start();
+                var client = new EdgeDBClient(server.getConnection(), EdgeDBClientConfig.DEFAULT)
+        ) {
+            assertThatThrownBy(() -> client.withCaching(Duration.ofMinutes(1))).isInstanceOf(IllegalStateException.class);
+        }
+    }
+}
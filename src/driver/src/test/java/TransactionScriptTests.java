@@ -0,0 +1,167 @@
+import com.edgedb.driver.EdgeDBClient;
+import com.edgedb.driver.EdgeDBClientConfig;
+import com.edgedb.driver.ErrorCode;
+import com.edgedb.driver.TransactionScript;
+import com.edgedb.driver.TransactionSettings;
+import com.edgedb.driver.binary.protocol.common.Cardinality;
+import com.edgedb.driver.exceptions.EdgeDBErrorException;
+import com.edgedb.driver.exceptions.TransactionException;
+import com.edgedb.driver.mock.MockDescriptors;
+import com.edgedb.driver.mock.MockEdgeDBServer;
+import com.edgedb.driver.mock.MockQuery;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+public class TransactionScriptTests {
+    private static MockQuery statement(String query) {
+        return MockQuery.builder(query).withCardinality(Cardinality.NO_RESULT).withStatus("UPDATE").build();
+    }
+
+    @Test
+    public void testScriptRunsInOnePipeline() throws Exception {
+        var debit = "update Account filter .id = <uuid>'0b6f6c3e-1d55-4a8e-9c43-6a0d2f1e7b01' set { balance := .balance - 10 }";
+        var credit = "update Account filter .name = <str>$name set { balance := .balance + 10 }";
+        var argumentsId = UUID.fromString("3a9e7c41-2b6d-4f0e-8c15-7d2e9b4a1f01");
+
+        try(
+                var server = MockEdgeDBServer.builder()
+                        .withQuery(statement(debit))
+                        .withQuery(MockQuery.builder(credit)
+                                .withCardinality(Cardinality.NO_RESULT)
+                                .withStatus("UPDATE")
+                                .withInput(argumentsId, MockDescriptors.arguments(
+                                        argumentsId, MockDescriptors.STD_STR, "std::str", "name"
+                                ))
+                                .build())
+                        .build().start();
+                var client = new EdgeDBClient(server.getConnection(), EdgeDBClientConfig.DEFAULT)
+        ) {
+            var script = TransactionScript.builder()
+                    .execute(debit)
+                    .execute(credit, Map.of("name", "savings"))
+                    .build();
+
+            client.transaction(script).toCompletableFuture().get(5, TimeUnit.SECONDS);
+
+            // the start, both statements and the commit, only the statement with arguments is parsed
+            assertThat(server.getExecuteCount()).isEqualTo(4);
+            assertThat(server.getParseCount()).isEqualTo(1);
+
+            client.transaction(script).toCompletableFuture().get(5, TimeUnit.SECONDS);
+
+            // its codecs are cached by then
+            assertThat(server.getExecuteCount()).isEqualTo(8);
+            assertThat(server.getParseCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void testFailedStatementRollsBack() throws Exception {
+        var failing = "update Ledger set { closed := true }";
+        var skipped = "update Ledger set { audited := true }";
+
+        try(
+                var server = MockEdgeDBServer.builder()
+                        .withQuery(MockQuery.builder(failing).withError(ErrorCode.CONSTRAINT_VIOLATION_ERROR, "ledger is locked").build())
+                        .withQuery(statement(skipped))
+                        .build().start();
+                var client = new EdgeDBClient(server.getConnection(), EdgeDBClientConfig.DEFAULT)
+        ) {
+            var script = TransactionScript.builder().execute(failing).execute(skipped).build();
+
+            assertThatThrownBy(() -> client.transaction(script).toCompletableFuture().get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasRootCauseInstanceOf(EdgeDBErrorException.class)
+                    .hasStackTraceContaining("ledger is locked");
+
+            // the start, the failed statement and the rollback
+            assertThat(server.getExecuteCount()).isEqualTo(3);
+
+            // the connection is usable again
+            client.transaction(TransactionScript.builder().execute(skipped).build())
+                    .toCompletableFuture().get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testFailedStatementIsReported() throws Exception {
+        var statements = new String[] {
+                "update Shipment set { packed := true }",
+                "update Shipment set { labelled := true }",
+                "update Shipment set { dispatched := true }"
+        };
+
+        for(int failing = 0; failing != statements.length; failing++) {
+            var builder = MockEdgeDBServer.builder();
+            var script = TransactionScript.builder();
+
+            for(int i = 0; i != statements.length; i++) {
+                builder.withQuery(i == failing
+                        ? MockQuery.builder(statements[i])
+                                .withError(ErrorCode.CONSTRAINT_VIOLATION_ERROR, "shipment is on hold")
+                                .build()
+                        : statement(statements[i]));
+                script.execute(statements[i]);
+            }
+
+            try(
+                    var server = builder.build().start();
+                    var client = new EdgeDBClient(server.getConnection(), EdgeDBClientConfig.DEFAULT)
+            ) {
+                var error = catchThrowable(
+                        () -> client.transaction(script.build()).toCompletableFuture().get(5, TimeUnit.SECONDS)
+                );
+
+                assertThat(error).rootCause()
+                        .isInstanceOf(EdgeDBErrorException.class)
+                        .hasFieldOrPropertyWithValue("query", statements[failing]);
+
+                // the start, the statements up to the failed one and the rollback
+                assertThat(server.getExecuteCount()).isEqualTo(failing + 3);
+            }
+        }
+    }
+
+    @Test
+    public void testConflictsAreRetried() throws Exception {
+        var text = "update Inventory set { reserved := .reserved + 1 }";
+
+        try(
+                var server = MockEdgeDBServer.builder()
+                        .withQuery(statement(text))
+                        .build().start();
+                var client = new EdgeDBClient(server.getConnection(), EdgeDBClientConfig.DEFAULT)
+        ) {
+            var settings = TransactionSettings.builder()
+                    .withRetryAttempts(3)
+                    .withRetryDelay(Duration.ofMillis(5))
+                    .build();
+            var script = TransactionScript.builder().execute(text).build();
+
+            server.failNext(2, ErrorCode.TRANSACTION_SERIALIZATION_ERROR);
+            client.transaction(settings, script).toCompletableFuture().get(5, TimeUnit.SECONDS);
+
+            // two failed starts, then the start, the statement and the commit
+            assertThat(server.getExecuteCount()).isEqualTo(5);
+
+            server.failNext(4, ErrorCode.TRANSACTION_DEADLOCK_ERROR);
+
+            assertThatThrownBy(() -> client.transaction(settings, script).toCompletableFuture().get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(TransactionException.class)
+                    .hasRootCauseInstanceOf(EdgeDBErrorException.class);
+        }
+
+        assertThatThrownBy(() -> TransactionSettings.builder().withRetryDelay(Duration.ofMillis(-1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,31 @@
+import com.edgedb.driver.EdgeDBClient;
+import com.edgedb.driver.EdgeDBClientConfig;
+import com.edgedb.driver.binary.protocol.common.Cardinality;
+import com.edgedb.driver.mock.MockEdgeDBServer;
+import com.edgedb.driver.mock.MockQuery;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TransactionTests {
+    @Test
+    public void testCallbackTransactionRunsSeveralStatements() throws Exception {
+        var text = "update Inventory set { counted := true }";
+
+        try(
+                var server = MockEdgeDBServer.builder()
+                        .withQuery(MockQuery.builder(text).withCardinality(Cardinality.NO_RESULT).withStatus("UPDATE").build())
+                        .build().start();
+                var client = new EdgeDBClient(server.getConnection(), EdgeDBClientConfig.DEFAULT)
+        ) {
+            // the second statement waits on the first one's permit, which used to never be released
+            client.transaction(tx -> tx.execute(text).thenCompose(v -> tx.execute(text)))
+                    .toCompletableFuture().get(5, TimeUnit.SECONDS);
+
+            // start, both statements and the commit
+            assertThat(server.getExecuteCount()).isEqualTo(4);
+        }
+    }
+}
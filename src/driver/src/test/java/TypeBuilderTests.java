@@ -0,0 +1,120 @@
+import com.edgedb.driver.CollectionFactory;
+import com.edgedb.driver.EdgeDBClientConfig;
+import com.edgedb.driver.EdgeDBConnection;
+import com.edgedb.driver.annotations.EdgeDBName;
+import com.edgedb.driver.annotations.EdgeDBType;
+import com.edgedb.driver.binary.builders.IdentityMap;
+import com.edgedb.driver.binary.builders.ObjectBuilder;
+import com.edgedb.driver.binary.builders.types.TypeBuilder;
+import com.edgedb.driver.binary.codecs.CodecContext;
+import com.edgedb.driver.binary.codecs.ObjectCodec;
+import com.edgedb.driver.binary.codecs.scalars.Integer32Codec;
+import com.edgedb.driver.binary.codecs.scalars.TextCodec;
+import com.edgedb.driver.binary.codecs.scalars.UUIDCodec;
+import com.edgedb.driver.binary.protocol.common.Cardinality;
+import com.edgedb.driver.clients.EdgeDBTCPClient;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TypeBuilderTests {
+    @EdgeDBType
+    public static final class ImmutablePerson {
+        private final String name;
+        @EdgeDBName("years")
+        private final int age;
+
+        public ImmutablePerson(String name, int age) {
+            this.name = name;
+            this.age = age;
+        }
+    }
+
+    private static ObjectCodec createPersonCodec() {
+        return new ObjectCodec(
+                UUID.randomUUID(), null, null,
+                ObjectCodec.propertyOf("years", Cardinality.ONE, new Integer32Codec(null)),
+                ObjectCodec.propertyOf("name", Cardinality.ONE, new TextCodec(null)),
+                ObjectCodec.propertyOf("unknown", Cardinality.ONE, new TextCodec(null))
+        );
+    }
+
+    private static ByteBuf createPersonData(String name, int age) {
+        var nameBytes = name.getBytes(StandardCharsets.UTF_8);
+
+        return Unpooled.buffer()
+                .writeInt(3)
+                .writeInt(0).writeInt(4).writeInt(age)
+                .writeInt(0).writeInt(nameBytes.length).writeBytes(nameBytes)
+                .writeInt(0).writeInt(-1);
+    }
+
+    @Test
+    public void testDeserializeThroughCanonicalConstructor() throws Exception {
+        var client = new EdgeDBTCPClient(new EdgeDBConnection(), EdgeDBClientConfig.DEFAULT, null);
+        var codec = createPersonCodec();
+
+        for(int i = 0; i != 2; i++) {
+            var person = TypeBuilder.buildObject(client, ImmutablePerson.class, codec, createPersonData("John", 42 + i));
+
+            assertThat(person).isNotNull();
+            assertThat(person.name).isEqualTo("John");
+            assertThat(person.age).isEqualTo(42 + i);
+        }
+    }
+
+    @Test
+    public void testCollectionFactories() throws Exception {
+        var elements = new Object[] { "a", "b", "a" };
+
+        assertThat(ObjectBuilder.convertTo(LinkedHashSet.class, elements)).containsExactly("a", "b");
+        assertThat(ObjectBuilder.convertTo(ArrayList.class, elements)).containsExactly("a", "b", "a");
+
+        CollectionFactory.register(ArrayDeque.class, v -> new ArrayDeque<>(Arrays.asList(v)));
+
+        assertThat(ObjectBuilder.convertTo(ArrayDeque.class, elements)).containsExactly("a", "b", "a");
+    }
+
+    @Test
+    public void testIdentityMapResolvesSameInstance() throws Exception {
+        var client = new EdgeDBTCPClient(new EdgeDBConnection(), EdgeDBClientConfig.DEFAULT, null);
+        var codec = new ObjectCodec(
+                UUID.randomUUID(), null, null,
+                ObjectCodec.propertyOf("years", Cardinality.ONE, new Integer32Codec(null)),
+                ObjectCodec.propertyOf("id", Cardinality.ONE, new UUIDCodec(null))
+        );
+        var id = UUID.randomUUID();
+
+        Supplier<ByteBuf> data = () -> Unpooled.buffer()
+                .writeInt(2)
+                .writeInt(0).writeInt(4).writeInt(42)
+                .writeInt(0).writeInt(16).writeLong(id.getMostSignificantBits()).writeLong(id.getLeastSignificantBits());
+
+        var context = new CodecContext(client, new IdentityMap());
+
+        var first = TypeBuilder.buildObject(context, IdentifiedPerson.class, codec, data.get());
+        var second = TypeBuilder.buildObject(context, IdentifiedPerson.class, codec, data.get());
+        var unmapped = TypeBuilder.buildObject(client, IdentifiedPerson.class, codec, data.get());
+
+        assertThat(first).isNotNull().isSameAs(second).isNotSameAs(unmapped);
+        assertThat(first.id).isEqualTo(id);
+    }
+
+    @EdgeDBType
+    public static final class IdentifiedPerson {
+        private final UUID id;
+        @EdgeDBName("years")
+        private final int age;
+
+        public IdentifiedPerson(UUID id, int age) {
+            this.id = id;
+            this.age = age;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.edgedb.driver.clients;
+
+import com.edgedb.driver.JsonStreamMode;
+import com.edgedb.driver.binary.codecs.Codec;
+import com.edgedb.driver.binary.codecs.scalars.JsonCodec;
+import com.edgedb.driver.binary.codecs.scalars.TextCodec;
+import com.edgedb.driver.exceptions.EdgeDBException;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.Pipe;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class JsonStreamWriterTests {
+    private static final Codec<?> TEXT_CODEC = new TextCodec(null);
+    private static final Codec<?> JSON_CODEC = new JsonCodec(null);
+
+    @Test
+    public void testArrayFraming() throws EdgeDBException {
+        var output = new ByteArrayOutputStream();
+        var writer = writer(output, JsonStreamMode.ARRAY);
+
+        writeText(writer, "{\"a\":1}");
+        writeText(writer, "{\"a\":2}");
+        writer.finish().toCompletableFuture().join();
+
+        assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo("[{\"a\":1},{\"a\":2}]");
+        assertThat(writer.getCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void testNdjsonFraming() throws EdgeDBException {
+        var output = new ByteArrayOutputStream();
+        var writer = writer(output, JsonStreamMode.NDJSON);
+
+        writeText(writer, "{\"a\":1}");
+        writeText(writer, "{\"a\":2}");
+        writer.finish().toCompletableFuture().join();
+
+        assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo("{\"a\":1}\n{\"a\":2}\n");
+        assertThat(writer.getCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void testEmptyResult() throws EdgeDBException {
+        var array = new ByteArrayOutputStream();
+        var arrayWriter = writer(array, JsonStreamMode.ARRAY);
+        arrayWriter.finish().toCompletableFuture().join();
+
+        assertThat(array.toString(StandardCharsets.UTF_8)).isEqualTo("[]");
+        assertThat(arrayWriter.getCount()).isZero();
+
+        var ndjson = new ByteArrayOutputStream();
+        var ndjsonWriter = writer(ndjson, JsonStreamMode.NDJSON);
+        ndjsonWriter.finish().toCompletableFuture().join();
+
+        assertThat(ndjson.size()).isZero();
+        assertThat(ndjsonWriter.getCount()).isZero();
+    }
+
+    @Test
+    public void testBinaryJsonFormatPrefixIsSkipped() throws EdgeDBException {
+        var output = new ByteArrayOutputStream();
+        var writer = writer(output, JsonStreamMode.ARRAY);
+
+        var json = "{\"a\":1}".getBytes(StandardCharsets.UTF_8);
+        var payload = Unpooled.buffer(json.length + 1).writeByte(1).writeBytes(json);
+
+        writer.handle(JSON_CODEC, payload).toCompletableFuture().join();
+        writer.finish().toCompletableFuture().join();
+
+        assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo("[{\"a\":1}]");
+        assertThat(writer.getCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testHasReceivedData() throws EdgeDBException {
+        var writer = writer(new ByteArrayOutputStream(), JsonStreamMode.NDJSON);
+
+        assertThat(writer.hasReceivedData()).isFalse();
+
+        writeText(writer, "1");
+
+        // the client checks this before retrying, a retry would write the elements again.
+        assertThat(writer.hasReceivedData()).isTrue();
+    }
+
+    @Test
+    public void testPayloadIsRetainedUntilWritten() throws EdgeDBException {
+        var output = new ByteArrayOutputStream();
+        var writes = new ArrayDeque<Runnable>();
+        var writer = new JsonStreamWriter(Channels.newChannel(output), JsonStreamMode.NDJSON, writes::add);
+
+        var payload = Unpooled.wrappedBuffer("1".getBytes(StandardCharsets.UTF_8));
+        var written = writer.handle(TEXT_CODEC, payload).toCompletableFuture();
+
+        // the connection releases its payloads once handed over.
+        payload.release();
+
+        assertThat(written).isNotDone();
+        assertThat(payload.refCnt()).isEqualTo(1);
+        assertThat(output.size()).isZero();
+
+        writes.remove().run();
+
+        assertThat(written).isCompleted();
+        assertThat(payload.refCnt()).isZero();
+        assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo("1\n");
+    }
+
+    @Test
+    public void testFailedWriteReleasesPayload() throws EdgeDBException, IOException {
+        var channel = Channels.newChannel(new ByteArrayOutputStream());
+        var writer = new JsonStreamWriter(channel, JsonStreamMode.NDJSON, Runnable::run);
+
+        channel.close();
+
+        var payload = Unpooled.wrappedBuffer("1".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> writer.handle(TEXT_CODEC, payload).toCompletableFuture().join())
+                .hasCauseInstanceOf(EdgeDBException.class)
+                .hasRootCauseInstanceOf(ClosedChannelException.class);
+
+        assertThat(payload.refCnt()).isEqualTo(1);
+    }
+
+    @Test
+    public void testNonBlockingChannelIsRejected() throws IOException {
+        var pipe = Pipe.open();
+
+        try {
+            pipe.sink().configureBlocking(false);
+
+            assertThatThrownBy(() -> new JsonStreamWriter(pipe.sink(), JsonStreamMode.ARRAY, Runnable::run))
+                    .isInstanceOf(EdgeDBException.class);
+        } finally {
+            pipe.sink().close();
+            pipe.source().close();
+        }
+    }
+
+    private static JsonStreamWriter writer(ByteArrayOutputStream output, JsonStreamMode mode) throws EdgeDBException {
+        return new JsonStreamWriter(Channels.newChannel(output), mode, Runnable::run);
+    }
+
+    private static void writeText(JsonStreamWriter writer, String json) throws EdgeDBException {
+        writer.handle(TEXT_CODEC, Unpooled.wrappedBuffer(json.getBytes(StandardCharsets.UTF_8)))
+                .toCompletableFuture()
+                .join();
+    }
+}
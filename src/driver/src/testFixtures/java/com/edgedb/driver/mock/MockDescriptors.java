@@ -0,0 +1,172 @@
+package com.edgedb.driver.mock;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static com.edgedb.driver.mock.MockMessages.writeString;
+import static com.edgedb.driver.mock.MockMessages.writeUUID;
+
+/**
+ * Builds type descriptor blocks in the protocol 2.0 layout, for scripting {@linkplain MockQuery} responses without a
+ * recorded fixture.
+ */
+public final class MockDescriptors {
+    public static final UUID STD_UUID = scalarId(0x100);
+    public static final UUID STD_STR = scalarId(0x101);
+    public static final UUID STD_BYTES = scalarId(0x102);
+    public static final UUID STD_INT16 = scalarId(0x103);
+    public static final UUID STD_INT32 = scalarId(0x104);
+    public static final UUID STD_INT64 = scalarId(0x105);
+    public static final UUID STD_FLOAT32 = scalarId(0x106);
+    public static final UUID STD_FLOAT64 = scalarId(0x107);
+    public static final UUID STD_DECIMAL = scalarId(0x108);
+    public static final UUID STD_BOOL = scalarId(0x109);
+    public static final UUID STD_DATETIME = scalarId(0x10a);
+    public static final UUID STD_JSON = scalarId(0x10f);
+
+    private static final byte OBJECT_SHAPE = 1;
+    private static final byte SCALAR = 3;
+    private static final byte ARRAY = 6;
+    private static final byte INPUT_SHAPE = 8;
+    private static final byte AT_MOST_ONE = 0x6f;
+    private static final byte ONE = 0x41;
+
+    private MockDescriptors() {}
+
+    /**
+     * Creates the descriptor block of a base scalar type.
+     * @param id The id of the scalar, one of the constants of this class.
+     * @param name The name of the scalar, for example {@code std::int64}.
+     * @return The descriptor block.
+     */
+    public static byte @NotNull [] scalar(@NotNull UUID id, @NotNull String name) {
+        var buffer = Unpooled.buffer();
+
+        try {
+            writeScalar(buffer, id, name);
+            return ByteBufUtil.getBytes(buffer);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /**
+     * Creates the descriptor of the arguments of a query: an object shape of required arguments of the same scalar
+     * type.
+     * @param id The id of the shape, codecs are cached per process so it must be unique to the test.
+     * @param type The id of the scalar type of the arguments, one of the constants of this class.
+     * @param typeName The name of the scalar type, for example {@code std::str}.
+     * @param names The names of the arguments.
+     * @return The descriptor block.
+     */
+    public static byte @NotNull [] arguments(
+            @NotNull UUID id, @NotNull UUID type, @NotNull String typeName, @NotNull String... names
+    ) {
+        var buffer = Unpooled.buffer();
+
+        try {
+            writeScalar(buffer, type, typeName);
+            writeArguments(buffer, id, 0, names);
+            return ByteBufUtil.getBytes(buffer);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /**
+     * Creates the descriptor of the arguments of a query taking a single required array of a scalar type.
+     * @param id The id of the shape, codecs are cached per process so it must be unique to the test.
+     * @param arrayId The id of the array type, also unique to the test.
+     * @param type The id of the scalar type of the elements, one of the constants of this class.
+     * @param typeName The name of the scalar type, for example {@code std::uuid}.
+     * @param name The name of the argument.
+     * @return The descriptor block.
+     */
+    public static byte @NotNull [] arrayArgument(
+            @NotNull UUID id, @NotNull UUID arrayId, @NotNull UUID type, @NotNull String typeName, @NotNull String name
+    ) {
+        var buffer = Unpooled.buffer();
+
+        try {
+            writeScalar(buffer, type, typeName);
+            writeDescriptor(buffer, ARRAY, arrayId, d -> {
+                writeString(d, "array<" + typeName + ">");
+                d.writeBoolean(false); // schema defined
+                d.writeShort(0); // ancestors
+                d.writeShort(0); // type position of the scalar
+                d.writeShort(1); // dimensions
+                d.writeInt(-1); // unbounded
+            });
+            writeArguments(buffer, id, 1, name);
+            return ByteBufUtil.getBytes(buffer);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /**
+     * Creates the state descriptor the mock server sends in {@code StateDataDescription}: an input shape with a single
+     * optional {@code module} string, which the default session encodes as an empty shape.
+     * @param id The id of the shape.
+     * @return The descriptor block.
+     */
+    static byte @NotNull [] state(@NotNull UUID id) {
+        var buffer = Unpooled.buffer();
+
+        try {
+            writeScalar(buffer, STD_STR, "std::str");
+            writeDescriptor(buffer, INPUT_SHAPE, id, d -> {
+                d.writeShort(1);
+                d.writeInt(0); // flags
+                d.writeByte(AT_MOST_ONE);
+                writeString(d, "module");
+                d.writeShort(0); // type position of std::str
+            });
+            return ByteBufUtil.getBytes(buffer);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    private static void writeArguments(@NotNull ByteBuf buffer, @NotNull UUID id, int typePosition, @NotNull String... names) {
+        writeDescriptor(buffer, OBJECT_SHAPE, id, d -> {
+            d.writeBoolean(true); // ephemeral free shape
+            d.writeShort(0); // object type, unused by free shapes
+            d.writeShort(names.length);
+
+            for (var name : names) {
+                d.writeInt(0); // flags
+                d.writeByte(ONE);
+                writeString(d, name);
+                d.writeShort(typePosition);
+                d.writeShort(0); // source type position
+            }
+        });
+    }
+
+    private static void writeScalar(@NotNull ByteBuf buffer, @NotNull UUID id, @NotNull String name) {
+        writeDescriptor(buffer, SCALAR, id, d -> {
+            writeString(d, name);
+            d.writeBoolean(false); // schema defined
+            d.writeShort(0); // ancestors
+        });
+    }
+
+    private static void writeDescriptor(@NotNull ByteBuf buffer, byte type, @NotNull UUID id, @NotNull Consumer<ByteBuf> body) {
+        var lengthIndex = buffer.writerIndex();
+        buffer.writeInt(0);
+        buffer.writeByte(type);
+        writeUUID(buffer, id);
+        body.accept(buffer);
+        buffer.setInt(lengthIndex, buffer.writerIndex() - lengthIndex - 4);
+    }
+
+    private static @NotNull UUID scalarId(int id) {
+        return new UUID(0L, id);
+    }
+}
@@ -0,0 +1,632 @@
+package com.edgedb.driver.mock;
+
+import com.edgedb.driver.EdgeDBConnection;
+import com.edgedb.driver.ErrorCode;
+import com.edgedb.driver.binary.builders.CodecBuilder;
+import com.edgedb.driver.exceptions.ConfigurationException;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.handler.ssl.*;
+import io.netty.handler.timeout.IdleStateHandler;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.Future;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An in-process server speaking the EdgeDB binary protocol 2.0 over TLS, used to run the driver offline.
+ * <p>
+ * The server handles the handshake, SCRAM-SHA-256 authentication, the state descriptor exchange and
+ * {@code Parse}/{@code Execute}/{@code Sync} flows, answering queries with scripted {@linkplain MockQuery}
+ * responses, and dumps and restores of a scripted database. It can add latency to every response, fail a share of queries, and expire idle sessions with
+ * {@code IdleSessionTimeoutError}, which makes it suitable for load and failure testing of the client pool.
+ * <pre>{@code
+ * try(var server = MockEdgeDBServer.builder()
+ *         .withQuery(MockQuery.builder("select 1").withOutput(...).withData(...).build())
+ *         .build()
+ *         .start()) {
+ *     var client = new EdgeDBClient(server.getConnection());
+ *     ...
+ * }
+ * }</pre>
+ */
+public final class MockEdgeDBServer implements AutoCloseable {
+    /**
+     * The prefix of the names of the servers' event loop threads, so tools measuring the client can tell them apart.
+     */
+    public static final String THREAD_NAME_PREFIX = "mock-edgedb-server";
+
+    private static final String CERTIFICATE_RESOURCE = "mock-server.crt";
+    private static final String KEY_RESOURCE = "mock-server.key";
+    private static final String ALPN_PROTOCOL = "edgedb-binary";
+    private static final int MAX_MESSAGE_SIZE = 64 * 1024 * 1024;
+
+    static final class StateDescriptor {
+        final @NotNull UUID id;
+        final byte @NotNull [] descriptor;
+
+        StateDescriptor(@NotNull UUID id) {
+            this.id = id;
+            this.descriptor = MockDescriptors.state(id);
+        }
+    }
+
+    final @NotNull String user;
+    final @Nullable String password;
+    final int scramIterations;
+    final byte @NotNull [] scramSalt;
+    final byte @Nullable [] scramStoredKey;
+    final byte @Nullable [] scramServerKey;
+    final int suggestedPoolConcurrency;
+
+    private final @NotNull Map<String, MockQuery> queries;
+    private final @Nullable MockQuery defaultQuery;
+    private final long minLatencyNanos;
+    private final long maxLatencyNanos;
+    private final double errorRate;
+    private final @NotNull ErrorCode errorRateCode;
+    private final @Nullable Duration idleSessionTimeout;
+    private final int threads;
+    final int fragmentSize;
+    final @NotNull String dumpSchema;
+    final @NotNull List<byte[]> dumpBlocks;
+
+    private final Set<MockSession> sessions = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger injectedErrors = new AtomicInteger();
+    private volatile @NotNull ErrorCode injectedErrorCode = ErrorCode.INTERNAL_SERVER_ERROR;
+    private final AtomicInteger stalledExecutions = new AtomicInteger();
+    private volatile long stallNanos;
+    private volatile @NotNull StateDescriptor stateDescriptor = new StateDescriptor(UUID.randomUUID());
+
+    private final LongAdder connections = new LongAdder();
+    private final LongAdder parses = new LongAdder();
+    private final LongAdder executes = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder idleTimeouts = new LongAdder();
+    private final LongAdder authenticationFailures = new LongAdder();
+
+    private volatile @Nullable String restoredSchema;
+    private volatile int restoreJobs;
+    private final List<byte[]> restoredBlocks = Collections.synchronizedList(new ArrayList<>());
+
+    private @Nullable NioEventLoopGroup bossGroup;
+    private @Nullable NioEventLoopGroup workerGroup;
+    private @Nullable Channel channel;
+
+    private MockEdgeDBServer(@NotNull Builder builder) throws GeneralSecurityException {
+        this.user = builder.user;
+        this.password = builder.password;
+        this.scramIterations = builder.scramIterations;
+        this.suggestedPoolConcurrency = builder.suggestedPoolConcurrency;
+        this.queries = new ConcurrentHashMap<>(builder.queries);
+        this.defaultQuery = builder.defaultQuery;
+        this.minLatencyNanos = builder.minLatency.toNanos();
+        this.maxLatencyNanos = builder.maxLatency.toNanos();
+        this.errorRate = builder.errorRate;
+        this.errorRateCode = builder.errorRateCode;
+        this.idleSessionTimeout = builder.idleSessionTimeout;
+        this.threads = builder.threads;
+        this.fragmentSize = builder.fragmentSize;
+        this.dumpSchema = builder.dumpSchema;
+        this.dumpBlocks = List.copyOf(builder.dumpBlocks);
+
+        this.scramSalt = new byte[16];
+        new SecureRandom().nextBytes(scramSalt);
+
+        // the server only needs the stored and server keys, so derive them once rather than per connection
+        if(password != null) {
+            var spec = new PBEKeySpec(password.toCharArray(), scramSalt, scramIterations, 256);
+            var saltedPassword = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
+
+            this.scramStoredKey = sha256(hmac(saltedPassword, "Client Key".getBytes(StandardCharsets.UTF_8)));
+            this.scramServerKey = hmac(saltedPassword, "Server Key".getBytes(StandardCharsets.UTF_8));
+        } else {
+            this.scramStoredKey = null;
+            this.scramServerKey = null;
+        }
+    }
+
+    public static @NotNull Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Binds the server to a free port on the loopback interface.
+     * <br/><br/>
+     * The codecs cached by the driver are cleared first, so each server starts with a cold cache.
+     * @return The current server.
+     * @throws InterruptedException The thread was interrupted while binding.
+     * @throws IOException The TLS certificate couldn't be loaded.
+     */
+    public @NotNull MockEdgeDBServer start() throws InterruptedException, IOException {
+        if(channel != null) {
+            throw new IllegalStateException("The mock server is already started");
+        }
+
+        // the scripted queries reuse the same descriptor ids, codecs cached by a previous server would skip parses.
+        CodecBuilder.clearCache();
+
+        var sslContext = createSslContext();
+
+        bossGroup = new NioEventLoopGroup(1, new DefaultThreadFactory(THREAD_NAME_PREFIX));
+        workerGroup = new NioEventLoopGroup(threads, new DefaultThreadFactory(THREAD_NAME_PREFIX));
+
+        channel = new ServerBootstrap()
+                .group(bossGroup, workerGroup)
+                .channel(NioServerSocketChannel.class)
+                .childHandler(new ChannelInitializer<SocketChannel>() {
+                    @Override
+                    protected void initChannel(@NotNull SocketChannel ch) {
+                        var pipeline = ch.pipeline();
+
+                        pipeline.addLast(sslContext.newHandler(ch.alloc()));
+                        // type (1 byte) + length (4 bytes, including itself)
+                        pipeline.addLast(new LengthFieldBasedFrameDecoder(MAX_MESSAGE_SIZE, 1, 4, -4, 0));
+
+                        if(idleSessionTimeout != null) {
+                            pipeline.addLast(new IdleStateHandler(
+                                    0, 0, idleSessionTimeout.toNanos(), TimeUnit.NANOSECONDS
+                            ));
+                        }
+
+                        pipeline.addLast(new MockSession(MockEdgeDBServer.this));
+                    }
+                })
+                .bind(new InetSocketAddress("127.0.0.1", 0))
+                .sync()
+                .channel();
+
+        return this;
+    }
+
+    public int getPort() {
+        if(channel == null) {
+            throw new IllegalStateException("The mock server isn't started");
+        }
+
+        return ((InetSocketAddress) channel.localAddress()).getPort();
+    }
+
+    /**
+     * Creates connection arguments for this server, trusting its self-signed certificate.
+     * @return A new {@linkplain EdgeDBConnection}.
+     */
+    public @NotNull EdgeDBConnection getConnection() {
+        try {
+            return EdgeDBConnection.builder()
+                    .withHostname("127.0.0.1")
+                    .withPort(getPort())
+                    .withUser(user)
+                    .withPassword(password == null ? "" : password)
+                    .withDatabase("edgedb")
+                    .withTlsca(new String(readResource(CERTIFICATE_RESOURCE), StandardCharsets.US_ASCII))
+                    .build();
+        } catch (ConfigurationException | IOException e) {
+            throw new IllegalStateException("Failed to create the mock servers' connection", e);
+        }
+    }
+
+    /**
+     * Adds or replaces the scripted response of a query while the server is running.
+     * @param query The response.
+     */
+    public void putQuery(@NotNull MockQuery query) {
+        queries.put(query.query, query);
+    }
+
+    /**
+     * Makes the next {@code count} executions fail with the given error, on any connection.
+     * @param count The number of executions to fail.
+     * @param code The error to send.
+     */
+    public void failNext(int count, @NotNull ErrorCode code) {
+        injectedErrorCode = code;
+        injectedErrors.set(count);
+    }
+
+    /**
+     * Delays the responses of the next {@code count} executions, on any connection, on top of the other latencies.
+     * @param count The number of executions to delay.
+     * @param latency The delay.
+     */
+    public void stallNext(int count, @NotNull Duration latency) {
+        stallNanos = latency.toNanos();
+        stalledExecutions.set(count);
+    }
+
+    /**
+     * Sends {@code IdleSessionTimeoutError} to every session that isn't running a command, and closes them.
+     */
+    public void expireIdleSessions() {
+        for(var session : sessions) {
+            session.expire();
+        }
+    }
+
+    /**
+     * Changes the id of the state descriptor, so the next command of every session goes through the
+     * {@code StateMismatchError} flow.
+     */
+    public void rotateStateDescriptor() {
+        stateDescriptor = new StateDescriptor(UUID.randomUUID());
+    }
+
+    public int getActiveConnections() {
+        return sessions.size();
+    }
+
+    public long getTotalConnections() {
+        return connections.sum();
+    }
+
+    public long getParseCount() {
+        return parses.sum();
+    }
+
+    public long getExecuteCount() {
+        return executes.sum();
+    }
+
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    public long getIdleTimeoutCount() {
+        return idleTimeouts.sum();
+    }
+
+    /**
+     * Gets the schema of the last restore, or {@code null} if nothing was restored.
+     */
+    public @Nullable String getRestoredSchema() {
+        return restoredSchema;
+    }
+
+    /**
+     * Gets the number of jobs the last restore asked for.
+     */
+    public int getRestoreJobs() {
+        return restoreJobs;
+    }
+
+    /**
+     * Gets the data of the blocks restored since the last restore started, in the order they were received.
+     */
+    public @NotNull List<byte[]> getRestoredBlocks() {
+        synchronized (restoredBlocks) {
+            return new ArrayList<>(restoredBlocks);
+        }
+    }
+
+    public long getAuthenticationFailureCount() {
+        return authenticationFailures.sum();
+    }
+
+    @Override
+    public void close() {
+        // everything is shut down before waiting, so an interrupt doesn't leave the event loops running
+        var closing = new ArrayList<Future<?>>(3);
+
+        if(channel != null) {
+            closing.add(channel.close());
+            channel = null;
+        }
+
+        if(bossGroup != null) {
+            closing.add(bossGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS));
+            bossGroup = null;
+        }
+
+        if(workerGroup != null) {
+            closing.add(workerGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS));
+            workerGroup = null;
+        }
+
+        try {
+            for(var future : closing) {
+                future.sync();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    void onRestore(@NotNull String schema, int jobs) {
+        restoredBlocks.clear();
+        restoredSchema = schema;
+        restoreJobs = jobs;
+    }
+
+    void onRestoreBlock(byte @NotNull [] data) {
+        restoredBlocks.add(data);
+    }
+
+    @Nullable MockQuery getQuery(@NotNull String query) {
+        return queries.get(query);
+    }
+
+    @Nullable MockQuery getDefaultQuery() {
+        return defaultQuery;
+    }
+
+    @NotNull StateDescriptor getStateDescriptor() {
+        return stateDescriptor;
+    }
+
+    long nextLatencyNanos() {
+        if(maxLatencyNanos <= minLatencyNanos) {
+            return minLatencyNanos;
+        }
+
+        return ThreadLocalRandom.current().nextLong(minLatencyNanos, maxLatencyNanos);
+    }
+
+    long nextStallNanos() {
+        return stalledExecutions.getAndUpdate(v -> Math.max(0, v - 1)) > 0 ? stallNanos : 0;
+    }
+
+    @Nullable ErrorCode nextInjectedError() {
+        if(injectedErrors.getAndUpdate(v -> Math.max(0, v - 1)) > 0) {
+            return injectedErrorCode;
+        }
+
+        if(errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate) {
+            return errorRateCode;
+        }
+
+        return null;
+    }
+
+    void onSessionOpened(@NotNull MockSession session) {
+        connections.increment();
+        sessions.add(session);
+    }
+
+    void onSessionClosed(@NotNull MockSession session) {
+        sessions.remove(session);
+    }
+
+    void onParse() {
+        parses.increment();
+    }
+
+    void onExecute() {
+        executes.increment();
+    }
+
+    void onError() {
+        errors.increment();
+    }
+
+    void onIdleTimeout() {
+        idleTimeouts.increment();
+    }
+
+    void onAuthenticationFailed() {
+        authenticationFailures.increment();
+    }
+
+    private static @NotNull SslContext createSslContext() throws IOException {
+        try(
+                var certificate = openResource(CERTIFICATE_RESOURCE);
+                var key = openResource(KEY_RESOURCE)
+        ) {
+            return SslContextBuilder.forServer(certificate, key)
+                    .sslProvider(SslProvider.JDK)
+                    .protocols("TLSv1.3")
+                    .applicationProtocolConfig(new ApplicationProtocolConfig(
+                            ApplicationProtocolConfig.Protocol.ALPN,
+                            ApplicationProtocolConfig.SelectorFailureBehavior.NO_ADVERTISE,
+                            ApplicationProtocolConfig.SelectedListenerFailureBehavior.ACCEPT,
+                            ALPN_PROTOCOL
+                    ))
+                    .build();
+        }
+    }
+
+    private static @NotNull InputStream openResource(@NotNull String name) throws IOException {
+        var stream = MockEdgeDBServer.class.getResourceAsStream(name);
+
+        if(stream == null) {
+            throw new IOException("Missing mock server resource " + name);
+        }
+
+        return stream;
+    }
+
+    private static byte @NotNull [] readResource(@NotNull String name) throws IOException {
+        try(var stream = openResource(name)) {
+            return stream.readAllBytes();
+        }
+    }
+
+    static byte @NotNull [] hmac(byte @NotNull [] key, byte @NotNull [] data) {
+        try {
+            var mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(key, "HmacSHA256"));
+            return mac.doFinal(data);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static byte @NotNull [] sha256(byte @NotNull [] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static final class Builder {
+        private @NotNull String user = "edgedb";
+        private @Nullable String password = "mock";
+        private int scramIterations = 4096;
+        private int suggestedPoolConcurrency = 100;
+        private final @NotNull Map<String, MockQuery> queries = new ConcurrentHashMap<>();
+        private @Nullable MockQuery defaultQuery;
+        private @NotNull Duration minLatency = Duration.ZERO;
+        private @NotNull Duration maxLatency = Duration.ZERO;
+        private double errorRate;
+        private @NotNull ErrorCode errorRateCode = ErrorCode.INTERNAL_SERVER_ERROR;
+        private @Nullable Duration idleSessionTimeout;
+        private int threads;
+        private int fragmentSize;
+        private @NotNull String dumpSchema = "";
+        private @NotNull List<byte[]> dumpBlocks = List.of();
+
+        private Builder() {}
+
+        /**
+         * Sets the credentials clients authenticate with over SCRAM-SHA-256; defaults to {@code edgedb}/{@code mock}.
+         * @param user The user name.
+         * @param password The password.
+         * @return The current builder.
+         */
+        public @NotNull Builder withCredentials(@NotNull String user, @NotNull String password) {
+            this.user = user;
+            this.password = password;
+            return this;
+        }
+
+        /**
+         * Accepts every client without authentication, like a server with a {@code Trust} auth method.
+         * @return The current builder.
+         */
+        public @NotNull Builder withTrustAuthentication() {
+            this.password = null;
+            return this;
+        }
+
+        /**
+         * Sets the PBKDF2 iteration count used for SCRAM; lower values make connecting cheaper under load.
+         * @param iterations The iteration count.
+         * @return The current builder.
+         */
+        public @NotNull Builder withScramIterations(int iterations) {
+            this.scramIterations = iterations;
+            return this;
+        }
+
+        public @NotNull Builder withSuggestedPoolConcurrency(int concurrency) {
+            this.suggestedPoolConcurrency = concurrency;
+            return this;
+        }
+
+        public @NotNull Builder withQuery(@NotNull MockQuery query) {
+            this.queries.put(query.query, query);
+            return this;
+        }
+
+        /**
+         * Sets the response to queries that have no scripted response; by default these fail with
+         * {@code QueryError}.
+         * @param query The response.
+         * @return The current builder.
+         */
+        public @NotNull Builder withDefaultQuery(@NotNull MockQuery query) {
+            this.defaultQuery = query;
+            return this;
+        }
+
+        /**
+         * Delays every flush of responses by a uniformly distributed latency.
+         * @param min The minimum latency.
+         * @param max The maximum latency.
+         * @return The current builder.
+         */
+        public @NotNull Builder withLatency(@NotNull Duration min, @NotNull Duration max) {
+            this.minLatency = min;
+            this.maxLatency = max;
+            return this;
+        }
+
+        /**
+         * Fails the given share of executions with an error.
+         * @param rate The share of executions to fail, between 0 and 1.
+         * @param code The error to send.
+         * @return The current builder.
+         */
+        public @NotNull Builder withErrorRate(double rate, @NotNull ErrorCode code) {
+            this.errorRate = rate;
+            this.errorRateCode = code;
+            return this;
+        }
+
+        /**
+         * Closes sessions that receive no messages for the given duration with {@code IdleSessionTimeoutError}.
+         * @param timeout The idle timeout.
+         * @return The current builder.
+         */
+        public @NotNull Builder withIdleSessionTimeout(@NotNull Duration timeout) {
+            this.idleSessionTimeout = timeout;
+            return this;
+        }
+
+        /**
+         * Sets the number of event loop threads serving connections; defaults to Netty's default.
+         * @param threads The number of threads.
+         * @return The current builder.
+         */
+        public @NotNull Builder withThreads(int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * Splits every flush of responses into separately flushed writes of at most the given size, so messages
+         * reach the client in fragments.
+         * @param fragmentSize The maximum size of a write, in bytes.
+         * @return The current builder.
+         */
+        public @NotNull Builder withFragmentation(int fragmentSize) {
+            this.fragmentSize = fragmentSize;
+            return this;
+        }
+
+        /**
+         * Sets the database sent to {@code Dump}: a header carrying the schema, followed by one block per element
+         * of {@code blocks}. By default the dump has an empty schema and no blocks.
+         * @param schema The schema DDL of the dump.
+         * @param blocks The data of the blocks.
+         * @return The current builder.
+         */
+        public @NotNull Builder withDump(@NotNull String schema, @NotNull List<byte[]> blocks) {
+            this.dumpSchema = schema;
+            this.dumpBlocks = blocks;
+            return this;
+        }
+
+        public @NotNull MockEdgeDBServer build() {
+            try {
+                return new MockEdgeDBServer(this);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Failed to derive the SCRAM keys", e);
+            }
+        }
+    }
+}
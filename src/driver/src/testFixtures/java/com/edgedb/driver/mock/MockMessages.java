@@ -0,0 +1,214 @@
+package com.edgedb.driver.mock;
+
+import com.edgedb.driver.Capabilities;
+import com.edgedb.driver.ErrorCode;
+import com.edgedb.driver.ErrorSeverity;
+import com.edgedb.driver.TransactionState;
+import com.edgedb.driver.binary.protocol.ServerMessageType;
+import com.edgedb.driver.binary.protocol.common.AuthStatus;
+import com.edgedb.driver.binary.protocol.common.Cardinality;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Encodes the server messages of the binary protocol.
+ */
+final class MockMessages {
+    /**
+     * The attribute of a dump block holding its data.
+     */
+    static final short BLOCK_DATA = 110;
+
+    private MockMessages() {}
+
+    static @NotNull ByteBuf message(@NotNull ByteBufAllocator allocator, @NotNull ServerMessageType type, @NotNull Consumer<ByteBuf> body) {
+        var buffer = allocator.buffer();
+
+        buffer.writeByte(type.getValue());
+        var lengthIndex = buffer.writerIndex();
+        buffer.writeInt(0);
+
+        body.accept(buffer);
+
+        // length includes itself, but not the type
+        buffer.setInt(lengthIndex, buffer.writerIndex() - lengthIndex);
+        return buffer;
+    }
+
+    static @NotNull ByteBuf serverHandshake(@NotNull ByteBufAllocator allocator, int major, int minor) {
+        return message(allocator, ServerMessageType.SERVER_HANDSHAKE, b -> b
+                .writeShort(major)
+                .writeShort(minor)
+                .writeShort(0) // extensions
+        );
+    }
+
+    static @NotNull ByteBuf authentication(@NotNull ByteBufAllocator allocator, @NotNull AuthStatus status, @Nullable String data) {
+        return message(allocator, ServerMessageType.AUTHENTICATION, b -> {
+            b.writeInt(status.getValue());
+
+            switch (status) {
+                case AUTHENTICATION_REQUIRED_SASL_MESSAGE:
+                    b.writeInt(1);
+                    writeString(b, "SCRAM-SHA-256");
+                    break;
+                case AUTHENTICATION_SASL_CONTINUE:
+                case AUTHENTICATION_SASL_FINAL:
+                    assert data != null;
+                    writeString(b, data);
+                    break;
+            }
+        });
+    }
+
+    static @NotNull ByteBuf serverKeyData(@NotNull ByteBufAllocator allocator, byte @NotNull [] key) {
+        return message(allocator, ServerMessageType.SERVER_KEY_DATA, b -> b.writeBytes(key));
+    }
+
+    static @NotNull ByteBuf parameterStatus(@NotNull ByteBufAllocator allocator, @NotNull String name, @NotNull String value) {
+        return message(allocator, ServerMessageType.PARAMETER_STATUS, b -> {
+            writeString(b, name);
+            writeString(b, value);
+        });
+    }
+
+    static @NotNull ByteBuf stateDataDescription(@NotNull ByteBufAllocator allocator, @NotNull UUID id, byte @NotNull [] descriptor) {
+        return message(allocator, ServerMessageType.STATE_DATA_DESCRIPTION, b -> {
+            writeUUID(b, id);
+            writeBytes(b, descriptor);
+        });
+    }
+
+    static @NotNull ByteBuf commandDataDescription(
+            @NotNull ByteBufAllocator allocator,
+            @NotNull EnumSet<Capabilities> capabilities,
+            @NotNull Cardinality cardinality,
+            @NotNull MockQuery query
+    ) {
+        return message(allocator, ServerMessageType.COMMAND_DATA_DESCRIPTION, b -> {
+            b.writeShort(0); // annotations
+            b.writeLong(toBits(capabilities));
+            b.writeByte(cardinality.getValue());
+            writeUUID(b, query.inputTypeId);
+            writeBytes(b, query.inputDescriptor);
+            writeUUID(b, query.outputTypeId);
+            writeBytes(b, query.outputDescriptor);
+        });
+    }
+
+    static @NotNull ByteBuf data(@NotNull ByteBufAllocator allocator, byte @NotNull [] payload) {
+        return message(allocator, ServerMessageType.DATA, b -> {
+            b.writeShort(1);
+            writeBytes(b, payload);
+        });
+    }
+
+    static @NotNull ByteBuf dumpHeader(@NotNull ByteBufAllocator allocator, @NotNull String schema) {
+        return message(allocator, ServerMessageType.DUMP_HEADER, b -> {
+            b.writeShort(0); // attributes
+            b.writeShort(2); // major version
+            b.writeShort(0); // minor version
+            writeString(b, schema);
+            b.writeInt(0); // type infos
+            b.writeInt(0); // descriptors
+        });
+    }
+
+    static @NotNull ByteBuf dumpBlock(@NotNull ByteBufAllocator allocator, byte @NotNull [] data) {
+        return message(allocator, ServerMessageType.DUMP_BLOCK, b -> {
+            b.writeShort(1);
+            b.writeShort(BLOCK_DATA);
+            writeBytes(b, data);
+        });
+    }
+
+    static @NotNull ByteBuf restoreReady(@NotNull ByteBufAllocator allocator, int jobs) {
+        return message(allocator, ServerMessageType.RESTORE_READY, b -> {
+            b.writeShort(0); // annotations
+            b.writeShort(jobs);
+        });
+    }
+
+    static @NotNull ByteBuf commandComplete(
+            @NotNull ByteBufAllocator allocator,
+            @NotNull EnumSet<Capabilities> capabilities,
+            @NotNull String status,
+            @NotNull UUID stateTypeId
+    ) {
+        return message(allocator, ServerMessageType.COMMAND_COMPLETE, b -> {
+            b.writeShort(0); // annotations
+            b.writeLong(toBits(capabilities));
+            writeString(b, status);
+            writeUUID(b, stateTypeId);
+            b.writeInt(0); // state data
+        });
+    }
+
+    static @NotNull ByteBuf readyForCommand(@NotNull ByteBufAllocator allocator, @NotNull TransactionState state) {
+        return message(allocator, ServerMessageType.READY_FOR_COMMAND, b -> {
+            b.writeShort(0); // annotations
+            b.writeByte(state.getValue());
+        });
+    }
+
+    static @NotNull ByteBuf errorResponse(@NotNull ByteBufAllocator allocator, @NotNull ErrorCode code, @NotNull String message) {
+        return message(allocator, ServerMessageType.ERROR_RESPONSE, b -> {
+            b.writeByte(ErrorSeverity.ERROR.getValue());
+            b.writeInt(code.getValue());
+            writeString(b, message);
+            b.writeShort(0); // attributes
+        });
+    }
+
+    static void writeString(@NotNull ByteBuf buffer, @NotNull String value) {
+        writeBytes(buffer, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static void writeBytes(@NotNull ByteBuf buffer, byte @NotNull [] value) {
+        buffer.writeInt(value.length);
+        buffer.writeBytes(value);
+    }
+
+    static void writeUUID(@NotNull ByteBuf buffer, @NotNull UUID value) {
+        buffer.writeLong(value.getMostSignificantBits());
+        buffer.writeLong(value.getLeastSignificantBits());
+    }
+
+    static @NotNull String readString(@NotNull ByteBuf buffer) {
+        var length = buffer.readInt();
+        return buffer.readCharSequence(length, StandardCharsets.UTF_8).toString();
+    }
+
+    static @NotNull UUID readUUID(@NotNull ByteBuf buffer) {
+        return new UUID(buffer.readLong(), buffer.readLong());
+    }
+
+    static long toBits(@NotNull EnumSet<Capabilities> capabilities) {
+        long bits = 0;
+
+        for(var capability : capabilities) {
+            bits |= capability.getValue();
+        }
+
+        return bits;
+    }
+
+    static @NotNull EnumSet<Capabilities> fromBits(long bits) {
+        var set = EnumSet.noneOf(Capabilities.class);
+
+        for(var capability : Capabilities.values()) {
+            if(capability != Capabilities.ALL && (bits & capability.getValue()) != 0) {
+                set.add(capability);
+            }
+        }
+
+        return set;
+    }
+}
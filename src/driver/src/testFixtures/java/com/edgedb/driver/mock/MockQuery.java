@@ -0,0 +1,253 @@
+package com.edgedb.driver.mock;
+
+import com.edgedb.driver.Capabilities;
+import com.edgedb.driver.ErrorCode;
+import com.edgedb.driver.binary.protocol.common.Cardinality;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Represents the scripted response of a {@linkplain MockEdgeDBServer} to a single query: the type descriptors sent in
+ * {@code CommandDataDescription}, the {@code Data} payloads and the command status, or an error.
+ */
+public final class MockQuery {
+    public static final UUID NULL_TYPE_ID = new UUID(0L, 0L);
+
+    final @NotNull String query;
+    final @NotNull Cardinality cardinality;
+    final @Nullable EnumSet<Capabilities> capabilities;
+    final @NotNull UUID inputTypeId;
+    final byte @NotNull [] inputDescriptor;
+    final @NotNull UUID outputTypeId;
+    final byte @NotNull [] outputDescriptor;
+    final @NotNull List<byte[]> data;
+    final @NotNull String status;
+    final @Nullable ErrorCode errorCode;
+    final @Nullable String errorMessage;
+    final boolean errorAfterData;
+    final @NotNull Duration latency;
+
+    private MockQuery(@NotNull Builder builder) {
+        this.query = builder.query;
+        this.cardinality = builder.cardinality != null
+                ? builder.cardinality
+                : builder.outputTypeId.equals(NULL_TYPE_ID) ? Cardinality.NO_RESULT : Cardinality.MANY;
+        this.capabilities = builder.capabilities;
+        this.inputTypeId = builder.inputTypeId;
+        this.inputDescriptor = builder.inputDescriptor;
+        this.outputTypeId = builder.outputTypeId;
+        this.outputDescriptor = builder.outputDescriptor;
+        this.data = List.copyOf(builder.data);
+        this.status = builder.status;
+        this.errorCode = builder.errorCode;
+        this.errorMessage = builder.errorMessage;
+        this.errorAfterData = builder.errorAfterData;
+        this.latency = builder.latency;
+    }
+
+    public @NotNull String getQuery() {
+        return query;
+    }
+
+    /**
+     * Creates a new builder for the response to the given query.
+     * @param query The query text, matched exactly against the text the client sends.
+     * @return A new builder.
+     */
+    public static @NotNull Builder builder(@NotNull String query) {
+        return new Builder(query);
+    }
+
+    /**
+     * Creates a new builder for a query returning the same scalar value a number of times.
+     * @param query The query text, matched exactly against the text the client sends.
+     * @param type The id of the scalar type, ex: {@linkplain MockDescriptors#STD_STR}.
+     * @param typeName The name of the scalar type, ex: {@code std::str}.
+     * @param value The value, sent as UTF-8.
+     * @param rows The number of rows to send.
+     * @return A new builder.
+     */
+    public static @NotNull Builder scalars(
+            @NotNull String query, @NotNull UUID type, @NotNull String typeName, @NotNull String value, int rows
+    ) {
+        return builder(query)
+                .withCardinality(Cardinality.MANY)
+                .withOutput(type, MockDescriptors.scalar(type, typeName))
+                .withData(value.getBytes(StandardCharsets.UTF_8), rows);
+    }
+
+    /**
+     * Creates a new builder for a query returning the same {@code std::str} a number of times.
+     * @param query The query text, matched exactly against the text the client sends.
+     * @param value The string.
+     * @param rows The number of rows to send.
+     * @return A new builder.
+     */
+    public static @NotNull Builder strings(@NotNull String query, @NotNull String value, int rows) {
+        return scalars(query, MockDescriptors.STD_STR, "std::str", value, rows);
+    }
+
+    /**
+     * Creates a response from a protocol fixture, see {@linkplain ProtocolFixture} for the format. The fixture must
+     * contain the {@code output-id} and {@code output-descriptor} sections, and may contain {@code input-id},
+     * {@code input-descriptor} and any number of sections starting with {@code data}, which are sent in order.
+     * @param query The query text the fixture was recorded for.
+     * @param fixture The fixture contents.
+     * @return A builder pre-filled with the fixtures' contents.
+     * @throws IOException The fixture couldn't be read.
+     */
+    public static @NotNull Builder fromFixture(@NotNull String query, @NotNull InputStream fixture) throws IOException {
+        var sections = ProtocolFixture.read(fixture);
+        var builder = builder(query)
+                .withOutput(toUUID(sections.get("output-id")), sections.get("output-descriptor"));
+
+        if(sections.containsKey("input-id")) {
+            builder.withInput(toUUID(sections.get("input-id")), sections.get("input-descriptor"));
+        }
+
+        for(var section : sections.entrySet()) {
+            if(section.getKey().startsWith("data")) {
+                builder.withData(section.getValue());
+            }
+        }
+
+        return builder;
+    }
+
+    private static @NotNull UUID toUUID(byte @Nullable [] bytes) {
+        if(bytes == null || bytes.length != 16) {
+            throw new IllegalArgumentException("Expected a 16 byte type descriptor id");
+        }
+
+        var buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    public static final class Builder {
+        private final @NotNull String query;
+        private @Nullable Cardinality cardinality;
+        private @Nullable EnumSet<Capabilities> capabilities;
+        private @NotNull UUID inputTypeId = NULL_TYPE_ID;
+        private byte @NotNull [] inputDescriptor = new byte[0];
+        private @NotNull UUID outputTypeId = NULL_TYPE_ID;
+        private byte @NotNull [] outputDescriptor = new byte[0];
+        private final @NotNull List<byte[]> data = new ArrayList<>();
+        private @NotNull String status = "OK";
+        private @Nullable ErrorCode errorCode;
+        private @Nullable String errorMessage;
+        private boolean errorAfterData;
+        private @NotNull Duration latency = Duration.ZERO;
+
+        private Builder(@NotNull String query) {
+            this.query = query;
+        }
+
+        /**
+         * Sets the cardinality sent in {@code CommandDataDescription}; defaults to {@code MANY} for queries with an
+         * output and {@code NO_RESULT} otherwise.
+         * @param cardinality The cardinality of the query.
+         * @return The current builder.
+         */
+        public @NotNull Builder withCardinality(@NotNull Cardinality cardinality) {
+            this.cardinality = cardinality;
+            return this;
+        }
+
+        /**
+         * Sets the capabilities reported for the query; defaults to the capabilities the client requested.
+         * @param capabilities The capabilities of the query.
+         * @return The current builder.
+         */
+        public @NotNull Builder withCapabilities(@NotNull EnumSet<Capabilities> capabilities) {
+            this.capabilities = capabilities;
+            return this;
+        }
+
+        public @NotNull Builder withInput(@NotNull UUID typeId, byte @Nullable [] descriptor) {
+            this.inputTypeId = typeId;
+            this.inputDescriptor = descriptor == null ? new byte[0] : descriptor;
+            return this;
+        }
+
+        public @NotNull Builder withOutput(@NotNull UUID typeId, byte @Nullable [] descriptor) {
+            this.outputTypeId = typeId;
+            this.outputDescriptor = descriptor == null ? new byte[0] : descriptor;
+            return this;
+        }
+
+        /**
+         * Adds a {@code Data} element; the payload is the encoded value of the output type.
+         * @param payload The encoded value.
+         * @return The current builder.
+         */
+        public @NotNull Builder withData(byte @NotNull [] payload) {
+            this.data.add(payload);
+            return this;
+        }
+
+        /**
+         * Adds {@code count} copies of a {@code Data} element, used to script large result sets.
+         * @param payload The encoded value.
+         * @param count The number of rows to send.
+         * @return The current builder.
+         */
+        public @NotNull Builder withData(byte @NotNull [] payload, int count) {
+            for(int i = 0; i != count; i++) {
+                this.data.add(payload);
+            }
+            return this;
+        }
+
+        public @NotNull Builder withStatus(@NotNull String status) {
+            this.status = status;
+            return this;
+        }
+
+        /**
+         * Makes the query fail with the given error when it's parsed or executed.
+         * @param code The error code to send.
+         * @param message The error message to send.
+         * @return The current builder.
+         */
+        public @NotNull Builder withError(@NotNull ErrorCode code, @NotNull String message) {
+            this.errorCode = code;
+            this.errorMessage = message;
+            this.errorAfterData = false;
+            return this;
+        }
+
+        /**
+         * Makes the query fail with the given error when it's executed, after its {@code Data} payloads were sent.
+         * @param code The error code to send.
+         * @param message The error message to send.
+         * @return The current builder.
+         */
+        public @NotNull Builder withErrorAfterData(@NotNull ErrorCode code, @NotNull String message) {
+            this.errorCode = code;
+            this.errorMessage = message;
+            this.errorAfterData = true;
+            return this;
+        }
+
+        /**
+         * Sets an additional delay for responses to this query, on top of the servers' latency.
+         * @param latency The delay.
+         * @return The current builder.
+         */
+        public @NotNull Builder withLatency(@NotNull Duration latency) {
+            this.latency = latency;
+            return this;
+        }
+
+        public @NotNull MockQuery build() {
+            return new MockQuery(this);
+        }
+    }
+}
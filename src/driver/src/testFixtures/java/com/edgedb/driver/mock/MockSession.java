@@ -0,0 +1,640 @@
+package com.edgedb.driver.mock;
+
+import com.edgedb.driver.Capabilities;
+import com.edgedb.driver.ErrorCode;
+import com.edgedb.driver.TransactionState;
+import com.edgedb.driver.binary.protocol.ClientMessageType;
+import com.edgedb.driver.binary.protocol.common.AuthStatus;
+import com.edgedb.driver.binary.protocol.common.Cardinality;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.util.ReferenceCountUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static com.edgedb.driver.mock.MockMessages.*;
+
+/**
+ * The server side of a single connection to a {@linkplain MockEdgeDBServer}. Messages are handled on the channels'
+ * event loop, and responses are buffered until the next flush point, where they're written after the servers'
+ * simulated latency.
+ */
+final class MockSession extends ChannelInboundHandlerAdapter {
+    private static final Logger logger = LoggerFactory.getLogger(MockSession.class);
+    private static final SecureRandom random = new SecureRandom();
+    private static final byte FORMAT_NONE = 0x6e;
+
+    private enum Phase {
+        HANDSHAKE,
+        AUTHENTICATION,
+        COMMAND,
+        CLOSED
+    }
+
+    private final @NotNull MockEdgeDBServer server;
+    private final @NotNull List<ByteBuf> pending = new ArrayList<>();
+
+    private @Nullable ChannelHandlerContext context;
+    private @NotNull Phase phase = Phase.HANDSHAKE;
+    private @NotNull TransactionState transactionState = TransactionState.NOT_IN_TRANSACTION;
+    private boolean skipUntilSync;
+    private boolean inCommand;
+    private boolean restoring;
+    private long extraLatencyNanos;
+    private long lastFlushDeadline;
+
+    // SCRAM
+    private @Nullable String user;
+    private @Nullable String clientFirstBare;
+    private @Nullable String serverFirst;
+    private @Nullable String nonce;
+
+    MockSession(@NotNull MockEdgeDBServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Gets whether the session is between commands, meaning an idle session timeout is allowed to close it.
+     */
+    boolean isIdle() {
+        return phase == Phase.COMMAND && !inCommand;
+    }
+
+    /**
+     * Sends {@code IdleSessionTimeoutError} and closes the connection, like the server does for sessions idle for
+     * longer than {@code session_idle_timeout}.
+     */
+    void expire() {
+        var ctx = context;
+
+        if(ctx == null) {
+            return;
+        }
+
+        ctx.executor().execute(() -> {
+            if(!isIdle()) {
+                return;
+            }
+
+            logger.debug("Expiring idle session {}", ctx.channel());
+            server.onIdleTimeout();
+            send(errorResponse(ctx.alloc(), ErrorCode.IDLE_SESSION_TIMEOUT_ERROR, "closing the connection due to idling"));
+            flush(ctx, false, true);
+            phase = Phase.CLOSED;
+        });
+    }
+
+    @Override
+    public void channelActive(@NotNull ChannelHandlerContext ctx) throws Exception {
+        this.context = ctx;
+        server.onSessionOpened(this);
+        super.channelActive(ctx);
+    }
+
+    @Override
+    public void channelInactive(@NotNull ChannelHandlerContext ctx) throws Exception {
+        phase = Phase.CLOSED;
+        server.onSessionClosed(this);
+
+        for(var message : pending) {
+            message.release();
+        }
+        pending.clear();
+
+        super.channelInactive(ctx);
+    }
+
+    @Override
+    public void userEventTriggered(@NotNull ChannelHandlerContext ctx, @NotNull Object evt) throws Exception {
+        if(evt instanceof IdleStateEvent) {
+            expire();
+            return;
+        }
+
+        super.userEventTriggered(ctx, evt);
+    }
+
+    @Override
+    public void exceptionCaught(@NotNull ChannelHandlerContext ctx, @NotNull Throwable cause) {
+        logger.debug("Closing mock session after an exception", cause);
+        ctx.close();
+    }
+
+    @Override
+    public void channelRead(@NotNull ChannelHandlerContext ctx, @NotNull Object msg) {
+        var frame = (ByteBuf) msg;
+
+        try {
+            if(phase == Phase.CLOSED) {
+                return;
+            }
+
+            var type = frame.readByte();
+            frame.skipBytes(4); // length
+
+            switch (phase) {
+                case HANDSHAKE:
+                    if(expect(ctx, type, ClientMessageType.CLIENT_HANDSHAKE)) {
+                        handleHandshake(ctx, frame);
+                    }
+                    break;
+                case AUTHENTICATION:
+                    if(type == ClientMessageType.AUTHENTICATION_SASL_INITIAL_RESPONSE.getCode()) {
+                        handleSASLInitial(ctx, frame);
+                    } else if(expect(ctx, type, ClientMessageType.AUTHENTICATION_SASL_RESPONSE)) {
+                        handleSASLResponse(ctx, frame);
+                    }
+                    break;
+                case COMMAND:
+                    handleCommandPhase(ctx, type, frame);
+                    break;
+            }
+        } finally {
+            ReferenceCountUtil.release(frame);
+        }
+    }
+
+    private boolean expect(@NotNull ChannelHandlerContext ctx, byte actual, @NotNull ClientMessageType expected) {
+        if(actual == expected.getCode()) {
+            return true;
+        }
+
+        protocolError(ctx, String.format("expected %s, got message type 0x%02x", expected, actual));
+        return false;
+    }
+
+    private void protocolError(@NotNull ChannelHandlerContext ctx, @NotNull String message) {
+        send(errorResponse(ctx.alloc(), ErrorCode.UNEXPECTED_MESSAGE_ERROR, message));
+        flush(ctx, false, true);
+        phase = Phase.CLOSED;
+    }
+
+    private void handleHandshake(@NotNull ChannelHandlerContext ctx, @NotNull ByteBuf frame) {
+        var major = frame.readUnsignedShort();
+        var minor = frame.readUnsignedShort();
+
+        var paramCount = frame.readUnsignedShort();
+        for(int i = 0; i != paramCount; i++) {
+            var name = readString(frame);
+            var value = readString(frame);
+
+            if(name.equals("user")) {
+                user = value;
+            }
+        }
+
+        if(major != 2 || minor != 0) {
+            send(serverHandshake(ctx.alloc(), 2, 0));
+        }
+
+        if(server.password == null) {
+            authenticated(ctx);
+            return;
+        }
+
+        phase = Phase.AUTHENTICATION;
+        send(authentication(ctx.alloc(), AuthStatus.AUTHENTICATION_REQUIRED_SASL_MESSAGE, null));
+        flush(ctx, true, false);
+    }
+
+    private void handleSASLInitial(@NotNull ChannelHandlerContext ctx, @NotNull ByteBuf frame) {
+        var method = readString(frame);
+        var message = readString(frame);
+
+        if(!method.equals("SCRAM-SHA-256") || !message.startsWith("n,,")) {
+            authenticationFailed(ctx, "unsupported SASL message");
+            return;
+        }
+
+        clientFirstBare = message.substring(3);
+        var attributes = parseAttributes(clientFirstBare);
+
+        if(!Objects.equals(attributes.get("n"), server.user) || !Objects.equals(user, server.user)) {
+            authenticationFailed(ctx, "authentication failed for user \"" + user + "\"");
+            return;
+        }
+
+        var serverNonce = new byte[18];
+        random.nextBytes(serverNonce);
+
+        nonce = attributes.get("r") + Base64.getEncoder().encodeToString(serverNonce);
+        serverFirst = String.format(
+                "r=%s,s=%s,i=%d",
+                nonce, Base64.getEncoder().encodeToString(server.scramSalt), server.scramIterations
+        );
+
+        send(authentication(ctx.alloc(), AuthStatus.AUTHENTICATION_SASL_CONTINUE, serverFirst));
+        flush(ctx, true, false);
+    }
+
+    private void handleSASLResponse(@NotNull ChannelHandlerContext ctx, @NotNull ByteBuf frame) {
+        var message = readString(frame);
+        var proofIndex = message.lastIndexOf(",p=");
+
+        if(serverFirst == null || proofIndex < 0) {
+            authenticationFailed(ctx, "malformed SCRAM message");
+            return;
+        }
+
+        var attributes = parseAttributes(message);
+        var authMessage = (clientFirstBare + "," + serverFirst + "," + message.substring(0, proofIndex))
+                .getBytes(StandardCharsets.UTF_8);
+
+        try {
+            var proof = Base64.getDecoder().decode(attributes.get("p"));
+            var clientSignature = MockEdgeDBServer.hmac(server.scramStoredKey, authMessage);
+
+            if(!Objects.equals(attributes.get("r"), nonce) || proof.length != clientSignature.length) {
+                authenticationFailed(ctx, "authentication failed for user \"" + user + "\"");
+                return;
+            }
+
+            var clientKey = new byte[proof.length];
+            for(int i = 0; i != proof.length; i++) {
+                clientKey[i] = (byte)(proof[i] ^ clientSignature[i]);
+            }
+
+            if(!MessageDigest.isEqual(MockEdgeDBServer.sha256(clientKey), server.scramStoredKey)) {
+                authenticationFailed(ctx, "authentication failed for user \"" + user + "\"");
+                return;
+            }
+
+            var serverSignature = MockEdgeDBServer.hmac(server.scramServerKey, authMessage);
+
+            send(authentication(
+                    ctx.alloc(),
+                    AuthStatus.AUTHENTICATION_SASL_FINAL,
+                    "v=" + Base64.getEncoder().encodeToString(serverSignature)
+            ));
+        } catch (IllegalArgumentException e) {
+            authenticationFailed(ctx, "malformed SCRAM proof");
+            return;
+        }
+
+        authenticated(ctx);
+    }
+
+    private void authenticationFailed(@NotNull ChannelHandlerContext ctx, @NotNull String message) {
+        server.onAuthenticationFailed();
+        send(errorResponse(ctx.alloc(), ErrorCode.AUTHENTICATION_ERROR, message));
+        flush(ctx, true, true);
+        phase = Phase.CLOSED;
+    }
+
+    private void authenticated(@NotNull ChannelHandlerContext ctx) {
+        var serverKey = new byte[32];
+        random.nextBytes(serverKey);
+
+        var state = server.getStateDescriptor();
+
+        send(authentication(ctx.alloc(), AuthStatus.AUTHENTICATION_OK, null));
+        send(serverKeyData(ctx.alloc(), serverKey));
+        send(parameterStatus(ctx.alloc(), "suggested_pool_concurrency", String.valueOf(server.suggestedPoolConcurrency)));
+        send(stateDataDescription(ctx.alloc(), state.id, state.descriptor));
+        send(readyForCommand(ctx.alloc(), transactionState));
+        flush(ctx, true, false);
+
+        phase = Phase.COMMAND;
+    }
+
+    private void handleCommandPhase(@NotNull ChannelHandlerContext ctx, byte type, @NotNull ByteBuf frame) {
+        if(type == ClientMessageType.SYNC.getCode()) {
+            skipUntilSync = false;
+            inCommand = false;
+            send(readyForCommand(ctx.alloc(), transactionState));
+            flush(ctx, true, false);
+            return;
+        }
+
+        if(type == ClientMessageType.TERMINATE.getCode()) {
+            phase = Phase.CLOSED;
+            flush(ctx, false, true);
+            return;
+        }
+
+        inCommand = true;
+
+        if(type == ClientMessageType.PARSE.getCode()) {
+            handleCommand(ctx, frame, false);
+        } else if(type == ClientMessageType.EXECUTE.getCode()) {
+            handleCommand(ctx, frame, true);
+        } else if(type == ClientMessageType.DUMP.getCode()) {
+            handleDump(ctx);
+        } else if(type == ClientMessageType.RESTORE.getCode()) {
+            handleRestore(ctx, frame);
+        } else if(type == ClientMessageType.RESTORE_BLOCK.getCode()) {
+            handleRestoreBlock(frame);
+        } else if(type == ClientMessageType.RESTORE_EOF.getCode()) {
+            handleRestoreEOF(ctx);
+        } else if(!skipUntilSync) {
+            fail(ctx, ErrorCode.UNSUPPORTED_FEATURE_ERROR, String.format("mock server doesn't support message type 0x%02x", type));
+        }
+    }
+
+    private void handleCommand(@NotNull ChannelHandlerContext ctx, @NotNull ByteBuf frame, boolean execute) {
+        if(skipUntilSync) {
+            return;
+        }
+
+        var annotations = frame.readUnsignedShort();
+        for(int i = 0; i != annotations; i++) {
+            readString(frame);
+            readString(frame);
+        }
+
+        var requestedCapabilities = fromBits(frame.readLong());
+        frame.skipBytes(16); // compilation flags, implicit limit
+        var format = frame.readByte();
+        frame.skipBytes(1); // expected cardinality
+        var query = readString(frame);
+        var stateId = readUUID(frame);
+        frame.skipBytes(frame.readInt()); // state data
+
+        UUID outputId = null;
+        if(execute) {
+            readUUID(frame); // input type id
+            outputId = readUUID(frame);
+        }
+
+        var state = server.getStateDescriptor();
+
+        if(!stateId.equals(state.id)) {
+            send(stateDataDescription(ctx.alloc(), state.id, state.descriptor));
+            fail(ctx, ErrorCode.STATE_MISMATCH_ERROR, "state descriptor id mismatch");
+            return;
+        }
+
+        if(execute) {
+            server.onExecute();
+        } else {
+            server.onParse();
+        }
+
+        var script = resolve(query);
+
+        if(script == null) {
+            fail(ctx, ErrorCode.QUERY_ERROR, "mock server has no response scripted for the query: " + query);
+            return;
+        }
+
+        extraLatencyNanos += script.latency.toNanos();
+
+        if(script.errorCode != null && !script.errorAfterData) {
+            fail(ctx, script.errorCode, Objects.requireNonNull(script.errorMessage));
+            return;
+        }
+
+        if(execute) {
+            extraLatencyNanos += server.nextStallNanos();
+        }
+
+        var injected = execute ? server.nextInjectedError() : null;
+
+        if(injected != null) {
+            fail(ctx, injected, "injected by the mock server");
+            return;
+        }
+
+        var capabilities = script.capabilities != null ? script.capabilities : requestedCapabilities;
+
+        if(!execute) {
+            send(commandDataDescription(ctx.alloc(), capabilities, script.cardinality, script));
+            return;
+        }
+
+        if(!MockQuery.NULL_TYPE_ID.equals(outputId) && !script.outputTypeId.equals(outputId)) {
+            send(commandDataDescription(ctx.alloc(), capabilities, script.cardinality, script));
+        }
+
+        if(format != FORMAT_NONE && !MockQuery.NULL_TYPE_ID.equals(outputId)) {
+            for(var payload : script.data) {
+                send(data(ctx.alloc(), payload));
+            }
+        }
+
+        if(script.errorCode != null) {
+            fail(ctx, script.errorCode, Objects.requireNonNull(script.errorMessage));
+            return;
+        }
+
+        applyTransactionStatement(query);
+        send(commandComplete(ctx.alloc(), capabilities, script.status, state.id));
+    }
+
+    private void handleDump(@NotNull ChannelHandlerContext ctx) {
+        if(skipUntilSync) {
+            return;
+        }
+
+        send(dumpHeader(ctx.alloc(), server.dumpSchema));
+
+        for(var block : server.dumpBlocks) {
+            send(dumpBlock(ctx.alloc(), block));
+        }
+
+        send(commandComplete(ctx.alloc(), EnumSet.noneOf(Capabilities.class), "DUMP", server.getStateDescriptor().id));
+    }
+
+    private void handleRestore(@NotNull ChannelHandlerContext ctx, @NotNull ByteBuf frame) {
+        if(skipUntilSync) {
+            return;
+        }
+
+        skipAttributes(frame);
+        var jobs = frame.readUnsignedShort();
+
+        // the dump header, as sent by Dump
+        skipAttributes(frame);
+        frame.skipBytes(4); // major and minor version
+        server.onRestore(readString(frame), jobs);
+
+        restoring = true;
+        send(restoreReady(ctx.alloc(), jobs));
+        flush(ctx, true, false);
+    }
+
+    private void handleRestoreBlock(@NotNull ByteBuf frame) {
+        if(!restoring) {
+            return;
+        }
+
+        var attributes = frame.readUnsignedShort();
+
+        for(int i = 0; i != attributes; i++) {
+            var code = frame.readShort();
+            var value = new byte[frame.readInt()];
+            frame.readBytes(value);
+
+            if(code == BLOCK_DATA) {
+                server.onRestoreBlock(value);
+            }
+        }
+    }
+
+    private void handleRestoreEOF(@NotNull ChannelHandlerContext ctx) {
+        if(!restoring) {
+            fail(ctx, ErrorCode.PROTOCOL_ERROR, "RestoreEof outside of a restore");
+            return;
+        }
+
+        restoring = false;
+        inCommand = false;
+        send(commandComplete(ctx.alloc(), EnumSet.noneOf(Capabilities.class), "RESTORE", server.getStateDescriptor().id));
+        send(readyForCommand(ctx.alloc(), transactionState));
+        flush(ctx, true, false);
+    }
+
+    private static void skipAttributes(@NotNull ByteBuf frame) {
+        var count = frame.readUnsignedShort();
+
+        for(int i = 0; i != count; i++) {
+            frame.skipBytes(2);
+            frame.skipBytes(frame.readInt());
+        }
+    }
+
+    private @Nullable MockQuery resolve(@NotNull String query) {
+        var script = server.getQuery(query);
+
+        if(script != null) {
+            return script;
+        }
+
+        var status = transactionStatus(query);
+
+        if(status != null) {
+            return MockQuery.builder(query)
+                    .withCapabilities(EnumSet.of(Capabilities.TRANSACTION))
+                    .withCardinality(Cardinality.NO_RESULT)
+                    .withStatus(status)
+                    .build();
+        }
+
+        return server.getDefaultQuery();
+    }
+
+    private static @Nullable String transactionStatus(@NotNull String query) {
+        var normalized = query.trim().toLowerCase(Locale.ROOT);
+
+        if(normalized.startsWith("start transaction")) {
+            return "START TRANSACTION";
+        } else if(normalized.startsWith("commit")) {
+            return "COMMIT";
+        } else if(normalized.startsWith("rollback to savepoint")) {
+            return "ROLLBACK TO SAVEPOINT";
+        } else if(normalized.startsWith("rollback")) {
+            return "ROLLBACK";
+        } else if(normalized.startsWith("declare savepoint")) {
+            return "DECLARE SAVEPOINT";
+        } else if(normalized.startsWith("release savepoint")) {
+            return "RELEASE SAVEPOINT";
+        }
+
+        return null;
+    }
+
+    private void applyTransactionStatement(@NotNull String query) {
+        var status = transactionStatus(query);
+
+        if(status == null) {
+            return;
+        }
+
+        switch (status) {
+            case "START TRANSACTION":
+                transactionState = TransactionState.IN_TRANSACTION;
+                break;
+            case "COMMIT":
+            case "ROLLBACK":
+                transactionState = TransactionState.NOT_IN_TRANSACTION;
+                break;
+            case "ROLLBACK TO SAVEPOINT":
+                transactionState = TransactionState.IN_TRANSACTION;
+                break;
+        }
+    }
+
+    private void fail(@NotNull ChannelHandlerContext ctx, @NotNull ErrorCode code, @NotNull String message) {
+        server.onError();
+        send(errorResponse(ctx.alloc(), code, message));
+        skipUntilSync = true;
+
+        if(transactionState == TransactionState.IN_TRANSACTION) {
+            transactionState = TransactionState.IN_FAILED_TRANSACTION;
+        }
+    }
+
+    private void send(@NotNull ByteBuf message) {
+        pending.add(message);
+    }
+
+    /**
+     * Writes the pending messages. Flushes keep their order even when their delays differ, since each one is
+     * scheduled no earlier than the one before it.
+     */
+    private void flush(@NotNull ChannelHandlerContext ctx, boolean withLatency, boolean close) {
+        var messages = new ArrayList<>(pending);
+        pending.clear();
+
+        var delay = withLatency ? server.nextLatencyNanos() + extraLatencyNanos : 0;
+        extraLatencyNanos = 0;
+
+        var now = System.nanoTime();
+        var deadline = Math.max(now + delay, lastFlushDeadline);
+        lastFlushDeadline = deadline;
+
+        if(deadline <= now) {
+            write(ctx, messages, close);
+        } else {
+            ctx.executor().schedule(() -> write(ctx, messages, close), deadline - now, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void write(@NotNull ChannelHandlerContext ctx, @NotNull List<ByteBuf> messages, boolean close) {
+        if(server.fragmentSize > 0 && !messages.isEmpty()) {
+            var combined = ctx.alloc().compositeBuffer(messages.size()).addComponents(true, messages);
+
+            while(combined.isReadable()) {
+                ctx.writeAndFlush(combined.readRetainedSlice(Math.min(server.fragmentSize, combined.readableBytes())));
+            }
+
+            combined.release();
+            messages = List.of();
+        }
+
+        for(var message : messages) {
+            ctx.write(message);
+        }
+
+        if(close) {
+            ctx.writeAndFlush(ctx.alloc().buffer(0)).addListener(ChannelFutureListener.CLOSE);
+        } else {
+            ctx.flush();
+        }
+    }
+
+    private static @NotNull Map<String, String> parseAttributes(@NotNull String message) {
+        var attributes = new HashMap<String, String>();
+
+        for(var part : message.split(",")) {
+            var separator = part.indexOf('=');
+
+            if(separator == 1) {
+                attributes.put(part.substring(0, 1), part.substring(2));
+            }
+        }
+
+        return attributes;
+    }
+}
@@ -0,0 +1,75 @@
+package com.edgedb.driver.mock;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads recorded protocol fixtures. A fixture is hex text where {@code #} starts a comment and {@code @name} starts a
+ * named section; whitespace between bytes is ignored.
+ */
+public final class ProtocolFixture {
+    private ProtocolFixture() {}
+
+    /**
+     * Reads the sections of a fixture.
+     * @param stream The fixture contents.
+     * @return The sections of the fixture, in the order they appear.
+     * @throws IOException The fixture couldn't be read.
+     */
+    public static @NotNull Map<String, byte[]> read(@NotNull InputStream stream) throws IOException {
+        var sections = new LinkedHashMap<String, byte[]>();
+
+        try(var reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            String section = null;
+            var hex = new StringBuilder();
+            String line;
+
+            while((line = reader.readLine()) != null) {
+                line = line.trim();
+
+                if(line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                if(line.startsWith("@")) {
+                    if(section != null) {
+                        sections.put(section, decode(hex));
+                    }
+
+                    section = line.substring(1).trim();
+                    hex.setLength(0);
+                    continue;
+                }
+
+                hex.append(line.replaceAll("\\s+", ""));
+            }
+
+            if(section != null) {
+                sections.put(section, decode(hex));
+            }
+        }
+
+        return sections;
+    }
+
+    private static byte @NotNull [] decode(@NotNull CharSequence hex) throws IOException {
+        if(hex.length() % 2 != 0) {
+            throw new IOException("Fixture section has an odd number of hex digits");
+        }
+
+        var bytes = new byte[hex.length() / 2];
+
+        for(int i = 0; i != bytes.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(hex.subSequence(i * 2, i * 2 + 2).toString(), 16);
+        }
+
+        return bytes;
+    }
+}
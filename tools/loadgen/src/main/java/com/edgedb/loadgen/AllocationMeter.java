@@ -0,0 +1,64 @@
+package com.edgedb.loadgen;
+
+import com.edgedb.driver.mock.MockEdgeDBServer;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Measures the bytes allocated by the threads of this process, leaving out the mock servers' threads so the result
+ * only reflects the client. Threads that exit between two samples take their allocations with them, which makes
+ * the measurement a lower bound; the driver's event loop and worker threads live for the whole run.
+ */
+final class AllocationMeter {
+    private final com.sun.management.ThreadMXBean threads;
+    private final Map<Long, Long> baseline = new HashMap<>();
+
+    AllocationMeter() {
+        var bean = ManagementFactory.getThreadMXBean();
+
+        if(!(bean instanceof com.sun.management.ThreadMXBean)) {
+            throw new UnsupportedOperationException("The JVM doesn't support measuring thread allocations");
+        }
+
+        this.threads = (com.sun.management.ThreadMXBean) bean;
+        this.threads.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    static boolean isSupported() {
+        return ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean;
+    }
+
+    void start() {
+        baseline.clear();
+        sample(baseline);
+    }
+
+    long allocatedSinceStart() {
+        var current = new HashMap<Long, Long>();
+        sample(current);
+
+        long total = 0;
+
+        for(var entry : current.entrySet()) {
+            total += entry.getValue() - baseline.getOrDefault(entry.getKey(), 0L);
+        }
+
+        return total;
+    }
+
+    private void sample(Map<Long, Long> into) {
+        for(var info : threads.dumpAllThreads(false, false)) {
+            if(info.getThreadName().startsWith(MockEdgeDBServer.THREAD_NAME_PREFIX)) {
+                continue;
+            }
+
+            var allocated = threads.getThreadAllocatedBytes(info.getThreadId());
+
+            if(allocated >= 0) {
+                into.put(info.getThreadId(), allocated);
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.edgedb.loadgen;
+
+import com.edgedb.driver.ClientType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The settings of a load run, read from a JSON file with snake case keys. Every field has a default, so a file only
+ * needs the settings it changes.
+ */
+public class LoadConfig {
+    /**
+     * The DSN of the server to run against; when {@code null}, an in-process mock server is started.
+     */
+    public String dsn;
+    public ClientType clientType = ClientType.TCP;
+    public int poolSize = 50;
+    public int concurrency = 64;
+    public int warmupSeconds = 5;
+    public int durationSeconds = 30;
+    public MockSettings mock = new MockSettings();
+    public List<QuerySettings> queries = new ArrayList<>();
+    public String report = "build/loadgen/report.json";
+
+    public static class MockSettings {
+        public long latencyMinMicros = 200;
+        public long latencyMaxMicros = 800;
+        public double errorRate = 0;
+        public int threads = 0;
+        public int suggestedPoolConcurrency = 100;
+    }
+
+    public static class QuerySettings {
+        public String name;
+        public String query;
+        public int weight = 1;
+
+        /**
+         * The number of rows the mock server returns for the query.
+         */
+        public int rows = 1;
+
+        /**
+         * The size in bytes of each row the mock server returns; rows are {@code std::str} values.
+         */
+        public int rowSize = 64;
+
+        public QuerySettings() {}
+
+        public QuerySettings(String name, String query, int weight, int rows, int rowSize) {
+            this.name = name;
+            this.query = query;
+            this.weight = weight;
+            this.rows = rows;
+            this.rowSize = rowSize;
+        }
+    }
+
+    /**
+     * Fills in the default query mix when none is configured: mostly point lookups, some lists and a few large
+     * reports.
+     */
+    public void applyDefaults() {
+        if(queries.isEmpty()) {
+            queries.add(new QuerySettings("point", "select <str>random()", 70, 1, 64));
+            queries.add(new QuerySettings("list", "select <str>range_unpack(range(0, 100))", 25, 100, 64));
+            queries.add(new QuerySettings(
+                    "report", "select str_repeat('x', 256) ++ <str>range_unpack(range(0, 1000))", 5, 1000, 256
+            ));
+        }
+
+        for(var query : queries) {
+            if(query.name == null) {
+                query.name = query.query;
+            }
+        }
+    }
+
+    public void validate() {
+        if(concurrency <= 0 || poolSize <= 0 || durationSeconds <= 0 || warmupSeconds < 0) {
+            throw new IllegalArgumentException("concurrency, pool_size and duration_seconds must be positive");
+        }
+
+        if(dsn == null && clientType != ClientType.TCP) {
+            throw new IllegalArgumentException("The mock server only speaks the TCP binary protocol, set a dsn to load test " + clientType);
+        }
+
+        for(var query : queries) {
+            if(query.query == null || query.weight <= 0) {
+                throw new IllegalArgumentException("Every query needs a query text and a positive weight");
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.edgedb.loadgen;
+
+import com.edgedb.driver.metrics.SimpleDriverMetrics;
+import org.HdrHistogram.Recorder;
+
+/**
+ * The driver metrics of a load run: the counters of {@linkplain SimpleDriverMetrics} plus a histogram of the time
+ * queries waited for a pooled client.
+ */
+final class LoadMetrics extends SimpleDriverMetrics {
+    private final long highestTrackableMicros;
+    final Recorder poolWait;
+
+    private Counters baseline = new Counters();
+
+    /**
+     * The counters of the driver at a point in time, reports use the difference between two of them.
+     */
+    static final class Counters {
+        long connectionsOpened;
+        long reconnects;
+        long parses;
+        long parseCacheHits;
+        long bytesSent;
+        long bytesReceived;
+        long rowsDecoded;
+        long decodeNanos;
+    }
+
+    LoadMetrics(long highestTrackableMicros) {
+        this.highestTrackableMicros = highestTrackableMicros;
+        this.poolWait = new Recorder(highestTrackableMicros, 3);
+    }
+
+    @Override
+    public void poolAcquired(long waitNanos) {
+        super.poolAcquired(waitNanos);
+        poolWait.recordValue(Math.min(waitNanos / 1000, highestTrackableMicros));
+    }
+
+    /**
+     * Discards everything recorded so far, reports only include what's recorded after the reset.
+     */
+    void reset() {
+        poolWait.reset();
+        baseline = read();
+    }
+
+    LoadReport.DriverReport report() {
+        var current = read();
+        var report = new LoadReport.DriverReport();
+
+        report.connectionsOpened = current.connectionsOpened - baseline.connectionsOpened;
+        report.reconnects = current.reconnects - baseline.reconnects;
+        report.parses = current.parses - baseline.parses;
+        report.parseCacheHits = current.parseCacheHits - baseline.parseCacheHits;
+        report.bytesSent = current.bytesSent - baseline.bytesSent;
+        report.bytesReceived = current.bytesReceived - baseline.bytesReceived;
+        report.rowsDecoded = current.rowsDecoded - baseline.rowsDecoded;
+        report.decodeMillis = (current.decodeNanos - baseline.decodeNanos) / 1e6;
+        report.idleClients = getIdleClients();
+        return report;
+    }
+
+    private Counters read() {
+        var counters = new Counters();
+        counters.connectionsOpened = getConnectionsOpened();
+        counters.reconnects = getReconnects();
+        counters.parses = getParses().getCount();
+        counters.parseCacheHits = getParseCacheHits();
+        counters.bytesSent = getBytesSent();
+        counters.bytesReceived = getBytesReceived();
+        counters.rowsDecoded = getRowsDecoded();
+        counters.decodeNanos = getDecodes().getTotal().toNanos();
+        return counters;
+    }
+}
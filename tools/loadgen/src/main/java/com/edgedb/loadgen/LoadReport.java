@@ -0,0 +1,100 @@
+package com.edgedb.loadgen;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The machine-readable result of a load run, written as JSON with snake case keys. Latencies are in microseconds.
+ */
+public class LoadReport {
+    public String startedAt;
+    public LoadConfig config;
+    public double durationSeconds;
+    public long completed;
+    public long errors;
+    public double throughputPerSecond;
+
+    /**
+     * The bytes allocated by the client per completed query, or {@code null} when the JVM can't measure it.
+     */
+    public Long allocatedBytesPerQuery;
+    public Latency latency;
+
+    /**
+     * The time queries waited for a pooled client.
+     */
+    public Latency poolWait;
+    public DriverReport driver;
+    public Map<String, QueryReport> queries = new LinkedHashMap<>();
+    public ServerReport server;
+
+    @JsonIgnore
+    public Histogram totalHistogram;
+
+    public static class Latency {
+        public long min;
+        public double mean;
+        public long p50;
+        public long p90;
+        public long p99;
+        public long p999;
+        public long max;
+
+        static Latency of(Histogram histogram) {
+            var latency = new Latency();
+
+            if(histogram.getTotalCount() == 0) {
+                return latency;
+            }
+
+            latency.min = histogram.getMinValue();
+            latency.mean = histogram.getMean();
+            latency.p50 = histogram.getValueAtPercentile(50);
+            latency.p90 = histogram.getValueAtPercentile(90);
+            latency.p99 = histogram.getValueAtPercentile(99);
+            latency.p999 = histogram.getValueAtPercentile(99.9);
+            latency.max = histogram.getMaxValue();
+            return latency;
+        }
+    }
+
+    public static class QueryReport {
+        public long completed;
+        public long errors;
+        public double throughputPerSecond;
+        public Latency latency;
+        public String firstError;
+    }
+
+    /**
+     * The driver's own counters over the measured phase, as reported through its metrics.
+     */
+    public static class DriverReport {
+        public long connectionsOpened;
+        public long reconnects;
+        public long parses;
+        public long parseCacheHits;
+        public long bytesSent;
+        public long bytesReceived;
+        public long rowsDecoded;
+        public double decodeMillis;
+
+        /**
+         * The clients idling in the pool at the end of the run.
+         */
+        public int idleClients;
+    }
+
+    /**
+     * The counters of the mock server, present when the run didn't target a real server.
+     */
+    public static class ServerReport {
+        public long connections;
+        public long parses;
+        public long executes;
+        public long errors;
+    }
+}
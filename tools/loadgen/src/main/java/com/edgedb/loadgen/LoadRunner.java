@@ -0,0 +1,244 @@
+package com.edgedb.loadgen;
+
+import com.edgedb.driver.EdgeDBClient;
+import com.edgedb.driver.EdgeDBClientConfig;
+import com.edgedb.driver.EdgeDBConnection;
+import com.edgedb.driver.ErrorCode;
+import com.edgedb.driver.binary.protocol.common.Cardinality;
+import com.edgedb.driver.mock.MockDescriptors;
+import com.edgedb.driver.mock.MockEdgeDBServer;
+import com.edgedb.driver.mock.MockQuery;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drives an {@linkplain EdgeDBClient} with a closed loop of workers: each worker picks a query from the weighted mix,
+ * waits for its result and immediately starts the next one, so {@code concurrency} queries are always in flight.
+ */
+final class LoadRunner {
+    private static final long HIGHEST_TRACKABLE_MICROS = Duration.ofMinutes(10).toNanos() / 1000;
+
+    private final LoadConfig config;
+    private final LoadMetrics metrics = new LoadMetrics(HIGHEST_TRACKABLE_MICROS);
+    private final List<QueryStats> queries = new ArrayList<>();
+    private final int[] weights;
+    private final int totalWeight;
+
+    private static final class QueryStats {
+        final LoadConfig.QuerySettings settings;
+        final Recorder latency = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+        final LongAdder errors = new LongAdder();
+        volatile Throwable firstError;
+
+        QueryStats(LoadConfig.QuerySettings settings) {
+            this.settings = settings;
+        }
+    }
+
+    LoadRunner(LoadConfig config) {
+        this.config = config;
+
+        this.weights = new int[config.queries.size()];
+        int total = 0;
+
+        for(int i = 0; i != weights.length; i++) {
+            var query = config.queries.get(i);
+            queries.add(new QueryStats(query));
+            total += query.weight;
+            weights[i] = total;
+        }
+
+        this.totalWeight = total;
+    }
+
+    LoadReport run() throws Exception {
+        MockEdgeDBServer server = null;
+        EdgeDBConnection connection;
+
+        if(config.dsn == null) {
+            server = startMockServer();
+            connection = server.getConnection();
+        } else {
+            connection = EdgeDBConnection.fromDSN(config.dsn);
+        }
+
+        var clientConfig = EdgeDBClientConfig.builder()
+                .withPoolSize(config.poolSize)
+                .withClientType(config.clientType)
+                .withMetrics(metrics)
+                .build();
+
+        try(var client = new EdgeDBClient(connection, clientConfig)) {
+            System.out.printf("Warming up for %ds%n", config.warmupSeconds);
+            runPhase(client, Duration.ofSeconds(config.warmupSeconds));
+
+            // discard everything recorded during the warmup
+            for(var query : queries) {
+                query.latency.reset();
+                query.errors.reset();
+                query.firstError = null;
+            }
+
+            metrics.reset();
+
+            var allocations = AllocationMeter.isSupported() ? new AllocationMeter() : null;
+            var startedAt = Instant.now();
+
+            if(allocations != null) {
+                allocations.start();
+            }
+
+            System.out.printf("Measuring for %ds with %d workers%n", config.durationSeconds, config.concurrency);
+
+            var start = System.nanoTime();
+            runPhase(client, Duration.ofSeconds(config.durationSeconds));
+            var elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+            var allocated = allocations != null ? allocations.allocatedSinceStart() : -1;
+
+            return buildReport(startedAt, elapsedSeconds, allocated, server);
+        } finally {
+            if(server != null) {
+                server.close();
+            }
+        }
+    }
+
+    private MockEdgeDBServer startMockServer() throws Exception {
+        var mock = config.mock;
+        var builder = MockEdgeDBServer.builder()
+                .withLatency(Duration.ofNanos(mock.latencyMinMicros * 1000), Duration.ofNanos(mock.latencyMaxMicros * 1000))
+                .withSuggestedPoolConcurrency(mock.suggestedPoolConcurrency)
+                .withThreads(mock.threads);
+
+        if(mock.errorRate > 0) {
+            builder.withErrorRate(mock.errorRate, ErrorCode.INTERNAL_SERVER_ERROR);
+        }
+
+        var descriptor = MockDescriptors.scalar(MockDescriptors.STD_STR, "std::str");
+
+        for(var query : config.queries) {
+            var row = new byte[query.rowSize];
+            Arrays.fill(row, (byte) 'x');
+
+            builder.withQuery(MockQuery.builder(query.query)
+                    .withCardinality(query.rows == 1 ? Cardinality.ONE : Cardinality.MANY)
+                    .withOutput(MockDescriptors.STD_STR, descriptor)
+                    .withData(row, query.rows)
+                    .build());
+        }
+
+        var server = builder.build().start();
+        System.out.printf("Started the mock server on port %d%n", server.getPort());
+        return server;
+    }
+
+    private void runPhase(EdgeDBClient client, Duration duration) throws InterruptedException {
+        var deadline = System.nanoTime() + duration.toNanos();
+        var done = new CountDownLatch(config.concurrency);
+
+        for(int i = 0; i != config.concurrency; i++) {
+            var worker = new Thread(() -> {
+                try {
+                    while(System.nanoTime() < deadline) {
+                        runQuery(client, pickQuery());
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "loadgen-worker-" + i);
+
+            worker.setDaemon(true);
+            worker.start();
+        }
+
+        done.await();
+    }
+
+    private QueryStats pickQuery() {
+        var roll = ThreadLocalRandom.current().nextInt(totalWeight);
+
+        for(int i = 0; i != weights.length; i++) {
+            if(roll < weights[i]) {
+                return queries.get(i);
+            }
+        }
+
+        return queries.get(queries.size() - 1);
+    }
+
+    private void runQuery(EdgeDBClient client, QueryStats query) {
+        var start = System.nanoTime();
+
+        try {
+            client.query(String.class, query.settings.query).toCompletableFuture().get();
+            query.latency.recordValue(Math.min((System.nanoTime() - start) / 1000, HIGHEST_TRACKABLE_MICROS));
+        } catch (ExecutionException e) {
+            query.errors.increment();
+
+            if(query.firstError == null) {
+                query.firstError = e.getCause();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private LoadReport buildReport(Instant startedAt, double elapsedSeconds, long allocated, MockEdgeDBServer server) {
+        var report = new LoadReport();
+        var total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+
+        report.startedAt = startedAt.toString();
+        report.config = config;
+        report.durationSeconds = elapsedSeconds;
+
+        for(var query : queries) {
+            var histogram = query.latency.getIntervalHistogram();
+            total.add(histogram);
+
+            var queryReport = new LoadReport.QueryReport();
+            queryReport.completed = histogram.getTotalCount();
+            queryReport.errors = query.errors.sum();
+            queryReport.throughputPerSecond = queryReport.completed / elapsedSeconds;
+            queryReport.latency = LoadReport.Latency.of(histogram);
+
+            if(query.firstError != null) {
+                queryReport.firstError = query.firstError.toString();
+            }
+
+            report.queries.put(query.settings.name, queryReport);
+            report.errors += queryReport.errors;
+        }
+
+        report.completed = total.getTotalCount();
+        report.throughputPerSecond = report.completed / elapsedSeconds;
+        report.latency = LoadReport.Latency.of(total);
+        report.totalHistogram = total;
+        report.poolWait = LoadReport.Latency.of(metrics.poolWait.getIntervalHistogram());
+        report.driver = metrics.report();
+
+        if(allocated >= 0 && report.completed > 0) {
+            report.allocatedBytesPerQuery = allocated / report.completed;
+        }
+
+        if(server != null) {
+            report.server = new LoadReport.ServerReport();
+            report.server.connections = server.getTotalConnections();
+            report.server.parses = server.getParseCount();
+            report.server.executes = server.getExecuteCount();
+            report.server.errors = server.getErrorCount();
+        }
+
+        return report;
+    }
+}
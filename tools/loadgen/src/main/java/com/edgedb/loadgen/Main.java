@@ -0,0 +1,136 @@
+package com.edgedb.loadgen;
+
+import com.edgedb.driver.ClientType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Runs a load test against {@code EdgeDBClient} and writes a JSON report, plus the HdrHistogram percentile
+ * distribution of all latencies next to it.
+ * <pre>
+ * loadgen [--config file.json] [--dsn dsn] [--client-type TCP|HTTP] [--pool-size n] [--concurrency n]
+ *         [--warmup seconds] [--duration seconds] [--report file.json]
+ * </pre>
+ * Flags override the values of the config file.
+ */
+public class Main {
+    private static final ObjectMapper mapper = new ObjectMapper()
+            .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+            .enable(SerializationFeature.INDENT_OUTPUT);
+
+    public static void main(String[] args) throws Exception {
+        var config = parseArgs(args);
+        config.applyDefaults();
+        config.validate();
+
+        var report = new LoadRunner(config).run();
+
+        var reportPath = Path.of(config.report);
+        if(reportPath.getParent() != null) {
+            Files.createDirectories(reportPath.getParent());
+        }
+
+        mapper.writeValue(reportPath.toFile(), report);
+
+        var distributionPath = reportPath.resolveSibling(reportPath.getFileName().toString().replaceFirst("\\.json$", "") + ".hgrm");
+        try(var out = new PrintStream(Files.newOutputStream(distributionPath))) {
+            // latencies are recorded in microseconds, the distribution is written in milliseconds
+            report.totalHistogram.outputPercentileDistribution(out, 1000.0);
+        }
+
+        printSummary(report);
+        System.out.printf("Wrote %s and %s%n", reportPath, distributionPath);
+
+        // the driver's event loops are non-daemon threads
+        System.exit(0);
+    }
+
+    private static LoadConfig parseArgs(String[] args) throws IOException {
+        var config = new LoadConfig();
+
+        for(int i = 0; i < args.length; i++) {
+            if(args[i].equals("--config")) {
+                config = mapper.readValue(Files.readString(Path.of(value(args, ++i))), LoadConfig.class);
+            }
+        }
+
+        for(int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--config":
+                    i++;
+                    break;
+                case "--dsn":
+                    config.dsn = value(args, ++i);
+                    break;
+                case "--client-type":
+                    config.clientType = ClientType.valueOf(value(args, ++i).toUpperCase(Locale.ROOT));
+                    break;
+                case "--pool-size":
+                    config.poolSize = Integer.parseInt(value(args, ++i));
+                    break;
+                case "--concurrency":
+                    config.concurrency = Integer.parseInt(value(args, ++i));
+                    break;
+                case "--warmup":
+                    config.warmupSeconds = Integer.parseInt(value(args, ++i));
+                    break;
+                case "--duration":
+                    config.durationSeconds = Integer.parseInt(value(args, ++i));
+                    break;
+                case "--report":
+                    config.report = value(args, ++i);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument " + args[i]);
+            }
+        }
+
+        return config;
+    }
+
+    private static String value(String[] args, int index) {
+        if(index >= args.length) {
+            throw new IllegalArgumentException("Missing value for " + args[index - 1]);
+        }
+
+        return args[index];
+    }
+
+    private static void printSummary(LoadReport report) {
+        System.out.printf(
+                "%d queries in %.1fs: %.0f/s, %d errors%n",
+                report.completed, report.durationSeconds, report.throughputPerSecond, report.errors
+        );
+
+        printLatency("all", report.latency);
+        printLatency("pool wait", report.poolWait);
+
+        for(var query : report.queries.entrySet()) {
+            printLatency(query.getKey(), query.getValue().latency);
+        }
+
+        if(report.allocatedBytesPerQuery != null) {
+            System.out.printf("allocated per query: %d bytes%n", report.allocatedBytesPerQuery);
+        }
+
+        System.out.printf(
+                "parses: %d, parse cache hits: %d, connections opened: %d, reconnects: %d%n",
+                report.driver.parses, report.driver.parseCacheHits, report.driver.connectionsOpened,
+                report.driver.reconnects
+        );
+    }
+
+    private static void printLatency(String name, LoadReport.Latency latency) {
+        System.out.printf(
+                "%-12s p50 %6dus  p90 %6dus  p99 %6dus  p99.9 %6dus  max %6dus%n",
+                name, latency.p50, latency.p90, latency.p99, latency.p999, latency.max
+        );
+    }
+}